@@ -2,10 +2,8 @@ package com.example.agentprovider;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
-@EnableFeignClients
 public class AgentProviderApplication {
 
     public static void main(String[] args) {
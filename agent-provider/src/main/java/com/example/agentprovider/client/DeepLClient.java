@@ -1,22 +1,39 @@
 package com.example.agentprovider.client;
 
+import com.example.agentprovider.config.DeepLConfig;
 import com.example.agentprovider.model.deepl.DeepLRequest;
 import com.example.agentprovider.model.deepl.DeepLResponse;
-import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-@FeignClient(
-    name = "deepL",
-    url = "${deepl.api.url}",
-    configuration = DeepLClientConfig.class
-)
-public interface DeepLClient {
-    
-    @PostMapping("/v2/translate")
-    DeepLResponse translate(
-        @RequestHeader("Authorization") String authKey,
-        @RequestBody DeepLRequest request
-    );
-} 
\ No newline at end of file
+@Component
+public class DeepLClient {
+
+    private final WebClient webClient;
+
+    public DeepLClient(OutboundHttpClients httpClients, DeepLConfig deeplConfig,
+                       @Value("${deepl.api.auth.key:}") String fallbackAuthKey) {
+        // deepl.api.authKey is set locally, production only defines deepl.api.auth.key
+        String authKey = deeplConfig.getAuthKey() != null && !deeplConfig.getAuthKey().isBlank()
+            ? deeplConfig.getAuthKey()
+            : fallbackAuthKey;
+
+        this.webClient = httpClients.builder(OutboundHttpClients.DEEPL, deeplConfig.getUrl(),
+                deeplConfig.getConnectTimeout(), deeplConfig.getReadTimeout())
+            .defaultHeader(HttpHeaders.AUTHORIZATION, "DeepL-Auth-Key " + authKey)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .build();
+    }
+
+    public Mono<DeepLResponse> translate(DeepLRequest request) {
+        return webClient.post()
+            .uri("/v2/translate")
+            .bodyValue(request)
+            .retrieve()
+            .bodyToMono(DeepLResponse.class);
+    }
+}
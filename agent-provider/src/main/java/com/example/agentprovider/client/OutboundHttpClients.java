@@ -0,0 +1,138 @@
+package com.example.agentprovider.client;
+
+import com.example.agentprovider.config.HttpClientConfig;
+import com.example.agentprovider.logging.CorrelationId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single place where outbound WebClients are built. Every downstream gets one
+ * pooled Reactor Netty connection provider (sized, evicted and reported to
+ * Micrometer as reactor.netty.connection.provider.* with name "agent-&lt;downstream&gt;",
+ * including pending acquisition time) shared by all clients calling it.
+ */
+@Component
+public class OutboundHttpClients implements DisposableBean {
+
+    public static final String AI_PROVIDER = "ai-provider";
+    public static final String DEEPL = "deepl";
+    public static final String RAPIDAPI_YOUTUBE = "rapidapi-youtube";
+    public static final String RAPIDAPI_SEARCH = "rapidapi-search";
+    public static final String STABILITY = "stability";
+
+    private final WebClient.Builder webClientBuilder;
+    private final HttpClientConfig config;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+
+    public OutboundHttpClients(WebClient.Builder webClientBuilder, HttpClientConfig config, ObjectMapper objectMapper) {
+        this.webClientBuilder = webClientBuilder;
+        this.config = config;
+        this.objectMapper = objectMapper;
+    }
+
+    /** WebClient builder for the downstream using its configured timeouts. */
+    public WebClient.Builder builder(String downstream, String baseUrl) {
+        HttpClientConfig.Downstream settings = config.settings(downstream);
+        return builder(downstream, baseUrl, settings.getConnectTimeout(), settings.getResponseTimeout());
+    }
+
+    /** WebClient builder for the downstream with timeouts owned by the caller's own configuration. */
+    public WebClient.Builder builder(String downstream, String baseUrl, Duration connectTimeout, Duration responseTimeout) {
+        HttpClientConfig.Downstream settings = config.settings(downstream);
+        HttpClient httpClient = HttpClient.create(provider(downstream))
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .responseTimeout(responseTimeout)
+            .compress(settings.isCompress());
+        if (settings.isHttp2() && baseUrl != null && baseUrl.startsWith("https")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        // Boot's builder carries the application's codecs and observation settings
+        WebClient.Builder builder = webClientBuilder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .baseUrl(baseUrl != null ? baseUrl : "");
+        if (settings.isInternal()) {
+            builder.filter(CORRELATION_ID);
+        }
+        return builder;
+    }
+
+    // Read at exchange time from the Reactor context, where context-propagation put the request's MDC value
+    private static final ExchangeFilterFunction CORRELATION_ID = (request, next) -> Mono.deferContextual(context -> {
+        String correlationId = context.getOrDefault(CorrelationId.MDC_KEY, CorrelationId.current());
+        if (correlationId == null || request.headers().containsKey(CorrelationId.HEADER)) {
+            return next.exchange(request);
+        }
+        return next.exchange(ClientRequest.from(request).header(CorrelationId.HEADER, correlationId).build());
+    });
+
+    /**
+     * Serialises a JSON request body, gzip-encoding it when the downstream accepts
+     * compressed requests and the body is large enough. Prompts compress very well.
+     */
+    public WebClient.RequestHeadersSpec<?> jsonBody(String downstream, WebClient.RequestBodySpec request, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body could not be serialised", e);
+        }
+        request.contentType(MediaType.APPLICATION_JSON);
+        int minBytes = config.settings(downstream).getRequestCompressionMinBytes();
+        if (minBytes > 0 && json.length >= minBytes) {
+            return request.header(HttpHeaders.CONTENT_ENCODING, "gzip").bodyValue(gzip(json));
+        }
+        return request.bodyValue(json);
+    }
+
+    private ConnectionProvider provider(String downstream) {
+        return providers.computeIfAbsent(downstream, name -> {
+            HttpClientConfig.Downstream settings = config.settings(name);
+            return ConnectionProvider.builder("agent-" + name)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                .evictInBackground(settings.getEvictInBackground())
+                .metrics(true)
+                .build();
+        });
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public void destroy() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+}
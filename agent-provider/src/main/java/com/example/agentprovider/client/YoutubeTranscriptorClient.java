@@ -1,18 +1,44 @@
 package com.example.agentprovider.client;
 
-import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import com.example.agentprovider.config.YoutubeTranscriptorClientConfig;
+import com.example.agentprovider.config.RapidApiConfig;
 import com.example.agentprovider.model.youtubeTranscript.TranscriptResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
 import java.util.List;
 
-@FeignClient(
-    name = "youtubeTranscriptorClient",
-    url = "${rapidapi.youtube.url}",
-    configuration = YoutubeTranscriptorClientConfig.class
-)
-public interface YoutubeTranscriptorClient {
-    @GetMapping("/transcript")
-    List<TranscriptResponse> getTranscript(@RequestParam("video_id") String videoId);
-} 
\ No newline at end of file
+@Component
+public class YoutubeTranscriptorClient {
+
+    private static final ParameterizedTypeReference<List<TranscriptResponse>> TRANSCRIPTS =
+        new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    public YoutubeTranscriptorClient(OutboundHttpClients httpClients, RapidApiConfig rapidApiConfig,
+                                     @Value("${rapidapi.youtube.transcriptor.key:}") String fallbackApiKey,
+                                     @Value("${rapidapi.youtube-transcriptor.host:youtube-transcriptor.p.rapidapi.com}") String fallbackApiHost) {
+        String url = rapidApiConfig.getUrl() != null ? rapidApiConfig.getUrl() : "https://youtube-transcriptor.p.rapidapi.com";
+        String apiKey = rapidApiConfig.getApiKey() != null ? rapidApiConfig.getApiKey() : fallbackApiKey;
+        String apiHost = rapidApiConfig.getApiHost() != null ? rapidApiConfig.getApiHost() : fallbackApiHost;
+
+        this.webClient = httpClients.builder(OutboundHttpClients.RAPIDAPI_YOUTUBE, url,
+                rapidApiConfig.getConnectTimeout(), rapidApiConfig.getReadTimeout())
+            .defaultHeader("x-rapidapi-key", apiKey)
+            .defaultHeader("x-rapidapi-host", apiHost)
+            .build();
+    }
+
+    public Mono<List<TranscriptResponse>> getTranscript(String videoId) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/transcript")
+                .queryParam("video_id", videoId)
+                .build())
+            .retrieve()
+            .bodyToMono(TRANSCRIPTS);
+    }
+}
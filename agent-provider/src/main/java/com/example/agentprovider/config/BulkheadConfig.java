@@ -0,0 +1,31 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadConfig {
+    // Limits per agent type (web-scrapper, youtube, translator, data-analyser, image-generator, web-searcher)
+    private Map<String, Limits> agents = new HashMap<>();
+
+    public Limits limits(String agent) {
+        return agents.getOrDefault(agent, new Limits());
+    }
+
+    @Data
+    public static class Limits {
+        // Requests of this agent running at the same time
+        private int maxConcurrent = 8;
+        // Requests waiting for a slot; beyond this callers get 429 immediately
+        private int maxQueued = 16;
+        // Longest wait in the queue before the caller gets 429
+        private Duration maxWait = Duration.ofSeconds(10);
+    }
+}
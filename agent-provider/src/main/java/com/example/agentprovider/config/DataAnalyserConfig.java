@@ -0,0 +1,42 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "data-analyser")
+public class DataAnalyserConfig {
+    // Rows per column chunk; chunks are the unit of spilling to disk
+    private int chunkRows = 8192;
+
+    // Resident size after which sealed chunks are written to a temp file
+    private long maxInMemoryBytes = 64L * 1024 * 1024;
+
+    // Hard limit on ingested rows (protects disk as well as memory)
+    private long maxRows = 5_000_000;
+
+    // Directory for spill files, defaults to java.io.tmpdir
+    private String spillDirectory;
+
+    // Profiling: worker threads, sample rows sent to the model and sketch sizes
+    private int profileParallelism = 4;
+    private int sampleRows = 20;
+    private int topValues = 10;
+    private int topValuesCapacity = 64;
+    private int maxCorrelationColumns = 12;
+    private int maxGroupColumns = 3;
+    private int maxGroupMetrics = 4;
+    private int maxGroups = 20;
+
+    // Charting: downsampling targets, render pool and rendered image cache
+    private int chartMaxPoints = 2000;
+    private int chartMaxCollectedPoints = 32000;
+    private int chartMaxCategories = 30;
+    private int chartRenderThreads = 2;
+    private int chartRenderQueue = 16;
+    private long chartRenderTimeoutSeconds = 30;
+    private long chartCacheEntries = 256;
+    private long chartCacheTtlMinutes = 60;
+}
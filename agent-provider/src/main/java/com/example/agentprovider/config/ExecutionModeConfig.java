@@ -0,0 +1,30 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Execution mode switch. With {@code spring.threads.virtual.enabled=true} on JDK 21+
+ * Spring Boot already runs Tomcat requests and {@code @Async} work on virtual threads;
+ * this adds the scheduler used for blocking I/O such as Jsoup crawling and upload reads.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualThreadIoScheduler() {
+        return Schedulers.fromExecutor(new VirtualThreadTaskExecutor("agent-io-"));
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler boundedElasticIoScheduler() {
+        return Schedulers.boundedElastic();
+    }
+}
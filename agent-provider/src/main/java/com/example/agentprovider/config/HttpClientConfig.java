@@ -0,0 +1,42 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientConfig {
+    // Connection pool and protocol settings per downstream (ai-provider, deepl, rapidapi-youtube, ...)
+    private Map<String, Downstream> downstreams = new HashMap<>();
+
+    public Downstream settings(String downstream) {
+        return downstreams.getOrDefault(downstream, new Downstream());
+    }
+
+    @Data
+    public static class Downstream {
+        private int maxConnections = 50;
+        // Callers queued for a connection before acquisition fails fast
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration responseTimeout = Duration.ofSeconds(60);
+        // Accept-Encoding: gzip and transparent response decompression
+        private boolean compress = true;
+        // Negotiated through ALPN, so only used for https endpoints
+        private boolean http2 = true;
+        // Request bodies at least this large are sent gzip-encoded; 0 disables (the server must accept it)
+        private int requestCompressionMinBytes = 0;
+        // One of our own services: the request's X-Correlation-Id is forwarded
+        private boolean internal = false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "image-generator")
+public class ImageGeneratorConfig {
+    // Content-addressed PNG store, defaults to java.io.tmpdir/agent-images
+    private String storeDirectory;
+    // Oldest images are removed once the store grows past this size
+    private long storeMaxBytes = 512L * 1024 * 1024;
+
+    // Identical prompt/size requests reuse the stored image
+    private long promptCacheEntries = 500;
+    private long promptCacheTtlHours = 24;
+
+    // Async job status is kept this long after submission
+    private long jobMaxEntries = 1000;
+    private long jobTtlMinutes = 60;
+}
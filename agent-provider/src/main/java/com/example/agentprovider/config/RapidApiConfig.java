@@ -4,6 +4,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import lombok.Data;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "rapidapi.youtube")
@@ -11,4 +13,6 @@ public class RapidApiConfig {
     private String url;
     private String apiKey;
     private String apiHost;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(10);
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "translator")
+public class TranslatorConfig {
+    // Translation memory (segment cache) settings
+    private long memoryMaxEntries = 20000;
+    private long memoryTtlHours = 24;
+
+    // Number of AI correction calls that may run at the same time
+    private int correctionParallelism = 4;
+
+    // DeepL /v2/translate limits: at most 50 texts and 128 KiB of request body per call
+    private int deeplBatchMaxTexts = 50;
+    private int deeplBatchMaxBytes = 120 * 1024;
+    private int deeplParallelism = 4;
+}
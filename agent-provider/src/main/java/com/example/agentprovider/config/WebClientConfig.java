@@ -1,31 +0,0 @@
-package com.example.agentprovider.config;
-
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
-
-import java.time.Duration;
-import java.util.concurrent.TimeUnit;
-
-@Configuration
-public class WebClientConfig {
-
-    @Bean
-    public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60000)
-            .responseTimeout(Duration.ofSeconds(60))
-            .doOnConnected(conn -> 
-                conn.addHandlerLast(new ReadTimeoutHandler(60, TimeUnit.SECONDS))
-                    .addHandlerLast(new WriteTimeoutHandler(60, TimeUnit.SECONDS)));
-
-        return WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(httpClient))
-            .build();
-    }
-} 
\ No newline at end of file
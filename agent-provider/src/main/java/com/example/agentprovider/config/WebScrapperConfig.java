@@ -0,0 +1,22 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "web-scrapper")
+public class WebScrapperConfig {
+    // A page whose share of unseen text is below this is treated as a near-duplicate and dropped
+    private double minNewContentRatio = 0.2;
+    // Crawling stops after this many near-duplicate pages in a row
+    private int lowGainPagesToStop = 2;
+
+    // Links taken from each page into the frontier (the rest of the page's links are ignored)
+    private int maxLinksPerPage = 100;
+
+    // Per-host content quality remembered across requests
+    private long hostQualityMaxEntries = 5000;
+    private long hostQualityTtlHours = 24;
+}
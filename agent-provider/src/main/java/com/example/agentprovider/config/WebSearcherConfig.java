@@ -0,0 +1,18 @@
+package com.example.agentprovider.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "web-searcher")
+public class WebSearcherConfig {
+    // Result cache keyed by (query, language, maxResult)
+    private long cacheMaxEntries = 1000;
+    private long cacheTtlMinutes = 30;
+
+    // Multi-query requests: queries accepted per request and RapidAPI calls in flight
+    private int maxQueries = 10;
+    private int queryParallelism = 4;
+}
@@ -18,13 +18,32 @@ import com.example.agentprovider.service.DataAnalyserService;
 import com.example.agentprovider.model.ImageGeneratorRequest;
 import com.example.agentprovider.model.ImageGeneratorResponse;
 import com.example.agentprovider.service.ImageGeneratorService;
+import com.example.agentprovider.model.ImageJob;
+import com.example.agentprovider.logging.LogSampler;
+import com.example.agentprovider.model.pipeline.PipelineRequest;
+import com.example.agentprovider.service.PipelineService;
+import com.example.agentprovider.service.admission.AgentBulkheads;
+import com.example.agentprovider.service.admission.AgentType;
+import com.example.agentprovider.service.admission.BulkheadFullException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,24 +55,33 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 @RequestMapping("/api/agent")
 public class AgentController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AgentController.class);
+    // Under overload every request is rejected; a few lines per second are enough
+    private static final LogSampler rejections = new LogSampler(5, Duration.ofSeconds(1));
+
     private final YoutubeService youtubeService;
     private final WebScrapperService webScrapperService;
     private final WebSearcherService webSearcherService;
     private final TranslatorService translatorService;
     private final DataAnalyserService dataAnalyserService;
     private final ImageGeneratorService imageGeneratorService;
+    private final PipelineService pipelineService;
+    private final AgentBulkheads bulkheads;
     private final ObjectMapper objectMapper;
     
     @Autowired
     public AgentController(YoutubeService youtubeService, WebScrapperService webScrapperService, 
                          WebSearcherService webSearcherService, TranslatorService translatorService,
-                         DataAnalyserService dataAnalyserService, ImageGeneratorService imageGeneratorService) {
+                         DataAnalyserService dataAnalyserService, ImageGeneratorService imageGeneratorService,
+                         PipelineService pipelineService, AgentBulkheads bulkheads) {
         this.youtubeService = youtubeService;
         this.webScrapperService = webScrapperService;
         this.webSearcherService = webSearcherService;
         this.translatorService = translatorService;
         this.dataAnalyserService = dataAnalyserService;
         this.imageGeneratorService = imageGeneratorService;
+        this.pipelineService = pipelineService;
+        this.bulkheads = bulkheads;
         
         this.objectMapper = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -68,35 +96,31 @@ public class AgentController {
     }
 
     @PostMapping("/youtube-summarize")
-    public ResponseEntity<YoutubeSummarizeResponse> summarizeYoutubeVideo(@RequestBody YoutubeSummarizeRequest request) {
-        YoutubeSummarizeResponse response = youtubeService.summarizeVideo(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<YoutubeSummarizeResponse>> summarizeYoutubeVideo(@RequestBody YoutubeSummarizeRequest request) {
+        return bulkheads.execute(AgentType.YOUTUBE, () -> youtubeService.summarizeVideo(request)).map(ResponseEntity::ok);
     }
 
     @PostMapping("/web-scrapper")
-    public ResponseEntity<WebScrapperResponse> webScrapper(@RequestBody WebScrapperRequest request) {
-        WebScrapperResponse response = webScrapperService.processWebScrapper(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<WebScrapperResponse>> webScrapper(@RequestBody WebScrapperRequest request) {
+        return bulkheads.execute(AgentType.WEB_SCRAPPER, () -> webScrapperService.processWebScrapper(request)).map(ResponseEntity::ok);
     }
 
     @PostMapping("/web-searcher")
-    public ResponseEntity<WebSearcherResponse> webSearcher(@RequestBody WebSearcherRequest request) {
-        WebSearcherResponse response = webSearcherService.search(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<WebSearcherResponse>> webSearcher(@RequestBody WebSearcherRequest request) {
+        return bulkheads.execute(AgentType.WEB_SEARCHER, () -> webSearcherService.search(request)).map(ResponseEntity::ok);
     }
 
     @PostMapping("/translator")
-    public ResponseEntity<TranslatorResponse> translate(@RequestBody TranslatorRequest request) {
-        TranslatorResponse response = translatorService.translate(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<TranslatorResponse>> translate(@RequestBody TranslatorRequest request) {
+        return bulkheads.execute(AgentType.TRANSLATOR, () -> translatorService.translate(request)).map(ResponseEntity::ok);
     }
 
     @PostMapping(value = "/data-analyser", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<DataAnalyserResponse> analyseData(
+    public Mono<ResponseEntity<DataAnalyserResponse>> analyseData(
             @RequestParam(value = "file", required = false) MultipartFile file,
             @RequestParam("request") String requestJson) {
         try {
-            System.out.println("Received request JSON: " + requestJson);
+            logger.debug("Received data-analyser request ({} chars)", requestJson.length());
             
             // Create a new instance and set properties manually
             DataAnalyserRequest request = new DataAnalyserRequest();
@@ -113,24 +137,91 @@ public class AgentController {
             request.setXAxis((String) jsonMap.get("xAxis"));
             request.setYAxis((String) jsonMap.get("yAxis"));
             
-            System.out.println("Created request object: " + request);
-            
-            DataAnalyserResponse response = dataAnalyserService.analyseData(file, request);
-            return ResponseEntity.ok(response);
+            return bulkheads.execute(AgentType.DATA_ANALYSER, () -> dataAnalyserService.analyseData(file, request))
+                .map(ResponseEntity::ok);
         } catch (JsonProcessingException e) {
-            System.err.println("JSON Processing Error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().build();
+            logger.warn("Invalid data-analyser request JSON: {}", e.getOriginalMessage());
+            return Mono.just(ResponseEntity.badRequest().build());
         } catch (Exception e) {
-            System.err.println("General Error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().build();
+            logger.warn("Invalid data-analyser request: {}", e.getMessage(), e);
+            return Mono.just(ResponseEntity.badRequest().build());
         }
     }
 
     @PostMapping("/image-generator")
-    public ResponseEntity<ImageGeneratorResponse> generateImage(@RequestBody ImageGeneratorRequest request) {
-        ImageGeneratorResponse response = imageGeneratorService.generateImage(request);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<ImageGeneratorResponse>> generateImage(@RequestBody ImageGeneratorRequest request) {
+        // Resolved here: the request context is not available on the thread that completes the Mono
+        String imagesPath = imagesPath();
+        return bulkheads.execute(AgentType.IMAGE_GENERATOR, () -> imageGeneratorService.generateImage(request))
+            .map(response -> {
+                response.setImageUrl(imagesPath + response.getImageId());
+                return ResponseEntity.ok(response);
+            });
+    }
+
+    @PostMapping("/image-generator/jobs")
+    public ResponseEntity<ImageJob> submitImageJob(@RequestBody ImageGeneratorRequest request) {
+        try {
+            ImageJob job = imageGeneratorService.submit(request);
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid image generator request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/image-generator/jobs/{jobId}")
+    public ResponseEntity<ImageJob> getImageJob(@PathVariable String jobId) {
+        return imageGeneratorService.findJob(jobId)
+            .map(job -> {
+                if (job.getStatus() == ImageJob.Status.SUCCEEDED) {
+                    job.setImageUrl(imagesPath() + job.getImageId());
+                }
+                return ResponseEntity.ok(job);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Streams a stored PNG. Range and If-None-Match requests are answered by Spring MVC. */
+    @GetMapping("/images/{imageId}")
+    public ResponseEntity<Resource> getImage(@PathVariable String imageId) {
+        return imageGeneratorService.findImage(imageId)
+            .map(path -> ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(imageId)
+                // Ids are content hashes, so an id never changes its bytes
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .<Resource>body(new FileSystemResource(path)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Saturated agent: 429 with the estimated time until a slot frees up. */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFull(BulkheadFullException e) {
+        long suppressed = rejections.tryAcquire();
+        if (suppressed >= 0) {
+            logger.warn("Rejected {} request: {} ({} similar suppressed)", e.getAgent().id(), e.getMessage(), suppressed);
+        }
+        Map<String, String> body = new HashMap<>();
+        body.put("status", "error");
+        body.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(body);
+    }
+
+    private static String imagesPath() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/agent/images/").build().getPath();
+    }
+
+    @PostMapping(value = "/pipeline", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> runPipeline(@RequestBody PipelineRequest request) {
+        try {
+            pipelineService.validate(request);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid pipeline request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(pipelineService.execute(request));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.example.agentprovider.logging;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Request correlation id: taken from the X-Correlation-Id header or generated,
+ * kept in the MDC under {@value #MDC_KEY} and forwarded to our own services.
+ * Registered with context-propagation so the MDC value follows a request onto
+ * Reactor and Netty threads.
+ */
+public final class CorrelationId {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+    // Incoming ids end up in every log line, so only short, plain ids are accepted
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    // Runs once, when the filter first resolves an id
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new Accessor());
+    }
+
+    private CorrelationId() {
+    }
+
+    /** The caller's id when it is usable, otherwise a new one. */
+    public static String resolve(String incoming) {
+        if (incoming != null && VALID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+    }
+
+    /** The id of the request being handled on this thread, or null. */
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    private static final class Accessor implements ThreadLocalAccessor<String> {
+
+        @Override
+        public Object key() {
+            return MDC_KEY;
+        }
+
+        @Override
+        public String getValue() {
+            return MDC.get(MDC_KEY);
+        }
+
+        @Override
+        public void setValue(String value) {
+            MDC.put(MDC_KEY, value);
+        }
+
+        @Override
+        public void setValue() {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.agentprovider.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/** Puts the request's correlation id into the MDC and echoes it in the response. */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    // The id chosen on the first dispatch, reused by async dispatches of the same request
+    private static final String ATTRIBUTE = CorrelationIdFilter.class.getName() + ".id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String correlationId = (String) request.getAttribute(ATTRIBUTE);
+        if (correlationId == null) {
+            correlationId = CorrelationId.resolve(request.getHeader(CorrelationId.HEADER));
+            request.setAttribute(ATTRIBUTE, correlationId);
+            response.setHeader(CorrelationId.HEADER, correlationId);
+        }
+        MDC.put(CorrelationId.MDC_KEY, correlationId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(CorrelationId.MDC_KEY);
+        }
+    }
+
+    // Async (Mono/Flux) dispatches run the filter again so their log lines keep the id
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
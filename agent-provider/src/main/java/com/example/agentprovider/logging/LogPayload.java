@@ -0,0 +1,42 @@
+package com.example.agentprovider.logging;
+
+/**
+ * Stands in for prompts, transcripts and other large bodies in log lines:
+ * prints the length and a 64-bit FNV-1a hash instead of the content, so a log
+ * line costs the same for a 100-character prompt as for a 1 MB document while
+ * equal payloads can still be matched across services. The hash is only
+ * computed when the line is actually written.
+ */
+public final class LogPayload {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final CharSequence content;
+
+    private LogPayload(CharSequence content) {
+        this.content = content;
+    }
+
+    /** Use as a log argument: {@code logger.debug("Prompt: {}", LogPayload.summary(prompt))}. */
+    public static LogPayload summary(CharSequence content) {
+        return new LogPayload(content);
+    }
+
+    public static long hash(CharSequence content) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < content.length(); i++) {
+            hash ^= content.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (content == null) {
+            return "[null]";
+        }
+        return "[len=" + content.length() + " fnv=" + Long.toHexString(hash(content)) + "]";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.agentprovider.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit for log lines that can repeat thousands of times under load
+ * (failed links in a crawl, rejected requests). The first {@code permits}
+ * events of every interval are logged, the rest are counted and the count is
+ * reported with the next logged event:
+ * <pre>
+ * long suppressed = sampler.tryAcquire();
+ * if (suppressed >= 0) logger.warn("... ({} similar suppressed)", ..., suppressed);
+ * </pre>
+ * Lock-free; the limit is approximate when threads race at an interval boundary.
+ */
+public final class LogSampler {
+
+    private final int permits;
+    private final long intervalNanos;
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int permits, Duration interval) {
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /** Events suppressed since the last logged one, or -1 when this event should not be logged. */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
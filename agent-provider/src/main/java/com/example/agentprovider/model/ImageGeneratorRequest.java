@@ -8,4 +8,6 @@ import lombok.EqualsAndHashCode;
 public class ImageGeneratorRequest extends AiRequest {
     private int width = 320;
     private int height = 320;
-} 
\ No newline at end of file
+    // false returns only imageId/imageUrl; the PNG is then downloaded from /api/agent/images/{id}
+    private boolean inlineBase64 = true;
+}
@@ -9,4 +9,7 @@ import lombok.experimental.SuperBuilder;
 @EqualsAndHashCode(callSuper = true)
 public class ImageGeneratorResponse extends AiResponse {
     private String base64Image;
-} 
\ No newline at end of file
+    private String imageId;
+    private String imageUrl;
+    private boolean cached;
+}
@@ -0,0 +1,22 @@
+package com.example.agentprovider.model;
+
+import lombok.Data;
+
+@Data
+public class ImageJob {
+
+    public enum Status {
+        PENDING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String jobId;
+    // Written last by the generating thread, so readers that see a final status see its fields too
+    private volatile Status status = Status.PENDING;
+    private String imageId;
+    private String imageUrl;
+    private boolean cached;
+    private String errorMessage;
+    private long processingTimeMs;
+}
@@ -0,0 +1,16 @@
+package com.example.agentprovider.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+    private String title;
+    private String link;
+    private String snippet;
+    // Query that produced the result, useful when a request runs several queries
+    private String query;
+}
@@ -2,9 +2,13 @@ package com.example.agentprovider.model;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class WebSearcherRequest {
     private String content;
     private String language;
     private int maxResult;
-} 
\ No newline at end of file
+    // Optional; when set every query is searched in parallel and results are merged
+    private List<String> queries;
+}
@@ -2,9 +2,14 @@ package com.example.agentprovider.model;
 
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 public class WebSearcherResponse {
+    // {"items":[{title, link, snippet, query}]} as JSON text, for agents that take plain content
     private String content;
+    private List<SearchResult> results = new ArrayList<>();
     private boolean success = true;
     private String errorMessage;
-} 
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.example.agentprovider.model.pipeline;
+
+/** Agents that can be chained in a server-side pipeline. */
+public enum PipelineAgent {
+    WEB_SEARCHER,
+    WEB_SCRAPPER,
+    YOUTUBE,
+    TRANSLATOR,
+    DATA_ANALYSER
+}
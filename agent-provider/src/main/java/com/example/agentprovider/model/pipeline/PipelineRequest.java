@@ -0,0 +1,11 @@
+package com.example.agentprovider.model.pipeline;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class PipelineRequest {
+    private List<PipelineStage> stages = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.example.agentprovider.model.pipeline;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One step of a pipeline. {@code request} has the same shape as the agent's own
+ * endpoint body. Its {@code content} may reference earlier outputs as
+ * {@code {{stageId}}}; when it is empty the outputs of {@code dependsOn} are used.
+ */
+@Data
+public class PipelineStage {
+    private String id;
+    private PipelineAgent agent;
+    private List<String> dependsOn = new ArrayList<>();
+    private ObjectNode request;
+    // Intermediate outputs stay on the server unless requested; final stages are always returned
+    private boolean emit;
+}
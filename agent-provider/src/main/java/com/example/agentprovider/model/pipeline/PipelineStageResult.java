@@ -0,0 +1,22 @@
+package com.example.agentprovider.model.pipeline;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PipelineStageResult {
+    private String stageId;
+    private PipelineAgent agent;
+    private boolean success;
+    private String errorMessage;
+    private long processingTimeMs;
+    private String content;
+
+    // Full output, kept in memory for dependent stages even when it is not returned
+    @JsonIgnore
+    private String output;
+}
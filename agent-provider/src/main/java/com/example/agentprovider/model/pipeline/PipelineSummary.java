@@ -0,0 +1,13 @@
+package com.example.agentprovider.model.pipeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PipelineSummary {
+    private boolean success;
+    private int stageCount;
+    private int failedStages;
+    private long processingTimeMs;
+}
@@ -3,7 +3,8 @@ package com.example.agentprovider.service;
 import org.springframework.web.multipart.MultipartFile;
 import com.example.agentprovider.model.DataAnalyserRequest;
 import com.example.agentprovider.model.DataAnalyserResponse;
+import reactor.core.publisher.Mono;
 
 public interface DataAnalyserService {
-    DataAnalyserResponse analyseData(MultipartFile file, DataAnalyserRequest request);
+    Mono<DataAnalyserResponse> analyseData(MultipartFile file, DataAnalyserRequest request);
 } 
\ No newline at end of file
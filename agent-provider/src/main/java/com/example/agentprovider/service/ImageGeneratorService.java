@@ -2,7 +2,20 @@ package com.example.agentprovider.service;
 
 import com.example.agentprovider.model.ImageGeneratorRequest;
 import com.example.agentprovider.model.ImageGeneratorResponse;
+import com.example.agentprovider.model.ImageJob;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Optional;
 
 public interface ImageGeneratorService {
-    ImageGeneratorResponse generateImage(ImageGeneratorRequest request);
-} 
\ No newline at end of file
+    Mono<ImageGeneratorResponse> generateImage(ImageGeneratorRequest request);
+
+    /** Starts generation in the background and returns the job to poll. */
+    ImageJob submit(ImageGeneratorRequest request);
+
+    Optional<ImageJob> findJob(String jobId);
+
+    /** Path of a stored PNG by its content id, if it exists. */
+    Optional<Path> findImage(String imageId);
+}
@@ -0,0 +1,14 @@
+package com.example.agentprovider.service;
+
+import com.example.agentprovider.model.pipeline.PipelineRequest;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+public interface PipelineService {
+
+    /** Validates the stage graph, throwing {@link IllegalArgumentException} when it cannot run. */
+    void validate(PipelineRequest request);
+
+    /** Runs the pipeline and emits one "stage" event per finished stage, then a "complete" event. */
+    Flux<ServerSentEvent<Object>> execute(PipelineRequest request);
+}
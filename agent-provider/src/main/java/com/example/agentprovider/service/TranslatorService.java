@@ -2,7 +2,8 @@ package com.example.agentprovider.service;
 
 import com.example.agentprovider.model.TranslatorRequest;
 import com.example.agentprovider.model.TranslatorResponse;
+import reactor.core.publisher.Mono;
 
 public interface TranslatorService {
-    TranslatorResponse translate(TranslatorRequest request);
+    Mono<TranslatorResponse> translate(TranslatorRequest request);
 } 
\ No newline at end of file
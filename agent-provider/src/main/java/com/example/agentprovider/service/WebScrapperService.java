@@ -2,7 +2,8 @@ package com.example.agentprovider.service;
 
 import com.example.agentprovider.model.WebScrapperRequest;
 import com.example.agentprovider.model.WebScrapperResponse;
+import reactor.core.publisher.Mono;
 
 public interface WebScrapperService {
-    WebScrapperResponse processWebScrapper(WebScrapperRequest request);
+    Mono<WebScrapperResponse> processWebScrapper(WebScrapperRequest request);
 } 
\ No newline at end of file
@@ -2,7 +2,8 @@ package com.example.agentprovider.service;
 
 import com.example.agentprovider.model.WebSearcherRequest;
 import com.example.agentprovider.model.WebSearcherResponse;
+import reactor.core.publisher.Mono;
 
 public interface WebSearcherService {
-    WebSearcherResponse search(WebSearcherRequest request);
+    Mono<WebSearcherResponse> search(WebSearcherRequest request);
 } 
\ No newline at end of file
@@ -2,14 +2,15 @@ package com.example.agentprovider.service;
 
 import com.example.agentprovider.model.YoutubeSummarizeRequest;
 import com.example.agentprovider.model.YoutubeSummarizeResponse;
+import reactor.core.publisher.Mono;
 
 public interface YoutubeService {
     /**
      * Summarizes a YouTube video using its URL
      * @param request The summarization request containing YouTube URL and other parameters
-     * @return The summarization response
+     * @return The summarization response, emitted when the summary is ready
      */
-    YoutubeSummarizeResponse summarizeVideo(YoutubeSummarizeRequest request);
+    Mono<YoutubeSummarizeResponse> summarizeVideo(YoutubeSummarizeRequest request);
     
     /**
      * Extracts the video ID from a YouTube URL
@@ -0,0 +1,205 @@
+package com.example.agentprovider.service.admission;
+
+import com.example.agentprovider.config.BulkheadConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency limit with a bounded FIFO wait queue for one agent type. Waiting
+ * callers hold no thread: they are parked as MonoSinks and resumed when a slot
+ * frees up. A ReentrantLock (not synchronized) guards the state so virtual
+ * threads are not pinned.
+ * <p>
+ * Metrics (tag agent=&lt;id&gt;): agent.bulkhead.active, agent.bulkhead.queued,
+ * agent.bulkhead.wait (time spent queued) and agent.bulkhead.rejected.
+ */
+public final class AgentBulkhead {
+
+    private final AgentType agent;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration maxWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int active;
+    // Exponentially weighted average run time, used for the Retry-After estimate
+    private double averageRunMillis;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public AgentBulkhead(AgentType agent, BulkheadConfig.Limits limits, MeterRegistry meterRegistry) {
+        this.agent = agent;
+        this.maxConcurrent = Math.max(1, limits.getMaxConcurrent());
+        this.maxQueued = Math.max(0, limits.getMaxQueued());
+        this.maxWait = limits.getMaxWait();
+        this.averageRunMillis = 1000;
+
+        Gauge.builder("agent.bulkhead.active", this, AgentBulkhead::activeCount)
+            .tag("agent", agent.id()).register(meterRegistry);
+        Gauge.builder("agent.bulkhead.queued", this, AgentBulkhead::queuedCount)
+            .tag("agent", agent.id()).register(meterRegistry);
+        this.waitTimer = Timer.builder("agent.bulkhead.wait")
+            .tag("agent", agent.id()).register(meterRegistry);
+        this.rejected = Counter.builder("agent.bulkhead.rejected")
+            .tag("agent", agent.id()).register(meterRegistry);
+    }
+
+    /** A granted slot; releasing it more than once has no effect. */
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final long startNanos = System.nanoTime();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                AgentBulkhead.this.release(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final long enqueuedNanos = System.nanoTime();
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /** Runs the work once a slot is free, or fails with {@link BulkheadFullException}. */
+    public <T> Mono<T> execute(Supplier<Mono<T>> work) {
+        return acquire()
+            .flatMap(permit -> Mono.defer(work).doFinally(signal -> permit.release()))
+            .doOnDiscard(Permit.class, Permit::release);
+    }
+
+    /** Fails fast when new work would be rejected right now; used before starting background jobs. */
+    public void checkAdmission() {
+        lock.lock();
+        try {
+            if (active >= maxConcurrent && waiters.size() >= maxQueued) {
+                rejected.increment();
+                throw new BulkheadFullException(agent, retryAfterSeconds());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Mono<Permit> acquire() {
+        Mono<Permit> acquire = Mono.create(sink -> {
+            Waiter waiter;
+            lock.lock();
+            try {
+                if (active < maxConcurrent && waiters.isEmpty()) {
+                    active++;
+                    waitTimer.record(0, TimeUnit.NANOSECONDS);
+                    waiter = null;
+                } else if (waiters.size() >= maxQueued) {
+                    rejected.increment();
+                    sink.error(new BulkheadFullException(agent, retryAfterSeconds()));
+                    return;
+                } else {
+                    waiter = new Waiter(sink);
+                    waiters.addLast(waiter);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (waiter == null) {
+                sink.success(new Permit());
+                return;
+            }
+            sink.onCancel(() -> cancel(waiter));
+        });
+        return acquire
+            .timeout(maxWait)
+            .onErrorMap(TimeoutException.class, e -> {
+                rejected.increment();
+                lock.lock();
+                try {
+                    return new BulkheadFullException(agent, retryAfterSeconds());
+                } finally {
+                    lock.unlock();
+                }
+            });
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        lock.lock();
+        try {
+            waiters.remove(waiter);
+            granted = waiter.permit;
+        } finally {
+            lock.unlock();
+        }
+        // A slot handed over just before the cancel reached us goes to the next waiter
+        if (granted != null) {
+            granted.release();
+        }
+    }
+
+    private void release(long runNanos) {
+        Waiter next;
+        lock.lock();
+        try {
+            averageRunMillis = averageRunMillis * 0.8 + TimeUnit.NANOSECONDS.toMillis(runNanos) * 0.2;
+            next = waiters.pollFirst();
+            if (next == null) {
+                active--;
+                return;
+            }
+            // The slot moves straight to the next waiter, active stays the same
+            next.permit = new Permit();
+        } finally {
+            lock.unlock();
+        }
+        waitTimer.record(System.nanoTime() - next.enqueuedNanos, TimeUnit.NANOSECONDS);
+        next.sink.success(next.permit);
+    }
+
+    // Callers hold the lock
+    private long retryAfterSeconds() {
+        // Time for the queue ahead of a new caller to drain, at least one second
+        double millis = averageRunMillis * (waiters.size() + 1) / maxConcurrent;
+        return Math.max(1, (long) Math.ceil(millis / 1000));
+    }
+
+    public AgentType agent() {
+        return agent;
+    }
+
+    int activeCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queuedCount() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
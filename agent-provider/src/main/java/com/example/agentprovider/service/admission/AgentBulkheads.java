@@ -0,0 +1,34 @@
+package com.example.agentprovider.service.admission;
+
+import com.example.agentprovider.config.BulkheadConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One {@link AgentBulkhead} per agent type, so a burst of heavy requests
+ * (deep crawls, large uploads) cannot take the capacity light agents need.
+ */
+@Component
+public class AgentBulkheads {
+
+    private final Map<AgentType, AgentBulkhead> bulkheads = new EnumMap<>(AgentType.class);
+
+    public AgentBulkheads(BulkheadConfig config, MeterRegistry meterRegistry) {
+        for (AgentType agent : AgentType.values()) {
+            bulkheads.put(agent, new AgentBulkhead(agent, config.limits(agent.id()), meterRegistry));
+        }
+    }
+
+    public <T> Mono<T> execute(AgentType agent, Supplier<Mono<T>> work) {
+        return bulkheads.get(agent).execute(work);
+    }
+
+    public void checkAdmission(AgentType agent) {
+        bulkheads.get(agent).checkAdmission();
+    }
+}
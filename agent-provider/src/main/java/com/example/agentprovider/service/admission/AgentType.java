@@ -0,0 +1,21 @@
+package com.example.agentprovider.service.admission;
+
+/** Agent types that get their own bulkhead; the id is the property key under bulkhead.agents. */
+public enum AgentType {
+    WEB_SCRAPPER("web-scrapper"),
+    YOUTUBE("youtube"),
+    TRANSLATOR("translator"),
+    DATA_ANALYSER("data-analyser"),
+    IMAGE_GENERATOR("image-generator"),
+    WEB_SEARCHER("web-searcher");
+
+    private final String id;
+
+    AgentType(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.agentprovider.service.admission;
+
+/** Thrown when an agent has no free slot and its wait queue is full or the wait timed out. */
+public class BulkheadFullException extends RuntimeException {
+
+    private final AgentType agent;
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(AgentType agent, long retryAfterSeconds) {
+        super("Agent " + agent.id() + " is busy, retry after " + retryAfterSeconds + "s");
+        this.agent = agent;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public AgentType getAgent() {
+        return agent;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
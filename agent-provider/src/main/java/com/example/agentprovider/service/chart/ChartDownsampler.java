@@ -0,0 +1,274 @@
+package com.example.agentprovider.service.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Reduces chart input to what a fixed size image can show: bounded M4
+ * collection plus Largest-Triangle-Three-Buckets for numeric series and
+ * top-N bucketing for categories.
+ */
+public final class ChartDownsampler {
+
+    static final String OTHER_CATEGORY = "Diğer";
+
+    private ChartDownsampler() {
+    }
+
+    /**
+     * Returns the indexes of the points kept by LTTB. {@code xs} must be sorted
+     * ascending; first and last points are always kept.
+     */
+    public static int[] lttb(double[] xs, double[] ys, int size, int threshold) {
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledIndex = 0;
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledIndex++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket is the third vertex of the triangle
+            int avgRangeStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgRangeEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgRangeStart; j < avgRangeEnd; j++) {
+                avgX += xs[j];
+                avgY += ys[j];
+            }
+            int avgRangeLength = Math.max(1, avgRangeEnd - avgRangeStart);
+            avgX /= avgRangeLength;
+            avgY /= avgRangeLength;
+
+            int rangeOffs = (int) Math.floor(i * every) + 1;
+            int rangeTo = (int) Math.floor((i + 1) * every) + 1;
+            double pointAx = xs[a];
+            double pointAy = ys[a];
+            double maxArea = -1;
+            int nextA = rangeOffs;
+            for (int j = rangeOffs; j < rangeTo; j++) {
+                double area = Math.abs((pointAx - avgX) * (ys[j] - pointAy) - (pointAx - xs[j]) * (avgY - pointAy));
+                if (area > maxArea) {
+                    maxArea = area;
+                    nextA = j;
+                }
+            }
+            sampled[sampledIndex++] = nextA;
+            a = nextA;
+        }
+
+        sampled[sampledIndex] = size - 1;
+        return sampled;
+    }
+
+    /**
+     * Sorts the first {@code size} points by x, moving y along with it. Throws
+     * {@link CancellationException} when the calling thread is interrupted.
+     */
+    public static void sortByX(double[] xs, double[] ys, int size) {
+        for (int i = 1; i < size; i++) {
+            if (xs[i] < xs[i - 1]) {
+                quickSort(xs, ys, 0, size - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps the {@code maxCategories - 1} largest categories (by absolute value)
+     * in their original order and folds the rest into a single "other" bucket.
+     */
+    public static Map<String, Double> topCategories(Map<String, Double> values, int maxCategories) {
+        if (values.size() <= maxCategories) {
+            return values;
+        }
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(values.entrySet());
+        ranked.sort((left, right) -> Double.compare(Math.abs(right.getValue()), Math.abs(left.getValue())));
+        Map<String, Double> kept = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : ranked.subList(0, Math.max(1, maxCategories - 1))) {
+            kept.put(entry.getKey(), entry.getValue());
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        double other = 0;
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            if (kept.containsKey(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            } else {
+                other += entry.getValue();
+            }
+        }
+        result.merge(OTHER_CATEGORY, other, Double::sum);
+        return result;
+    }
+
+    /**
+     * Collects an x/y series into at most {@code limit} points. Small series are
+     * kept as-is; larger ones are bucketed by x and every bucket keeps its first,
+     * last, minimum-y and maximum-y point (M4), which preserves the visual shape
+     * for the LTTB pass that follows.
+     */
+    public static final class SeriesCollector {
+        private final boolean bucketed;
+        private final double minX;
+        private final double bucketWidth;
+        private final double[] xs;
+        private final double[] ys;
+        private final int buckets;
+        private int size;
+
+        /**
+         * @param points number of non-null points that will be added
+         * @param minX   smallest x that will be added
+         * @param maxX   largest x that will be added
+         */
+        public SeriesCollector(long points, double minX, double maxX, int limit) {
+            int bounded = Math.max(4, limit);
+            this.bucketed = points > bounded;
+            this.minX = minX;
+            if (bucketed) {
+                this.buckets = bounded / 4;
+                this.bucketWidth = maxX > minX ? (maxX - minX) / buckets : 1;
+                // Per bucket slots: first, last, min y, max y
+                this.xs = new double[buckets * 4];
+                this.ys = new double[buckets * 4];
+                Arrays.fill(xs, Double.NaN);
+            } else {
+                this.buckets = 0;
+                this.bucketWidth = 1;
+                this.xs = new double[(int) points];
+                this.ys = new double[(int) points];
+            }
+        }
+
+        public void add(double x, double y) {
+            if (!bucketed) {
+                if (size < xs.length) {
+                    xs[size] = x;
+                    ys[size] = y;
+                    size++;
+                }
+                return;
+            }
+            int bucket = (int) Math.min(buckets - 1, Math.max(0, (long) ((x - minX) / bucketWidth)));
+            int base = bucket * 4;
+            if (Double.isNaN(xs[base])) {
+                for (int slot = 0; slot < 4; slot++) {
+                    xs[base + slot] = x;
+                    ys[base + slot] = y;
+                }
+                return;
+            }
+            if (x < xs[base]) { xs[base] = x; ys[base] = y; }
+            if (x > xs[base + 1]) { xs[base + 1] = x; ys[base + 1] = y; }
+            if (y < ys[base + 2]) { xs[base + 2] = x; ys[base + 2] = y; }
+            if (y > ys[base + 3]) { xs[base + 3] = x; ys[base + 3] = y; }
+        }
+
+        /** Compacts the collected points to the front of {@link #xs()}/{@link #ys()} and returns their count. */
+        public int finish() {
+            if (!bucketed) {
+                return size;
+            }
+            size = 0;
+            double[] bucketXs = new double[4];
+            double[] bucketYs = new double[4];
+            for (int base = 0; base < xs.length; base += 4) {
+                if (Double.isNaN(xs[base])) continue;
+                // Copy first: compaction may overwrite this bucket's slots
+                System.arraycopy(xs, base, bucketXs, 0, 4);
+                System.arraycopy(ys, base, bucketYs, 0, 4);
+                for (int slot = 0; slot < 4; slot++) {
+                    // Skip slots that repeat a point already kept for this bucket
+                    boolean duplicate = false;
+                    for (int previous = 0; previous < slot; previous++) {
+                        if (bucketXs[previous] == bucketXs[slot] && bucketYs[previous] == bucketYs[slot]) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+                    if (!duplicate) {
+                        xs[size] = bucketXs[slot];
+                        ys[size] = bucketYs[slot];
+                        size++;
+                    }
+                }
+            }
+            return size;
+        }
+
+        public double[] xs() {
+            return xs;
+        }
+
+        public double[] ys() {
+            return ys;
+        }
+    }
+
+    private static void quickSort(double[] xs, double[] ys, int low, int high) {
+        while (low < high) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Chart sort interrupted");
+            }
+            if (high - low < 16) {
+                insertionSort(xs, ys, low, high);
+                return;
+            }
+            double pivot = xs[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (xs[i] < pivot) i++;
+                while (xs[j] > pivot) j--;
+                if (i <= j) {
+                    swap(xs, ys, i++, j--);
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                quickSort(xs, ys, low, j);
+                low = i;
+            } else {
+                quickSort(xs, ys, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void insertionSort(double[] xs, double[] ys, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            int j = i - 1;
+            while (j >= low && xs[j] > x) {
+                xs[j + 1] = xs[j];
+                ys[j + 1] = ys[j];
+                j--;
+            }
+            xs[j + 1] = x;
+            ys[j + 1] = y;
+        }
+    }
+
+    private static void swap(double[] xs, double[] ys, int i, int j) {
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.agentprovider.service.chart;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import com.example.agentprovider.logging.LogSampler;
+import com.example.agentprovider.service.data.ColumnType;
+import com.example.agentprovider.service.data.DataTable;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders data-analyser charts as base64 PNG. Series are downsampled before
+ * they reach JFreeChart, rendering runs on a small bounded pool so it cannot
+ * take over request threads, and finished images are cached by
+ * (table fingerprint, axes, chart type).
+ */
+@Component
+public class ChartRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChartRenderer.class);
+    private static final LogSampler queueFull = new LogSampler(5, Duration.ofSeconds(1));
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    // Distinct categories tracked before further ones go straight to the "other" bucket
+    private static final int MAX_TRACKED_CATEGORIES = 100_000;
+
+    private final DataAnalyserConfig config;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, String> cache;
+
+    public ChartRenderer(DataAnalyserConfig config) {
+        this.config = config;
+        System.setProperty("java.awt.headless", "true");
+
+        int threads = Math.max(1, config.getChartRenderThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, config.getChartRenderQueue())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "chart-render-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getChartCacheEntries())
+            .expireAfterAccess(Duration.ofMinutes(config.getChartCacheTtlMinutes()))
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Returns the chart as base64 PNG, or null when it cannot be rendered. */
+    public String render(DataTable table, String xAxis, String yAxis) {
+        int xColumn = table.columnIndex(xAxis);
+        int yColumn = table.columnIndex(yAxis);
+        if (xColumn < 0 || yColumn < 0) {
+            return null;
+        }
+
+        // Column types were resolved once during ingestion
+        boolean numeric = table.columnType(xColumn) == ColumnType.NUMBER
+            && table.columnType(yColumn) == ColumnType.NUMBER;
+        String key = Long.toHexString(table.fingerprint()) + '|' + xColumn + '|' + yColumn + '|' + (numeric ? "xy" : "bar");
+
+        String cached = cache.getIfPresent(key);
+        if (cached != null) {
+            logger.debug("Chart cache hit for {} vs {}", xAxis, yAxis);
+            return cached;
+        }
+
+        Future<String> future;
+        try {
+            future = executor.submit(() -> numeric
+                ? renderXy(table, xColumn, yColumn, xAxis, yAxis)
+                : renderBar(table, xColumn, yColumn, xAxis, yAxis));
+        } catch (RejectedExecutionException e) {
+            long suppressed = queueFull.tryAcquire();
+            if (suppressed >= 0) {
+                logger.warn("Chart render queue is full, skipping chart for {} vs {} ({} similar suppressed)",
+                    xAxis, yAxis, suppressed);
+            }
+            return null;
+        }
+
+        try {
+            String image = future.get(config.getChartRenderTimeoutSeconds(), TimeUnit.SECONDS);
+            cache.put(key, image);
+            return image;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Chart rendering timed out for {} vs {}", xAxis, yAxis);
+            return null;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            logger.error("Error generating chart: {}", e.getCause().getMessage(), e.getCause());
+            return null;
+        }
+    }
+
+    private String renderXy(DataTable table, int xColumn, int yColumn, String xAxis, String yAxis) throws IOException {
+        int[] columns = {xColumn, yColumn};
+
+        // First pass: x range and number of complete points, so the second pass can bucket by x
+        double[] range = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        long[] points = {0};
+        table.forEachChunk(columns, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                if (chunk.isNull(xColumn, row) || chunk.isNull(yColumn, row)) continue;
+                double x = chunk.getDouble(xColumn, row);
+                range[0] = Math.min(range[0], x);
+                range[1] = Math.max(range[1], x);
+                points[0]++;
+            }
+        });
+
+        // Second pass: memory stays bounded by chart-max-collected-points regardless of row count
+        ChartDownsampler.SeriesCollector collector = new ChartDownsampler.SeriesCollector(
+            points[0], range[0], range[1], config.getChartMaxCollectedPoints());
+        table.forEachChunk(columns, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                if (chunk.isNull(xColumn, row) || chunk.isNull(yColumn, row)) continue;
+                collector.add(chunk.getDouble(xColumn, row), chunk.getDouble(yColumn, row));
+            }
+        });
+        int size = collector.finish();
+        double[] xs = collector.xs();
+        double[] ys = collector.ys();
+
+        // XYSeries sorts by x as well; LTTB needs the ordered series
+        ChartDownsampler.sortByX(xs, ys, size);
+        int[] kept = ChartDownsampler.lttb(xs, ys, size, config.getChartMaxPoints());
+        logger.debug("Downsampled {} points ({} collected) to {}", points[0], size, kept.length);
+
+        XYSeries series = new XYSeries("Data", false, true);
+        for (int index : kept) {
+            series.add(xs[index], ys[index], false);
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(series);
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            String.format("%s vs %s", xAxis, yAxis),
+            xAxis,
+            yAxis,
+            dataset,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+        return encode(chart);
+    }
+
+    private String renderBar(DataTable table, int xColumn, int yColumn, String xAxis, String yAxis) throws IOException {
+        // Repeated categories are summed so that bucketing by total is meaningful
+        Map<String, Double> values = new LinkedHashMap<>();
+        table.forEachChunk(new int[] {xColumn, yColumn}, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                String x = chunk.getText(xColumn, row);
+                double y = chunk.getDouble(yColumn, row);
+                if (x == null || Double.isNaN(y)) continue;
+                if (values.size() >= MAX_TRACKED_CATEGORIES && !values.containsKey(x)) {
+                    x = ChartDownsampler.OTHER_CATEGORY;
+                }
+                values.merge(x, y, Double::sum);
+            }
+        });
+
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (Map.Entry<String, Double> entry : ChartDownsampler.topCategories(values, config.getChartMaxCategories()).entrySet()) {
+            dataset.addValue(entry.getValue(), "Data", entry.getKey());
+        }
+
+        JFreeChart chart = ChartFactory.createBarChart(
+            String.format("%s vs %s", xAxis, yAxis),
+            xAxis,
+            yAxis,
+            dataset,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+        return encode(chart);
+    }
+
+    private String encode(JFreeChart chart) throws IOException {
+        BufferedImage image = chart.createBufferedImage(WIDTH, HEIGHT);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+}
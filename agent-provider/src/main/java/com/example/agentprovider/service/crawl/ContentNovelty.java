@@ -0,0 +1,41 @@
+package com.example.agentprovider.service.crawl;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tracks the text already collected by a crawl as hashed word 3-gram shingles and
+ * reports how much of a new page is actually new. Menus, footers and mirrored
+ * articles repeat shingles and score low; a page on a new subtopic scores high.
+ * Not thread-safe, one instance per crawl.
+ */
+public class ContentNovelty {
+
+    private static final int SHINGLE_WORDS = 3;
+
+    private final Set<Long> seen = new HashSet<>();
+
+    /**
+     * Adds the page's shingles and returns the share that had not been seen
+     * before, between 0 (nothing new or no text) and 1 (entirely new).
+     */
+    public double add(String text) {
+        String[] words = text == null ? new String[0] : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        // A leading separator yields one empty word
+        int start = words.length > 0 && words[0].isEmpty() ? 1 : 0;
+        int total = 0;
+        int added = 0;
+        for (int i = start; i + SHINGLE_WORDS <= words.length; i++) {
+            long hash = 1125899906842597L;
+            for (int j = i; j < i + SHINGLE_WORDS; j++) {
+                hash = 31 * hash + words[j].hashCode();
+            }
+            total++;
+            if (seen.add(hash)) {
+                added++;
+            }
+        }
+        return total == 0 ? 0 : (double) added / total;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.agentprovider.service.crawl;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Crawl queue ordered by link score, highest first; equal scores keep discovery
+ * order. Every URL is accepted once (fragments ignored), so a page linked from
+ * several places is fetched once at the depth it was first found. Not thread-safe,
+ * one instance per crawl.
+ */
+public class CrawlFrontier {
+
+    public record Candidate(String url, int depth, double score) {
+    }
+
+    private record Entry(Candidate candidate, long sequence) {
+    }
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+        Comparator.comparingDouble((Entry entry) -> -entry.candidate().score())
+            .thenComparingLong(Entry::sequence));
+    private final Set<String> seen = new HashSet<>();
+    private long sequence;
+
+    /**
+     * Queues the URL unless it was offered before or was rejected by the scorer.
+     */
+    public boolean offer(String url, int depth, double score) {
+        if (url == null || score == LinkScorer.REJECT) {
+            return false;
+        }
+        String normalized = normalize(url);
+        if (!seen.add(normalized)) {
+            return false;
+        }
+        queue.add(new Entry(new Candidate(normalized, depth, score), sequence++));
+        return true;
+    }
+
+    /**
+     * Best remaining candidate, or null when the frontier is exhausted.
+     */
+    public Candidate poll() {
+        Entry entry = queue.poll();
+        return entry != null ? entry.candidate() : null;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    static String normalize(String url) {
+        int fragment = url.indexOf('#');
+        return fragment >= 0 ? url.substring(0, fragment) : url;
+    }
+}
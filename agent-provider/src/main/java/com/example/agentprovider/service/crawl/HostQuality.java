@@ -0,0 +1,47 @@
+package com.example.agentprovider.service.crawl;
+
+import com.example.agentprovider.config.WebScrapperConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Remembers how much new content pages of each host contributed, as an exponential
+ * moving average of {@link ContentNovelty} ratios (failed fetches count as 0).
+ * Shared by all crawls so hosts that keep serving boilerplate, paywalls or errors
+ * sink in later frontiers; unknown hosts start neutral.
+ */
+@Component
+public class HostQuality {
+
+    public static final double UNKNOWN = 0.5;
+    private static final double ALPHA = 0.3;
+
+    private final Cache<String, Double> cache;
+
+    public HostQuality(WebScrapperConfig config) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getHostQualityMaxEntries())
+            .expireAfterWrite(Duration.ofHours(config.getHostQualityTtlHours()))
+            .build();
+    }
+
+    public double get(String host) {
+        if (host == null) {
+            return UNKNOWN;
+        }
+        Double quality = cache.getIfPresent(host.toLowerCase(Locale.ROOT));
+        return quality != null ? quality : UNKNOWN;
+    }
+
+    public void record(String host, double newContentRatio) {
+        if (host == null) {
+            return;
+        }
+        cache.asMap().merge(host.toLowerCase(Locale.ROOT), newContentRatio,
+            (previous, latest) -> previous + ALPHA * (latest - previous));
+    }
+}
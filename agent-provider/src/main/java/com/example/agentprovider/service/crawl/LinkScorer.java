@@ -0,0 +1,137 @@
+package com.example.agentprovider.service.crawl;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Scores crawl candidates so the link budget goes to informative pages first.
+ * A score adds up:
+ * <ul>
+ *   <li>relevance: request terms found in the anchor text and URL path (up to +1)</li>
+ *   <li>same site as a seed or the linking page (+0.3, otherwise -0.2)</li>
+ *   <li>article-like URLs such as dated paths or long slugs (+0.3)</li>
+ *   <li>navigation and account pages: login, cart, privacy, tags, feeds (-1)</li>
+ *   <li>host quality remembered from earlier crawls (-0.5 .. +0.5)</li>
+ *   <li>depth (-0.1 per level)</li>
+ * </ul>
+ * Seeds come from the search results and get +1 on top, decaying slightly with
+ * their rank. Images, archives and other non-HTML files are rejected.
+ */
+public class LinkScorer {
+
+    public static final double REJECT = Double.NEGATIVE_INFINITY;
+
+    private static final Pattern SKIPPED_FILES = Pattern.compile(
+        "\\.(jpe?g|png|gif|svg|webp|ico|css|js|json|xml|zip|gz|rar|7z|exe|dmg|apk|mp3|mp4|avi|mov|woff2?|ttf)$");
+    private static final Pattern LOW_VALUE = Pattern.compile(
+        "(^|[/_.=-])(login|log-in|signin|sign-in|logout|signup|sign-up|register|account|profile|cart|basket|checkout"
+            + "|privacy|terms|cookies?|legal|contact|careers|jobs|subscribe|newsletter|share|print|feed|rss|tags?"
+            + "|category|author|giris|kayit|uye-ol|iletisim|gizlilik|sepet)([/_.?=-]|$)");
+    private static final Pattern ARTICLE_PATH = Pattern.compile(
+        "/(19|20)\\d{2}/|(^|/)(article|articles|blog|news|post|posts|doc|docs|wiki|guide|tutorial|haber|makale)(/|$)");
+    private static final Pattern SLUG = Pattern.compile("(^|/)[\\p{L}\\p{N}]+(-[\\p{L}\\p{N}]+){3,}(/|\\.html?|$)");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "the", "and", "for", "with", "that", "this", "from", "are", "was", "you", "your", "how", "what", "www",
+        "http", "https", "com", "html", "htm", "php", "aspx", "index",
+        "bir", "ve", "ile", "için", "icin", "bu", "da", "de", "ne", "nasıl", "nasil");
+
+    private final Set<String> queryTerms;
+    private final Set<String> seedHosts = new HashSet<>();
+    private final HostQuality hostQuality;
+
+    /**
+     * @param queryText text describing what the request is after (queries, titles, snippets)
+     */
+    public LinkScorer(String queryText, Collection<String> seedUrls, HostQuality hostQuality) {
+        this.queryTerms = terms(queryText);
+        this.hostQuality = hostQuality;
+        for (String seed : seedUrls) {
+            String host = host(seed);
+            if (host != null) {
+                seedHosts.add(host);
+            }
+        }
+    }
+
+    public double scoreSeed(String url, String title, int rank) {
+        double score = score(url, title, null, 0);
+        return score == REJECT ? REJECT : score + 1.0 - 0.05 * rank;
+    }
+
+    /**
+     * @param anchorText visible text of the link, may be empty
+     * @param pageHost   host of the page the link was found on, null for seeds
+     */
+    public double score(String url, String anchorText, String pageHost, int depth) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return REJECT;
+        }
+        String host = normalizeHost(uri.getHost());
+        String path = uri.getRawPath() != null ? uri.getRawPath().toLowerCase(Locale.ROOT) : "";
+        if (host == null || SKIPPED_FILES.matcher(path).find()) {
+            return REJECT;
+        }
+        double score = relevance(anchorText, path);
+        score += seedHosts.contains(host) || host.equals(normalizeHost(pageHost)) ? 0.3 : -0.2;
+        if (ARTICLE_PATH.matcher(path).find() || SLUG.matcher(path).find()) {
+            score += 0.3;
+        }
+        String query = uri.getRawQuery() != null ? uri.getRawQuery().toLowerCase(Locale.ROOT) : "";
+        if (LOW_VALUE.matcher(path).find() || LOW_VALUE.matcher(query).find()) {
+            score -= 1.0;
+        }
+        score += hostQuality.get(host) - HostQuality.UNKNOWN;
+        score -= 0.1 * depth;
+        return score;
+    }
+
+    /**
+     * Share of the request's terms found in the link, saturating at three matches.
+     */
+    private double relevance(String anchorText, String path) {
+        if (queryTerms.isEmpty()) {
+            return 0;
+        }
+        Set<String> linkTerms = terms(anchorText);
+        linkTerms.addAll(terms(path));
+        long matched = linkTerms.stream().filter(queryTerms::contains).count();
+        return Math.min(1.0, matched / (double) Math.min(3, queryTerms.size()));
+    }
+
+    static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= 3 && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    public static String host(String url) {
+        try {
+            return normalizeHost(URI.create(url).getHost());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String normalizeHost(String host) {
+        if (host == null) {
+            return null;
+        }
+        String lower = host.toLowerCase(Locale.ROOT);
+        return lower.startsWith("www.") ? lower.substring(4) : lower;
+    }
+}
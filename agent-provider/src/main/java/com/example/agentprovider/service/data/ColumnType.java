@@ -0,0 +1,8 @@
+package com.example.agentprovider.service.data;
+
+public enum ColumnType {
+    NUMBER,
+    BOOLEAN,
+    TEXT,
+    EMPTY
+}
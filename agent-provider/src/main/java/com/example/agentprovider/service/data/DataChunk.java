@@ -0,0 +1,162 @@
+package com.example.agentprovider.service.data;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * A run of up to {@code chunkRows} values of one column. A chunk stays numeric
+ * (a primitive {@code double[]}) until it sees its first non-numeric value, then
+ * it is converted to text once.
+ */
+final class DataChunk {
+
+    private static final byte KIND_NUMBER = 1;
+    private static final byte KIND_TEXT = 2;
+
+    private double[] numbers;
+    private String[] texts;
+    private final BitSet present;
+    private int size;
+    private long textBytes;
+
+    DataChunk(int capacity) {
+        this.numbers = new double[capacity];
+        this.present = new BitSet(capacity);
+    }
+
+    private DataChunk(double[] numbers, String[] texts, BitSet present, int size) {
+        this.numbers = numbers;
+        this.texts = texts;
+        this.present = present;
+        this.size = size;
+    }
+
+    static DataChunk empty(int size) {
+        return new DataChunk(new double[0], null, new BitSet(), size);
+    }
+
+    void setNumber(int row, double value) {
+        if (texts != null) {
+            setText(row, formatNumber(value));
+            return;
+        }
+        numbers[row] = value;
+        present.set(row);
+    }
+
+    void setText(int row, String value) {
+        if (texts == null) {
+            texts = new String[numbers.length];
+            for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+                texts[i] = formatNumber(numbers[i]);
+                textBytes += estimateBytes(texts[i]);
+            }
+            numbers = null;
+        }
+        texts[row] = value;
+        textBytes += estimateBytes(value);
+        present.set(row);
+    }
+
+    void seal(int rows) {
+        this.size = rows;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isNumeric() {
+        return texts == null;
+    }
+
+    boolean isNull(int row) {
+        return !present.get(row);
+    }
+
+    double getDouble(int row) {
+        if (!present.get(row)) {
+            return Double.NaN;
+        }
+        if (texts == null) {
+            return numbers[row];
+        }
+        try {
+            return Double.parseDouble(texts[row]);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    String getText(int row) {
+        if (!present.get(row)) {
+            return null;
+        }
+        return texts != null ? texts[row] : formatNumber(numbers[row]);
+    }
+
+    long estimatedBytes() {
+        long base = 64 + present.size() / 8;
+        return texts != null ? base + 8L * texts.length + textBytes : base + 8L * (numbers != null ? numbers.length : 0);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(texts != null ? KIND_TEXT : KIND_NUMBER);
+        out.writeInt(size);
+        long[] bits = present.toLongArray();
+        out.writeInt(bits.length);
+        for (long bit : bits) {
+            out.writeLong(bit);
+        }
+        for (int i = present.nextSetBit(0); i >= 0 && i < size; i = present.nextSetBit(i + 1)) {
+            if (texts != null) {
+                byte[] bytes = texts[i].getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            } else {
+                out.writeDouble(numbers[i]);
+            }
+        }
+    }
+
+    static DataChunk readFrom(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        int size = in.readInt();
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        BitSet present = BitSet.valueOf(bits);
+        double[] numbers = null;
+        String[] texts = null;
+        if (kind == KIND_TEXT) {
+            texts = new String[size];
+        } else {
+            numbers = new double[size];
+        }
+        for (int i = present.nextSetBit(0); i >= 0 && i < size; i = present.nextSetBit(i + 1)) {
+            if (texts != null) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                texts[i] = new String(bytes, StandardCharsets.UTF_8);
+            } else {
+                numbers[i] = in.readDouble();
+            }
+        }
+        return new DataChunk(numbers, texts, present, size);
+    }
+
+    static String formatNumber(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static long estimateBytes(String value) {
+        return value != null ? 40L + 2L * value.length() : 0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.agentprovider.service.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One column of a {@link DataTable}: its name, the value kinds seen during
+ * ingestion and the chunk slots, each either resident or spilled to disk.
+ */
+final class DataColumn {
+
+    private final String name;
+    private final List<Slot> slots = new ArrayList<>();
+    DataChunk current;
+
+    long numberCount;
+    long booleanCount;
+    long textCount;
+
+    DataColumn(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    ColumnType type() {
+        if (textCount > 0 || (booleanCount > 0 && numberCount > 0)) {
+            return ColumnType.TEXT;
+        }
+        if (booleanCount > 0) {
+            return ColumnType.BOOLEAN;
+        }
+        return numberCount > 0 ? ColumnType.NUMBER : ColumnType.EMPTY;
+    }
+
+    long nonNullCount() {
+        return numberCount + booleanCount + textCount;
+    }
+
+    void addChunk(DataChunk chunk) {
+        slots.add(new Slot(chunk));
+    }
+
+    int chunkCount() {
+        return slots.size();
+    }
+
+    DataChunk chunk(int index, SpillFile spillFile) throws IOException {
+        return slots.get(index).load(spillFile);
+    }
+
+    /** Writes a resident chunk to the spill file; returns the bytes released. */
+    long spill(int index, SpillFile spillFile) throws IOException {
+        Slot slot = slots.get(index);
+        if (slot.resident == null || slot.resident.size() == 0) {
+            return 0;
+        }
+        long released = slot.resident.estimatedBytes();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            slot.resident.writeTo(out);
+        }
+        byte[] data = bytes.toByteArray();
+        slot.offset = spillFile.append(data);
+        slot.length = data.length;
+        slot.resident = null;
+        return released;
+    }
+
+    private static final class Slot {
+        private DataChunk resident;
+        private long offset;
+        private int length;
+
+        private Slot(DataChunk resident) {
+            this.resident = resident;
+        }
+
+        private DataChunk load(SpillFile spillFile) throws IOException {
+            if (resident != null) {
+                return resident;
+            }
+            byte[] data = spillFile.read(offset, length);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                return DataChunk.readFrom(in);
+            }
+        }
+    }
+}
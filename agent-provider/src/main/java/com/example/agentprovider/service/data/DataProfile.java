@@ -0,0 +1,46 @@
+package com.example.agentprovider.service.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact statistical summary of a {@link DataTable}. Its size depends on the
+ * number of columns, not on the number of rows, so it is what the analysis
+ * prompt carries instead of the raw data.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DataProfile(
+    long rowCount,
+    int columnCount,
+    List<ColumnProfile> columns,
+    List<Correlation> correlations,
+    List<GroupedAggregate> groupedAggregates
+) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ColumnProfile(
+        String name,
+        ColumnType type,
+        long count,
+        long nulls,
+        Double min,
+        Double max,
+        Double mean,
+        Double stddev,
+        Map<String, Double> quantiles,
+        Integer distinct,
+        Boolean distinctApproximate,
+        List<ValueCount> topValues
+    ) {}
+
+    public record ValueCount(String value, long count) {}
+
+    public record Correlation(String columnA, String columnB, double pearson, long pairs) {}
+
+    public record GroupedAggregate(String groupBy, String metric, List<GroupStats> groups) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GroupStats(String key, long count, Double sum, Double mean) {}
+}
@@ -0,0 +1,283 @@
+package com.example.agentprovider.service.data;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+
+/**
+ * Computes a {@link DataProfile} for a table. Every column (and every
+ * correlation/grouping job) is an independent task on a dedicated fork-join
+ * pool that scans only the columns it needs.
+ */
+@Component
+public class DataProfiler {
+
+    private static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+    private static final MathContext PRECISION = new MathContext(6);
+
+    private final DataAnalyserConfig config;
+    private final ForkJoinPool pool;
+
+    public DataProfiler(DataAnalyserConfig config) {
+        this.config = config;
+        this.pool = new ForkJoinPool(Math.max(1, config.getProfileParallelism()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public DataProfile profile(DataTable table) throws IOException {
+        List<Callable<ColumnResult>> columnTasks = new ArrayList<>();
+        for (int c = 0; c < table.columnCount(); c++) {
+            int column = c;
+            columnTasks.add(() -> profileColumn(table, column));
+        }
+        List<ColumnResult> columns = invokeAll(columnTasks);
+
+        List<Integer> numeric = new ArrayList<>();
+        List<Integer> categorical = new ArrayList<>();
+        for (int c = 0; c < columns.size(); c++) {
+            ColumnResult result = columns.get(c);
+            if (result.profile().type() == ColumnType.NUMBER) {
+                numeric.add(c);
+            } else if (result.sketch() != null && result.sketch().isExact()
+                    && result.sketch().distinct() >= 2 && result.sketch().distinct() <= config.getMaxGroups()) {
+                categorical.add(c);
+            }
+        }
+
+        List<Integer> correlated = numeric.subList(0, Math.min(numeric.size(), config.getMaxCorrelationColumns()));
+        List<Callable<List<DataProfile.Correlation>>> correlationTasks = new ArrayList<>();
+        for (int i = 0; i < correlated.size() - 1; i++) {
+            int first = i;
+            correlationTasks.add(() -> correlate(table, correlated.get(first), correlated.subList(first + 1, correlated.size())));
+        }
+
+        List<Integer> metrics = numeric.subList(0, Math.min(numeric.size(), config.getMaxGroupMetrics()));
+        List<Callable<List<DataProfile.GroupedAggregate>>> groupTasks = new ArrayList<>();
+        if (!metrics.isEmpty()) {
+            for (int groupColumn : categorical.subList(0, Math.min(categorical.size(), config.getMaxGroupColumns()))) {
+                groupTasks.add(() -> aggregate(table, groupColumn, metrics));
+            }
+        }
+
+        List<DataProfile.Correlation> correlations = new ArrayList<>();
+        invokeAll(correlationTasks).forEach(correlations::addAll);
+        correlations.sort(Comparator.comparingDouble((DataProfile.Correlation c) -> Math.abs(c.pearson())).reversed());
+
+        List<DataProfile.GroupedAggregate> groupedAggregates = new ArrayList<>();
+        invokeAll(groupTasks).forEach(groupedAggregates::addAll);
+
+        List<DataProfile.ColumnProfile> columnProfiles = new ArrayList<>(columns.size());
+        columns.forEach(result -> columnProfiles.add(result.profile()));
+
+        return new DataProfile(
+            table.rowCount(),
+            table.columnCount(),
+            columnProfiles,
+            correlations.isEmpty() ? null : correlations,
+            groupedAggregates.isEmpty() ? null : groupedAggregates);
+    }
+
+    /** Selects evenly spaced rows so the sample covers the whole file, not just its head. */
+    public LongPredicate sampleRows(DataTable table) {
+        long sampleRows = Math.max(1, config.getSampleRows());
+        long step = Math.max(1, (table.rowCount() + sampleRows - 1) / sampleRows);
+        return row -> row % step == 0 && row / step < sampleRows;
+    }
+
+    private record ColumnResult(DataProfile.ColumnProfile profile, TopValuesSketch sketch) {}
+
+    private ColumnResult profileColumn(DataTable table, int column) throws IOException {
+        ColumnType type = table.columnType(column);
+        long count = table.nonNullCount(column);
+        long nulls = table.rowCount() - count;
+        String name = table.columnName(column);
+
+        if (type == ColumnType.NUMBER) {
+            double[] moments = new double[3]; // n, mean, m2 (Welford)
+            double[] range = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            QuantileSketch[] sketches = new QuantileSketch[QUANTILES.length];
+            for (int i = 0; i < QUANTILES.length; i++) {
+                sketches[i] = new QuantileSketch(QUANTILES[i]);
+            }
+            table.forEachChunk(new int[] {column}, chunk -> {
+                for (int row = 0; row < chunk.size(); row++) {
+                    if (chunk.isNull(column, row)) continue;
+                    double value = chunk.getDouble(column, row);
+                    moments[0]++;
+                    double delta = value - moments[1];
+                    moments[1] += delta / moments[0];
+                    moments[2] += delta * (value - moments[1]);
+                    range[0] = Math.min(range[0], value);
+                    range[1] = Math.max(range[1], value);
+                    for (QuantileSketch sketch : sketches) {
+                        sketch.add(value);
+                    }
+                }
+            });
+            Map<String, Double> quantiles = new LinkedHashMap<>();
+            for (int i = 0; i < QUANTILES.length; i++) {
+                quantiles.put("p" + Math.round(QUANTILES[i] * 100), round(sketches[i].estimate()));
+            }
+            boolean any = moments[0] > 0;
+            return new ColumnResult(new DataProfile.ColumnProfile(
+                name, type, count, nulls,
+                any ? round(range[0]) : null,
+                any ? round(range[1]) : null,
+                any ? round(moments[1]) : null,
+                moments[0] > 1 ? round(Math.sqrt(moments[2] / (moments[0] - 1))) : null,
+                any ? quantiles : null,
+                null, null, null), null);
+        }
+
+        if (type == ColumnType.EMPTY) {
+            return new ColumnResult(new DataProfile.ColumnProfile(
+                name, type, count, nulls, null, null, null, null, null, null, null, null), null);
+        }
+
+        TopValuesSketch sketch = new TopValuesSketch(config.getTopValuesCapacity());
+        table.forEachChunk(new int[] {column}, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                String value = chunk.getText(column, row);
+                if (value != null) {
+                    sketch.add(value);
+                }
+            }
+        });
+        List<DataProfile.ValueCount> topValues = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : sketch.top(config.getTopValues())) {
+            topValues.add(new DataProfile.ValueCount(entry.getKey(), entry.getValue()));
+        }
+        return new ColumnResult(new DataProfile.ColumnProfile(
+            name, type, count, nulls, null, null, null, null, null,
+            sketch.distinct(), sketch.isExact() ? null : Boolean.TRUE, topValues), sketch);
+    }
+
+    private List<DataProfile.Correlation> correlate(DataTable table, int first, List<Integer> others) throws IOException {
+        int[] columns = new int[others.size() + 1];
+        columns[0] = first;
+        for (int i = 0; i < others.size(); i++) {
+            columns[i + 1] = others.get(i);
+        }
+        // Per pair: n, meanX, meanY, co-moment, m2X, m2Y (pairwise complete observations)
+        double[][] acc = new double[others.size()][6];
+        table.forEachChunk(columns, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                if (chunk.isNull(first, row)) continue;
+                double x = chunk.getDouble(first, row);
+                for (int i = 0; i < others.size(); i++) {
+                    int other = columns[i + 1];
+                    if (chunk.isNull(other, row)) continue;
+                    double y = chunk.getDouble(other, row);
+                    double[] a = acc[i];
+                    a[0]++;
+                    double dx = x - a[1];
+                    a[1] += dx / a[0];
+                    double dy = y - a[2];
+                    a[2] += dy / a[0];
+                    a[3] += dx * (y - a[2]);
+                    a[4] += dx * (x - a[1]);
+                    a[5] += dy * (y - a[2]);
+                }
+            }
+        });
+
+        List<DataProfile.Correlation> correlations = new ArrayList<>();
+        for (int i = 0; i < others.size(); i++) {
+            double[] a = acc[i];
+            if (a[0] < 3 || a[4] <= 0 || a[5] <= 0) continue;
+            double pearson = a[3] / Math.sqrt(a[4] * a[5]);
+            correlations.add(new DataProfile.Correlation(
+                table.columnName(first), table.columnName(others.get(i)), round(pearson), (long) a[0]));
+        }
+        return correlations;
+    }
+
+    private List<DataProfile.GroupedAggregate> aggregate(DataTable table, int groupColumn, List<Integer> metrics) throws IOException {
+        int[] columns = new int[metrics.size() + 1];
+        columns[0] = groupColumn;
+        for (int i = 0; i < metrics.size(); i++) {
+            columns[i + 1] = metrics.get(i);
+        }
+        // Per group: row count, then (sum, count) for every metric
+        Map<String, double[]> groups = new HashMap<>();
+        table.forEachChunk(columns, chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                String key = chunk.getText(groupColumn, row);
+                if (key == null) continue;
+                double[] acc = groups.computeIfAbsent(key, k -> new double[1 + 2 * metrics.size()]);
+                acc[0]++;
+                for (int i = 0; i < metrics.size(); i++) {
+                    int metric = columns[i + 1];
+                    if (chunk.isNull(metric, row)) continue;
+                    acc[1 + 2 * i] += chunk.getDouble(metric, row);
+                    acc[2 + 2 * i]++;
+                }
+            }
+        });
+
+        List<Map.Entry<String, double[]>> ordered = new ArrayList<>(groups.entrySet());
+        ordered.sort(Comparator.comparingDouble((Map.Entry<String, double[]> e) -> e.getValue()[0]).reversed());
+
+        List<DataProfile.GroupedAggregate> aggregates = new ArrayList<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            List<DataProfile.GroupStats> stats = new ArrayList<>(ordered.size());
+            for (Map.Entry<String, double[]> entry : ordered) {
+                double[] acc = entry.getValue();
+                double sum = acc[1 + 2 * i];
+                double n = acc[2 + 2 * i];
+                stats.add(new DataProfile.GroupStats(entry.getKey(), (long) acc[0],
+                    n > 0 ? round(sum) : null, n > 0 ? round(sum / n) : null));
+            }
+            aggregates.add(new DataProfile.GroupedAggregate(
+                table.columnName(groupColumn), table.columnName(metrics.get(i)), stats));
+        }
+        return aggregates;
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Profiling interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Profiling failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static Double round(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return new BigDecimal(value).round(PRECISION).doubleValue();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.agentprovider.service.data;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Typed, column oriented table built once per data-analyser request and shared
+ * by validation, prompt building and charting. Columns are stored in chunks of
+ * primitive/text arrays; chunks beyond the memory budget live in a spill file
+ * that is removed on {@link #close()}.
+ */
+public final class DataTable implements AutoCloseable {
+
+    private final List<DataColumn> columns;
+    private final Map<String, Integer> columnIndex;
+    private final List<Integer> chunkSizes;
+    private final long rowCount;
+    private final SpillFile spillFile;
+    private final long fingerprint;
+
+    DataTable(List<DataColumn> columns, List<Integer> chunkSizes, long rowCount, SpillFile spillFile, long fingerprint) {
+        this.columns = columns;
+        this.chunkSizes = chunkSizes;
+        this.rowCount = rowCount;
+        this.spillFile = spillFile;
+        this.fingerprint = fingerprint;
+        this.columnIndex = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndex.putIfAbsent(columns.get(i).name(), i);
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /** Content hash computed during ingestion; equal data yields an equal fingerprint. */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public int columnCount() {
+        return columns.size();
+    }
+
+    public List<String> columnNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (DataColumn column : columns) {
+            names.add(column.name());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public String columnName(int column) {
+        return columns.get(column).name();
+    }
+
+    public ColumnType columnType(int column) {
+        return columns.get(column).type();
+    }
+
+    public long nonNullCount(int column) {
+        return columns.get(column).nonNullCount();
+    }
+
+    /** Returns the column index for a header name, or -1 when there is no such column. */
+    public int columnIndex(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = columnIndex.get(name);
+        if (index == null) {
+            index = columnIndex.get(name.trim());
+        }
+        return index != null ? index : -1;
+    }
+
+    public boolean isSpilled() {
+        return spillFile.isUsed();
+    }
+
+    public int chunkCount() {
+        return chunkSizes.size();
+    }
+
+    @FunctionalInterface
+    public interface ChunkVisitor {
+        void visit(ChunkView chunk) throws IOException;
+    }
+
+    /**
+     * Read-only view over one row chunk. Only the columns requested from
+     * {@link #forEachChunk(int[], ChunkVisitor)} are loaded.
+     */
+    public static final class ChunkView {
+        private final DataChunk[] chunks;
+        private final int size;
+        private final long firstRow;
+
+        private ChunkView(DataChunk[] chunks, int size, long firstRow) {
+            this.chunks = chunks;
+            this.size = size;
+            this.firstRow = firstRow;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long firstRow() {
+            return firstRow;
+        }
+
+        public boolean isNull(int column, int row) {
+            return loaded(column).isNull(row);
+        }
+
+        public double getDouble(int column, int row) {
+            return loaded(column).getDouble(row);
+        }
+
+        public String getText(int column, int row) {
+            return loaded(column).getText(row);
+        }
+
+        private DataChunk loaded(int column) {
+            DataChunk chunk = chunks[column];
+            if (chunk == null) {
+                throw new IllegalStateException("Column " + column + " was not requested for this scan");
+            }
+            return chunk;
+        }
+    }
+
+    /** Visits all chunks in row order, loading every column. */
+    public void forEachChunk(ChunkVisitor visitor) throws IOException {
+        int[] all = new int[columns.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        forEachChunk(all, visitor);
+    }
+
+    /**
+     * Visits all chunks in row order, loading only the given columns. The scan
+     * stops with an {@link InterruptedIOException} once the thread is interrupted,
+     * so cancelled profiling/render tasks do not keep reading the table.
+     */
+    public void forEachChunk(int[] columnIndexes, ChunkVisitor visitor) throws IOException {
+        long firstRow = 0;
+        for (int c = 0; c < chunkSizes.size(); c++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Table scan interrupted");
+            }
+            DataChunk[] chunks = new DataChunk[columns.size()];
+            for (int column : columnIndexes) {
+                chunks[column] = columns.get(column).chunk(c, spillFile);
+            }
+            int size = chunkSizes.get(c);
+            visitor.visit(new ChunkView(chunks, size, firstRow));
+            firstRow += size;
+        }
+    }
+
+    /** Streams the table as a JSON array of row objects; null cells are omitted. */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        writeJson(generator, row -> true);
+    }
+
+    /** Streams the rows accepted by {@code rowFilter} (by absolute row index) as a JSON array. */
+    public void writeJson(JsonGenerator generator, LongPredicate rowFilter) throws IOException {
+        ColumnType[] types = new ColumnType[columns.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = columns.get(i).type();
+        }
+        generator.writeStartArray();
+        forEachChunk(chunk -> {
+            for (int row = 0; row < chunk.size(); row++) {
+                if (!rowFilter.test(chunk.firstRow() + row)) continue;
+                generator.writeStartObject();
+                for (int column = 0; column < types.length; column++) {
+                    if (chunk.isNull(column, row)) continue;
+                    generator.writeFieldName(columns.get(column).name());
+                    switch (types[column]) {
+                        case NUMBER -> writeNumber(generator, chunk.getDouble(column, row));
+                        case BOOLEAN -> generator.writeBoolean(Boolean.parseBoolean(chunk.getText(column, row)));
+                        default -> generator.writeString(chunk.getText(column, row));
+                    }
+                }
+                generator.writeEndObject();
+            }
+        });
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    private static void writeNumber(JsonGenerator generator, double value) throws IOException {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            generator.writeNumber((long) value);
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    @Override
+    public void close() {
+        spillFile.close();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.agentprovider.service.data;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row-at-a-time writer for a {@link DataTable}. Readers call one of the
+ * {@code set*} methods per cell and {@link #endRow()} per record; whenever the
+ * resident size exceeds the configured budget, sealed chunks are spilled.
+ */
+public final class DataTableBuilder {
+
+    private static final Pattern NUMBER = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+    private static final Pattern INTEGER = Pattern.compile("[-+]?(\\d+)");
+
+    /** Integers with more digits than this do not survive a round-trip through double. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final int chunkRows;
+    private final long maxInMemoryBytes;
+    private final long maxRows;
+    private final SpillFile spillFile;
+
+    private final List<DataColumn> columns = new ArrayList<>();
+    private final Map<String, Integer> columnsByName = new HashMap<>();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private long rowCount;
+    private int rowInChunk;
+    private long residentBytes;
+    private int spilledChunks;
+    private long fingerprint = 0xcbf29ce484222325L;
+
+    public DataTableBuilder(DataAnalyserConfig config) {
+        this.chunkRows = Math.max(1, config.getChunkRows());
+        this.maxInMemoryBytes = config.getMaxInMemoryBytes();
+        this.maxRows = config.getMaxRows();
+        this.spillFile = new SpillFile(config.getSpillDirectory());
+    }
+
+    /** Adds a new positional column (CSV/Excel headers); blank names get a generated one. */
+    public int addColumn(String name) {
+        String columnName = name == null || name.isBlank() ? "column_" + (columns.size() + 1) : name.trim();
+        DataColumn column = new DataColumn(columnName);
+        for (int size : chunkSizes) {
+            column.addChunk(DataChunk.empty(size));
+        }
+        columns.add(column);
+        columnsByName.putIfAbsent(columnName, columns.size() - 1);
+        return columns.size() - 1;
+    }
+
+    /** Returns the column with the given name, adding it if needed (JSON objects). */
+    public int column(String name) {
+        Integer index = columnsByName.get(name);
+        return index != null ? index : addColumn(name);
+    }
+
+    public int columnCount() {
+        return columns.size();
+    }
+
+    public void setNumber(int column, double value) {
+        DataColumn target = columns.get(column);
+        currentChunk(target).setNumber(rowInChunk, value);
+        target.numberCount++;
+        mix(column, Double.doubleToLongBits(value));
+    }
+
+    public void setBoolean(int column, boolean value) {
+        DataColumn target = columns.get(column);
+        currentChunk(target).setText(rowInChunk, Boolean.toString(value));
+        target.booleanCount++;
+        mix(column, value ? 1231 : 1237);
+    }
+
+    public void setText(int column, String value) {
+        if (value == null) return;
+        DataColumn target = columns.get(column);
+        currentChunk(target).setText(rowInChunk, value);
+        target.textCount++;
+        mix(column, hashUtf8(value));
+    }
+
+    /**
+     * Stores a raw cell value, typing it as a number when it looks like one; blank cells stay null.
+     * Identifier-like integers (leading zero or more than 15 digits) are kept as text so that
+     * account and card numbers are not rounded.
+     */
+    public void setValue(int column, String raw) {
+        if (raw == null) return;
+        String value = raw.trim();
+        if (value.isEmpty()) return;
+        if (NUMBER.matcher(value).matches() && !isIdentifierLike(value)) {
+            setNumber(column, Double.parseDouble(value));
+        } else {
+            setText(column, value);
+        }
+    }
+
+    static boolean isIdentifierLike(String value) {
+        Matcher matcher = INTEGER.matcher(value);
+        if (!matcher.matches()) return false;
+        String digits = matcher.group(1);
+        return (digits.length() > 1 && digits.charAt(0) == '0') || digits.length() > MAX_EXACT_DIGITS;
+    }
+
+    public void endRow() throws IOException {
+        mix(-1, rowCount);
+        rowCount++;
+        if (rowCount > maxRows) {
+            spillFile.close();
+            throw new IOException("Data exceeds the maximum of " + maxRows + " rows");
+        }
+        rowInChunk++;
+        if (rowInChunk == chunkRows) {
+            sealChunk();
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public DataTable build() throws IOException {
+        if (rowInChunk > 0) {
+            sealChunk();
+        }
+        for (DataColumn column : columns) {
+            mix(-2, hashUtf8(column.name()));
+        }
+        return new DataTable(columns, chunkSizes, rowCount, spillFile, fingerprint);
+    }
+
+    /** Releases the spill file when ingestion fails before {@link #build()}. */
+    public void discard() {
+        spillFile.close();
+    }
+
+    /** Order sensitive 64-bit content hash, used as cache key for derived artifacts such as charts. */
+    private void mix(int column, long value) {
+        long h = (value ^ ((long) column * 0x9e3779b97f4a7c15L)) * 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        fingerprint = (fingerprint ^ h) * 0x100000001b3L;
+    }
+
+    /**
+     * 64-bit MurmurHash3-style hash of the UTF-8 encoding of {@code value}. The bytes are
+     * produced on the fly, so no encoded copy of the string is allocated per cell.
+     */
+    static long hashUtf8(String value) {
+        Utf8Hasher hasher = new Utf8Hasher();
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint < 0x80) {
+                hasher.add(codePoint);
+            } else if (codePoint < 0x800) {
+                hasher.add(0xc0 | (codePoint >>> 6));
+                hasher.add(0x80 | (codePoint & 0x3f));
+            } else if (codePoint < 0x10000) {
+                hasher.add(0xe0 | (codePoint >>> 12));
+                hasher.add(0x80 | ((codePoint >>> 6) & 0x3f));
+                hasher.add(0x80 | (codePoint & 0x3f));
+            } else {
+                hasher.add(0xf0 | (codePoint >>> 18));
+                hasher.add(0x80 | ((codePoint >>> 12) & 0x3f));
+                hasher.add(0x80 | ((codePoint >>> 6) & 0x3f));
+                hasher.add(0x80 | (codePoint & 0x3f));
+            }
+        }
+        return hasher.finish();
+    }
+
+    private static final class Utf8Hasher {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long hash = 0x9368e53c2f6af274L;
+        private long word;
+        private int bytesInWord;
+        private long length;
+
+        void add(int b) {
+            word |= (long) (b & 0xff) << (8 * bytesInWord);
+            length++;
+            if (++bytesInWord == 8) {
+                hash ^= mixWord(word);
+                hash = Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+                word = 0;
+                bytesInWord = 0;
+            }
+        }
+
+        long finish() {
+            if (bytesInWord > 0) {
+                hash ^= mixWord(word);
+            }
+            hash ^= length;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+
+        private static long mixWord(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            k *= C2;
+            return k;
+        }
+    }
+
+    private DataChunk currentChunk(DataColumn column) {
+        if (column.current == null) {
+            column.current = new DataChunk(chunkRows);
+        }
+        return column.current;
+    }
+
+    private void sealChunk() throws IOException {
+        for (DataColumn column : columns) {
+            DataChunk chunk = column.current != null ? column.current : DataChunk.empty(rowInChunk);
+            chunk.seal(rowInChunk);
+            column.addChunk(chunk);
+            column.current = null;
+            residentBytes += chunk.estimatedBytes();
+        }
+        chunkSizes.add(rowInChunk);
+        rowInChunk = 0;
+
+        // Spill oldest chunks first until the resident size is back under budget
+        while (residentBytes > maxInMemoryBytes && spilledChunks < chunkSizes.size()) {
+            for (DataColumn column : columns) {
+                residentBytes -= column.spill(spilledChunks, spillFile);
+            }
+            spilledChunks++;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.agentprovider.service.data;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Streams CSV, Excel and JSON input into a {@link DataTable} without building
+ * an intermediate object model. xlsx files are read with the POI SAX event API,
+ * CSV record by record and JSON token by token.
+ */
+@Component
+public class DataTableReader {
+
+    private final DataAnalyserConfig config;
+    private final JsonFactory jsonFactory;
+
+    public DataTableReader(DataAnalyserConfig config, ObjectMapper objectMapper) {
+        this.config = config;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public DataTable readCsv(InputStream inputStream) throws IOException {
+        DataTableBuilder builder = new DataTableBuilder(config);
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.Builder.create().setHeader().build())) {
+
+            for (String header : csvParser.getHeaderNames()) {
+                builder.addColumn(header);
+            }
+            for (CSVRecord record : csvParser) {
+                int cells = Math.min(record.size(), builder.columnCount());
+                for (int i = 0; i < cells; i++) {
+                    builder.setValue(i, record.get(i));
+                }
+                builder.endRow();
+            }
+            return builder.build();
+        } catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+    }
+
+    public DataTable readExcel(InputStream inputStream) throws IOException {
+        InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        if (FileMagic.valueOf(in) == FileMagic.OOXML) {
+            return readXlsx(in);
+        }
+        return readXls(in);
+    }
+
+    public DataTable readJson(InputStream inputStream) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            return readJson(parser);
+        }
+    }
+
+    /**
+     * Parses a JSON value embedded in free text, reading directly from the
+     * located span of the original string.
+     */
+    public DataTable readJson(CharSequence text, JsonLocator.Span span) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(JsonLocator.reader(text, span))) {
+            return readJson(parser);
+        }
+    }
+
+    /**
+     * Reads a JSON array of objects (or a single object) from the parser's
+     * current position. Nested values are kept as their JSON text.
+     */
+    public DataTable readJson(JsonParser parser) throws IOException {
+        DataTableBuilder builder = new DataTableBuilder(config);
+        try {
+            JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                readJsonRow(parser, builder);
+            } else if (token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new IOException("Unexpected end of JSON array");
+                    }
+                    if (token == JsonToken.START_OBJECT) {
+                        readJsonRow(parser, builder);
+                    } else {
+                        setJsonValue(parser, builder, builder.column("value"));
+                        builder.endRow();
+                    }
+                }
+            } else {
+                throw new IOException("JSON data must be an array or an object");
+            }
+            return builder.build();
+        } catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+    }
+
+    private void readJsonRow(JsonParser parser, DataTableBuilder builder) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int column = builder.column(parser.currentName());
+            parser.nextToken();
+            setJsonValue(parser, builder, column);
+        }
+        builder.endRow();
+    }
+
+    private void setJsonValue(JsonParser parser, DataTableBuilder builder, int column) throws IOException {
+        switch (parser.currentToken()) {
+            // Integers go through the same rule as CSV so long identifiers are not rounded
+            case VALUE_NUMBER_INT -> builder.setValue(column, parser.getText());
+            case VALUE_NUMBER_FLOAT -> builder.setNumber(column, parser.getDoubleValue());
+            case VALUE_TRUE -> builder.setBoolean(column, true);
+            case VALUE_FALSE -> builder.setBoolean(column, false);
+            case VALUE_NULL -> { }
+            case START_OBJECT, START_ARRAY -> builder.setText(column, parser.readValueAsTree().toString());
+            default -> builder.setText(column, parser.getText());
+        }
+    }
+
+    private DataTable readXlsx(InputStream inputStream) throws IOException {
+        // OPCPackage needs random access to the zip; a temp file avoids buffering it on the heap
+        Path tempFile = Files.createTempFile("data-analyser-", ".xlsx");
+        DataTableBuilder builder = new DataTableBuilder(config);
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (sheets.hasNext()) {
+                    try (InputStream sheet = sheets.next()) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(
+                            styles, null, strings, new SheetToTable(builder), new RawNumberFormatter(), false));
+                        parser.parse(new InputSource(sheet));
+                    }
+                }
+            }
+            return builder.build();
+        } catch (UncheckedIOException e) {
+            builder.discard();
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        } catch (Exception e) {
+            builder.discard();
+            throw new IOException("Failed to read xlsx file: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private DataTable readXls(InputStream inputStream) throws IOException {
+        // Legacy .xls files are capped at 65536 rows, so the user model is acceptable here
+        DataTableBuilder builder = new DataTableBuilder(config);
+        try (Workbook workbook = new HSSFWorkbook(inputStream)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Row headerRow = sheet.getRow(0);
+            if (headerRow == null) {
+                return builder.build();
+            }
+
+            Map<Integer, Integer> columns = new HashMap<>();
+            for (Cell cell : headerRow) {
+                columns.put(cell.getColumnIndex(), builder.addColumn(cell.toString()));
+            }
+
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null) continue;
+                for (Cell cell : row) {
+                    Integer column = columns.get(cell.getColumnIndex());
+                    if (column == null) continue;
+                    switch (cell.getCellType()) {
+                        case NUMERIC -> {
+                            if (DateUtil.isCellDateFormatted(cell)) {
+                                builder.setText(column, cell.getDateCellValue().toString());
+                            } else {
+                                builder.setNumber(column, cell.getNumericCellValue());
+                            }
+                        }
+                        case BOOLEAN -> builder.setBoolean(column, cell.getBooleanCellValue());
+                        case BLANK -> { }
+                        default -> builder.setValue(column, cell.toString());
+                    }
+                }
+                builder.endRow();
+            }
+            return builder.build();
+        } catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps SAX sheet events onto the table builder: row 0 is the header row,
+     * every following row becomes a record.
+     */
+    private static final class SheetToTable implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final DataTableBuilder builder;
+        private final Map<Integer, Integer> columns = new HashMap<>();
+        private boolean headerRead;
+        private boolean inHeader;
+
+        private SheetToTable(DataTableBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            inHeader = !headerRead;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (inHeader) {
+                headerRead = true;
+                return;
+            }
+            try {
+                builder.endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) return;
+            int columnIndex = new CellReference(cellReference).getCol();
+            if (inHeader) {
+                columns.put(columnIndex, builder.addColumn(formattedValue));
+                return;
+            }
+            Integer column = columns.get(columnIndex);
+            if (column == null || formattedValue == null) return;
+            if ("TRUE".equals(formattedValue) || "FALSE".equals(formattedValue)) {
+                builder.setBoolean(column, Boolean.parseBoolean(formattedValue));
+            } else {
+                builder.setValue(column, formattedValue);
+            }
+        }
+    }
+
+    /**
+     * Keeps plain numbers unformatted (no thousands separators or rounding) so
+     * they can be typed as numbers; date formatted cells are rendered as dates.
+     */
+    private static final class RawNumberFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getJavaDate(value).toString();
+            }
+            return Double.toString(value);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.agentprovider.service.data;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds JSON arrays/objects embedded in free text with a linear scan
+ * that balances brackets and skips over string literals (including escapes).
+ * Results are offsets into the original text; nothing is copied.
+ */
+public final class JsonLocator {
+
+    private JsonLocator() {
+    }
+
+    /** Half-open range {@code [start, end)} of a candidate JSON value. */
+    public record Span(int start, int end) {
+
+        public int length() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Returns every candidate {@code [...]} or {@code {...}} in the text, in order.
+     * Candidates are the outermost balanced values: brackets that never close
+     * (e.g. a stray "[" in prose) do not hide the balanced values inside them.
+     * Candidates never overlap, so parsing all of them is linear in the text as well.
+     * <p>
+     * A quote inside brackets starts a string only if some later quote can close it.
+     * The first time one would run to the end of the text it is treated as prose
+     * instead, and the region after the outermost open bracket is scanned again with
+     * nothing open. This happens at most once, so the scan stays linear.
+     */
+    public static List<Span> findAll(CharSequence text) {
+        int length = text.length();
+        int lastCloser = lastUnescapedQuote(text);
+        List<Span> spans = new ArrayList<>();
+        int[] openPositions = new int[16];
+        char[] expected = new char[16];
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean rescanned = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    if (depth == 0) {
+                        continue;
+                    }
+                    if (i < lastCloser) {
+                        inString = true;
+                    } else if (!rescanned) {
+                        // Stray quote: rescan what the outermost open bracket swallowed
+                        rescanned = true;
+                        int outermost = openPositions[0];
+                        removeNested(spans, outermost);
+                        depth = 0;
+                        i = outermost;
+                    }
+                }
+                case '[', '{' -> {
+                    if (depth == openPositions.length) {
+                        openPositions = Arrays.copyOf(openPositions, depth * 2);
+                        expected = Arrays.copyOf(expected, depth * 2);
+                    }
+                    openPositions[depth] = i;
+                    expected[depth] = c == '[' ? ']' : '}';
+                    depth++;
+                }
+                case ']', '}' -> {
+                    if (depth == 0) {
+                        continue;
+                    }
+                    if (expected[depth - 1] != c) {
+                        // Mismatched closer: whatever is open cannot be JSON
+                        depth = 0;
+                        continue;
+                    }
+                    depth--;
+                    // Values that closed earlier inside this one are no longer outermost
+                    removeNested(spans, openPositions[depth]);
+                    spans.add(new Span(openPositions[depth], i + 1));
+                }
+                default -> { }
+            }
+        }
+        return spans;
+    }
+
+    private static void removeNested(List<Span> spans, int start) {
+        while (!spans.isEmpty() && spans.get(spans.size() - 1).start() > start) {
+            spans.remove(spans.size() - 1);
+        }
+    }
+
+    /** Index of the last quote not preceded by an odd run of backslashes, or -1. */
+    private static int lastUnescapedQuote(CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (text.charAt(i) != '"') continue;
+            int backslashes = 0;
+            for (int j = i - 1; j >= 0 && text.charAt(j) == '\\'; j--) {
+                backslashes++;
+            }
+            if (backslashes % 2 == 0) {
+                return i;
+            }
+            i -= backslashes;
+        }
+        return -1;
+    }
+
+    /** Returns a reader over the span without copying the underlying text. */
+    public static Reader reader(CharSequence text, Span span) {
+        return new SpanReader(text, span.start(), span.end());
+    }
+
+    /** Removes the span from the text, copying the remaining characters once. */
+    public static String remove(CharSequence text, Span span) {
+        StringBuilder sb = new StringBuilder(text.length() - span.length());
+        sb.append(text, 0, span.start());
+        sb.append(text, span.end(), text.length());
+        return sb.toString();
+    }
+
+    private static final class SpanReader extends Reader {
+        private final CharSequence text;
+        private final int end;
+        private int position;
+
+        private SpanReader(CharSequence text, int start, int end) {
+            this.text = text;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= end) {
+                return -1;
+            }
+            int count = Math.min(length, end - position);
+            if (text instanceof String string) {
+                string.getChars(position, position + count, buffer, offset);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    buffer[offset + i] = text.charAt(position + i);
+                }
+            }
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.agentprovider.service.data;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimate using the P² algorithm (Jain & Chlamtac): five
+ * markers per quantile, constant memory regardless of row count.
+ */
+final class QuantileSketch {
+
+    private final double p;
+    private final double[] q = new double[5];
+    private final int[] n = new int[5];
+    private final double[] np = new double[5];
+    private final double[] dn;
+    private int count;
+
+    QuantileSketch(double p) {
+        this.p = p;
+        this.dn = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    void add(double x) {
+        if (count < 5) {
+            q[count++] = x;
+            if (count == 5) {
+                Arrays.sort(q);
+                for (int i = 0; i < 5; i++) {
+                    n[i] = i + 1;
+                }
+                np[0] = 1;
+                np[1] = 1 + 2 * p;
+                np[2] = 1 + 4 * p;
+                np[3] = 3 + 2 * p;
+                np[4] = 5;
+            }
+            return;
+        }
+        count++;
+
+        int k;
+        if (x < q[0]) {
+            q[0] = x;
+            k = 0;
+        } else if (x >= q[4]) {
+            q[4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (k < 3 && x >= q[k + 1]) {
+                k++;
+            }
+        }
+        for (int i = k + 1; i < 5; i++) {
+            n[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            np[i] += dn[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double d = np[i] - n[i];
+            if ((d >= 1 && n[i + 1] - n[i] > 1) || (d <= -1 && n[i - 1] - n[i] < -1)) {
+                int sign = d > 0 ? 1 : -1;
+                double candidate = parabolic(i, sign);
+                q[i] = q[i - 1] < candidate && candidate < q[i + 1] ? candidate : linear(i, sign);
+                n[i] += sign;
+            }
+        }
+    }
+
+    double estimate() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] sorted = Arrays.copyOf(q, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.round(p * (count - 1)))];
+        }
+        return q[2];
+    }
+
+    private double parabolic(int i, int d) {
+        return q[i] + (double) d / (n[i + 1] - n[i - 1])
+            * ((n[i] - n[i - 1] + d) * (q[i + 1] - q[i]) / (n[i + 1] - n[i])
+            + (n[i + 1] - n[i] - d) * (q[i] - q[i - 1]) / (n[i] - n[i - 1]));
+    }
+
+    private double linear(int i, int d) {
+        return q[i] + d * (q[i + d] - q[i]) / (n[i + d] - n[i]);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.agentprovider.service.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only temp file holding chunks that no longer fit in the memory budget.
+ * The file is created on first use and deleted when the owning table is closed.
+ */
+final class SpillFile implements AutoCloseable {
+
+    private final String directory;
+    private Path path;
+    private FileChannel channel;
+    private long position;
+
+    SpillFile(String directory) {
+        this.directory = directory;
+    }
+
+    long append(byte[] bytes) throws IOException {
+        if (channel == null) {
+            Path dir = directory != null && !directory.isBlank()
+                ? Paths.get(directory)
+                : Paths.get(System.getProperty("java.io.tmpdir"));
+            Files.createDirectories(dir);
+            path = Files.createTempFile(dir, "data-table-", ".spill");
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        long offset = position;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return offset;
+    }
+
+    byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long pos = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, pos);
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill file");
+            }
+            pos += read;
+        }
+        return buffer.array();
+    }
+
+    boolean isUsed() {
+        return channel != null;
+    }
+
+    long size() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete spill file " + path, e);
+        } finally {
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.agentprovider.service.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters sketch: keeps at most {@code capacity} counters,
+ * so the most frequent categories are found in one pass with bounded memory.
+ * As long as no counter was evicted the counts (and the distinct count) are exact.
+ * <p>
+ * Counters live in a Stream-Summary structure: a list of buckets sorted by count,
+ * each holding the counters with that count. Increments and evictions of the
+ * minimum counter are O(1), independent of the capacity.
+ */
+final class TopValuesSketch {
+
+    private static final class Bucket {
+        final long count;
+        Counter head;
+        Bucket prev;
+        Bucket next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private static final class Counter {
+        String value;
+        Bucket bucket;
+        Counter prev;
+        Counter next;
+
+        Counter(String value) {
+            this.value = value;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private Bucket minBucket;
+    private boolean evicted;
+
+    TopValuesSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    void add(String value) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(value);
+            counters.put(value, counter);
+            if (minBucket == null || minBucket.count != 1) {
+                Bucket bucket = new Bucket(1);
+                bucket.next = minBucket;
+                if (minBucket != null) minBucket.prev = bucket;
+                minBucket = bucket;
+            }
+            attach(counter, minBucket);
+            return;
+        }
+
+        // Replace a smallest counter; the newcomer inherits its count as overestimate
+        counter = minBucket.head;
+        counters.remove(counter.value);
+        counter.value = value;
+        counters.put(value, counter);
+        increment(counter);
+        evicted = true;
+    }
+
+    boolean isExact() {
+        return !evicted;
+    }
+
+    int distinct() {
+        return counters.size();
+    }
+
+    List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(Math.min(k, counters.size()));
+        Bucket bucket = minBucket;
+        while (bucket != null && bucket.next != null) {
+            bucket = bucket.next;
+        }
+        // Walk from the largest bucket down
+        for (; bucket != null && entries.size() < k; bucket = bucket.prev) {
+            for (Counter counter = bucket.head; counter != null && entries.size() < k; counter = counter.next) {
+                entries.add(Map.entry(counter.value, bucket.count));
+            }
+        }
+        return entries;
+    }
+
+    private void increment(Counter counter) {
+        Bucket current = counter.bucket;
+        long count = current.count + 1;
+        Bucket target = current.next;
+        if (target == null || target.count != count) {
+            target = new Bucket(count);
+            target.prev = current;
+            target.next = current.next;
+            if (current.next != null) current.next.prev = target;
+            current.next = target;
+        }
+        detach(counter);
+        attach(counter, target);
+    }
+
+    private void attach(Counter counter, Bucket bucket) {
+        counter.bucket = bucket;
+        counter.prev = null;
+        counter.next = bucket.head;
+        if (bucket.head != null) bucket.head.prev = counter;
+        bucket.head = counter;
+    }
+
+    private void detach(Counter counter) {
+        Bucket bucket = counter.bucket;
+        if (counter.prev != null) {
+            counter.prev.next = counter.next;
+        } else {
+            bucket.head = counter.next;
+        }
+        if (counter.next != null) counter.next.prev = counter.prev;
+        counter.prev = null;
+        counter.next = null;
+
+        if (bucket.head == null) {
+            // Unlink the empty bucket
+            if (bucket.prev != null) {
+                bucket.prev.next = bucket.next;
+            } else {
+                minBucket = bucket.next;
+            }
+            if (bucket.next != null) bucket.next.prev = bucket.prev;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.agentprovider.service.image;
+
+import com.example.agentprovider.config.ImageGeneratorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed PNG store. Images are streamed to a temp file, named by the
+ * SHA-256 of their bytes and moved into place atomically, so the same image is
+ * stored once and an id always refers to the same bytes. Once the store grows
+ * past its budget the least recently stored or reused images are removed.
+ */
+@Component
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+    private static final String EXTENSION = ".png";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public ImageStore(ImageGeneratorConfig config) {
+        this.directory = config.getStoreDirectory() != null && !config.getStoreDirectory().isBlank()
+            ? Paths.get(config.getStoreDirectory())
+            : Paths.get(System.getProperty("java.io.tmpdir"), "agent-images");
+        this.maxBytes = config.getStoreMaxBytes();
+    }
+
+    /** Writes the bytes to the store and returns their id. Buffers are released as they are written. */
+    public Mono<String> store(Flux<DataBuffer> data) {
+        return Mono.fromCallable(() -> {
+                Files.createDirectories(directory);
+                return Files.createTempFile(directory, "upload-", ".tmp");
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(temp -> DataBufferUtils.write(data, temp)
+                .then(Mono.fromCallable(() -> commit(temp)).subscribeOn(Schedulers.boundedElastic()))
+                .doOnError(e -> deleteQuietly(temp))
+                .doOnCancel(() -> deleteQuietly(temp)));
+    }
+
+    /** Returns the image path when the id is well-formed and the image is still stored. */
+    public Optional<Path> find(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(id + EXTENSION);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /** Marks an image as recently used so eviction keeps it. */
+    public void touch(String id) {
+        find(id).ifPresent(path -> {
+            try {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                logger.debug("Could not touch image {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    private String commit(Path temp) throws IOException {
+        String id = sha256(temp);
+        Path target = directory.resolve(id + EXTENSION);
+        if (Files.exists(target)) {
+            // Same bytes are already stored
+            Files.delete(temp);
+            touch(id);
+            return id;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temp);
+        }
+        evict(target);
+        return id;
+    }
+
+    private void evict(Path keep) throws IOException {
+        List<Path> images = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).forEach(images::add);
+        }
+        long total = 0;
+        for (Path image : images) {
+            total += sizeOf(image);
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        images.sort(Comparator.comparing(ImageStore::lastModified));
+        for (Path image : images) {
+            if (total <= maxBytes) break;
+            if (image.equals(keep)) continue;
+            long size = sizeOf(image);
+            if (Files.deleteIfExists(image)) {
+                total -= size;
+                logger.debug("Evicted stored image {}", image.getFileName());
+            }
+        }
+    }
+
+    private static String sha256(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            // Removed concurrently; sorts first and is skipped by deleteIfExists
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp image {}: {}", path, e.getMessage());
+        }
+    }
+}
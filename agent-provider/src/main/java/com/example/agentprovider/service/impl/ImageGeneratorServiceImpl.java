@@ -1,75 +1,202 @@
 package com.example.agentprovider.service.impl;
 
+import com.example.agentprovider.client.OutboundHttpClients;
+import com.example.agentprovider.config.ImageGeneratorConfig;
 import com.example.agentprovider.model.ImageGeneratorRequest;
 import com.example.agentprovider.model.ImageGeneratorResponse;
-import com.example.agentprovider.model.stability.StabilityAiResponse;
+import com.example.agentprovider.model.ImageJob;
 import com.example.agentprovider.service.ImageGeneratorService;
+import com.example.agentprovider.service.admission.AgentBulkheads;
+import com.example.agentprovider.service.admission.AgentType;
+import com.example.agentprovider.service.image.ImageStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ImageGeneratorServiceImpl implements ImageGeneratorService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageGeneratorServiceImpl.class);
+    private static final String ENGINE = "stable-diffusion-v1-6";
+    private static final int STEPS = 30;
+    private static final int CFG_SCALE = 7;
+
     private final WebClient webClient;
     private final String apiKey;
+    private final ImageStore imageStore;
+    // Prompt hash -> stored image id; concurrent identical prompts share one Stability AI call
+    private final AsyncCache<String, String> promptCache;
+    private final Cache<String, ImageJob> jobs;
+    private final AgentBulkheads bulkheads;
 
-    public ImageGeneratorServiceImpl(@Value("${stability.ai.key}") String apiKey) {
+    public ImageGeneratorServiceImpl(@Value("${stability.ai.key}") String apiKey, ImageStore imageStore,
+                                     ImageGeneratorConfig config, OutboundHttpClients httpClients,
+                                     AgentBulkheads bulkheads) {
         this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
-            .baseUrl("https://api.stability.ai")
+        this.imageStore = imageStore;
+        this.bulkheads = bulkheads;
+        this.webClient = httpClients.builder(OutboundHttpClients.STABILITY, "https://api.stability.ai")
             .defaultHeader("Authorization", "Bearer " + apiKey)
             .defaultHeader("Content-Type", "application/json")
             .build();
+        this.promptCache = Caffeine.newBuilder()
+            .maximumSize(config.getPromptCacheEntries())
+            .expireAfterWrite(Duration.ofHours(config.getPromptCacheTtlHours()))
+            .buildAsync();
+        this.jobs = Caffeine.newBuilder()
+            .maximumSize(config.getJobMaxEntries())
+            .expireAfterWrite(Duration.ofMinutes(config.getJobTtlMinutes()))
+            .build();
+    }
+
+    private record StoredImage(String imageId, boolean cached) {
+    }
+
+    @Override
+    public Mono<ImageGeneratorResponse> generateImage(ImageGeneratorRequest request) {
+        if (request.getContent() == null || request.getContent().trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Content cannot be null or empty"));
+        }
+        long startTime = System.currentTimeMillis();
+
+        return generateStored(request)
+            .flatMap(stored -> {
+                ImageGeneratorResponse response = ImageGeneratorResponse.builder()
+                    .imageId(stored.imageId())
+                    .cached(stored.cached())
+                    .success(true)
+                    .build();
+                if (!request.isInlineBase64()) {
+                    return Mono.just(response);
+                }
+                // Inline mode keeps the old response shape; the file is read once, off the request thread
+                return Mono.fromCallable(() -> {
+                        Path path = imageStore.find(stored.imageId())
+                            .orElseThrow(() -> new IllegalStateException("Stored image was evicted"));
+                        response.setBase64Image(Base64.getEncoder().encodeToString(Files.readAllBytes(path)));
+                        return response;
+                    })
+                    .subscribeOn(Schedulers.boundedElastic());
+            })
+            .doOnNext(response -> response.setProcessingTimeMs(System.currentTimeMillis() - startTime))
+            .onErrorMap(e -> !(e instanceof IllegalArgumentException), e -> {
+                logger.error("Error from Stability AI: {}", e.getMessage());
+                return new RuntimeException("Failed to generate image: " + e.getMessage());
+            });
     }
 
     @Override
-    public ImageGeneratorResponse generateImage(ImageGeneratorRequest request) {
+    public ImageJob submit(ImageGeneratorRequest request) {
         if (request.getContent() == null || request.getContent().trim().isEmpty()) {
             throw new IllegalArgumentException("Content cannot be null or empty");
         }
+        // Reject up front while a 202 can still become a 429; the job itself then waits for a slot
+        bulkheads.checkAdmission(AgentType.IMAGE_GENERATOR);
+        long startTime = System.currentTimeMillis();
+        ImageJob job = new ImageJob();
+        job.setJobId(UUID.randomUUID().toString());
+        jobs.put(job.getJobId(), job);
+
+        bulkheads.execute(AgentType.IMAGE_GENERATOR, () -> generateStored(request)).subscribe(
+            stored -> {
+                job.setImageId(stored.imageId());
+                job.setCached(stored.cached());
+                job.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+                job.setStatus(ImageJob.Status.SUCCEEDED);
+            },
+            e -> {
+                logger.error("Image job {} failed: {}", job.getJobId(), e.getMessage());
+                job.setErrorMessage("Failed to generate image: " + e.getMessage());
+                job.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+                job.setStatus(ImageJob.Status.FAILED);
+            });
+        return job;
+    }
 
+    @Override
+    public Optional<ImageJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    @Override
+    public Optional<Path> findImage(String imageId) {
+        return imageStore.find(imageId);
+    }
+
+    private Mono<StoredImage> generateStored(ImageGeneratorRequest request) {
         // Ensure minimum dimensions
         int width = Math.max(320, request.getWidth());
         int height = Math.max(320, request.getHeight());
+        String key = promptKey(request.getContent(), width, height);
 
+        return Mono.defer(() -> {
+            boolean cached = promptCache.getIfPresent(key) != null;
+            return Mono.fromFuture(promptCache.get(key, (k, executor) -> callStability(request.getContent(), width, height).toFuture()), true)
+                .flatMap(imageId -> {
+                    if (imageStore.find(imageId).isPresent()) {
+                        imageStore.touch(imageId);
+                        return Mono.just(new StoredImage(imageId, cached));
+                    }
+                    // The store evicted the file; forget the mapping and generate again
+                    promptCache.synchronous().invalidate(key);
+                    return callStability(request.getContent(), width, height)
+                        .doOnNext(id -> promptCache.put(key, CompletableFuture.completedFuture(id)))
+                        .map(id -> new StoredImage(id, false));
+                });
+        });
+    }
+
+    private Mono<String> callStability(String prompt, int width, int height) {
         Map<String, Object> requestBody = new HashMap<>();
         Map<String, Object> textPrompt = new HashMap<>();
-        textPrompt.put("text", request.getContent());
+        textPrompt.put("text", prompt);
         textPrompt.put("weight", 1);
-        
+
         requestBody.put("text_prompts", Collections.singletonList(textPrompt));
         requestBody.put("width", width);
         requestBody.put("height", height);
         requestBody.put("samples", 1);
-        requestBody.put("steps", 30);
-        requestBody.put("cfg_scale", 7);
+        requestBody.put("steps", STEPS);
+        requestBody.put("cfg_scale", CFG_SCALE);
 
-        logger.debug("Sending request to Stability AI: {}", requestBody);
+        logger.debug("Sending request to Stability AI ({}x{}, prompt {} chars)", width, height, prompt.length());
+
+        // Accept: image/png returns the raw PNG, which is streamed to disk without a base64 copy
+        return webClient.post()
+            .uri("/v1/generation/" + ENGINE + "/text-to-image")
+            .accept(MediaType.IMAGE_PNG)
+            .bodyValue(requestBody)
+            .retrieve()
+            .bodyToFlux(DataBuffer.class)
+            .as(imageStore::store);
+    }
 
+    /** Everything that changes the generated image: prompt, size and the fixed engine settings. */
+    static String promptKey(String prompt, int width, int height) {
+        String material = ENGINE + '|' + STEPS + '|' + CFG_SCALE + '|' + width + 'x' + height + '|' + prompt.trim();
         try {
-            StabilityAiResponse response = webClient.post()
-                .uri("/v1/generation/stable-diffusion-v1-6/text-to-image")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(StabilityAiResponse.class)
-                .block();
-
-            return ImageGeneratorResponse.builder()
-                .base64Image(response != null && response.getArtifacts() != null && !response.getArtifacts().isEmpty() 
-                    ? response.getArtifacts().get(0).getBase64() 
-                    : null)
-                .success(true)
-                .build();
-        } catch (Exception e) {
-            logger.error("Error from Stability AI: {}", e.getMessage());
-            throw new RuntimeException("Failed to generate image: " + e.getMessage());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-} 
\ No newline at end of file
+}
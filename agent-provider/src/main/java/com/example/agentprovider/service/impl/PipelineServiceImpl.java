@@ -0,0 +1,299 @@
+package com.example.agentprovider.service.impl;
+
+import com.example.agentprovider.model.DataAnalyserRequest;
+import com.example.agentprovider.model.TranslatorRequest;
+import com.example.agentprovider.model.WebScrapperRequest;
+import com.example.agentprovider.model.WebSearcherRequest;
+import com.example.agentprovider.model.YoutubeSummarizeRequest;
+import com.example.agentprovider.model.pipeline.PipelineAgent;
+import com.example.agentprovider.model.pipeline.PipelineRequest;
+import com.example.agentprovider.model.pipeline.PipelineStage;
+import com.example.agentprovider.model.pipeline.PipelineStageResult;
+import com.example.agentprovider.model.pipeline.PipelineSummary;
+import com.example.agentprovider.service.DataAnalyserService;
+import com.example.agentprovider.service.PipelineService;
+import com.example.agentprovider.service.TranslatorService;
+import com.example.agentprovider.service.WebScrapperService;
+import com.example.agentprovider.service.WebSearcherService;
+import com.example.agentprovider.service.YoutubeService;
+import com.example.agentprovider.service.admission.AgentBulkheads;
+import com.example.agentprovider.service.admission.AgentType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a chain of agents on the server. Every stage is a cached Mono that waits for
+ * its dependencies, so stages without a path between them run concurrently and each
+ * stage runs once however many stages consume its output. Intermediate outputs stay
+ * in memory; only final stages (and stages marked {@code emit}) send content back.
+ */
+@Service
+public class PipelineServiceImpl implements PipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineServiceImpl.class);
+    static final int MAX_STAGES = 20;
+    private static final Pattern REFERENCE = Pattern.compile("\\{\\{\\s*([A-Za-z0-9_-]+)\\s*}}");
+
+    private final WebSearcherService webSearcherService;
+    private final WebScrapperService webScrapperService;
+    private final YoutubeService youtubeService;
+    private final TranslatorService translatorService;
+    private final DataAnalyserService dataAnalyserService;
+    private final ObjectMapper objectMapper;
+    private final AgentBulkheads bulkheads;
+
+    @Autowired
+    public PipelineServiceImpl(WebSearcherService webSearcherService, WebScrapperService webScrapperService,
+                               YoutubeService youtubeService, TranslatorService translatorService,
+                               DataAnalyserService dataAnalyserService, ObjectMapper objectMapper,
+                               AgentBulkheads bulkheads) {
+        this.webSearcherService = webSearcherService;
+        this.webScrapperService = webScrapperService;
+        this.youtubeService = youtubeService;
+        this.translatorService = translatorService;
+        this.dataAnalyserService = dataAnalyserService;
+        this.objectMapper = objectMapper;
+        this.bulkheads = bulkheads;
+    }
+
+    /** Output of a single agent call, reduced to what the next stage needs. */
+    private record StageOutput(boolean success, String content, String errorMessage) {
+    }
+
+    @Override
+    public void validate(PipelineRequest request) {
+        topologicalOrder(request);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<Object>> execute(PipelineRequest request) {
+        long startTime = System.currentTimeMillis();
+        List<PipelineStage> order = topologicalOrder(request);
+
+        Set<String> consumed = new HashSet<>();
+        for (PipelineStage stage : order) {
+            consumed.addAll(dependencies(stage));
+        }
+
+        // Insertion follows the topological order, so dependencies are subscribed first
+        Map<String, Mono<PipelineStageResult>> results = new LinkedHashMap<>();
+        for (PipelineStage stage : order) {
+            boolean emit = stage.isEmit() || !consumed.contains(stage.getId());
+            results.put(stage.getId(), runStage(stage, emit, results).cache());
+        }
+
+        AtomicInteger failed = new AtomicInteger();
+        Flux<ServerSentEvent<Object>> stageEvents = Flux.merge(results.values())
+            .map(result -> {
+                if (!result.isSuccess()) {
+                    failed.incrementAndGet();
+                }
+                return ServerSentEvent.<Object>builder(result).event("stage").id(result.getStageId()).build();
+            });
+        return stageEvents.concatWith(Mono.fromSupplier(() -> {
+            long elapsed = System.currentTimeMillis() - startTime;
+            logger.info("Pipeline finished: {} stages, {} failed, {} ms", order.size(), failed.get(), elapsed);
+            PipelineSummary summary = new PipelineSummary(failed.get() == 0, order.size(), failed.get(), elapsed);
+            return ServerSentEvent.<Object>builder(summary).event("complete").build();
+        }));
+    }
+
+    private Mono<PipelineStageResult> runStage(PipelineStage stage, boolean emit, Map<String, Mono<PipelineStageResult>> results) {
+        List<Mono<PipelineStageResult>> upstream = new ArrayList<>();
+        for (String dependency : dependencies(stage)) {
+            upstream.add(results.get(dependency));
+        }
+        // mergeSequential subscribes to all dependencies at once but keeps their order
+        Mono<List<PipelineStageResult>> inputs = upstream.isEmpty()
+            ? Mono.just(List.of())
+            : Flux.mergeSequential(upstream).collectList();
+
+        return inputs.flatMap(dependencyResults -> {
+            long startTime = System.currentTimeMillis();
+            Map<String, String> outputs = new HashMap<>();
+            for (PipelineStageResult dependency : dependencyResults) {
+                if (!dependency.isSuccess()) {
+                    return Mono.just(result(stage, false, "Skipped: stage '" + dependency.getStageId() + "' failed", null, emit, 0));
+                }
+                outputs.put(dependency.getStageId(), dependency.getOutput());
+            }
+            // Stages share the per-agent limits with direct calls; a saturated agent fails the stage
+            return bulkheads.execute(agentType(stage.getAgent()), () -> call(stage, resolveRequest(stage, outputs)))
+                .map(output -> result(stage, output.success(), output.errorMessage(), output.content(), emit,
+                    System.currentTimeMillis() - startTime))
+                .onErrorResume(e -> {
+                    logger.warn("Pipeline stage {} ({}) failed: {}", stage.getId(), stage.getAgent(), e.getMessage());
+                    return Mono.just(result(stage, false, "Error processing stage: " + e.getMessage(), null, emit,
+                        System.currentTimeMillis() - startTime));
+                });
+        });
+    }
+
+    private static PipelineStageResult result(PipelineStage stage, boolean success, String errorMessage,
+                                              String output, boolean emit, long processingTimeMs) {
+        return PipelineStageResult.builder()
+            .stageId(stage.getId())
+            .agent(stage.getAgent())
+            .success(success)
+            .errorMessage(success ? null : errorMessage)
+            .processingTimeMs(processingTimeMs)
+            .content(emit ? output : null)
+            .output(output)
+            .build();
+    }
+
+    /** Fills {@code {{stageId}}} references, or the whole content when it is empty, from earlier outputs. */
+    private ObjectNode resolveRequest(PipelineStage stage, Map<String, String> outputs) {
+        ObjectNode node = stage.getRequest() != null ? stage.getRequest().deepCopy() : objectMapper.createObjectNode();
+        String content = node.path("content").asText("");
+        if (content.isBlank()) {
+            List<String> parts = new ArrayList<>();
+            for (String dependency : dependencies(stage)) {
+                parts.add(outputs.getOrDefault(dependency, ""));
+            }
+            content = String.join("\n\n", parts);
+        } else {
+            Matcher matcher = REFERENCE.matcher(content);
+            StringBuilder resolved = new StringBuilder(content.length());
+            while (matcher.find()) {
+                matcher.appendReplacement(resolved, Matcher.quoteReplacement(outputs.getOrDefault(matcher.group(1), "")));
+            }
+            matcher.appendTail(resolved);
+            content = resolved.toString();
+        }
+        node.put("content", content);
+        return node;
+    }
+
+    private Mono<StageOutput> call(PipelineStage stage, ObjectNode request) {
+        return switch (stage.getAgent()) {
+            case WEB_SEARCHER -> webSearcherService.search(objectMapper.convertValue(request, WebSearcherRequest.class))
+                .map(response -> new StageOutput(response.isSuccess(), response.getContent(), response.getErrorMessage()));
+            case WEB_SCRAPPER -> webScrapperService.processWebScrapper(objectMapper.convertValue(request, WebScrapperRequest.class))
+                .map(response -> new StageOutput(response.isSuccess(), response.getContent(), response.getErrorMessage()));
+            case YOUTUBE -> youtubeService.summarizeVideo(objectMapper.convertValue(request, YoutubeSummarizeRequest.class))
+                .map(response -> new StageOutput(response.isSuccess(), response.getContent(), response.getErrorMessage()));
+            case TRANSLATOR -> translatorService.translate(objectMapper.convertValue(request, TranslatorRequest.class))
+                .map(response -> {
+                    // Prefer the AI-checked translation, fall back to the raw DeepL output
+                    String content = response.getContent() != null && !response.getContent().isBlank()
+                        ? response.getContent()
+                        : response.getTranslatedContent();
+                    return new StageOutput(response.isSuccess(), content, response.getErrorMessage());
+                });
+            case DATA_ANALYSER -> {
+                DataAnalyserRequest analyserRequest = objectMapper.convertValue(request, DataAnalyserRequest.class);
+                // Lombok names these getXAxis/getYAxis, which Jackson does not map from "xAxis"/"yAxis"
+                analyserRequest.setXAxis(request.path("xAxis").asText(null));
+                analyserRequest.setYAxis(request.path("yAxis").asText(null));
+                yield dataAnalyserService.analyseData(null, analyserRequest)
+                    .map(response -> new StageOutput(response.isSuccess(), response.getContent(), response.getErrorMessage()));
+            }
+        };
+    }
+
+    private static AgentType agentType(PipelineAgent agent) {
+        return switch (agent) {
+            case WEB_SEARCHER -> AgentType.WEB_SEARCHER;
+            case WEB_SCRAPPER -> AgentType.WEB_SCRAPPER;
+            case YOUTUBE -> AgentType.YOUTUBE;
+            case TRANSLATOR -> AgentType.TRANSLATOR;
+            case DATA_ANALYSER -> AgentType.DATA_ANALYSER;
+        };
+    }
+
+    /** Explicit {@code dependsOn} entries followed by stages referenced from the content. */
+    private static Set<String> dependencies(PipelineStage stage) {
+        Set<String> dependencies = new LinkedHashSet<>();
+        if (stage.getDependsOn() != null) {
+            dependencies.addAll(stage.getDependsOn());
+        }
+        if (stage.getRequest() != null) {
+            Matcher matcher = REFERENCE.matcher(stage.getRequest().path("content").asText(""));
+            while (matcher.find()) {
+                dependencies.add(matcher.group(1));
+            }
+        }
+        return dependencies;
+    }
+
+    /** Validates the stage graph and returns the stages so that every dependency comes first. */
+    static List<PipelineStage> topologicalOrder(PipelineRequest request) {
+        List<PipelineStage> stages = request != null && request.getStages() != null ? request.getStages() : List.of();
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("Pipeline has no stages");
+        }
+        if (stages.size() > MAX_STAGES) {
+            throw new IllegalArgumentException("Pipeline has more than " + MAX_STAGES + " stages");
+        }
+
+        Map<String, PipelineStage> byId = new LinkedHashMap<>();
+        for (PipelineStage stage : stages) {
+            if (stage.getId() == null || stage.getId().isBlank()) {
+                throw new IllegalArgumentException("Every stage needs an id");
+            }
+            if (stage.getAgent() == null) {
+                throw new IllegalArgumentException("Stage '" + stage.getId() + "' has no agent");
+            }
+            if (byId.putIfAbsent(stage.getId(), stage) != null) {
+                throw new IllegalArgumentException("Duplicate stage id '" + stage.getId() + "'");
+            }
+        }
+
+        // Kahn's algorithm; stages left over at the end are part of a cycle
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (PipelineStage stage : stages) {
+            Set<String> dependencies = dependencies(stage);
+            for (String dependency : dependencies) {
+                if (!byId.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Stage '" + stage.getId() + "' depends on unknown stage '" + dependency + "'");
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(stage.getId());
+            }
+            pending.put(stage.getId(), dependencies.size());
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        for (PipelineStage stage : stages) {
+            if (pending.get(stage.getId()) == 0) {
+                ready.add(stage.getId());
+            }
+        }
+        List<PipelineStage> order = new ArrayList<>(stages.size());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            order.add(byId.get(id));
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != stages.size()) {
+            throw new IllegalArgumentException("Pipeline stages contain a dependency cycle");
+        }
+        return order;
+    }
+}
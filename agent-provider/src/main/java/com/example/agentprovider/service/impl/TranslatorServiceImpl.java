@@ -1,29 +1,43 @@
 package com.example.agentprovider.service.impl;
 
 import com.example.agentprovider.client.DeepLClient;
-import com.example.agentprovider.config.DeepLConfig;
+import com.example.agentprovider.client.OutboundHttpClients;
+import com.example.agentprovider.config.TranslatorConfig;
 import com.example.agentprovider.model.TranslatorRequest;
 import com.example.agentprovider.model.TranslatorResponse;
 import com.example.agentprovider.model.deepl.DeepLRequest;
 import com.example.agentprovider.model.deepl.DeepLResponse;
 import com.example.agentprovider.service.TranslatorService;
-import lombok.RequiredArgsConstructor;
+import com.example.agentprovider.service.translation.TextSegmenter;
+import com.example.agentprovider.service.translation.TranslationMemory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@RequiredArgsConstructor
 public class TranslatorServiceImpl implements TranslatorService {
     private static final Logger logger = LoggerFactory.getLogger(TranslatorServiceImpl.class);
 
     private final DeepLClient deeplClient;
-    private final DeepLConfig deeplConfig;
-    private final RestTemplate restTemplate;
+    private final OutboundHttpClients httpClients;
+    private final WebClient webClient;
+    private final TranslationMemory translationMemory;
+    private final int correctionParallelism;
+    private final int deeplBatchMaxTexts;
+    private final int deeplBatchMaxBytes;
+    private final int deeplParallelism;
 
     @Value("${ai.provider.url:http://localhost:8082/ai-provider}")
     private String aiProviderUrl;
@@ -31,71 +45,237 @@ public class TranslatorServiceImpl implements TranslatorService {
     @Value("${server.port:8080}")
     private String serverPort;
 
+    public TranslatorServiceImpl(DeepLClient deeplClient, OutboundHttpClients httpClients,
+                                 TranslationMemory translationMemory, TranslatorConfig translatorConfig) {
+        this.deeplClient = deeplClient;
+        this.httpClients = httpClients;
+        // The URL is resolved per call (see getAiProviderUrl), the connection pool is shared with AiProviderClient
+        this.webClient = httpClients.builder(OutboundHttpClients.AI_PROVIDER, null).build();
+        this.translationMemory = translationMemory;
+        this.correctionParallelism = Math.max(1, translatorConfig.getCorrectionParallelism());
+        this.deeplBatchMaxTexts = Math.max(1, translatorConfig.getDeeplBatchMaxTexts());
+        this.deeplBatchMaxBytes = Math.max(1, translatorConfig.getDeeplBatchMaxBytes());
+        this.deeplParallelism = Math.max(1, translatorConfig.getDeeplParallelism());
+    }
+
     @Override
-    public TranslatorResponse translate(TranslatorRequest request) {
+    public Mono<TranslatorResponse> translate(TranslatorRequest request) {
         long startTime = System.currentTimeMillis();
-        try {
-            // Call DeepL API
-            DeepLRequest deeplRequest = DeepLRequest.builder()
-                .text(Collections.singletonList(request.getContent()))
-                .target_lang(request.getTargetLanguage())
-                .build();
-
-            DeepLResponse deeplResponse = deeplClient.translate(
-                "DeepL-Auth-Key " + deeplConfig.getAuthKey(),
-                deeplRequest
-            );
-
-            if (deeplResponse.getTranslations().isEmpty()) {
-                throw new RuntimeException("No translation received from DeepL");
-            }
+        String targetLanguage = request.getTargetLanguage();
+
+        return Mono.fromCallable(() -> TextSegmenter.split(request.getContent()))
+            .flatMap(segments -> {
+                TranslationMemory.Entry[] entries = new TranslationMemory.Entry[segments.size()];
+
+                // 1. Look up every segment in translation memory, collect distinct misses
+                Map<String, List<Integer>> misses = new LinkedHashMap<>();
+                int textSegments = 0;
+                for (int i = 0; i < segments.size(); i++) {
+                    TextSegmenter.Segment segment = segments.get(i);
+                    if (segment.isBlank()) continue;
+                    textSegments++;
+                    TranslationMemory.Entry entry = translationMemory.get(segment.text(), targetLanguage);
+                    if (entry != null) {
+                        entries[i] = entry;
+                    } else {
+                        misses.computeIfAbsent(segment.text(), k -> new ArrayList<>()).add(i);
+                    }
+                }
+
+                if (textSegments == 0) {
+                    return Mono.error(new RuntimeException("No content to translate"));
+                }
+                logger.info("Translating {} segments ({} from translation memory, {} distinct misses)",
+                    textSegments, textSegments - misses.values().stream().mapToInt(List::size).sum(), misses.size());
+
+                // 2. Translate the misses in as few DeepL calls as the request limits allow
+                //    (at most translator.deepl-batch-max-texts texts and deepl-batch-max-bytes per call)
+                Mono<Void> translated = misses.isEmpty()
+                    ? Mono.empty()
+                    : translateMisses(misses, targetLanguage, entries);
+
+                // 3. Run AI correction concurrently, only for segments without a matching cached correction
+                // 4. Reassemble the document keeping the original whitespace layout
+                return translated
+                    .then(Mono.defer(() -> correctAll(segments, entries, request)))
+                    .map(corrections -> buildResponse(segments, entries, corrections, startTime));
+            })
+            .onErrorResume(e -> {
+                logger.error("Translation error: {}", e.getMessage(), e);
+                return Mono.just(TranslatorResponse.builder()
+                    .content("")  // No AI-checked content in case of error
+                    .success(false)
+                    .errorMessage(e.getMessage())
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .build());
+            });
+    }
 
-            DeepLResponse.Translation translation = deeplResponse.getTranslations().get(0);
+    private Mono<Void> translateMisses(Map<String, List<Integer>> misses, String targetLanguage,
+                                       TranslationMemory.Entry[] entries) {
+        List<String> sources = new ArrayList<>(misses.keySet());
+        List<List<String>> batches = partition(sources, deeplBatchMaxTexts, deeplBatchMaxBytes);
+        if (batches.size() > 1) {
+            logger.info("Splitting {} segments into {} DeepL requests", sources.size(), batches.size());
+        }
 
-            // Call AI Provider API with dynamic URL
-            String aiContent = String.format("{%s} metnini dil bilgisi ve anlam açısından kontrol et. Gerekirse düzelt. Yalnızca düzeltmeyi döndür, açıklama ekleme",
-                translation.getText());
+        // Batches are contiguous slices of sources, so the offset maps results back by index
+        List<Integer> offsets = new ArrayList<>(batches.size());
+        int offset = 0;
+        for (List<String> batch : batches) {
+            offsets.add(offset);
+            offset += batch.size();
+        }
 
-            var aiRequest = new AIProviderRequest(
-                aiContent,
-                request.getSpecialPrompt(),
-                request.getModel(),
-                request.getMaxTokens(),
-                request.getTemperature()
-            );
+        return Flux.range(0, batches.size())
+            .flatMap(b -> translateBatch(batches.get(b), targetLanguage)
+                .doOnNext(translations -> {
+                    int start = offsets.get(b);
+                    for (int i = 0; i < translations.size(); i++) {
+                        String source = sources.get(start + i);
+                        var translation = translations.get(i);
+                        TranslationMemory.Entry entry = new TranslationMemory.Entry(
+                            translation.getText(), translation.getDetected_source_language(), null, null);
+                        translationMemory.put(source, targetLanguage, entry);
+                        for (int index : misses.get(source)) {
+                            entries[index] = entry;
+                        }
+                    }
+                }), deeplParallelism)
+            .then();
+    }
 
-            // Determine AI Provider URL based on environment
-            String finalAiProviderUrl = getAiProviderUrl();
-            logger.info("Calling AI Provider at: {}", finalAiProviderUrl);
+    private Mono<List<DeepLResponse.Translation>> translateBatch(List<String> batch, String targetLanguage) {
+        DeepLRequest deeplRequest = DeepLRequest.builder()
+            .text(batch)
+            .target_lang(targetLanguage)
+            .build();
 
-            var aiResponse = restTemplate.postForObject(
-                finalAiProviderUrl + "/api/ai/generate",
-                aiRequest,
-                AIProviderResponse.class
-            );
+        return deeplClient.translate(deeplRequest)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("No translation received from DeepL")))
+            .flatMap(deeplResponse -> {
+                if (deeplResponse.getTranslations() == null || deeplResponse.getTranslations().isEmpty()) {
+                    return Mono.error(new RuntimeException("No translation received from DeepL"));
+                }
+                if (deeplResponse.getTranslations().size() != batch.size()) {
+                    return Mono.error(new RuntimeException("DeepL returned " + deeplResponse.getTranslations().size()
+                        + " translations for " + batch.size() + " segments"));
+                }
+                return Mono.just(deeplResponse.getTranslations());
+            });
+    }
 
-            if (aiResponse == null || !aiResponse.success()) {
-                throw new RuntimeException("AI Provider error: " + (aiResponse != null ? aiResponse.errorMessage() : "No response"));
+    /**
+     * Splits texts into consecutive batches with at most {@code maxTexts} entries and roughly
+     * {@code maxBytes} of UTF-8 text each. A single text above the byte limit gets its own batch.
+     */
+    static List<List<String>> partition(List<String> texts, int maxTexts, int maxBytes) {
+        List<List<String>> batches = new ArrayList<>();
+        int start = 0;
+        long bytes = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            // JSON quoting and separators add a few bytes per entry
+            long size = texts.get(i).getBytes(StandardCharsets.UTF_8).length + 4L;
+            if (i > start && (i - start >= maxTexts || bytes + size > maxBytes)) {
+                batches.add(texts.subList(start, i));
+                start = i;
+                bytes = 0;
             }
+            bytes += size;
+        }
+        if (start < texts.size()) {
+            batches.add(texts.subList(start, texts.size()));
+        }
+        return batches;
+    }
 
-            return TranslatorResponse.builder()
-                .content(aiResponse.content())  // AI-checked translation
-                .translatedContent(translation.getText())  // Raw DeepL translation
-                .detectedSourceLanguage(translation.getDetected_source_language())
-                .model(aiResponse.model())
-                .processingTimeMs(System.currentTimeMillis() - startTime)
-                .success(true)
-                .build();
-
-        } catch (Exception e) {
-            logger.error("Translation error: {}", e.getMessage(), e);
-            return TranslatorResponse.builder()
-                .content("")  // No AI-checked content in case of error
-                .success(false)
-                .errorMessage(e.getMessage())
-                .processingTimeMs(System.currentTimeMillis() - startTime)
-                .build();
+    private Mono<Corrections> correctAll(List<TextSegmenter.Segment> segments, TranslationMemory.Entry[] entries,
+                                         TranslatorRequest request) {
+        String targetLanguage = request.getTargetLanguage();
+        String profile = TranslationMemory.correctionProfile(request.getModel(), request.getSpecialPrompt());
+        AtomicReference<String> correctionModel = new AtomicReference<>(request.getModel());
+
+        Map<String, TranslationMemory.Entry> pending = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            TranslationMemory.Entry entry = entries[i];
+            if (entry == null || entry.isCorrectedFor(profile)) continue;
+            pending.putIfAbsent(segments.get(i).text(), entry);
+        }
+
+        return Flux.fromIterable(pending.entrySet())
+            .flatMap(pendingEntry -> correct(pendingEntry.getValue().translation(), request)
+                .map(aiResponse -> {
+                    translationMemory.put(pendingEntry.getKey(), targetLanguage,
+                        pendingEntry.getValue().withCorrection(aiResponse.content(), profile));
+                    if (aiResponse.model() != null) {
+                        correctionModel.set(aiResponse.model());
+                    }
+                    return Map.entry(pendingEntry.getKey(), aiResponse.content());
+                }), correctionParallelism)
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .map(corrected -> new Corrections(corrected, correctionModel.get()));
+    }
+
+    private TranslatorResponse buildResponse(List<TextSegmenter.Segment> segments, TranslationMemory.Entry[] entries,
+                                             Corrections corrections, long startTime) {
+        List<String> translatedTexts = new ArrayList<>(segments.size());
+        List<String> correctedTexts = new ArrayList<>(segments.size());
+        Map<String, Integer> languageVotes = new HashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            TranslationMemory.Entry entry = entries[i];
+            if (entry == null) {
+                translatedTexts.add("");
+                correctedTexts.add("");
+                continue;
+            }
+            translatedTexts.add(entry.translation());
+            String correction = corrections.corrected().get(segments.get(i).text());
+            correctedTexts.add(correction != null ? correction : entry.correction());
+            if (entry.detectedSourceLanguage() != null) {
+                languageVotes.merge(entry.detectedSourceLanguage(), 1, Integer::sum);
+            }
         }
+
+        String detectedSourceLanguage = languageVotes.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(null);
+
+        return TranslatorResponse.builder()
+            .content(TextSegmenter.join(segments, correctedTexts))  // AI-checked translation
+            .translatedContent(TextSegmenter.join(segments, translatedTexts))  // Raw DeepL translation
+            .detectedSourceLanguage(detectedSourceLanguage)
+            .model(corrections.model())
+            .processingTimeMs(System.currentTimeMillis() - startTime)
+            .success(true)
+            .build();
+    }
+
+    private Mono<AIProviderResponse> correct(String translatedText, TranslatorRequest request) {
+        // Call AI Provider API with dynamic URL
+        String aiContent = String.format("{%s} metnini dil bilgisi ve anlam açısından kontrol et. Gerekirse düzelt. Yalnızca düzeltmeyi döndür, açıklama ekleme",
+            translatedText);
+
+        var aiRequest = new AIProviderRequest(
+            aiContent,
+            request.getSpecialPrompt(),
+            request.getModel(),
+            request.getMaxTokens(),
+            request.getTemperature()
+        );
+
+        // Determine AI Provider URL based on environment
+        String finalAiProviderUrl = getAiProviderUrl();
+        logger.debug("Calling AI Provider at: {}", finalAiProviderUrl);
+
+        return httpClients.jsonBody(OutboundHttpClients.AI_PROVIDER,
+                webClient.post().uri(finalAiProviderUrl + "/api/ai/generate"), aiRequest)
+            .retrieve()
+            .bodyToMono(AIProviderResponse.class)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("AI Provider error: No response")))
+            .flatMap(aiResponse -> Boolean.TRUE.equals(aiResponse.success())
+                ? Mono.just(aiResponse)
+                : Mono.error(new RuntimeException("AI Provider error: " + aiResponse.errorMessage())));
     }
 
     private String getAiProviderUrl() {
@@ -128,6 +308,11 @@ public class TranslatorServiceImpl implements TranslatorService {
         Double temperature
     ) {}
 
+    private record Corrections(
+        Map<String, String> corrected,
+        String model
+    ) {}
+
     private record AIProviderResponse(
         String model,
         String content,
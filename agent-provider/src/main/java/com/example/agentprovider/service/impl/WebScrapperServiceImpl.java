@@ -1,152 +1,255 @@
 package com.example.agentprovider.service.impl;
 
 import com.example.agentprovider.client.AiProviderClient;
+import com.example.agentprovider.config.WebScrapperConfig;
+import com.example.agentprovider.logging.LogPayload;
+import com.example.agentprovider.logging.LogSampler;
 import com.example.agentprovider.model.AiRequest;
-import com.example.agentprovider.model.AiResponse;
+import com.example.agentprovider.model.SearchResult;
 import com.example.agentprovider.model.WebScrapperRequest;
 import com.example.agentprovider.model.WebScrapperResponse;
 import com.example.agentprovider.service.WebScrapperService;
-import org.apache.commons.text.StringEscapeUtils;
+import com.example.agentprovider.service.crawl.ContentNovelty;
+import com.example.agentprovider.service.crawl.CrawlFrontier;
+import com.example.agentprovider.service.crawl.HostQuality;
+import com.example.agentprovider.service.crawl.LinkScorer;
+import com.example.agentprovider.service.search.SearchResults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class WebScrapperServiceImpl implements WebScrapperService {
     private static final Logger logger = LoggerFactory.getLogger(WebScrapperServiceImpl.class);
+    // Derin taramalarda başarısız link uyarıları saniyede 10 satırla sınırlı
+    private static final LogSampler linkFailures = new LogSampler(10, Duration.ofSeconds(1));
+    private static final Pattern URL_PATTERN = Pattern.compile("https?://[^\\s\"'<>]+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.,;:)\\]}]+$");
     private final AiProviderClient aiProviderClient;
+    private final Scheduler ioScheduler;
+    private final ObjectMapper objectMapper;
+    private final ObservationRegistry observationRegistry;
+    private final WebScrapperConfig webScrapperConfig;
+    private final HostQuality hostQuality;
 
     @Autowired
-    public WebScrapperServiceImpl(AiProviderClient aiProviderClient) {
+    public WebScrapperServiceImpl(AiProviderClient aiProviderClient, Scheduler ioScheduler, ObjectMapper objectMapper,
+                                  ObservationRegistry observationRegistry, WebScrapperConfig webScrapperConfig,
+                                  HostQuality hostQuality) {
         this.aiProviderClient = aiProviderClient;
+        this.ioScheduler = ioScheduler;
+        this.objectMapper = objectMapper;
+        this.observationRegistry = observationRegistry;
+        this.webScrapperConfig = webScrapperConfig;
+        this.hostQuality = hostQuality;
     }
 
     @Override
-    public WebScrapperResponse processWebScrapper(WebScrapperRequest request) {
+    public Mono<WebScrapperResponse> processWebScrapper(WebScrapperRequest request) {
         long startTime = System.currentTimeMillis();
-        WebScrapperResponse response = new WebScrapperResponse();
-        try {
-            // 1. İçerikten başlangıç linklerini bul
-            List<String> initialLinks = extractLinks(request.getContent(), request.getMaxLink());
-            logger.info("Extracted {} initial links", initialLinks.size());
+        // Jsoup bloklayan bir istemci olduğu için tarama I/O scheduler'ında (boundedElastic veya sanal thread) yapılır
+        // Tarama span'i isteğin span'ine bağlanır; ebeveyn Reactor context'inden alınır
+        return Mono.deferContextual(context -> {
+                Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+                return Mono.fromCallable(() -> Observation.createNotStarted("agent.crawl", observationRegistry)
+                        .parentObservation(parent)
+                        .lowCardinalityKeyValue("max.depth", String.valueOf(request.getMaxDepth()))
+                        .observe(() -> crawl(request)))
+                    .subscribeOn(ioScheduler);
+            })
+            .flatMap(mergedContent -> {
+                // 4. AI servisine gönder
+                String content = request.getContent();
+                if (content == null || content.trim().isEmpty()) {
+                    content = mergedContent;
+                }
+                AiRequest aiRequest = new AiRequest(
+                    content,
+                    request.getSpecialPrompt(),
+                    request.getModel(),
+                    request.getMaxTokens(),
+                    request.getTemperature()
+                );
+                logger.debug("Sending scraped content to AI provider: {}", LogPayload.summary(content));
+                return aiProviderClient.generateContent(aiRequest);
+            })
+            .map(aiResponse -> {
+                // 5. Response'u doldur
+                WebScrapperResponse response = new WebScrapperResponse();
+                response.setContent(aiResponse.getContent());
+                response.setModel(aiResponse.getModel());
+                response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+                response.setSuccess(aiResponse.isSuccess());
+                response.setErrorMessage(aiResponse.getErrorMessage());
+                return response;
+            })
+            .onErrorResume(e -> {
+                logger.error("Error in web scrapper process: {}", e.getMessage(), e);
+                WebScrapperResponse response = new WebScrapperResponse();
+                response.setSuccess(false);
+                response.setErrorMessage("Error processing request: " + e.getMessage());
+                response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+                return Mono.just(response);
+            });
+    }
 
-            // 2. Recursive olarak içerikleri topla
-            Set<String> visited = new HashSet<>();
-            List<String> contents = new ArrayList<>();
-            int maxLink = request.getMaxLink();
-            int maxDepth = request.getMaxDepth();
-            for (String link : initialLinks) {
-                extractLinksRecursive(link, 0, maxDepth, maxLink, visited, contents);
-                if (contents.size() >= maxLink) break;
-            }
+    private String crawl(WebScrapperRequest request) {
+        int maxLink = request.getMaxLink();
+        int maxDepth = request.getMaxDepth();
 
-            // 3. İçerikleri birleştir
-            String mergedContent = String.join("\n\n", contents);
+        // 1. İçerikten başlangıç linklerini bul, sıralamayı arama sırası ve konuya göre yap
+        List<SearchResult> seeds = extractSeeds(request.getContent(), maxLink);
+        logger.debug("Extracted {} initial links", seeds.size());
+        LinkScorer scorer = new LinkScorer(topicText(request.getContent(), seeds),
+            seeds.stream().map(SearchResult::getLink).toList(), hostQuality);
+        CrawlFrontier frontier = new CrawlFrontier();
+        for (int rank = 0; rank < seeds.size(); rank++) {
+            SearchResult seed = seeds.get(rank);
+            frontier.offer(seed.getLink(), 0, scorer.scoreSeed(seed.getLink(), seed.getTitle(), rank));
+        }
 
-            // 4. AI servisine gönder
-            String content = request.getContent();
-            if (content == null || content.trim().isEmpty()) {
-                content = mergedContent;
+        // 2. maxLink bütçesini en yüksek puanlı sayfalara harca; yeni içerik tükenince dur
+        ContentNovelty novelty = new ContentNovelty();
+        List<String> contents = new ArrayList<>();
+        int fetched = 0;
+        int lowGainStreak = 0;
+        boolean lowGain = false;
+        CrawlFrontier.Candidate candidate;
+        while (fetched < maxLink && (candidate = frontier.poll()) != null) {
+            fetched++;
+            String host = LinkScorer.host(candidate.url());
+            Document doc;
+            try {
+                doc = fetch(candidate.url());
+            } catch (Exception e) {
+                hostQuality.record(host, 0);
+                logLinkFailure("Failed to fetch or parse link", candidate.url(), e);
+                continue;
             }
-            AiRequest aiRequest = new AiRequest(
-                content,
-                request.getSpecialPrompt(),
-                request.getModel(),
-                request.getMaxTokens(),
-                request.getTemperature()
-            );
-            logger.info("AI Provider'a gönderilen istek: {}", aiRequest);
-            logger.info("AI Provider content length: {}", content != null ? content.length() : 0);
-            AiResponse aiResponse = aiProviderClient.generateContent(aiRequest);
-
-            // 5. Response'u doldur
-            response.setContent(aiResponse.getContent());
-            response.setModel(aiResponse.getModel());
-            response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
-            response.setSuccess(aiResponse.isSuccess());
-            response.setErrorMessage(aiResponse.getErrorMessage());
-        } catch (Exception e) {
-            logger.error("Error in web scrapper process: {}", e.getMessage(), e);
-            response.setSuccess(false);
-            response.setErrorMessage("Error processing request: " + e.getMessage());
-            response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            if (candidate.depth() < maxDepth) {
+                offerLinks(doc, candidate.depth() + 1, host, scorer, frontier);
+            }
+            doc.select("script, style").remove();
+            String text = doc.body().text();
+            double newContentRatio = novelty.add(text);
+            hostQuality.record(host, newContentRatio);
+            if (newContentRatio >= webScrapperConfig.getMinNewContentRatio()) {
+                contents.add(text);
+                lowGainStreak = 0;
+            } else if (++lowGainStreak >= webScrapperConfig.getLowGainPagesToStop()) {
+                lowGain = true;
+                break;
+            }
+        }
+        String stopReason = lowGain ? "low-gain" : fetched >= maxLink ? "budget" : "frontier-empty";
+        logger.debug("Crawl fetched {} pages, kept {}, stopped on {}", fetched, contents.size(), stopReason);
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.lowCardinalityKeyValue("stop.reason", stopReason)
+                .highCardinalityKeyValue("pages.fetched", String.valueOf(fetched))
+                .highCardinalityKeyValue("pages.kept", String.valueOf(contents.size()));
         }
-        return response;
+
+        // 3. İçerikleri birleştir
+        return String.join("\n\n", contents);
     }
 
-    private List<String> extractLinks(String content, int maxLinks) {
-        // JSON string içindeki escape karakterleri temizle
-        String unescapedContent = StringEscapeUtils.unescapeJson(content);
-        Set<String> links = new HashSet<>();
-        // Öncelikle JSON içindeki '"link":"https?..."' alanlarını çek
-        Pattern jsonLinkPattern = Pattern.compile("\\\"link\\\"\\s*:\\s*\\\"(https?://.*?)(\\\"|,)");
-        Matcher jsonLinkMatcher = jsonLinkPattern.matcher(unescapedContent);
-        while (jsonLinkMatcher.find() && links.size() < maxLinks) {
-            String link = jsonLinkMatcher.group(1).trim();
-            // Sonunda tırnak, virgül, boşluk varsa temizle
-            link = link.replaceAll("[\\\"',\s]+$", "");
-            if (link.startsWith("http")) {
-                links.add(link);
+    private List<SearchResult> extractSeeds(String content, int maxLinks) {
+        // Öncelikle web searcher sonuçlarını yapısal olarak oku
+        Map<String, SearchResult> seeds = new LinkedHashMap<>();
+        for (SearchResult result : SearchResults.parse(objectMapper, content, null)) {
+            if (seeds.size() >= maxLinks) break;
+            seeds.putIfAbsent(result.getLink(), result);
+        }
+        // Sonuç dokümanı değilse düz metindeki URL'leri kullan
+        if (seeds.isEmpty() && content != null) {
+            Matcher matcher = URL_PATTERN.matcher(content);
+            while (matcher.find() && seeds.size() < maxLinks) {
+                String link = TRAILING_PUNCTUATION.matcher(matcher.group()).replaceAll("");
+                seeds.putIfAbsent(link, new SearchResult(null, link, null, null));
             }
         }
-        // Eğer hala maxLink'e ulaşmadıysak, kalanları eski regex ile ekle
-        if (links.size() < maxLinks) {
-            Pattern pattern = Pattern.compile("https?://\\S+");
-            Matcher matcher = pattern.matcher(unescapedContent);
-            while (matcher.find() && links.size() < maxLinks) {
-                String link = matcher.group().trim();
-                link = link.replaceAll("[\\\"',\s]+$", "");
-                if (link.startsWith("http")) {
-                    links.add(link);
+        return new ArrayList<>(seeds.values());
+    }
+
+    // Linklerin ilgisi arama sorguları, başlıklar ve özetlerle ölçülür; düz metinde URL'ler dışındaki metinle
+    private static String topicText(String content, List<SearchResult> seeds) {
+        StringBuilder topic = new StringBuilder();
+        for (SearchResult seed : seeds) {
+            for (String part : new String[] {seed.getQuery(), seed.getTitle(), seed.getSnippet()}) {
+                if (part != null) {
+                    topic.append(part).append(' ');
                 }
             }
         }
-        return new ArrayList<>(links);
+        if (topic.isEmpty() && content != null) {
+            return URL_PATTERN.matcher(content).replaceAll(" ");
+        }
+        return topic.toString();
+    }
+
+    private void offerLinks(Document doc, int depth, String pageHost, LinkScorer scorer, CrawlFrontier frontier) {
+        int offered = 0;
+        for (Element link : doc.select("a[href]")) {
+            String absUrl = link.absUrl("href");
+            if (!absUrl.startsWith("http")) continue;
+            if (frontier.offer(absUrl, depth, scorer.score(absUrl, link.text(), pageHost, depth))
+                && ++offered >= webScrapperConfig.getMaxLinksPerPage()) {
+                break;
+            }
+        }
     }
 
-    // Recursive link ve içerik toplama
-    private void extractLinksRecursive(String url, int currentDepth, int maxDepth, int maxLink, Set<String> visited, List<String> contents) {
-        if (currentDepth > maxDepth || visited.size() >= maxLink || visited.contains(url)) {
-            return;
+    // Her sayfa isteği ayrı bir span; yavaş siteler trace'te görünür
+    private Document fetch(String url) throws IOException {
+        Observation observation = Observation.createNotStarted("agent.crawl.fetch", observationRegistry)
+            // Crawled hosts are unbounded, so they stay off the agent.crawl.fetch timer tags
+            .highCardinalityKeyValue("host", host(url))
+            .highCardinalityKeyValue("url", url)
+            .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return Jsoup.connect(url).get();
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
         }
-        visited.add(url);
+    }
+
+    private static String host(String url) {
         try {
-            Document doc = Jsoup.connect(url).get();
-            doc.select("script, style").remove();
-            String text = doc.body().text();
-            contents.add(text);
-        } catch (Exception e) {
-            logger.warn("Failed to fetch or parse link: {} - {}", url, e.getMessage());
-            return;
+            String host = URI.create(url).getHost();
+            return host != null ? host : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
         }
-        if (currentDepth < maxDepth && contents.size() < maxLink) {
-            Elements links = null;
-            try {
-                Document doc = Jsoup.connect(url).get();
-                links = doc.select("a[href]");
-            } catch (Exception e) {
-                logger.warn("Failed to fetch links from: {} - {}", url, e.getMessage());
-                return;
-            }
-            for (Element link : links) {
-                String absUrl = link.absUrl("href");
-                if (absUrl.startsWith("http") && !visited.contains(absUrl)) {
-                    extractLinksRecursive(absUrl, currentDepth + 1, maxDepth, maxLink, visited, contents);
-                    if (contents.size() >= maxLink) break;
-                }
-            }
+    }
+
+    private static void logLinkFailure(String message, String url, Exception e) {
+        long suppressed = linkFailures.tryAcquire();
+        if (suppressed >= 0) {
+            logger.warn("{}: {} - {} ({} similar suppressed)", message, url, e.getMessage(), suppressed);
         }
     }
-} 
\ No newline at end of file
+}
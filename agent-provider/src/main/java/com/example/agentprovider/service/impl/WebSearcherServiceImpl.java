@@ -1,47 +1,138 @@
 package com.example.agentprovider.service.impl;
 
+import com.example.agentprovider.client.OutboundHttpClients;
+import com.example.agentprovider.config.WebSearcherConfig;
+import com.example.agentprovider.model.SearchResult;
 import com.example.agentprovider.model.WebSearcherRequest;
 import com.example.agentprovider.model.WebSearcherResponse;
 import com.example.agentprovider.service.WebSearcherService;
+import com.example.agentprovider.service.search.SearchResults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class WebSearcherServiceImpl implements WebSearcherService {
+    private static final Logger logger = LoggerFactory.getLogger(WebSearcherServiceImpl.class);
     private static final String RAPIDAPI_KEY = "c4f24060edmsh76fc4746c8b2926p1ba70bjsneef92076a54b";
     private static final String RAPIDAPI_HOST = "google-search72.p.rapidapi.com";
     private static final String BASE_URL = "https://google-search72.p.rapidapi.com";
 
-    private final WebClient webClient = WebClient.builder()
-            .baseUrl(BASE_URL)
-            .defaultHeader("x-rapidapi-key", RAPIDAPI_KEY)
-            .defaultHeader("x-rapidapi-host", RAPIDAPI_HOST)
-            .build();
+    private final WebClient webClient;
+    private final WebSearcherConfig config;
+    private final ObjectMapper objectMapper;
+    // Concurrent misses for the same key share one RapidAPI call; failed lookups are not kept
+    private final AsyncCache<SearchKey, List<SearchResult>> cache;
+
+    @Autowired
+    public WebSearcherServiceImpl(OutboundHttpClients httpClients, WebSearcherConfig config, ObjectMapper objectMapper) {
+        this.webClient = httpClients.builder(OutboundHttpClients.RAPIDAPI_SEARCH, BASE_URL)
+                .defaultHeader("x-rapidapi-key", RAPIDAPI_KEY)
+                .defaultHeader("x-rapidapi-host", RAPIDAPI_HOST)
+                .build();
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaxEntries())
+                .expireAfterWrite(Duration.ofMinutes(config.getCacheTtlMinutes()))
+                .buildAsync();
+    }
+
+    record SearchKey(String query, String language, int maxResult) {
+    }
 
     @Override
-    public WebSearcherResponse search(WebSearcherRequest request) {
-        WebSearcherResponse response = new WebSearcherResponse();
-        try {
-            String result = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/search")
-                            .queryParam("q", request.getContent())
-                            .queryParam("lr", request.getLanguage())
-                            .queryParam("num", request.getMaxResult())
-                            .build())
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            response.setContent(result);
-            response.setSuccess(true);
-        } catch (WebClientResponseException e) {
-            response.setSuccess(false);
-            response.setErrorMessage(e.getResponseBodyAsString());
-        } catch (Exception e) {
+    public Mono<WebSearcherResponse> search(WebSearcherRequest request) {
+        List<String> queries = queries(request);
+        if (queries.isEmpty()) {
+            WebSearcherResponse response = new WebSearcherResponse();
             response.setSuccess(false);
-            response.setErrorMessage(e.getMessage());
+            response.setErrorMessage("No search query provided");
+            return Mono.just(response);
+        }
+
+        // Queries run in parallel up to the cap; flatMapSequential keeps results in query order
+        return Flux.fromIterable(queries)
+                .flatMapSequential(query -> searchOne(new SearchKey(query, request.getLanguage(), request.getMaxResult())),
+                        Math.max(1, config.getQueryParallelism()))
+                .collectList()
+                .map(this::merge)
+                .onErrorResume(e -> {
+                    logger.warn("Web search failed: {}", e.getMessage());
+                    WebSearcherResponse response = new WebSearcherResponse();
+                    response.setSuccess(false);
+                    response.setErrorMessage(e instanceof WebClientResponseException responseException
+                            ? responseException.getResponseBodyAsString()
+                            : e.getMessage());
+                    return Mono.just(response);
+                });
+    }
+
+    private List<String> queries(WebSearcherRequest request) {
+        Set<String> queries = new LinkedHashSet<>();
+        if (request.getQueries() != null) {
+            for (String query : request.getQueries()) {
+                if (query != null && !query.isBlank()) {
+                    queries.add(query.trim());
+                }
+            }
+        }
+        if (queries.isEmpty() && request.getContent() != null && !request.getContent().isBlank()) {
+            queries.add(request.getContent().trim());
+        }
+        return new ArrayList<>(queries).subList(0, Math.min(queries.size(), Math.max(1, config.getMaxQueries())));
+    }
+
+    private Mono<List<SearchResult>> searchOne(SearchKey key) {
+        // suppressCancel: one subscriber going away must not cancel a lookup others are waiting on
+        return Mono.fromFuture(cache.get(key, (k, executor) -> fetch(k).toFuture()), true);
+    }
+
+    private Mono<List<SearchResult>> fetch(SearchKey key) {
+        logger.debug("Searching RapidAPI (language={}, maxResult={})", key.language(), key.maxResult());
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/search")
+                        .queryParam("q", key.query())
+                        .queryParam("lr", key.language())
+                        .queryParam("num", key.maxResult())
+                        .build())
+                .retrieve()
+                .bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> SearchResults.parse(objectMapper, body, key.query()));
+    }
+
+    private WebSearcherResponse merge(List<List<SearchResult>> perQuery) {
+        // The same page often matches several queries; keep its first occurrence
+        Set<String> seen = new HashSet<>();
+        List<SearchResult> results = new ArrayList<>();
+        for (List<SearchResult> queryResults : perQuery) {
+            for (SearchResult result : queryResults) {
+                if (seen.add(result.getLink())) {
+                    results.add(result);
+                }
+            }
         }
+        WebSearcherResponse response = new WebSearcherResponse();
+        response.setResults(results);
+        response.setContent(SearchResults.toJson(objectMapper, results));
+        response.setSuccess(true);
         return response;
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.agentprovider.service.impl;
 
 import com.example.agentprovider.client.AiProviderClient;
 import com.example.agentprovider.client.YoutubeTranscriptorClient;
+import com.example.agentprovider.logging.LogPayload;
 import com.example.agentprovider.model.AiRequest;
 import com.example.agentprovider.model.AiResponse;
 import com.example.agentprovider.model.youtubeTranscript.TranscriptResponse;
@@ -12,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.regex.Matcher;
@@ -33,7 +35,7 @@ public class YoutubeServiceImpl implements YoutubeService {
     }
 
     @Override
-    public YoutubeSummarizeResponse summarizeVideo(YoutubeSummarizeRequest request) {
+    public Mono<YoutubeSummarizeResponse> summarizeVideo(YoutubeSummarizeRequest request) {
         long startTime = System.currentTimeMillis();
 
         // Check if URL is provided directly
@@ -59,11 +61,11 @@ public class YoutubeServiceImpl implements YoutubeService {
         // If no YouTube URL found, return error
         if (youtubeUrl == null || youtubeUrl.isEmpty()) {
             logger.warn("No YouTube URL provided or found in content");
-            return YoutubeSummarizeResponse.builder()
+            return Mono.just(YoutubeSummarizeResponse.builder()
                     .success(false)
                     .errorMessage("No YouTube URL provided or found in content")
                     .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+                    .build());
         }
 
         // Extract the video ID from the YouTube URL
@@ -71,69 +73,69 @@ public class YoutubeServiceImpl implements YoutubeService {
         logger.info("Extracted video ID: {}", videoId);
 
         if (videoId.isEmpty()) {
-            return YoutubeSummarizeResponse.builder()
+            return Mono.just(YoutubeSummarizeResponse.builder()
                     .success(false)
                     .errorMessage("Invalid YouTube URL format")
                     .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+                    .build());
         }
 
-        try {
-            // Step 1: Get the transcript from RapidAPI
-            logger.info("Fetching transcript for video ID: {}", videoId);
-            List<TranscriptResponse> transcriptResponses = youtubeTranscriptorClient.getTranscript(videoId);
-
-            if (transcriptResponses == null || transcriptResponses.isEmpty() ||
-                    transcriptResponses.get(0).getTranscriptionAsText() == null ||
-                    transcriptResponses.get(0).getTranscriptionAsText().isEmpty()) {
-                logger.warn("No transcript found for video ID: {}", videoId);
-                return YoutubeSummarizeResponse.builder()
-                        .videoId(videoId)
-                        .success(false)
-                        .errorMessage("Could not retrieve transcript for the video")
-                        .processingTimeMs(System.currentTimeMillis() - startTime)
-                        .build();
-            }
-
-            TranscriptResponse transcriptResponse = transcriptResponses.get(0);
-            logger.debug("Received transcript: {}", transcriptResponse.getTranscriptionAsText());
-
-            // Step 2: Send the transcript to AI service for summarization
-            logger.info("Sending transcript to AI service for summarization");
-            AiRequest aiRequest = new AiRequest(
-                transcriptResponse.getTranscriptionAsText(),
-                request.getSpecialPrompt(),
-                request.getModel(),
-                request.getMaxTokens(),
-                request.getTemperature()
-            );
-
-            AiResponse aiResponse = aiProviderClient.generateContent(aiRequest);
-
-            // Step 3: Build and return the final response
-            YoutubeSummarizeResponse response = YoutubeSummarizeResponse.builder()
-                    .videoId(videoId)
-                    .content(aiResponse.getContent())
-                    .model(aiResponse.getModel())
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .success(aiResponse.isSuccess())
-                    .build();
-
-            if (!aiResponse.isSuccess()) {
-                response.setErrorMessage(aiResponse.getErrorMessage());
-            }
-
-            return response;
-
-        } catch (Exception e) {
-            logger.error("Error summarizing YouTube video: {}", e.getMessage(), e);
-            return YoutubeSummarizeResponse.builder()
-                    .videoId(videoId)
-                    .success(false)
-                    .errorMessage("Error processing request: " + e.getMessage())
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
-        }
+        // Step 1: Get the transcript from RapidAPI
+        logger.info("Fetching transcript for video ID: {}", videoId);
+        return youtubeTranscriptorClient.getTranscript(videoId)
+                .defaultIfEmpty(List.of())
+                .flatMap(transcriptResponses -> {
+                    if (transcriptResponses.isEmpty() ||
+                            transcriptResponses.get(0).getTranscriptionAsText() == null ||
+                            transcriptResponses.get(0).getTranscriptionAsText().isEmpty()) {
+                        logger.warn("No transcript found for video ID: {}", videoId);
+                        return Mono.just(YoutubeSummarizeResponse.builder()
+                                .videoId(videoId)
+                                .success(false)
+                                .errorMessage("Could not retrieve transcript for the video")
+                                .processingTimeMs(System.currentTimeMillis() - startTime)
+                                .build());
+                    }
+
+                    TranscriptResponse transcriptResponse = transcriptResponses.get(0);
+                    logger.debug("Received transcript: {}", LogPayload.summary(transcriptResponse.getTranscriptionAsText()));
+
+                    // Step 2: Send the transcript to AI service for summarization
+                    logger.info("Sending transcript to AI service for summarization");
+                    AiRequest aiRequest = new AiRequest(
+                        transcriptResponse.getTranscriptionAsText(),
+                        request.getSpecialPrompt(),
+                        request.getModel(),
+                        request.getMaxTokens(),
+                        request.getTemperature()
+                    );
+
+                    // Step 3: Build and return the final response
+                    return aiProviderClient.generateContent(aiRequest)
+                            .map(aiResponse -> {
+                                YoutubeSummarizeResponse response = YoutubeSummarizeResponse.builder()
+                                        .videoId(videoId)
+                                        .content(aiResponse.getContent())
+                                        .model(aiResponse.getModel())
+                                        .processingTimeMs(System.currentTimeMillis() - startTime)
+                                        .success(aiResponse.isSuccess())
+                                        .build();
+
+                                if (!aiResponse.isSuccess()) {
+                                    response.setErrorMessage(aiResponse.getErrorMessage());
+                                }
+                                return response;
+                            });
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error summarizing YouTube video: {}", e.getMessage(), e);
+                    return Mono.just(YoutubeSummarizeResponse.builder()
+                            .videoId(videoId)
+                            .success(false)
+                            .errorMessage("Error processing request: " + e.getMessage())
+                            .processingTimeMs(System.currentTimeMillis() - startTime)
+                            .build());
+                });
     }
 
     @Override
@@ -0,0 +1,74 @@
+package com.example.agentprovider.service.search;
+
+import com.example.agentprovider.model.SearchResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the structured search result format shared by the web searcher
+ * and its consumers. Accepts RapidAPI responses ({@code items}), searcher responses
+ * ({@code results}, or {@code content} holding either as JSON text) and bare arrays.
+ */
+public final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    /** Returns the results in the JSON text, or an empty list when it is not a search result document. */
+    public static List<SearchResult> parse(ObjectMapper objectMapper, String json, String query) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            return parseNode(objectMapper, objectMapper.readTree(json), query);
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+
+    private static List<SearchResult> parseNode(ObjectMapper objectMapper, JsonNode node, String query) {
+        JsonNode items = node;
+        if (node.isObject()) {
+            items = node.has("items") ? node.get("items") : node.get("results");
+            if (items == null && node.path("content").isTextual()) {
+                return parse(objectMapper, node.get("content").asText(), query);
+            }
+        }
+        if (items == null || !items.isArray()) {
+            return List.of();
+        }
+
+        List<SearchResult> results = new ArrayList<>(items.size());
+        for (JsonNode item : items) {
+            String link = item.path("link").asText(item.path("url").asText(null));
+            if (link == null || !link.startsWith("http")) continue;
+            results.add(new SearchResult(
+                item.path("title").asText(null),
+                link,
+                item.path("snippet").asText(null),
+                item.path("query").asText(query)));
+        }
+        return results;
+    }
+
+    /** Serialises results as {@code {"items":[...]}} so parse() and older link extractors both read it. */
+    public static String toJson(ObjectMapper objectMapper, List<SearchResult> results) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode items = root.putArray("items");
+        for (SearchResult result : results) {
+            items.addPOJO(result);
+        }
+        try {
+            return objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Search results could not be serialised", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.agentprovider.service.translation;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into sentence segments while keeping the surrounding whitespace,
+ * so that translated segments can be joined back into the original layout.
+ */
+public final class TextSegmenter {
+
+    private TextSegmenter() {
+    }
+
+    public record Segment(String leading, String text, String trailing) {
+
+        public boolean isBlank() {
+            return text.isEmpty();
+        }
+
+        public String render(String replacement) {
+            return leading + replacement + trailing;
+        }
+    }
+
+    public static List<Segment> split(String content) {
+        List<Segment> segments = new ArrayList<>();
+        if (content == null || content.isEmpty()) {
+            return segments;
+        }
+
+        // Paragraph breaks are kept as hard boundaries; BreakIterator only works inside a line
+        int lineStart = 0;
+        while (lineStart < content.length()) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            lineEnd = lineEnd < 0 ? content.length() : lineEnd + 1;
+            splitLine(content.substring(lineStart, lineEnd), segments);
+            lineStart = lineEnd;
+        }
+        return segments;
+    }
+
+    public static String join(List<Segment> segments, List<String> texts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            sb.append(segment.isBlank() ? segment.leading() + segment.trailing() : segment.render(texts.get(i)));
+        }
+        return sb.toString();
+    }
+
+    private static void splitLine(String line, List<Segment> segments) {
+        BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ROOT);
+        iterator.setText(line);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            segments.add(toSegment(line.substring(start, end)));
+        }
+    }
+
+    private static Segment toSegment(String raw) {
+        int from = 0;
+        int to = raw.length();
+        while (from < to && Character.isWhitespace(raw.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(raw.charAt(to - 1))) to--;
+        return new Segment(raw.substring(0, from), raw.substring(from, to), raw.substring(to));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.agentprovider.service.translation;
+
+import com.example.agentprovider.config.TranslatorConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Segment level translation cache keyed by (source hash, target language).
+ * Entries hold the raw DeepL output and, once available, the AI corrected text
+ * together with the model/prompt it was corrected with.
+ */
+@Component
+public class TranslationMemory {
+
+    private final Cache<String, Entry> cache;
+
+    public TranslationMemory(TranslatorConfig translatorConfig) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(translatorConfig.getMemoryMaxEntries())
+            .expireAfterAccess(Duration.ofHours(translatorConfig.getMemoryTtlHours()))
+            .build();
+    }
+
+    public record Entry(String translation, String detectedSourceLanguage,
+                        String correction, String correctionProfile) {
+
+        public boolean isCorrectedFor(String profile) {
+            return correction != null && Objects.equals(correctionProfile, profile);
+        }
+
+        public Entry withCorrection(String corrected, String profile) {
+            return new Entry(translation, detectedSourceLanguage, corrected, profile);
+        }
+    }
+
+    public Entry get(String sourceText, String targetLanguage) {
+        return cache.getIfPresent(key(sourceText, targetLanguage));
+    }
+
+    public void put(String sourceText, String targetLanguage, Entry entry) {
+        cache.put(key(sourceText, targetLanguage), entry);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Identifies the AI correction settings; a cached correction is only reused
+     * when it was produced with the same model and special prompt.
+     */
+    public static String correctionProfile(String model, String specialPrompt) {
+        return sha256((model != null ? model : "") + '\u0000' + (specialPrompt != null ? specialPrompt : ""));
+    }
+
+    private static String key(String sourceText, String targetLanguage) {
+        return (targetLanguage != null ? targetLanguage.toUpperCase(Locale.ROOT) : "") + ':' + sha256(sourceText);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.agentprovider.controller;
+
+import com.example.agentprovider.service.ImageGeneratorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AgentControllerImageTest {
+
+    private static final String ID = "a".repeat(64);
+
+    @TempDir
+    Path directory;
+
+    private MockMvc mockMvc() throws Exception {
+        Path image = directory.resolve(ID + ".png");
+        Files.write(image, "0123456789".getBytes(StandardCharsets.UTF_8));
+        ImageGeneratorService imageGeneratorService = mock(ImageGeneratorService.class);
+        when(imageGeneratorService.findImage(ID)).thenReturn(Optional.of(image));
+        when(imageGeneratorService.findImage("missing")).thenReturn(Optional.empty());
+        AgentController controller = new AgentController(null, null, null, null, null, imageGeneratorService, null, null);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testServesStoredImage() throws Exception {
+        mockMvc().perform(get("/api/agent/images/" + ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + ID + "\""))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void testServesByteRanges() throws Exception {
+        mockMvc().perform(get("/api/agent/images/" + ID).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void testUnknownImageIsNotFound() throws Exception {
+        mockMvc().perform(get("/api/agent/images/missing"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.agentprovider.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class CorrelationIdFilterTest {
+
+    @RestController
+    static class EchoController {
+        // Reads the MDC on a parallel thread, after a thread hop
+        @GetMapping("/echo")
+        Mono<String> echo() {
+            return Mono.delay(Duration.ofMillis(10), Schedulers.parallel())
+                .map(ignored -> String.valueOf(MDC.get(CorrelationId.MDC_KEY)));
+        }
+    }
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new EchoController())
+        .addFilters(new CorrelationIdFilter())
+        .build();
+
+    @BeforeEach
+    public void enablePropagation() {
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    @AfterEach
+    public void disablePropagation() {
+        Hooks.disableAutomaticContextPropagation();
+    }
+
+    @Test
+    public void testIncomingIdFollowsRequestAcrossThreads() throws Exception {
+        MvcResult result = mockMvc.perform(get("/echo").header(CorrelationId.HEADER, "abc-123"))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().string(CorrelationId.HEADER, "abc-123"))
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(content().string("abc-123"));
+        assertEquals(null, MDC.get(CorrelationId.MDC_KEY));
+    }
+
+    @Test
+    public void testInvalidIdIsReplaced() throws Exception {
+        MvcResult result = mockMvc.perform(get("/echo").header(CorrelationId.HEADER, "bad id\nforged log line"))
+            .andReturn();
+        String generated = result.getResponse().getHeader(CorrelationId.HEADER);
+        assertTrue(generated.matches("[0-9a-f]{16}"));
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(content().string(generated));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.agentprovider.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogSamplerTest {
+
+    @Test
+    public void testLimitsEventsPerIntervalAndReportsSuppressed() throws Exception {
+        LogSampler sampler = new LogSampler(2, Duration.ofMillis(50));
+        assertEquals(0, sampler.tryAcquire());
+        assertEquals(0, sampler.tryAcquire());
+        assertEquals(-1, sampler.tryAcquire());
+        assertEquals(-1, sampler.tryAcquire());
+
+        Thread.sleep(60);
+        assertEquals(2, sampler.tryAcquire());
+        assertEquals(0, sampler.tryAcquire());
+    }
+
+    @Test
+    public void testPayloadSummaryHidesContent() {
+        String prompt = "gizli müşteri verisi ".repeat(1000);
+        String summary = LogPayload.summary(prompt).toString();
+
+        assertEquals("[len=" + prompt.length() + " fnv=" + Long.toHexString(LogPayload.hash(prompt)) + "]", summary);
+        assertEquals(summary, LogPayload.summary(new StringBuilder(prompt)).toString());
+        assertEquals("[null]", LogPayload.summary(null).toString());
+    }
+}
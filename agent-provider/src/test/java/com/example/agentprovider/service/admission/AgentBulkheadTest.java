@@ -0,0 +1,102 @@
+package com.example.agentprovider.service.admission;
+
+import com.example.agentprovider.config.BulkheadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AgentBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AgentBulkhead bulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+        BulkheadConfig.Limits limits = new BulkheadConfig.Limits();
+        limits.setMaxConcurrent(maxConcurrent);
+        limits.setMaxQueued(maxQueued);
+        limits.setMaxWait(maxWait);
+        return new AgentBulkhead(AgentType.TRANSLATOR, limits, meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("agent", "translator").gauge().value();
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() {
+        AgentBulkhead bulkhead = bulkhead(1, 1, Duration.ofSeconds(10));
+        Sinks.One<String> running = Sinks.one();
+        Disposable first = bulkhead.execute(running::asMono).subscribe();
+        Disposable second = bulkhead.execute(() -> Mono.just("queued")).subscribe();
+
+        assertEquals(1, gauge("agent.bulkhead.active"));
+        assertEquals(1, gauge("agent.bulkhead.queued"));
+        BulkheadFullException e = assertThrows(BulkheadFullException.class,
+            () -> bulkhead.execute(() -> Mono.just("third")).block());
+        assertEquals(AgentType.TRANSLATOR, e.getAgent());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertThrows(BulkheadFullException.class, bulkhead::checkAdmission);
+        assertEquals(2, meterRegistry.get("agent.bulkhead.rejected").counter().count());
+
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    public void testQueuedWorkRunsInArrivalOrder() {
+        AgentBulkhead bulkhead = bulkhead(1, 3, Duration.ofSeconds(10));
+        List<String> order = new ArrayList<>();
+        Sinks.One<String> running = Sinks.one();
+        bulkhead.execute(running::asMono).subscribe(order::add);
+        for (String name : List.of("a", "b", "c")) {
+            bulkhead.execute(() -> Mono.just(name)).subscribe(order::add);
+        }
+        assertEquals(3, gauge("agent.bulkhead.queued"));
+
+        running.tryEmitValue("first");
+
+        assertEquals(List.of("first", "a", "b", "c"), order);
+        assertEquals(0, gauge("agent.bulkhead.active"));
+        assertEquals(0, gauge("agent.bulkhead.queued"));
+        assertEquals(4, meterRegistry.get("agent.bulkhead.wait").timer().count());
+    }
+
+    @Test
+    public void testWaitTimeoutIsRejected() {
+        AgentBulkhead bulkhead = bulkhead(1, 1, Duration.ofMillis(50));
+        Sinks.One<String> running = Sinks.one();
+        Disposable first = bulkhead.execute(running::asMono).subscribe();
+
+        assertThrows(BulkheadFullException.class, () -> bulkhead.execute(() -> Mono.just("late")).block());
+        assertEquals(0, gauge("agent.bulkhead.queued"));
+
+        first.dispose();
+        assertEquals(0, gauge("agent.bulkhead.active"));
+    }
+
+    @Test
+    public void testCancelledWaiterGivesUpItsPlace() {
+        AgentBulkhead bulkhead = bulkhead(1, 2, Duration.ofSeconds(10));
+        Sinks.One<String> running = Sinks.one();
+        List<String> results = new ArrayList<>();
+        bulkhead.execute(running::asMono).subscribe(results::add);
+        Disposable cancelled = bulkhead.execute(() -> Mono.just("cancelled")).subscribe(results::add);
+        bulkhead.execute(() -> Mono.just("next")).subscribe(results::add);
+
+        cancelled.dispose();
+        assertEquals(1, gauge("agent.bulkhead.queued"));
+        running.tryEmitValue("first");
+
+        assertEquals(List.of("first", "next"), results);
+        assertEquals(0, gauge("agent.bulkhead.active"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.agentprovider.service.chart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChartDownsamplerTest {
+
+    @Test
+    public void testLttbKeepsEndpointsAndPeak() {
+        int size = 10_000;
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = i;
+            ys[i] = Math.sin(i / 100.0);
+        }
+        ys[5_000] = 50;  // single spike must survive downsampling
+
+        int[] kept = ChartDownsampler.lttb(xs, ys, size, 200);
+
+        assertEquals(200, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(size - 1, kept[kept.length - 1]);
+        boolean spike = false;
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+            spike |= kept[i] == 5_000;
+        }
+        assertTrue(spike);
+    }
+
+    @Test
+    public void testLttbBelowThresholdKeepsAll() {
+        double[] xs = {1, 2, 3};
+        double[] ys = {4, 5, 6};
+        assertArrayEquals(new int[] {0, 1, 2}, ChartDownsampler.lttb(xs, ys, 3, 2000));
+    }
+
+    @Test
+    public void testSortByXMovesY() {
+        double[] xs = new double[100];
+        double[] ys = new double[100];
+        for (int i = 0; i < 100; i++) {
+            xs[i] = (i * 37) % 100;
+            ys[i] = xs[i] * 2;
+        }
+
+        ChartDownsampler.sortByX(xs, ys, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, xs[i]);
+            assertEquals(2.0 * i, ys[i]);
+        }
+    }
+
+    @Test
+    public void testSortStopsWhenInterrupted() {
+        double[] xs = {3, 2, 1, 5, 4, 9, 8, 7, 6, 10, 12, 11, 15, 14, 13, 17, 16, 20, 19, 18};
+        double[] ys = new double[xs.length];
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> ChartDownsampler.sortByX(xs, ys, xs.length));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testTopCategoriesFoldsRest() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("a", 10.0);
+        values.put("b", 1.0);
+        values.put("c", 20.0);
+        values.put("d", 2.0);
+
+        Map<String, Double> top = ChartDownsampler.topCategories(values, 3);
+
+        assertEquals(List.of("a", "c", "Diğer"), List.copyOf(top.keySet()));
+        assertEquals(3.0, top.get("Diğer"));
+    }
+
+    @Test
+    public void testSeriesCollectorKeepsSmallSeries() {
+        ChartDownsampler.SeriesCollector collector = new ChartDownsampler.SeriesCollector(3, 0, 2, 100);
+        collector.add(2, 20);
+        collector.add(0, 0);
+        collector.add(1, 10);
+
+        assertEquals(3, collector.finish());
+        assertEquals(2, collector.xs()[0]);
+        assertEquals(10, collector.ys()[2]);
+    }
+
+    @Test
+    public void testSeriesCollectorIsBoundedAndKeepsExtremes() {
+        int points = 1_000_000;
+        int limit = 4_000;
+        ChartDownsampler.SeriesCollector collector = new ChartDownsampler.SeriesCollector(points, 0, points - 1, limit);
+        for (int i = points - 1; i >= 0; i--) {
+            collector.add(i, i == 123_456 ? 1e6 : i == 654_321 ? -1e6 : i % 10);
+        }
+
+        int size = collector.finish();
+        assertTrue(size <= limit);
+        assertTrue(collector.xs().length <= limit);
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, collector.ys()[i]);
+            max = Math.max(max, collector.ys()[i]);
+            minX = Math.min(minX, collector.xs()[i]);
+            maxX = Math.max(maxX, collector.xs()[i]);
+        }
+        assertEquals(-1e6, min);
+        assertEquals(1e6, max);
+        assertEquals(0, minX);
+        assertEquals(points - 1, maxX);
+    }
+}
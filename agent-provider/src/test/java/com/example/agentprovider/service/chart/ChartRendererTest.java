@@ -0,0 +1,82 @@
+package com.example.agentprovider.service.chart;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import com.example.agentprovider.service.data.DataTable;
+import com.example.agentprovider.service.data.DataTableReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ChartRendererTest {
+
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G'};
+
+    private final DataAnalyserConfig config = new DataAnalyserConfig();
+    private final ChartRenderer renderer = new ChartRenderer(config);
+
+    @AfterEach
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    private DataTable read(String csv) throws Exception {
+        return new DataTableReader(config, new ObjectMapper())
+                .readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertPng(String base64) {
+        assertNotNull(base64);
+        byte[] header = new byte[4];
+        System.arraycopy(Base64.getDecoder().decode(base64), 0, header, 0, 4);
+        assertArrayEquals(PNG_MAGIC, header);
+    }
+
+    @Test
+    public void testLargeXySeriesRendersAndIsCached() throws Exception {
+        StringBuilder csv = new StringBuilder("t,deger\n");
+        for (int i = 100_000; i > 0; i--) {
+            csv.append(i).append(',').append(i % 97).append('\n');
+        }
+
+        try (DataTable table = read(csv.toString())) {
+            String first = renderer.render(table, "t", "deger");
+            assertPng(first);
+            assertSame(first, renderer.render(table, "t", "deger"));
+        }
+    }
+
+    @Test
+    public void testBarChartForCategories() throws Exception {
+        try (DataTable table = read("sehir,satis\nİzmir,10\nBursa,5\nİzmir,7\n")) {
+            assertPng(renderer.render(table, "sehir", "satis"));
+        }
+    }
+
+    @Test
+    public void testUnknownColumnHasNoChart() throws Exception {
+        try (DataTable table = read("a,b\n1,2\n")) {
+            assertNull(renderer.render(table, "a", "yok"));
+        }
+    }
+
+    @Test
+    public void testDifferentTextContentDoesNotShareCacheEntry() throws Exception {
+        // "Aa" and "BB" have the same String.hashCode()
+        try (DataTable first = read("k,v\nAa,1\n");
+             DataTable second = read("k,v\nBB,1\n")) {
+            assertEquals("Aa".hashCode(), "BB".hashCode());
+            assertNotEquals(first.fingerprint(), second.fingerprint());
+        }
+    }
+}
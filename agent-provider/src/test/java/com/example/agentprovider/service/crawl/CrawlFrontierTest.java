@@ -0,0 +1,51 @@
+package com.example.agentprovider.service.crawl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CrawlFrontierTest {
+
+    @Test
+    public void testPollsHighestScoreFirstThenDiscoveryOrder() {
+        CrawlFrontier frontier = new CrawlFrontier();
+        frontier.offer("https://a.org/low", 1, 0.1);
+        frontier.offer("https://a.org/first", 1, 0.5);
+        frontier.offer("https://a.org/high", 2, 0.9);
+        frontier.offer("https://a.org/second", 1, 0.5);
+
+        assertEquals("https://a.org/high", frontier.poll().url());
+        assertEquals("https://a.org/first", frontier.poll().url());
+        assertEquals("https://a.org/second", frontier.poll().url());
+        assertEquals("https://a.org/low", frontier.poll().url());
+        assertNull(frontier.poll());
+    }
+
+    @Test
+    public void testAcceptsEachUrlOnce() {
+        CrawlFrontier frontier = new CrawlFrontier();
+
+        assertTrue(frontier.offer("https://a.org/page", 0, 1.0));
+        assertFalse(frontier.offer("https://a.org/page#section", 1, 2.0));
+        assertFalse(frontier.offer("https://a.org/other", 1, LinkScorer.REJECT));
+        assertEquals(1, frontier.size());
+
+        CrawlFrontier.Candidate candidate = frontier.poll();
+        assertEquals(0, candidate.depth());
+        assertFalse(frontier.offer("https://a.org/page", 2, 1.0));
+    }
+
+    @Test
+    public void testNoveltyDropsRepeatedText() {
+        ContentNovelty novelty = new ContentNovelty();
+
+        assertEquals(1.0, novelty.add("Virtual threads make blocking code scale on the JVM"));
+        assertEquals(0.0, novelty.add("virtual threads make blocking code scale, on the JVM!"));
+        double partial = novelty.add("Virtual threads make blocking code cheap to write and easy to read");
+        assertTrue(partial > 0 && partial < 1);
+        assertEquals(0.0, novelty.add("  too short  "));
+    }
+}
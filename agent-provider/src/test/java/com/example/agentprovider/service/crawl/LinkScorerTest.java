@@ -0,0 +1,74 @@
+package com.example.agentprovider.service.crawl;
+
+import com.example.agentprovider.config.WebScrapperConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkScorerTest {
+
+    private final HostQuality hostQuality = new HostQuality(new WebScrapperConfig());
+
+    private LinkScorer scorer() {
+        return new LinkScorer("java virtual threads performance", List.of("https://www.example.com/start"), hostQuality);
+    }
+
+    @Test
+    public void testRelevantArticleBeatsNavigation() {
+        LinkScorer scorer = scorer();
+        double article = scorer.score("https://example.com/blog/virtual-threads-performance-tips", "Virtual threads performance",
+            "example.com", 1);
+        double login = scorer.score("https://example.com/login?next=/", "Sign in", "example.com", 1);
+        double privacy = scorer.score("https://example.com/privacy", "Privacy", "example.com", 1);
+        double unrelated = scorer.score("https://example.com/about-us", "About us", "example.com", 1);
+
+        assertTrue(article > unrelated);
+        assertTrue(unrelated > login);
+        assertTrue(unrelated > privacy);
+    }
+
+    @Test
+    public void testPrefersSameSiteAndShallowLinks() {
+        LinkScorer scorer = scorer();
+        double sameSite = scorer.score("https://example.com/page", "Java", "other.org", 1);
+        double offSite = scorer.score("https://tracker.net/page", "Java", "other.org", 1);
+        double deeper = scorer.score("https://example.com/page", "Java", "other.org", 2);
+
+        assertTrue(sameSite > offSite);
+        assertTrue(sameSite > deeper);
+    }
+
+    @Test
+    public void testRejectsFilesAndInvalidUrls() {
+        LinkScorer scorer = scorer();
+
+        assertEquals(LinkScorer.REJECT, scorer.score("https://example.com/logo.png", "", "example.com", 1));
+        assertEquals(LinkScorer.REJECT, scorer.score("https://example.com/a b", "Java", "example.com", 1));
+        assertEquals(LinkScorer.REJECT, scorer.scoreSeed("https://example.com/archive.zip", "Java", 0));
+    }
+
+    @Test
+    public void testHostQualityShiftsScores() {
+        LinkScorer scorer = scorer();
+        double before = scorer.score("https://news.org/java", "Java", "news.org", 1);
+        hostQuality.record("news.org", 0);
+        hostQuality.record("news.org", 0);
+
+        assertTrue(hostQuality.get("NEWS.org") < HostQuality.UNKNOWN);
+        assertTrue(scorer.score("https://news.org/java", "Java", "news.org", 1) < before);
+    }
+
+    @Test
+    public void testSeedsKeepSearchOrderAndOutrankLinks() {
+        LinkScorer scorer = scorer();
+        double first = scorer.scoreSeed("https://a.org/java", "Java", 0);
+        double second = scorer.scoreSeed("https://b.org/java", "Java", 1);
+        double link = scorer.score("https://a.org/java-threads", "Java threads", "a.org", 1);
+
+        assertTrue(first > second);
+        assertTrue(second > link);
+    }
+}
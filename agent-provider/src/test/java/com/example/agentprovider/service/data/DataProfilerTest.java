@@ -0,0 +1,111 @@
+package com.example.agentprovider.service.data;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataProfilerTest {
+
+    private final DataAnalyserConfig config = new DataAnalyserConfig();
+    private final DataProfiler profiler = new DataProfiler(config);
+
+    @AfterEach
+    public void tearDown() {
+        profiler.shutdown();
+    }
+
+    private DataTable read(String csv) throws Exception {
+        return new DataTableReader(config, new ObjectMapper())
+                .readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testNumericColumnStatistics() throws Exception {
+        try (DataTable table = read("x\n2\n4\n4\n4\n5\n5\n7\n9\n\n")) {
+            DataProfile.ColumnProfile x = profiler.profile(table).columns().get(0);
+
+            assertEquals(ColumnType.NUMBER, x.type());
+            assertEquals(8, x.count());
+            assertEquals(2.0, x.min());
+            assertEquals(9.0, x.max());
+            assertEquals(5.0, x.mean());
+            // Sample standard deviation of the classic 2,4,4,4,5,5,7,9 set
+            assertEquals(Math.sqrt(32.0 / 7), x.stddev(), 1e-5);
+            assertEquals(4.5, x.quantiles().get("p50"), 0.5);
+        }
+    }
+
+    @Test
+    public void testCorrelationAndGrouping() throws Exception {
+        StringBuilder csv = new StringBuilder("bolge,satis,maliyet,ters\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i % 2 == 0 ? "Kuzey" : "Güney").append(',')
+               .append(i).append(',')
+               .append(2 * i + 10).append(',')
+               .append(-i).append('\n');
+        }
+
+        try (DataTable table = read(csv.toString())) {
+            DataProfile profile = profiler.profile(table);
+
+            assertEquals(3, profile.correlations().size());
+            for (DataProfile.Correlation correlation : profile.correlations()) {
+                assertEquals(1.0, Math.abs(correlation.pearson()), 1e-9);
+                assertEquals(1000, correlation.pairs());
+            }
+
+            DataProfile.GroupedAggregate sales = profile.groupedAggregates().stream()
+                    .filter(g -> g.metric().equals("satis"))
+                    .findFirst().orElseThrow();
+            assertEquals("bolge", sales.groupBy());
+            assertEquals(2, sales.groups().size());
+            DataProfile.GroupStats kuzey = sales.groups().stream()
+                    .filter(g -> g.key().equals("Kuzey")).findFirst().orElseThrow();
+            assertEquals(500, kuzey.count());
+            assertEquals(249500.0, kuzey.sum());
+            assertEquals(499.0, kuzey.mean());
+        }
+    }
+
+    @Test
+    public void testTextColumnTopValues() throws Exception {
+        try (DataTable table = read("sehir\nİzmir\nBursa\nİzmir\n")) {
+            DataProfile.ColumnProfile sehir = profiler.profile(table).columns().get(0);
+
+            assertEquals(2, sehir.distinct());
+            assertNull(sehir.distinctApproximate());
+            assertEquals("İzmir", sehir.topValues().get(0).value());
+            assertEquals(2, sehir.topValues().get(0).count());
+        }
+    }
+
+    @Test
+    public void testSampleRowsAreSpreadOverTable() throws Exception {
+        StringBuilder csv = new StringBuilder("i\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append('\n');
+        }
+        try (DataTable table = read(csv.toString())) {
+            LongPredicate sample = profiler.sampleRows(table);
+            long selected = 0;
+            long last = -1;
+            for (long row = 0; row < table.rowCount(); row++) {
+                if (sample.test(row)) {
+                    selected++;
+                    last = row;
+                }
+            }
+            assertEquals(config.getSampleRows(), selected);
+            assertTrue(last >= 900);
+        }
+    }
+}
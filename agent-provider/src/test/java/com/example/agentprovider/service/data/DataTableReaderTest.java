@@ -0,0 +1,147 @@
+package com.example.agentprovider.service.data;
+
+import com.example.agentprovider.config.DataAnalyserConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataTableReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DataTableReader reader(DataAnalyserConfig config) {
+        return new DataTableReader(config, objectMapper);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode toJson(DataTable table) throws Exception {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            table.writeJson(generator);
+        }
+        return objectMapper.readTree(writer.toString());
+    }
+
+    @Test
+    public void testCsvColumnTypes() throws Exception {
+        String csv = "ay,gelir,aktif,not\nOcak,1200,true,ilk\nŞubat,1350.5,false,\nMart,,true,son\n";
+
+        try (DataTable table = reader(new DataAnalyserConfig()).readCsv(stream(csv))) {
+            assertEquals(3, table.rowCount());
+            assertEquals(ColumnType.TEXT, table.columnType(table.columnIndex("ay")));
+            assertEquals(ColumnType.NUMBER, table.columnType(table.columnIndex("gelir")));
+            assertEquals(ColumnType.TEXT, table.columnType(table.columnIndex("aktif")));
+            assertEquals(2, table.nonNullCount(table.columnIndex("gelir")));
+            assertEquals(-1, table.columnIndex("yok"));
+
+            JsonNode rows = toJson(table);
+            assertEquals(1200, rows.get(0).get("gelir").asLong());
+            assertTrue(rows.get(0).get("gelir").isIntegralNumber());
+            assertEquals(1350.5, rows.get(1).get("gelir").asDouble());
+            assertFalse(rows.get(2).has("gelir"));
+        }
+    }
+
+    @Test
+    public void testIdentifierLikeIntegersStayText() throws Exception {
+        String csv = "kart,hesap,tutar\n4111111111111111,00123,42\n5500000000000004,00456,7\n";
+
+        try (DataTable table = reader(new DataAnalyserConfig()).readCsv(stream(csv))) {
+            assertEquals(ColumnType.TEXT, table.columnType(table.columnIndex("kart")));
+            assertEquals(ColumnType.TEXT, table.columnType(table.columnIndex("hesap")));
+            assertEquals(ColumnType.NUMBER, table.columnType(table.columnIndex("tutar")));
+
+            JsonNode rows = toJson(table);
+            assertEquals("4111111111111111", rows.get(0).get("kart").asText());
+            assertEquals("00123", rows.get(0).get("hesap").asText());
+        }
+    }
+
+    @Test
+    public void testJsonLongIntegersStayExact() throws Exception {
+        String json = "[{\"id\": 12345678901234567890, \"n\": 9007199254740993, \"v\": 3}, {\"id\": 1, \"v\": 4.5}]";
+
+        try (DataTable table = reader(new DataAnalyserConfig()).readJson(stream(json))) {
+            JsonNode rows = toJson(table);
+            assertEquals("12345678901234567890", rows.get(0).get("id").asText());
+            assertEquals("9007199254740993", rows.get(0).get("n").asText());
+            assertEquals(ColumnType.NUMBER, table.columnType(table.columnIndex("v")));
+        }
+    }
+
+    @Test
+    public void testSpilledChunksRoundTrip() throws Exception {
+        DataAnalyserConfig config = new DataAnalyserConfig();
+        config.setChunkRows(100);
+        config.setMaxInMemoryBytes(4 * 1024);
+
+        StringBuilder csv = new StringBuilder("i,kare,etiket\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(',').append((long) i * i).append(",satır-").append(i % 7).append('\n');
+        }
+
+        try (DataTable table = reader(config).readCsv(stream(csv.toString()))) {
+            assertTrue(table.isSpilled());
+            assertEquals(50, table.chunkCount());
+
+            AtomicLong expected = new AtomicLong();
+            table.forEachChunk(chunk -> {
+                for (int row = 0; row < chunk.size(); row++) {
+                    long i = expected.getAndIncrement();
+                    assertEquals(i, chunk.firstRow() + row);
+                    assertEquals(i, (long) chunk.getDouble(0, row));
+                    assertEquals(i * i, (long) chunk.getDouble(1, row));
+                    assertEquals("satır-" + (i % 7), chunk.getText(2, row));
+                }
+            });
+            assertEquals(5000, expected.get());
+        }
+    }
+
+    @Test
+    public void testFingerprintDependsOnContent() throws Exception {
+        DataTableReader reader = reader(new DataAnalyserConfig());
+        try (DataTable a = reader.readCsv(stream("x,y\n1,2\n3,4\n"));
+             DataTable b = reader.readCsv(stream("x,y\n1,2\n3,4\n"));
+             DataTable c = reader.readCsv(stream("x,y\n1,2\n3,5\n"))) {
+            assertEquals(a.fingerprint(), b.fingerprint());
+            assertTrue(a.fingerprint() != c.fingerprint());
+        }
+    }
+
+    @Test
+    public void testScanStopsWhenInterrupted() throws Exception {
+        try (DataTable table = reader(new DataAnalyserConfig()).readCsv(stream("a\n1\n2\n"))) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(InterruptedIOException.class, () -> table.forEachChunk(chunk -> { }));
+            } finally {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Test
+    public void testMaxRowsIsEnforced() {
+        DataAnalyserConfig config = new DataAnalyserConfig();
+        config.setMaxRows(2);
+
+        assertThrows(java.io.IOException.class,
+                () -> reader(config).readCsv(stream("a\n1\n2\n3\n")));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.agentprovider.service.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonLocatorTest {
+
+    private static List<String> candidates(String text) {
+        return JsonLocator.findAll(text).stream()
+                .map(span -> text.substring(span.start(), span.end()))
+                .toList();
+    }
+
+    @Test
+    public void testFindsEmbeddedArray() {
+        String text = "Aşağıdaki verileri analiz et: [{\"ay\":\"Ocak\",\"gelir\":10}] teşekkürler";
+        assertEquals(List.of("[{\"ay\":\"Ocak\",\"gelir\":10}]"), candidates(text));
+    }
+
+    @Test
+    public void testBracketsInsideStringsAreIgnored() {
+        String text = "veri: {\"not\": \"a ] b } c \\\" [\", \"n\": 1}";
+        assertEquals(List.of("{\"not\": \"a ] b } c \\\" [\", \"n\": 1}"), candidates(text));
+    }
+
+    @Test
+    public void testUnclosedBracketDoesNotHideNestedValue() {
+        String text = "liste [ başlıyor ama [1, 2, 3] burada ve {\"a\": 1} şurada";
+        assertEquals(List.of("[1, 2, 3]", "{\"a\": 1}"), candidates(text));
+    }
+
+    @Test
+    public void testMismatchedCloserResets() {
+        String text = "(bkz. [not} ) sonra [4, 5]";
+        assertEquals(List.of("[4, 5]"), candidates(text));
+    }
+
+    @Test
+    public void testStrayQuoteDoesNotSwallowLaterJson() {
+        String text = "Ürün: [5\" ekran] fiyatlar: [{\"model\": \"A\", \"fiyat\": 100}]";
+        List<String> found = candidates(text);
+        assertEquals("[{\"model\": \"A\", \"fiyat\": 100}]", found.get(found.size() - 1));
+    }
+
+    @Test
+    public void testCandidatesAreOutermostAndOrdered() {
+        String text = "[x] ve [[1], [2]] ve {}";
+        assertEquals(List.of("[x]", "[[1], [2]]", "{}"), candidates(text));
+    }
+
+    @Test
+    public void testNoCandidates() {
+        assertEquals(List.of(), candidates("sadece düz metin \" ve ] işaretleri }"));
+    }
+
+    @Test
+    public void testPathologicalInputIsLinear() {
+        String text = "[[x] ".repeat(200_000) + "\"[";
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            List<JsonLocator.Span> spans = JsonLocator.findAll(text);
+            assertEquals(200_000, spans.size());
+        });
+    }
+
+    @Test
+    public void testReaderAndRemove() throws Exception {
+        String text = "önce [1,2] sonra";
+        JsonLocator.Span span = JsonLocator.findAll(text).get(0);
+
+        try (Reader reader = JsonLocator.reader(text, span)) {
+            assertTrue(new ObjectMapper().readTree(reader).isArray());
+        }
+        assertEquals("önce  sonra", JsonLocator.remove(text, span));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.agentprovider.service.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testSmallInputIsExact() {
+        QuantileSketch median = new QuantileSketch(0.5);
+        for (double value : new double[] {5, 1, 3}) {
+            median.add(value);
+        }
+        assertEquals(3, median.estimate(), 1e-9);
+    }
+
+    @Test
+    public void testUniformQuantiles() {
+        QuantileSketch p25 = new QuantileSketch(0.25);
+        QuantileSketch p50 = new QuantileSketch(0.5);
+        QuantileSketch p95 = new QuantileSketch(0.95);
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            double value = random.nextDouble() * 1000;
+            p25.add(value);
+            p50.add(value);
+            p95.add(value);
+        }
+        assertEquals(250, p25.estimate(), 10);
+        assertEquals(500, p50.estimate(), 10);
+        assertEquals(950, p95.estimate(), 10);
+    }
+
+    @Test
+    public void testSkewedQuantiles() {
+        QuantileSketch p50 = new QuantileSketch(0.5);
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            p50.add(-Math.log(1 - random.nextDouble()));  // exponential, median ln 2
+        }
+        assertEquals(Math.log(2), p50.estimate(), 0.02);
+    }
+}
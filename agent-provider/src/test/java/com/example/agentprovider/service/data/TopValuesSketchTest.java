@@ -0,0 +1,59 @@
+package com.example.agentprovider.service.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TopValuesSketchTest {
+
+    @Test
+    public void testExactCountsWithinCapacity() {
+        TopValuesSketch sketch = new TopValuesSketch(10);
+        for (String value : List.of("a", "b", "a", "c", "a", "b")) {
+            sketch.add(value);
+        }
+
+        assertTrue(sketch.isExact());
+        assertEquals(3, sketch.distinct());
+        assertEquals(List.of(Map.entry("a", 3L), Map.entry("b", 2L), Map.entry("c", 1L)), sketch.top(10));
+        assertEquals(List.of(Map.entry("a", 3L)), sketch.top(1));
+    }
+
+    @Test
+    public void testHeavyHittersSurviveEviction() {
+        TopValuesSketch sketch = new TopValuesSketch(16);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Two heavy categories hidden in a long tail of unique values
+            int r = random.nextInt(10);
+            sketch.add(r < 3 ? "İstanbul" : r < 5 ? "Ankara" : "id-" + i);
+        }
+
+        assertFalse(sketch.isExact());
+        assertEquals(16, sketch.distinct());
+        List<Map.Entry<String, Long>> top = sketch.top(2);
+        assertEquals("İstanbul", top.get(0).getKey());
+        assertEquals("Ankara", top.get(1).getKey());
+        // Space-Saving only overestimates, by at most n / capacity
+        assertTrue(top.get(0).getValue() >= 30_000 - 1_000 && top.get(0).getValue() <= 30_000 + 100_000 / 16 + 1_000);
+    }
+
+    @Test
+    public void testEvictionReplacesMinimum() {
+        TopValuesSketch sketch = new TopValuesSketch(2);
+        sketch.add("a");
+        sketch.add("a");
+        sketch.add("b");
+        sketch.add("c");  // evicts b (count 1), c inherits 1 + 1
+
+        Map<String, Long> top = Map.ofEntries(sketch.top(5).toArray(Map.Entry[]::new));
+        assertEquals(Map.of("a", 2L, "c", 2L), top);
+        assertFalse(sketch.isExact());
+    }
+}
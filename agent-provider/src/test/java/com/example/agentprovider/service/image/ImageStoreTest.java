@@ -0,0 +1,105 @@
+package com.example.agentprovider.service.image;
+
+import com.example.agentprovider.config.ImageGeneratorConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageStore store(long maxBytes) {
+        ImageGeneratorConfig config = new ImageGeneratorConfig();
+        config.setStoreDirectory(directory.toString());
+        config.setStoreMaxBytes(maxBytes);
+        return new ImageStore(config);
+    }
+
+    private static Flux<DataBuffer> chunks(String... parts) {
+        return Flux.fromArray(parts)
+            .map(part -> DefaultDataBufferFactory.sharedInstance.wrap(part.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private long fileCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testStoresByContentHash() throws Exception {
+        ImageStore store = store(1024 * 1024);
+
+        String id = store.store(chunks("png-", "bytes")).block();
+
+        // Ids are hex SHA-256 digests of the bytes
+        assertEquals(64, id.length());
+        Path path = store.find(id).orElseThrow();
+        assertArrayEquals("png-bytes".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(path));
+    }
+
+    @Test
+    public void testSameBytesAreStoredOnce() throws Exception {
+        ImageStore store = store(1024 * 1024);
+
+        String first = store.store(chunks("same")).block();
+        String second = store.store(chunks("sa", "me")).block();
+        String other = store.store(chunks("other")).block();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, fileCount());
+    }
+
+    @Test
+    public void testRejectsMalformedIds() {
+        ImageStore store = store(1024 * 1024);
+
+        assertFalse(store.find("../../etc/passwd").isPresent());
+        assertFalse(store.find("ABC").isPresent());
+        assertFalse(store.find(null).isPresent());
+    }
+
+    @Test
+    public void testEvictsOldestImagesOverBudget() throws Exception {
+        ImageStore store = store(25);
+
+        String oldest = store.store(chunks("a".repeat(10))).block();
+        Files.setLastModifiedTime(store.find(oldest).orElseThrow(), FileTime.fromMillis(1_000));
+        String middle = store.store(chunks("b".repeat(10))).block();
+        Files.setLastModifiedTime(store.find(middle).orElseThrow(), FileTime.fromMillis(2_000));
+        String newest = store.store(chunks("c".repeat(10))).block();
+
+        assertFalse(store.find(oldest).isPresent());
+        assertTrue(store.find(middle).isPresent());
+        assertTrue(store.find(newest).isPresent());
+    }
+
+    @Test
+    public void testFailedUploadLeavesNoTempFile() throws Exception {
+        ImageStore store = store(1024 * 1024);
+
+        Flux<DataBuffer> failing = chunks("partial").concatWith(Flux.error(new IllegalStateException("connection reset")));
+
+        assertEquals("connection reset", assertThrows(
+            IllegalStateException.class, () -> store.store(failing).block()).getMessage());
+        assertEquals(0, fileCount());
+    }
+}
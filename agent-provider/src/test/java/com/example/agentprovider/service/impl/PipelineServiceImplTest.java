@@ -0,0 +1,172 @@
+package com.example.agentprovider.service.impl;
+
+import com.example.agentprovider.config.BulkheadConfig;
+import com.example.agentprovider.model.TranslatorResponse;
+import com.example.agentprovider.model.WebScrapperResponse;
+import com.example.agentprovider.model.WebSearcherResponse;
+import com.example.agentprovider.model.pipeline.PipelineAgent;
+import com.example.agentprovider.model.pipeline.PipelineRequest;
+import com.example.agentprovider.model.pipeline.PipelineStage;
+import com.example.agentprovider.model.pipeline.PipelineStageResult;
+import com.example.agentprovider.model.pipeline.PipelineSummary;
+import com.example.agentprovider.service.admission.AgentBulkheads;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AtomicInteger searchCalls = new AtomicInteger();
+    private final AtomicInteger searchesInFlight = new AtomicInteger();
+    private final AtomicInteger maxSearchesInFlight = new AtomicInteger();
+    private final List<String> scrapedContents = new ArrayList<>();
+
+    private PipelineServiceImpl service(boolean scrapperSucceeds) {
+        return new PipelineServiceImpl(
+            request -> Mono.defer(() -> {
+                searchCalls.incrementAndGet();
+                maxSearchesInFlight.accumulateAndGet(searchesInFlight.incrementAndGet(), Math::max);
+                WebSearcherResponse response = new WebSearcherResponse();
+                response.setContent("results for " + request.getContent());
+                return Mono.just(response)
+                    .delayElement(Duration.ofMillis(100))
+                    .doOnNext(ignored -> searchesInFlight.decrementAndGet());
+            }),
+            request -> {
+                synchronized (scrapedContents) {
+                    scrapedContents.add(request.getContent());
+                }
+                WebScrapperResponse response = new WebScrapperResponse();
+                response.setSuccess(scrapperSucceeds);
+                response.setContent("summary of " + request.getContent());
+                response.setErrorMessage(scrapperSucceeds ? null : "AI provider unavailable");
+                return Mono.just(response);
+            },
+            null,
+            request -> Mono.just(TranslatorResponse.builder()
+                .success(true)
+                .content(request.getTargetLanguage() + ": " + request.getContent())
+                .build()),
+            null,
+            objectMapper,
+            new AgentBulkheads(new BulkheadConfig(), new SimpleMeterRegistry()));
+    }
+
+    private PipelineStage stage(String id, PipelineAgent agent, String content, String... dependsOn) {
+        PipelineStage stage = new PipelineStage();
+        stage.setId(id);
+        stage.setAgent(agent);
+        stage.setDependsOn(List.of(dependsOn));
+        stage.setRequest(objectMapper.createObjectNode().put("content", content).put("targetLanguage", "TR"));
+        return stage;
+    }
+
+    private static PipelineRequest pipeline(PipelineStage... stages) {
+        PipelineRequest request = new PipelineRequest();
+        request.setStages(List.of(stages));
+        return request;
+    }
+
+    private static Map<String, PipelineStageResult> stageResults(List<ServerSentEvent<Object>> events) {
+        return events.stream()
+            .filter(event -> "stage".equals(event.event()))
+            .map(event -> (PipelineStageResult) event.data())
+            .collect(Collectors.toMap(PipelineStageResult::getStageId, Function.identity()));
+    }
+
+    @Test
+    public void testChainPassesOutputsAndReturnsOnlyFinalContent() {
+        List<ServerSentEvent<Object>> events = service(true).execute(pipeline(
+            stage("search", PipelineAgent.WEB_SEARCHER, "java"),
+            stage("scrape", PipelineAgent.WEB_SCRAPPER, "", "search"),
+            stage("translate", PipelineAgent.TRANSLATOR, "Özet: {{scrape}}")
+        )).collectList().block();
+
+        Map<String, PipelineStageResult> results = stageResults(events);
+        assertEquals(List.of("results for java"), scrapedContents);
+        assertNull(results.get("search").getContent());
+        assertNull(results.get("scrape").getContent());
+        assertEquals("TR: Özet: summary of results for java", results.get("translate").getContent());
+
+        ServerSentEvent<Object> last = events.get(events.size() - 1);
+        assertEquals("complete", last.event());
+        assertTrue(((PipelineSummary) last.data()).isSuccess());
+    }
+
+    @Test
+    public void testIndependentBranchesRunConcurrentlyAndSharedStageRunsOnce() {
+        List<ServerSentEvent<Object>> events = service(true).execute(pipeline(
+            stage("first", PipelineAgent.WEB_SEARCHER, "a"),
+            stage("second", PipelineAgent.WEB_SEARCHER, "b"),
+            stage("left", PipelineAgent.TRANSLATOR, "{{first}} {{second}}"),
+            stage("right", PipelineAgent.TRANSLATOR, "{{first}}")
+        )).collectList().block();
+
+        assertEquals(2, maxSearchesInFlight.get());
+        assertEquals(2, searchCalls.get());
+        assertEquals("TR: results for a results for b", stageResults(events).get("left").getContent());
+        assertEquals(5, events.size());
+    }
+
+    @Test
+    public void testFailedStageSkipsDependents() {
+        List<ServerSentEvent<Object>> events = service(false).execute(pipeline(
+            stage("search", PipelineAgent.WEB_SEARCHER, "java"),
+            stage("scrape", PipelineAgent.WEB_SCRAPPER, "{{search}}"),
+            stage("translate", PipelineAgent.TRANSLATOR, "{{scrape}}")
+        )).collectList().block();
+
+        Map<String, PipelineStageResult> results = stageResults(events);
+        assertEquals("AI provider unavailable", results.get("scrape").getErrorMessage());
+        assertFalse(results.get("translate").isSuccess());
+        assertEquals("Skipped: stage 'scrape' failed", results.get("translate").getErrorMessage());
+
+        PipelineSummary summary = (PipelineSummary) events.get(events.size() - 1).data();
+        assertFalse(summary.isSuccess());
+        assertEquals(2, summary.getFailedStages());
+    }
+
+    @Test
+    public void testValidationRejectsBrokenGraphs() {
+        PipelineServiceImpl service = service(true);
+        assertThrows(IllegalArgumentException.class, () -> service.validate(pipeline()));
+        assertThrows(IllegalArgumentException.class, () -> service.validate(pipeline(
+            stage("a", PipelineAgent.TRANSLATOR, "{{missing}}"))));
+        assertThrows(IllegalArgumentException.class, () -> service.validate(pipeline(
+            stage("a", PipelineAgent.TRANSLATOR, "x", "b"),
+            stage("b", PipelineAgent.TRANSLATOR, "{{a}}"))));
+        assertThrows(IllegalArgumentException.class, () -> service.validate(pipeline(
+            stage("a", PipelineAgent.TRANSLATOR, "x"),
+            stage("a", PipelineAgent.TRANSLATOR, "y"))));
+    }
+
+    @Test
+    public void testTopologicalOrderPutsDependenciesFirst() {
+        List<PipelineStage> order = PipelineServiceImpl.topologicalOrder(pipeline(
+            stage("translate", PipelineAgent.TRANSLATOR, "{{scrape}}"),
+            stage("scrape", PipelineAgent.WEB_SCRAPPER, "{{search}}"),
+            stage("search", PipelineAgent.WEB_SEARCHER, "java")
+        ));
+
+        assertEquals(List.of("search", "scrape", "translate"), order.stream().map(PipelineStage::getId).toList());
+    }
+}
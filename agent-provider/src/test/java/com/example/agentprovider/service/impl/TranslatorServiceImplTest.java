@@ -0,0 +1,45 @@
+package com.example.agentprovider.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TranslatorServiceImplTest {
+
+    @Test
+    public void testPartitionRespectsTextLimit() {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            texts.add("Cümle " + i + ".");
+        }
+
+        List<List<String>> batches = TranslatorServiceImpl.partition(texts, 50, 128 * 1024);
+
+        assertEquals(3, batches.size());
+        assertEquals(50, batches.get(0).size());
+        assertEquals(50, batches.get(1).size());
+        assertEquals(20, batches.get(2).size());
+        assertEquals(texts, batches.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    public void testPartitionRespectsByteLimit() {
+        String large = "ş".repeat(30_000);  // 60 000 UTF-8 bytes
+        List<String> texts = List.of(large, large, large, "kısa");
+
+        List<List<String>> batches = TranslatorServiceImpl.partition(texts, 50, 128 * 1024);
+
+        assertEquals(List.of(List.of(large, large), List.of(large, "kısa")), batches);
+    }
+
+    @Test
+    public void testOversizedTextGetsOwnBatch() {
+        String huge = "x".repeat(200_000);
+        List<List<String>> batches = TranslatorServiceImpl.partition(List.of("a", huge, "b"), 50, 128 * 1024);
+
+        assertEquals(List.of(List.of("a"), List.of(huge), List.of("b")), batches);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.agentprovider.service.search;
+
+import com.example.agentprovider.model.SearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchResultsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testParsesRapidApiItems() {
+        String body = "{\"status\":\"success\",\"items\":["
+            + "{\"title\":\"Java\",\"link\":\"https://dev.java/\",\"snippet\":\"Java \\\"home\\\"\",\"displayLink\":\"dev.java\"},"
+            + "{\"title\":\"No link\"},"
+            + "{\"title\":\"Relative\",\"link\":\"/wiki/Java\"}]}";
+
+        List<SearchResult> results = SearchResults.parse(objectMapper, body, "java");
+
+        assertEquals(1, results.size());
+        assertEquals("https://dev.java/", results.get(0).getLink());
+        assertEquals("Java \"home\"", results.get(0).getSnippet());
+        assertEquals("java", results.get(0).getQuery());
+    }
+
+    @Test
+    public void testRoundTripsThroughContent() {
+        List<SearchResult> results = List.of(
+            new SearchResult("A", "https://a.example/", "first", "q1"),
+            new SearchResult("B", "https://b.example/", null, "q2"));
+
+        String content = SearchResults.toJson(objectMapper, results);
+
+        assertEquals(results, SearchResults.parse(objectMapper, content, null));
+    }
+
+    @Test
+    public void testReadsSearcherResponseObjects() throws Exception {
+        String items = SearchResults.toJson(objectMapper, List.of(new SearchResult("A", "https://a.example/", null, "q")));
+        String withResults = "{\"success\":true,\"results\":[{\"link\":\"https://a.example/\",\"query\":\"q\"}]}";
+        String withContent = objectMapper.writeValueAsString(java.util.Map.of("success", true, "content", items));
+
+        assertEquals("https://a.example/", SearchResults.parse(objectMapper, withResults, null).get(0).getLink());
+        assertEquals("https://a.example/", SearchResults.parse(objectMapper, withContent, null).get(0).getLink());
+    }
+
+    @Test
+    public void testNonSearchContentYieldsNothing() {
+        assertTrue(SearchResults.parse(objectMapper, "see https://example.com for details", null).isEmpty());
+        assertTrue(SearchResults.parse(objectMapper, "{\"foo\":1}", null).isEmpty());
+        assertTrue(SearchResults.parse(objectMapper, null, null).isEmpty());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.agentprovider.service.translation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextSegmenterTest {
+
+    private static List<String> texts(List<TextSegmenter.Segment> segments) {
+        return segments.stream().map(TextSegmenter.Segment::text).toList();
+    }
+
+    @Test
+    public void testSplitsSentencesAndParagraphs() {
+        List<TextSegmenter.Segment> segments = TextSegmenter.split("Merhaba dünya. Nasılsın?\n\nİyiyim!");
+
+        List<String> nonBlank = texts(segments).stream().filter(text -> !text.isEmpty()).toList();
+        assertEquals(List.of("Merhaba dünya.", "Nasılsın?", "İyiyim!"), nonBlank);
+    }
+
+    @Test
+    public void testJoinWithOriginalTextsIsLossless() {
+        String content = "  Girinti ile başlar.  İkinci cümle!\r\n\n\tSekme\tiçeren satır.   \n\nSon.";
+        List<TextSegmenter.Segment> segments = TextSegmenter.split(content);
+
+        assertEquals(content, TextSegmenter.join(segments, texts(segments)));
+    }
+
+    @Test
+    public void testJoinKeepsLayoutAroundReplacements() {
+        String content = "Bir.  İki.\n\n  Üç.\n";
+        List<TextSegmenter.Segment> segments = TextSegmenter.split(content);
+        List<String> replaced = texts(segments).stream()
+                .map(text -> text.isEmpty() ? text : "[" + text.toUpperCase(Locale.ROOT) + "]")
+                .toList();
+
+        assertEquals("[BIR.]  [İKI.]\n\n  [ÜÇ.]\n", TextSegmenter.join(segments, replaced));
+    }
+
+    @Test
+    public void testBlankSegmentsKeepWhitespace() {
+        List<TextSegmenter.Segment> segments = TextSegmenter.split("\n\n");
+
+        assertTrue(segments.stream().allMatch(TextSegmenter.Segment::isBlank));
+        assertEquals("\n\n", TextSegmenter.join(segments, texts(segments)));
+    }
+
+    @Test
+    public void testEmptyContent() {
+        assertEquals(List.of(), TextSegmenter.split(""));
+        assertEquals(List.of(), TextSegmenter.split(null));
+    }
+}
@@ -6,20 +6,52 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import com.example.aiprovider.config.ExecutionModeConfig;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 public abstract class BaseClient {
     
-    protected final HttpClient httpClient;
+    protected HttpClient httpClient;
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
     
     protected BaseClient() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .build();
+        this.httpClient = newHttpClient(null);
+    }
+    
+    /**
+     * In virtual-thread mode the HttpClient's internal tasks run on virtual threads
+     * instead of its default cached platform thread pool.
+     */
+    @Autowired(required = false)
+    void setOutboundExecutor(@Qualifier(ExecutionModeConfig.OUTBOUND_IO_EXECUTOR) Executor executor) {
+        this.httpClient = newHttpClient(executor);
+    }
+    
+    /** Upstream LLM calls become spans and carry the W3C traceparent header. */
+    @Autowired(required = false)
+    void setObservationRegistry(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+    
+    private static HttpClient newHttpClient(Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30));
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
     }
     
     protected String sendRequest(String url, String apiKey, String requestBody) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(uri)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody));
         
@@ -28,8 +60,28 @@ public abstract class BaseClient {
             requestBuilder.header("Authorization", "Bearer " + apiKey);
         }
         
-        HttpRequest request = requestBuilder.build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        // The tracing handler writes traceparent into the builder when the observation starts
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<String>> context =
+                new RequestReplySenderContext<>((carrier, key, value) -> carrier.header(key, value));
+        context.setCarrier(requestBuilder);
+        context.setRemoteServiceName(uri.getHost());
+        Observation observation = Observation.createNotStarted("ai.llm.request", () -> context, observationRegistry)
+                .contextualName("llm " + getClass().getSimpleName())
+                .lowCardinalityKeyValue("client", getClass().getSimpleName())
+                .lowCardinalityKeyValue("host", String.valueOf(uri.getHost()))
+                .highCardinalityKeyValue("request.bytes", String.valueOf(requestBody.length()))
+                .start();
+        HttpResponse<String> response;
+        try (Observation.Scope scope = observation.openScope()) {
+            response = httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofString());
+            context.setResponse(response);
+            observation.lowCardinalityKeyValue("status", String.valueOf(response.statusCode()));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
         
         if (response.statusCode() >= 200 && response.statusCode() < 300) {
             return response.body();
@@ -5,6 +5,7 @@ import com.example.aiprovider.model.HuggingFaceRequest;
 import com.example.aiprovider.model.HuggingFaceResponse;
 import com.example.aiprovider.service.RequestProcessor;
 import com.example.aiprovider.utils.JsonEscapeHelper;
+import com.example.aiprovider.utils.LogPayload;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,10 +55,10 @@ public class HuggingFaceClient extends BaseClient implements AiClient {
         
         // Generate properly formatted and escaped JSON
         String requestBody = requestProcessor.generateValidJsonString(hfRequest);
-        log.debug("Sending request to HuggingFace API: {}", requestBody);
+        log.debug("Sending request to HuggingFace API (model {}): {}", model, LogPayload.summary(requestBody));
             
         String jsonResponse = sendRequest(API_URL, apiKey, requestBody);
-        log.debug("Received response from HuggingFace API: {}", jsonResponse);
+        log.debug("Received response from HuggingFace API: {}", LogPayload.summary(jsonResponse));
         
         try {
             // Parse response using the model class
@@ -68,7 +69,7 @@ public class HuggingFaceClient extends BaseClient implements AiClient {
                 HuggingFaceResponse.Choice firstChoice = response.getChoices()[0];
                 if (firstChoice.getMessage() != null) {
                     String content = firstChoice.getMessage().getContent();
-                    log.debug("Successfully extracted content from response: {}", content);
+                    log.debug("Successfully extracted content from response: {}", LogPayload.summary(content));
                     return content;
                 }
             }
@@ -78,9 +79,7 @@ public class HuggingFaceClient extends BaseClient implements AiClient {
             return "Response from HuggingFace: " + jsonResponse;
         } catch (Exception e) {
             // Log the error and return the raw response
-            log.error("Error parsing HuggingFace response: {}", e.getMessage());
-            log.error("Raw response: {}", jsonResponse);
-            log.error("Exception details:", e);
+            log.error("Error parsing HuggingFace response {}: {}", LogPayload.summary(jsonResponse), e.getMessage(), e);
             return jsonResponse;
         }
     }
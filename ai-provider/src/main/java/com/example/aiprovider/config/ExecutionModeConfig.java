@@ -0,0 +1,26 @@
+package com.example.aiprovider.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Execution mode switch. With {@code spring.threads.virtual.enabled=true} on JDK 21+
+ * Spring Boot runs Tomcat requests and {@code @Async} work on virtual threads; the
+ * executor below is handed to the model clients' {@link java.net.http.HttpClient}.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    public static final String OUTBOUND_IO_EXECUTOR = "outboundIoExecutor";
+
+    @Bean(OUTBOUND_IO_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor outboundIoExecutor() {
+        return new VirtualThreadTaskExecutor("ai-io-");
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.aiprovider.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes finished spans as JSON lines for offline analysis (jq, pandas) when no
+ * collector is running. One line per span: trace/span/parent ids, service, name,
+ * kind, start (epoch microseconds), duration, status and attributes. Spans are
+ * appended in batches by the SDK's batch processor.
+ * <p>
+ * Once a batch takes the file to {@code maxBytes}, it is renamed to {@code <file>.1}
+ * (an existing {@code .1} becomes {@code .2} and so on, the oldest beyond
+ * {@code maxHistory} is deleted) and a new file is started. A file can therefore end
+ * up to one batch above the limit. Because each process rotates on its own, services
+ * that rotate must not share a file.
+ */
+public class SpanFileExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Path file;
+    private final long maxBytes;
+    private final int maxHistory;
+    private OutputStream out;
+    private long size;
+
+    /** Appends to {@code file} without rotating it. */
+    public SpanFileExporter(Path file) {
+        this(file, Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * @param maxBytes   size at which the file is rotated
+     * @param maxHistory rotated files kept next to it
+     */
+    public SpanFileExporter(Path file, long maxBytes, int maxHistory) {
+        if (maxBytes <= 0 || (maxBytes < Long.MAX_VALUE && maxHistory < 1)) {
+            throw new IllegalArgumentException("Span file rotation needs a positive size and at least one kept file");
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxHistory = maxHistory;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open span file " + file, e);
+        }
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        lock.lock();
+        try {
+            for (SpanData span : spans) {
+                byte[] line = objectMapper.writeValueAsBytes(toJson(span));
+                out.write(line);
+                out.write('\n');
+                size += line.length + 1;
+            }
+            out.flush();
+            if (size >= maxBytes) {
+                rotate();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(file);
+    }
+
+    // file -> file.1 -> file.2 ...; en eskisi silinir
+    private void rotate() throws IOException {
+        out.close();
+        try {
+            Files.deleteIfExists(rotated(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                if (Files.exists(rotated(i))) {
+                    Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Taşıma başarısız olsa da yazmaya devam edilir
+            open();
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private ObjectNode toJson(SpanData span) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("traceId", span.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            node.put("parentSpanId", span.getParentSpanId());
+        }
+        node.put("service", span.getResource().getAttribute(SERVICE_NAME));
+        node.put("name", span.getName());
+        node.put("kind", span.getKind().name());
+        node.put("startMicros", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()));
+        node.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        node.put("status", span.getStatus().getStatusCode().name());
+        ObjectNode attributes = node.putObject("attributes");
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        return node;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        lock.lock();
+        try {
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        lock.lock();
+        try {
+            out.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
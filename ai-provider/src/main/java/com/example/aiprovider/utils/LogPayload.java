@@ -0,0 +1,41 @@
+package com.example.aiprovider.utils;
+
+/**
+ * Stands in for prompts and model responses in log lines: prints the length and
+ * a 64-bit FNV-1a hash instead of the content, so logging cost does not grow
+ * with prompt size and equal payloads can still be matched across services.
+ * The hash is only computed when the line is actually written.
+ */
+public final class LogPayload {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final CharSequence content;
+
+    private LogPayload(CharSequence content) {
+        this.content = content;
+    }
+
+    /** Use as a log argument: {@code log.debug("Response: {}", LogPayload.summary(body))}. */
+    public static LogPayload summary(CharSequence content) {
+        return new LogPayload(content);
+    }
+
+    public static long hash(CharSequence content) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < content.length(); i++) {
+            hash ^= content.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (content == null) {
+            return "[null]";
+        }
+        return "[len=" + content.length() + " fnv=" + Long.toHexString(hash(content)) + "]";
+    }
+}
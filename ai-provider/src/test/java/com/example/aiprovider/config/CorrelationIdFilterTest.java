@@ -0,0 +1,46 @@
+package com.example.aiprovider.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CorrelationIdFilterTest {
+
+    private static String filter(String incoming, MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/ai/generate");
+        if (incoming != null) {
+            request.addHeader(CorrelationIdFilter.HEADER, incoming);
+        }
+        AtomicReference<String> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY));
+        new CorrelationIdFilter().doFilter(request, response, chain);
+        return seen.get();
+    }
+
+    @Test
+    public void testKeepsForwardedId() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals("abc-123", filter("abc-123", response));
+        assertEquals("abc-123", response.getHeader(CorrelationIdFilter.HEADER));
+        assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+
+    @Test
+    public void testReplacesMissingOrUnsafeIds() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String generated = filter("x\r\nforged", response);
+        assertTrue(generated.matches("[0-9a-f]{16}"));
+        assertEquals(generated, response.getHeader(CorrelationIdFilter.HEADER));
+        assertTrue(filter(null, new MockHttpServletResponse()).matches("[0-9a-f]{16}"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.aiprovider.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestDecompressionFilterTest {
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return output.toByteArray();
+    }
+
+    private static MockHttpServletRequest gzipRequest(String body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/ai/generate");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(gzip(body));
+        return request;
+    }
+
+    @Test
+    public void testInflatesGzipBodies() throws Exception {
+        String body = "{\"content\":\"" + "uzun bir istem ".repeat(500) + "\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        new RequestDecompressionFilter(1024 * 1024).doFilter(gzipRequest(body), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest seen = (HttpServletRequest) chain.getRequest();
+        assertEquals(body, new String(seen.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(seen.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(-1, seen.getContentLength());
+    }
+
+    @Test
+    public void testLeavesPlainBodiesAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/ai/generate");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        new RequestDecompressionFilter(1024).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    public void testRejectsBodiesInflatingPastTheLimit() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        new RequestDecompressionFilter(1000).doFilter(gzipRequest("a".repeat(5000)), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest seen = (HttpServletRequest) chain.getRequest();
+        assertThrows(IOException.class, () -> seen.getInputStream().readAllBytes());
+    }
+}
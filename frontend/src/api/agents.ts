@@ -3,6 +3,7 @@ import { WebSearcherConfig, YoutubeSummarizerConfig, ResearchAgentConfig, WebScr
 import { executeActionAnalysis } from './customer';
 import { getMCPActionConfig, parseContentForAction, parseMCPContent, extractCustomerIdFromParameters, executeMCPRequest, initializeMCPActionConfigs } from '@/store/mcpConstants';
 import { apiEndpoints, config } from '@/config/env';
+import { traceHeaders } from '@/lib/tracing';
 
 // Configure axios with timeout and interceptors
 const axiosInstance = axios.create({
@@ -12,6 +13,12 @@ const axiosInstance = axios.create({
   },
 });
 
+// Every request carries a W3C traceparent so backend spans join the workflow's trace
+axiosInstance.interceptors.request.use((requestConfig) => {
+  Object.entries(traceHeaders()).forEach(([name, value]) => requestConfig.headers.set(name, value));
+  return requestConfig;
+});
+
 // Add request interceptor for debugging in development
 if (config.debug) {
   axiosInstance.interceptors.request.use(
@@ -254,6 +261,7 @@ export async function executeDataAnalyst(config: any) {
       body: formData,
       headers: {
         // Don't set Content-Type header - let the browser set it with boundary
+        ...traceHeaders(),
       },
     });
 
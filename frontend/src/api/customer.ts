@@ -1,5 +1,6 @@
 import { Customer, ActionAnalysisResponse } from '@/store/types';
 import { apiEndpoints, config } from '@/config/env';
+import { traceHeaders } from '@/lib/tracing';
 
 // Configure fetch with timeout
 const fetchWithTimeout = async (url: string, options: RequestInit = {}): Promise<Response> => {
@@ -12,6 +13,7 @@ const fetchWithTimeout = async (url: string, options: RequestInit = {}): Promise
       signal: controller.signal,
       headers: {
         'Content-Type': 'application/json',
+        ...traceHeaders(),
         ...options.headers,
       },
     });
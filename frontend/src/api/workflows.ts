@@ -1,5 +1,6 @@
 import axios from 'axios';
 import { apiEndpoints, config } from '@/config/env';
+import { traceHeaders } from '@/lib/tracing';
 
 // Configure axios with timeout
 const axiosInstance = axios.create({
@@ -9,6 +10,12 @@ const axiosInstance = axios.create({
   },
 });
 
+// Every request carries a W3C traceparent so backend spans join the workflow's trace
+axiosInstance.interceptors.request.use((requestConfig) => {
+  Object.entries(traceHeaders()).forEach(([name, value]) => requestConfig.headers.set(name, value));
+  return requestConfig;
+});
+
 export interface WorkflowDto {
   id: number;
   name: string;
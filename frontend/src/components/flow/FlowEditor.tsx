@@ -19,6 +19,7 @@ import { setFinanceActionTypes, setLastActionAnalysisResponse, setActionResultCo
 import { AgentType, AgentNode, NodeType, FlowConnection, ExecutionResults, AgentConfig } from '@/store/types';
 import { createDefaultAgentConfig, defaultAgentConfigs } from '@/store/defaultConfigs';
 import { executeAgent } from '@/api/agents';
+import { startWorkflowTrace, endWorkflowTrace } from '@/lib/tracing';
 import AIAgentNode from './AIAgentNode';
 import ResultNode from './ResultNode';
 import ConditionalNode from './ConditionalNode';
@@ -244,6 +245,8 @@ function Flow({ onSaveWorkflow, onLoadWorkflow }: FlowEditorProps) {
   }, []);
 
   const handleExecute = async () => {
+    const traceId = startWorkflowTrace();
+    console.log('🔎 FlowEditor - Workflow trace id:', traceId);
     try {
       // Clear accumulated responses at the start of new execution
       dispatch(clearAccumulatedResponses());
@@ -638,6 +641,8 @@ function Flow({ onSaveWorkflow, onLoadWorkflow }: FlowEditorProps) {
     } catch (error) {
       console.error('Error in workflow execution:', error);
       toast.error('Workflow execution failed');
+    } finally {
+      endWorkflowTrace();
     }
   };
 
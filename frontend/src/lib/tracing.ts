@@ -0,0 +1,27 @@
+// W3C trace context (traceparent) for calls to our services.
+// A workflow run shares one trace id, so every agent, ai-provider and mcp-provider
+// span of the run ends up in the same trace; each request gets its own parent span id.
+
+let workflowTraceId: string | null = null;
+
+function randomHex(bytes: number): string {
+  const values = new Uint8Array(bytes);
+  crypto.getRandomValues(values);
+  return Array.from(values, (value) => value.toString(16).padStart(2, '0')).join('');
+}
+
+/** Starts a new trace for a workflow run and returns its id (shown in logs for lookup). */
+export function startWorkflowTrace(): string {
+  workflowTraceId = randomHex(16);
+  return workflowTraceId;
+}
+
+export function endWorkflowTrace(): void {
+  workflowTraceId = null;
+}
+
+/** Headers to add to a request; outside a workflow run every request starts its own trace. */
+export function traceHeaders(): Record<string, string> {
+  const traceId = workflowTraceId ?? randomHex(16);
+  return { traceparent: `00-${traceId}-${randomHex(8)}-01` };
+}
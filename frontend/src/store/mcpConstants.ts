@@ -1,5 +1,6 @@
 import { FinanceActionType } from './types';
 import { apiEndpoints, config } from '@/config/env';
+import { traceHeaders } from '@/lib/tracing';
 
 // Dynamic action configurations
 export let dynamicActionConfigs: FinanceActionType[] = [];
@@ -21,6 +22,7 @@ export async function initializeMCPActionConfigs(actionTypes?: FinanceActionType
     const response = await fetch(apiEndpoints.mcp.financeActionTypes, {
       headers: {
         'Content-Type': 'application/json',
+        ...traceHeaders(),
       },
     });
     
@@ -363,6 +365,7 @@ export async function executeMCPRequest(params: {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
+          ...traceHeaders(),
         },
         body: JSON.stringify(requestBody),
       });
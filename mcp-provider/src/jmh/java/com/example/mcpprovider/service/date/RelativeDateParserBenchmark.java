@@ -0,0 +1,74 @@
+package com.example.mcpprovider.service.date;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Date range of an action analysis request: the engine against the code it replaced,
+ * which compiled the "son N gün" pattern and a formatter on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelativeDateParserBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final RelativeDateParser.Expression DEFAULT_RANGE =
+        new RelativeDateParser.Expression(RelativeDateParser.Kind.LAST, 30, ChronoUnit.DAYS);
+
+    @Param({"Son 3 ayın hesap ekstresini gönder lütfen", "Hesap ekstremi gönder"})
+    public String content;
+
+    private final RelativeDateParser parser = new RelativeDateParser();
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 15, 14, 30);
+
+    @Benchmark
+    public String legacyPerCallPattern() {
+        int relativeDays = 30;
+        Pattern pattern = Pattern.compile("son\\s+(\\d+)\\s*(yıl|ay|gün|sene)", Pattern.CASE_INSENSITIVE);
+        Matcher matcher = pattern.matcher(content);
+        if (matcher.find()) {
+            int value = Integer.parseInt(matcher.group(1));
+            switch (matcher.group(2).toLowerCase()) {
+                case "yıl", "sene" -> relativeDays = value * 365;
+                case "ay" -> relativeDays = value * 30;
+                default -> relativeDays = value;
+            }
+        }
+        LocalDateTime endDate = now.withHour(23).withMinute(59).withSecond(59).withNano(0);
+        LocalDateTime startDate = endDate.minusDays(relativeDays).withHour(0).withMinute(0).withSecond(0);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        return startDate.format(formatter) + endDate.format(formatter);
+    }
+
+    @Benchmark
+    public String engine() {
+        RelativeDateParser.DateRange range = parser.find(content)
+            .map(match -> parser.range(match.expression(), now))
+            .orElseGet(() -> parser.range(DEFAULT_RANGE, now));
+        return range.start().format(FORMATTER) + range.end().format(FORMATTER);
+    }
+
+    @Benchmark
+    public RelativeDateParser.DateRange compactFilter() {
+        return parser.range(parser.parse("now-30d").orElseThrow(), now);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.mcpprovider.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "action-analysis")
+public class ActionAnalysisConfig {
+    // Basit talepler (örn. "son 3 ayın hesap ekstresi") yerel sınıflandırıcıyla, ai-provider çağrılmadan cevaplanır
+    private boolean fastPathEnabled = true;
+    // Sınıflandırıcı güveni bu değerin altındaysa talep LLM'e gider
+    private double fastPathConfidence = 0.6;
+    // Bundan uzun talepler hiç sınıflandırılmaz
+    private int fastPathMaxLength = 160;
+    // Parametreleri yalnızca müşteri ve göreli tarih ifadesinden ("son 3 ay") çıkarılabilen aksiyonlar
+    private List<String> fastPathActionTypes = new ArrayList<>(List.of("GENERATE_STATEMENT"));
+    // LLM'in tek aksiyon seçtiği basit talepler, katalog kelimeleri de o aksiyonu gösteriyorsa örnek olarak eklenir; en fazla bu kadarı tutulur
+    private int learnedExamples = 500;
+    // Bu kadar yeni örnek birikince model yeniden eğitilir
+    private int retrainEvery = 20;
+
+    // POST /action-analysis/batch: aynı anda yapılan LLM çağrısı sayısı (tüm batch'ler toplamı)
+    private int batchParallelism = 4;
+    // Tek bir batch'teki en fazla talep sayısı
+    private int batchMaxItems = 500;
+}
@@ -0,0 +1,28 @@
+package com.example.mcpprovider.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+
+/**
+ * Tracing export. Spring Boot propagates W3C traceparent on incoming requests and
+ * sends spans to an OTLP collector when management.otlp.tracing.endpoint is set;
+ * with tracing.file.path set they are also written to a JSON-lines file, rotated at
+ * tracing.file.max-size with tracing.file.max-history old files kept.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnExpression("!'${tracing.file.path:}'.isEmpty()")
+    public SpanFileExporter spanFileExporter(@Value("${tracing.file.path}") String path,
+                                             @Value("${tracing.file.max-size:100MB}") String maxSize,
+                                             @Value("${tracing.file.max-history:5}") int maxHistory) {
+        // The SDK's span processor shuts the exporter down
+        return new SpanFileExporter(Paths.get(path), DataSize.parse(maxSize).toBytes(), maxHistory);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.mcpprovider.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "workflow.execution")
+public class WorkflowExecutionConfig {
+    // Node'ları çalıştıran sınırlı havuz: aynı anda çalışan node sayısı (tüm çalıştırmalar toplamı)
+    private int parallelism = 8;
+    // Havuz doluyken bekleyebilecek hazır node sayısı; aşılırsa node FAILED olur
+    private int queueCapacity = 256;
+    // Tek bir çalıştırmanın üst süresi (SSE bağlantısı ve senkron yanıt için)
+    private Duration runTimeout = Duration.ofMinutes(10);
+    // Bellekte tutulan derlenmiş workflow planı sayısı (workflow başına güncel sürümün planı; dolunca en az kullanılanlar düşer)
+    private int planCacheMaxEntries = 500;
+    // Çalıştırma sayaçlarının veritabanına toplu yazılma aralığı
+    private Duration counterFlushInterval = Duration.ofSeconds(5);
+
+    // Çalıştırma geçmişi (workflow_runs / workflow_node_runs), arka planda toplu yazılır
+    private boolean historyEnabled = true;
+    // Yazılmayı bekleyen çalıştırma sayısı; dolarsa yeni çalıştırmalar kaydedilmez
+    private int historyQueueCapacity = 10000;
+    private int historyBatchSize = 200;
+    private Duration historyFlushInterval = Duration.ofSeconds(2);
+    // Aylık partition'lar bu kadar ay saklanır
+    private int historyRetentionMonths = 6;
+
+    // Agent node'larının çağrıldığı servis (textGenerator AiProviderClient üzerinden gider)
+    private String agentProviderUrl = "http://localhost:8081/agent-provider";
+    // mcpSupplierAgent aksiyon endpoint'leri (finance_action_types.endpoint_path) için kendi adresimiz
+    private String selfUrl = "http://localhost:8083/mcp-provider";
+}
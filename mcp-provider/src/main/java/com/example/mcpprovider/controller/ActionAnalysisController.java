@@ -1,13 +1,18 @@
 package com.example.mcpprovider.controller;
 
+import com.example.mcpprovider.dto.ActionAnalysisBatchRequest;
+import com.example.mcpprovider.dto.ActionAnalysisBatchResponse;
 import com.example.mcpprovider.dto.ActionAnalysisRequest;
 import com.example.mcpprovider.dto.ActionAnalysisResponse;
+import com.example.mcpprovider.service.ActionAnalysisBatchService;
 import com.example.mcpprovider.service.ActionAnalysisService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/action-analysis")
 @CrossOrigin(origins = "*")
@@ -16,6 +21,9 @@ public class ActionAnalysisController {
     @Autowired
     private ActionAnalysisService actionAnalysisService;
 
+    @Autowired
+    private ActionAnalysisBatchService actionAnalysisBatchService;
+
     @PostMapping
     public ResponseEntity<ActionAnalysisResponse> analyzeAction(@Valid @RequestBody ActionAnalysisRequest request) {
         try {
@@ -33,6 +41,19 @@ public class ActionAnalysisController {
         }
     }
 
+    // Talepler tek tek analiz edilir; bir talebin hatası results içinde döner, diğerlerini etkilemez
+    @PostMapping("/batch")
+    public ResponseEntity<ActionAnalysisBatchResponse> analyzeBatch(@Valid @RequestBody ActionAnalysisBatchRequest request) {
+        try {
+            return ResponseEntity.ok(actionAnalysisBatchService.analyzeBatch(request));
+        } catch (IllegalArgumentException e) {
+            ActionAnalysisBatchResponse errorResponse = new ActionAnalysisBatchResponse();
+            errorResponse.setErrorMessage("Error: " + e.getMessage());
+            errorResponse.setResults(List.of());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Action Analysis Service is running");
@@ -2,17 +2,27 @@ package com.example.mcpprovider.controller;
 
 import com.example.mcpprovider.dto.WorkflowDto;
 import com.example.mcpprovider.dto.WorkflowCreateDto;
+import com.example.mcpprovider.dto.WorkflowExecuteRequest;
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.example.mcpprovider.dto.WorkflowRunResult;
 import com.example.mcpprovider.dto.WorkflowSummaryDto;
 import com.example.mcpprovider.service.WorkflowService;
+import com.example.mcpprovider.service.workflow.WorkflowExecutor;
+import com.example.mcpprovider.service.workflow.WorkflowPlan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/workflows")
@@ -22,6 +32,7 @@ import java.util.Optional;
 public class WorkflowController {
     
     private final WorkflowService workflowService;
+    private final WorkflowExecutor workflowExecutor;
     
     @GetMapping
     public ResponseEntity<List<WorkflowSummaryDto>> getAllWorkflows() {
@@ -139,6 +150,67 @@ public class WorkflowController {
         }
     }
     
+    /**
+     * Runs a saved workflow on the server and streams a "node" event for every node status
+     * change, then a final "complete" event with the run summary.
+     */
+    @PostMapping(value = "/{id}/execute", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter executeWorkflowStream(@PathVariable Long id,
+                                            @RequestBody(required = false) WorkflowExecuteRequest request) {
+        log.info("POST /api/workflows/{}/execute - Streaming workflow execution", id);
+        WorkflowPlan plan = planForExecution(id);
+        
+        // Emitter'ın kendi zaman aşımı yok, çalıştırma zaman aşımı executor'da uygulanır
+        SseEmitter emitter = new SseEmitter(0L);
+        CompletableFuture<WorkflowRunResult> run = workflowExecutor.execute(plan, request,
+                event -> send(emitter, "node", event));
+        run.whenComplete((result, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            send(emitter, "complete", result);
+            emitter.complete();
+        });
+        return emitter;
+    }
+    
+    @PostMapping(value = "/{id}/execute", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<WorkflowRunResult> executeWorkflow(@PathVariable Long id,
+                                                                @RequestBody(required = false) WorkflowExecuteRequest request) {
+        log.info("POST /api/workflows/{}/execute - Executing workflow", id);
+        WorkflowPlan plan = planForExecution(id);
+        return workflowExecutor.execute(plan, request, event -> { });
+    }
+    
+    private WorkflowPlan planForExecution(Long id) {
+        WorkflowPlan plan;
+        try {
+            plan = workflowService.getExecutionPlan(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Workflow not found with id: " + id));
+        } catch (IllegalArgumentException e) {
+            log.error("Workflow {} cannot be executed: {}", id, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!plan.active()) {
+            log.warn("Workflow {} is not active and cannot be executed", id);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Workflow is not active: " + id);
+        }
+        workflowService.recordExecution(id);
+        return plan;
+    }
+    
+    // Node olayları havuz thread'lerinden gelir, SseEmitter eşzamanlı send'e karşı korunmalı
+    private static void send(SseEmitter emitter, String name, Object data) {
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Workflow event stream closed: {}", e.getMessage());
+            }
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteWorkflow(@PathVariable Long id) {
         log.info("DELETE /api/workflows/{} - Deleting workflow", id);
@@ -0,0 +1,38 @@
+package com.example.mcpprovider.controller;
+
+import com.example.mcpprovider.dto.WorkflowNodeLatencyDto;
+import com.example.mcpprovider.service.workflow.WorkflowRunStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workflow-runs")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class WorkflowRunController {
+    
+    private final WorkflowRunStore workflowRunStore;
+    
+    /**
+     * p50/p95 duration and upstream latency per node type over the last {@code days} days,
+     * slowest p95 first. Only nodes that ran are counted.
+     */
+    @GetMapping("/node-latency")
+    public ResponseEntity<List<WorkflowNodeLatencyDto>> getNodeLatency(
+            @RequestParam(required = false) Long workflowId,
+            @RequestParam(defaultValue = "7") int days) {
+        log.info("GET /api/workflow-runs/node-latency - workflowId: {}, days: {}", workflowId, days);
+        if (days < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+        return ResponseEntity.ok(workflowRunStore.nodeLatency(workflowId, since));
+    }
+}
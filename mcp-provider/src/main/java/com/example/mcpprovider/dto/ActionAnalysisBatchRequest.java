@@ -0,0 +1,38 @@
+package com.example.mcpprovider.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionAnalysisBatchRequest {
+
+    // Model ayarları tüm talepler için ortak
+    @NotBlank(message = "Model cannot be blank")
+    private String model;
+
+    @NotNull(message = "Max tokens cannot be null")
+    private Integer maxTokens;
+
+    @NotNull(message = "Temperature cannot be null")
+    private Double temperature;
+
+    // Sonuçlar aynı sırayla döner; hatalı bir talep yalnızca kendi sonucunu etkiler
+    @NotEmpty(message = "Items cannot be empty")
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String customerNo;
+        private String content;
+    }
+}
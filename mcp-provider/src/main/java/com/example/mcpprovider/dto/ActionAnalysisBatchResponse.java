@@ -0,0 +1,33 @@
+package com.example.mcpprovider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionAnalysisBatchResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long durationMs;
+    // İstekteki sırayla, her talep için bir sonuç
+    private List<Item> results;
+    // Batch hiç çalıştırılamadıysa (geçersiz istek) dolu, results boş
+    private String errorMessage;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private String customerNo;
+        private boolean success;
+        private ActionAnalysisResponse result;
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.mcpprovider.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowExecuteRequest {
+
+    // Editördeki aktif müşteri; node config'inde selectedCustomer yoksa kullanılır
+    private JsonNode customer;
+    // Girişi olmayan node'ların config.content'i boşsa kullanılacak içerik
+    private String content;
+}
@@ -0,0 +1,26 @@
+package com.example.mcpprovider.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowNodeEvent {
+
+    public enum Status { RUNNING, COMPLETED, FAILED, SKIPPED }
+
+    private String runId;
+    private String nodeId;
+    private String nodeType;
+    private Status status;
+    private JsonNode output;
+    // Yalnızca conditional node'lar için
+    private Boolean conditionResult;
+    private String error;
+    private Long durationMs;
+}
@@ -0,0 +1,25 @@
+package com.example.mcpprovider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowNodeLatencyDto {
+
+    private String nodeType;
+    // Çalışan (COMPLETED veya FAILED) node sayısı; SKIPPED node'lar sayılmaz
+    private long executions;
+    private long failures;
+    private double p50Ms;
+    private double p95Ms;
+    // Dış servis (agent-provider, ai-provider, MCP endpoint) çağrısında geçen süre
+    private double p50UpstreamMs;
+    private double p95UpstreamMs;
+    // Node hazır olduktan sonra havuzda bekleme
+    private double avgQueueWaitMs;
+    private double avgInputBytes;
+    private double avgOutputBytes;
+}
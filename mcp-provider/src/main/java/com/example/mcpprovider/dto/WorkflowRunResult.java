@@ -0,0 +1,25 @@
+package com.example.mcpprovider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRunResult {
+
+    private String runId;
+    private Long workflowId;
+    // Hiçbir node FAILED değilse ve süre aşılmadıysa true
+    private boolean success;
+    private boolean timedOut;
+    private int nodeCount;
+    private int failedNodes;
+    private int skippedNodes;
+    private long durationMs;
+    // Her node'un son durumu, çalıştırma sırasıyla
+    private List<WorkflowNodeEvent> nodes;
+}
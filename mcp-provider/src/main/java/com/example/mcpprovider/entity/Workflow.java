@@ -50,10 +50,11 @@ public class Workflow {
     @Column(name = "last_modified_by", length = 100)
     private String lastModifiedBy;
     
-    @Column(name = "execution_count", nullable = false)
+    // Only WorkflowExecutionCounter updates these, so saving an entity never overwrites a flushed count
+    @Column(name = "execution_count", nullable = false, updatable = false)
     private Long executionCount = 0L;
     
-    @Column(name = "last_executed_at")
+    @Column(name = "last_executed_at", updatable = false)
     private LocalDateTime lastExecutedAt;
     
     @CreationTimestamp
@@ -16,6 +16,10 @@ public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
     // Find active workflows
     List<Workflow> findByIsActiveTrue();
     
+    // Only the version column, to check a cached plan without loading the graph JSON
+    @Query("SELECT w.version FROM Workflow w WHERE w.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
+    
     // Find workflows by name (case insensitive)
     List<Workflow> findByNameContainingIgnoreCase(String name);
     
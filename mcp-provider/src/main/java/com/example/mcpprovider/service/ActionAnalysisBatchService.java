@@ -0,0 +1,172 @@
+package com.example.mcpprovider.service;
+
+import com.example.mcpprovider.config.ActionAnalysisConfig;
+import com.example.mcpprovider.dto.ActionAnalysisBatchRequest;
+import com.example.mcpprovider.dto.ActionAnalysisBatchResponse;
+import com.example.mcpprovider.dto.ActionAnalysisRequest;
+import com.example.mcpprovider.dto.ActionAnalysisResponse;
+import com.example.mcpprovider.dto.CustomerDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Action analysis of many (customer, content) pairs in one call, for the overnight
+ * processing of queued customer requests. The work shared by all items is done once per
+ * batch: all customers are loaded with one findAllById, and a single catalog snapshot and
+ * rendered system prompt are used for every item. Items run on a pool shared by all
+ * batches, so at most {@code action-analysis.batch-parallelism} LLM calls are in flight.
+ * Results come back in request order; a failing item reports its own error and does not
+ * affect the others.
+ */
+@Service
+@Slf4j
+public class ActionAnalysisBatchService {
+
+    private final ActionAnalysisService actionAnalysisService;
+    private final CustomerService customerService;
+    private final FinanceActionCatalog financeActionCatalog;
+    private final ActionAnalysisConfig config;
+    private final ThreadPoolExecutor pool;
+
+    public ActionAnalysisBatchService(ActionAnalysisService actionAnalysisService, CustomerService customerService,
+                                      FinanceActionCatalog financeActionCatalog, ActionAnalysisConfig config) {
+        this.actionAnalysisService = actionAnalysisService;
+        this.customerService = customerService;
+        this.financeActionCatalog = financeActionCatalog;
+        this.config = config;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Kuyruk sınırı batch boyutu sınırından gelir; havuz boşta kalınca thread'ler kapanır
+        this.pool = new ThreadPoolExecutor(config.getBatchParallelism(), config.getBatchParallelism(), 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "action-analysis-batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public ActionAnalysisBatchResponse analyzeBatch(ActionAnalysisBatchRequest request) {
+        List<ActionAnalysisBatchRequest.Item> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Items cannot be empty");
+        }
+        if (items.size() > config.getBatchMaxItems()) {
+            throw new IllegalArgumentException("A batch can have at most " + config.getBatchMaxItems() + " items");
+        }
+        long start = System.currentTimeMillis();
+
+        Set<Long> customerIds = new HashSet<>();
+        for (ActionAnalysisBatchRequest.Item item : items) {
+            Long customerId = item == null ? null : customerId(item.getCustomerNo());
+            if (customerId != null) {
+                customerIds.add(customerId);
+            }
+        }
+        Map<Long, CustomerDto> customers = new HashMap<>();
+        customerService.getCustomersByIds(customerIds).forEach(customer -> customers.put(customer.getId(), customer));
+
+        FinanceActionCatalog.Snapshot catalog = financeActionCatalog.snapshot();
+        String specialPrompt = actionAnalysisService.analysisPrompt(catalog);
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<CompletableFuture<ActionAnalysisBatchResponse.Item>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            ActionAnalysisBatchRequest.Item item = items.get(i);
+            futures.add(CompletableFuture.supplyAsync(
+                () -> withMdc(mdc, () -> analyzeItem(index, item, request, customers, catalog, specialPrompt)), pool));
+        }
+
+        List<ActionAnalysisBatchResponse.Item> results = new ArrayList<>(items.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                // Yalnızca havuz kapatılırken olur; öğe hatası analyzeItem içinde yakalanır
+                results.add(failure(i, items.get(i), e.getCause() != null ? e.getCause() : e));
+            }
+        }
+        int succeeded = (int) results.stream().filter(ActionAnalysisBatchResponse.Item::isSuccess).count();
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Action analysis batch: {} items, {} succeeded, {} failed in {} ms",
+            items.size(), succeeded, items.size() - succeeded, durationMs);
+        return new ActionAnalysisBatchResponse(items.size(), succeeded, items.size() - succeeded, durationMs, results, null);
+    }
+
+    private ActionAnalysisBatchResponse.Item analyzeItem(int index, ActionAnalysisBatchRequest.Item item,
+                                                         ActionAnalysisBatchRequest request, Map<Long, CustomerDto> customers,
+                                                         FinanceActionCatalog.Snapshot catalog, String specialPrompt) {
+        try {
+            if (item == null || item.getContent() == null || item.getContent().trim().isEmpty()) {
+                throw new IllegalArgumentException("Request content cannot be empty");
+            }
+            if (item.getCustomerNo() == null || item.getCustomerNo().trim().isEmpty()) {
+                throw new IllegalArgumentException("customerId is required");
+            }
+            Long customerId = customerId(item.getCustomerNo());
+            if (customerId == null) {
+                throw new IllegalArgumentException("Invalid customer ID format: " + item.getCustomerNo());
+            }
+            CustomerDto customer = customers.get(customerId);
+            if (customer == null) {
+                throw new IllegalArgumentException("Customer not found with ID: " + customerId);
+            }
+            ActionAnalysisRequest analysisRequest = new ActionAnalysisRequest(item.getContent(), null,
+                request.getModel(), request.getMaxTokens(), request.getTemperature(), item.getCustomerNo());
+            ActionAnalysisResponse response = actionAnalysisService.analyze(analysisRequest, customer, catalog, specialPrompt);
+            return new ActionAnalysisBatchResponse.Item(index, item.getCustomerNo(), true, response, null);
+        } catch (Exception e) {
+            log.warn("Action analysis batch item {} failed: {}", index, e.getMessage());
+            return failure(index, item, e);
+        }
+    }
+
+    private static ActionAnalysisBatchResponse.Item failure(int index, ActionAnalysisBatchRequest.Item item, Throwable error) {
+        return new ActionAnalysisBatchResponse.Item(index, item != null ? item.getCustomerNo() : null, false, null,
+            "Error during analysis: " + error.getMessage());
+    }
+
+    private static Long customerId(String customerNo) {
+        if (customerNo == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(customerNo.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <T> T withMdc(Map<String, String> mdc, Supplier<T> task) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            return task.get();
+        } finally {
+            MDC.clear();
+        }
+    }
+}
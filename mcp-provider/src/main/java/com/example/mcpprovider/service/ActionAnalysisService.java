@@ -8,6 +8,11 @@ import com.example.mcpprovider.dto.AiProviderResponse;
 import com.example.mcpprovider.dto.CustomerDto;
 import com.example.mcpprovider.dto.FinanceActionTypeDto;
 import com.example.mcpprovider.model.Customer;
+import com.example.mcpprovider.service.date.RelativeDateParser;
+import com.example.mcpprovider.service.intent.IntentClassifier;
+import com.example.mcpprovider.service.plan.ActionPlan;
+import com.example.mcpprovider.service.plan.ActionPlanParser;
+import com.example.mcpprovider.service.plan.ParameterSchema;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -17,13 +22,11 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.Optional;
 import java.util.Arrays;
-import java.util.Set;
-import java.util.HashSet;
 
 @Service
 @Slf4j
@@ -33,14 +36,25 @@ public class ActionAnalysisService {
     private CustomerService customerService;
 
     @Autowired
-    private FinanceActionTypeService financeActionTypeService;
+    private FinanceActionCatalog financeActionCatalog;
 
     @Autowired
     private AiProviderClient aiProviderClient;
 
+    @Autowired
+    private IntentClassifier intentClassifier;
+
+    @Autowired
+    private RelativeDateParser relativeDateParser;
+
+    @Autowired
+    private ActionPlanParser actionPlanParser;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
     private static final int DEFAULT_DAYS = 30; // Default to last 30 days
+    private static final RelativeDateParser.Expression DEFAULT_RANGE =
+        new RelativeDateParser.Expression(RelativeDateParser.Kind.LAST, DEFAULT_DAYS, ChronoUnit.DAYS);
 
     public ActionAnalysisResponse analyzeAction(ActionAnalysisRequest request) {
         try {
@@ -50,9 +64,6 @@ public class ActionAnalysisService {
             }
 
             // 1. Get customer data
-            Customer customer = null;
-            String enhancedContent = request.getContent();
-            
             // Try to find customer by ID first, then create a dummy if not found
             CustomerDto customerDto = null;
             try {
@@ -62,73 +73,103 @@ public class ActionAnalysisService {
             } catch (NumberFormatException e) {
                 throw new IllegalArgumentException("Invalid customer ID format: " + request.getCustomerNo());
             }
-            
-            // Convert DTO to model
-            customer = convertDtoToModel(customerDto);
-            
-            // Create customer JSON string
-            String customerJson = objectMapper.writeValueAsString(customer);
-            
-            // Get all finance action types and their descriptions from database
-            String financeActionsInfo = createFinanceActionsInfo();
-            
-            // Enhance content with customer context and finance actions
-            enhancedContent = String.format(
-                "%s değerli müşteri için aşağıdaki bilgileri kullanarak analiz yap:\n\n" +
-                "Müşteri Bilgileri (JSON):\n%s\n\n" +
-                "Finansal İşlem Tipleri ve Açıklamaları:\n%s\n\n" +
-                "Müşteri Talebi:\n%s",
-                request.getCustomerNo(),
-                customerJson,
-                financeActionsInfo,
-                request.getContent()
-            );
-
-            // 2. Create enhanced prompt for AI analysis
-            String specialPrompt = createAnalysisPrompt();
-
-            // 3. Call AI Provider
-            AiProviderRequest aiRequest = new AiProviderRequest(
-                enhancedContent,
-                specialPrompt,
-                request.getModel(),
-                request.getMaxTokens(),
-                request.getTemperature()
-            );
-
-            AiProviderResponse aiResponse = aiProviderClient.generateContent(aiRequest);
-
-            // Add extraContent to AI response
-            String aiResponseContent = aiResponse.getContent();
-            if (aiResponseContent != null && aiResponseContent.contains("```json")) {
-                int jsonStart = aiResponseContent.indexOf("```json") + 7;
-                int jsonEnd = aiResponseContent.indexOf("```", jsonStart);
-                if (jsonEnd != -1) {
-                    String jsonContent = aiResponseContent.substring(jsonStart, jsonEnd);
-                    JsonNode rootNode = objectMapper.readTree(jsonContent);
-                    ((ObjectNode) rootNode).put("extraContent", request.getContent());
-                    String modifiedJson = objectMapper.writeValueAsString(rootNode);
-                    aiResponseContent = aiResponseContent.substring(0, jsonStart) + "\n" + modifiedJson + "\n" + aiResponseContent.substring(jsonEnd);
-                }
-            }
-
-            // 4. Process the response and handle dates - this now returns both actions and modified content
-            ProcessedResponse processedResponse = processAiResponseWithModifications(aiResponseContent, request.getContent());
-
-            // 5. Create response
-            ActionAnalysisResponse response = new ActionAnalysisResponse();
-            response.setContent(processedResponse.getModifiedContent() != null ? processedResponse.getModifiedContent() : aiResponseContent);
-            response.setOriginalContent(request.getContent());
-            response.setFinanceActionTypes(processedResponse.getActions());
-            response.setCustomer(customer);
 
-            return response;
+            // Bu analiz boyunca katalogun tek bir sürümü kullanılır, veritabanına gidilmez
+            return analyze(request, customerDto, financeActionCatalog.snapshot(), null);
 
         } catch (Exception e) {
             throw new RuntimeException("Error during analysis: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Analysis of one request for an already loaded customer. Batch analysis calls this
+     * with the same catalog snapshot and rendered system prompt for all of its items.
+     *
+     * @param specialPrompt the prompt from {@link #analysisPrompt}, or null to render it here
+     */
+    ActionAnalysisResponse analyze(ActionAnalysisRequest request, CustomerDto customerDto,
+                                   FinanceActionCatalog.Snapshot catalog, String specialPrompt) throws Exception {
+        // Convert DTO to model
+        Customer customer = convertDtoToModel(customerDto);
+
+        // Basit talepler yerel sınıflandırıcıyla cevaplanır, ai-provider çağrılmaz
+        List<String> ignoredWords = Arrays.asList(customerDto.getFirstName(), customerDto.getLastName());
+        Optional<IntentClassifier.Intent> intent = intentClassifier.classify(request.getContent(), ignoredWords, catalog);
+        ActionPlan plan = intent.isPresent()
+            ? fastPathPlan(intent.get().typeCode(), request, catalog)
+            : actionPlanParser.parse(generateAnalysis(request, customer, catalog, specialPrompt));
+
+        // 4. Process the response and handle dates - this now returns both actions and modified content
+        ProcessedResponse processedResponse = processActionPlan(plan, request.getContent(), catalog);
+        if (intent.isEmpty()) {
+            intentClassifier.learn(request.getContent(), ignoredWords, processedResponse.getActions(), catalog);
+        }
+
+        // 5. Create response
+        ActionAnalysisResponse response = new ActionAnalysisResponse();
+        response.setContent(processedResponse.getModifiedContent());
+        response.setOriginalContent(request.getContent());
+        response.setFinanceActionTypes(processedResponse.getActions());
+        response.setCustomer(customer);
+
+        return response;
+    }
+
+    private String generateAnalysis(ActionAnalysisRequest request, Customer customer,
+                                    FinanceActionCatalog.Snapshot catalog, String specialPrompt) throws Exception {
+        // Create customer JSON string
+        String customerJson = objectMapper.writeValueAsString(customer);
+        
+        String financeActionsInfo = catalog.actionsInfo();
+        
+        // Enhance content with customer context and finance actions
+        String enhancedContent = String.format(
+            "%s değerli müşteri için aşağıdaki bilgileri kullanarak analiz yap:\n\n" +
+            "Müşteri Bilgileri (JSON):\n%s\n\n" +
+            "Finansal İşlem Tipleri ve Açıklamaları:\n%s\n\n" +
+            "Müşteri Talebi:\n%s",
+            request.getCustomerNo(),
+            customerJson,
+            financeActionsInfo,
+            request.getContent()
+        );
+
+        // 2. Create enhanced prompt for AI analysis
+        if (specialPrompt == null) {
+            specialPrompt = analysisPrompt(catalog);
+        }
+
+        // 3. Call AI Provider
+        AiProviderRequest aiRequest = new AiProviderRequest(
+            enhancedContent,
+            specialPrompt,
+            request.getModel(),
+            request.getMaxTokens(),
+            request.getTemperature()
+        );
+
+        AiProviderResponse aiResponse = aiProviderClient.generateContent(aiRequest);
+        return aiResponse.getContent();
+    }
+
+    // LLM yanıtıyla aynı biçim; tarihler ve dateRange aynı işlemede "son N gün/ay" kuralıyla doldurulur
+    private ActionPlan fastPathPlan(String typeCode, ActionAnalysisRequest request, FinanceActionCatalog.Snapshot catalog) {
+        ObjectNode rootNode = objectMapper.createObjectNode();
+        rootNode.putArray("selectedActions").add(typeCode);
+        ObjectNode parameters = rootNode.putObject("parameters").putObject(typeCode);
+        catalog.schema(typeCode).fieldNames().forEachRemaining(field -> {
+            switch (field) {
+                case "actionType" -> parameters.put(field, typeCode);
+                case "customerId" -> parameters.put(field, request.getCustomerNo());
+                // Talepte belirtilmeyen alanlar, istemdeki kural gibi NULL
+                default -> parameters.putNull(field);
+            }
+        });
+        rootNode.putObject("dateRange");
+        return actionPlanParser.plan(rootNode);
+    }
+
     // New class to hold both actions and modified content
     private static class ProcessedResponse {
         private final List<String> actions;
@@ -143,7 +184,7 @@ public class ActionAnalysisService {
         public String getModifiedContent() { return modifiedContent; }
     }
 
-    private String createAnalysisPrompt() {
+    String analysisPrompt(FinanceActionCatalog.Snapshot catalog) {
         // Get current date for the prompt
         ZonedDateTime now = ZonedDateTime.now();
         String currentYear = String.valueOf(now.getYear());
@@ -170,28 +211,8 @@ public class ActionAnalysisService {
         prompt.append("  * Müşteri talebine göre uygun herhangi bir değer kullanılabilir\n");
         prompt.append("  * Eğer belirtilmemişse NULL kullanın\n\n");
 
-        // Get active finance action types from database and add JSON templates
-        List<FinanceActionTypeDto> actionTypes = financeActionTypeService.getActiveFinanceActionTypes();
-        for (FinanceActionTypeDto actionType : actionTypes) {
-            prompt.append(actionType.getTypeCode()).append(" şablonu:\n");
-            prompt.append(actionType.getJsonSchema()).append("\n");
-            
-            // Parse the JSON schema to extract and explain enum-like fields
-            try {
-                JsonNode jsonSchemaNode = objectMapper.readTree(actionType.getJsonSchema());
-                jsonSchemaNode.fields().forEachRemaining(entry -> {
-                    String value = entry.getValue().asText();
-                    if (value.contains("|")) {
-                        prompt.append("- ").append(entry.getKey()).append(" için geçerli değerler: ")
-                              .append(value).append("\n");
-                        prompt.append("  * Bu değerlerden BİRİNİ seçin veya NULL bırakın\n");
-                    }
-                });
-            } catch (Exception e) {
-                log.error("Error parsing JSON schema for {}: {}", actionType.getTypeCode(), e.getMessage());
-            }
-            prompt.append("\n");
-        }
+        // Şablon bölümü katalog yüklenirken bir kez hazırlanır
+        prompt.append(catalog.templatesPrompt());
 
         prompt.append("Önemli Tarih Kuralları:\n");
         prompt.append("- Tarih aralığı belirtilmemişse varsayılan olarak son 1 ay kullanılacak\n");
@@ -205,27 +226,11 @@ public class ActionAnalysisService {
         prompt.append("{\n");
         prompt.append("  \"selectedActions\": [");
         
-        // Add action type codes dynamically
-        if (!actionTypes.isEmpty()) {
-            for (int i = 0; i < Math.min(actionTypes.size(), 3); i++) {
-                if (i > 0) prompt.append(", ");
-                prompt.append("\"").append(actionTypes.get(i).getTypeCode()).append("\"");
-            }
-        }
+        prompt.append(catalog.selectedActionsExample());
         prompt.append("],\n");
         
         prompt.append("  \"parameters\": {\n");
-        
-        // Add parameter examples dynamically
-        if (!actionTypes.isEmpty()) {
-            for (int i = 0; i < Math.min(actionTypes.size(), 2); i++) {
-                FinanceActionTypeDto actionType = actionTypes.get(i);
-                if (i > 0) prompt.append(",\n");
-                
-                prompt.append("    \"").append(actionType.getTypeCode()).append("\": ");
-                prompt.append(actionType.getJsonSchema());
-            }
-        }
+        prompt.append(catalog.parametersExample());
         
         prompt.append("\n  },\n");
         prompt.append("  \"dateRange\": {\n");
@@ -239,187 +244,81 @@ public class ActionAnalysisService {
         return prompt.toString();
     }
 
-    private String createFinanceActionsInfo() {
-        StringBuilder info = new StringBuilder();
-        
-        // Get active finance action types from database
-        List<FinanceActionTypeDto> actionTypes = financeActionTypeService.getActiveFinanceActionTypes();
-        
-        for (FinanceActionTypeDto actionType : actionTypes) {
-            String description = getActionDescription(actionType);
-            info.append(actionType.getTypeCode()).append(": ").append(description).append("\n");
-        }
-        return info.toString();
-    }
-
-    private String getActionDescription(FinanceActionTypeDto actionType) {
-        return actionType.getDescription() != null ? actionType.getDescription() : "Açıklama mevcut değil";
-    }
-
-    private ProcessedResponse processAiResponseWithModifications(String aiResponse, String originalContent) {
+    private ProcessedResponse processActionPlan(ActionPlan plan, String originalContent,
+                                                FinanceActionCatalog.Snapshot catalog) {
         List<String> selectedActions = new ArrayList<>();
-        String modifiedContent = aiResponse;
+        String modifiedContent = plan.getResponse();
         
         try {
             // Add a default customer interaction log action first
-            FinanceActionTypeDto logAction = financeActionTypeService.getFinanceActionTypeByCode("LOG_CUSTOMER_INTERACTION")
+            FinanceActionTypeDto logAction = catalog.byCode("LOG_CUSTOMER_INTERACTION")
                 .orElse(null);
             if (logAction != null) {
                 selectedActions.add(logAction.getTypeCode());
             }
 
-            // Extract JSON from AI response
-            String jsonResponse = extractAndCleanJson(aiResponse);
-            if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
-                log.warn("No valid JSON found in AI response, using fallback extraction");
-                selectedActions.addAll(fallbackExtractActions(aiResponse));
+            if (!plan.isParsed()) {
+                log.warn("No valid JSON found in AI response ({}: {}), using fallback extraction", plan.getStatus(), plan.getError());
+                selectedActions.addAll(fallbackExtractActions(plan.getResponse(), catalog));
                 return new ProcessedResponse(selectedActions, modifiedContent);
             }
-
-            // Parse JSON response
-            JsonNode rootNode = objectMapper.readTree(jsonResponse);
-            log.info("Extracted JSON from AI response: {}", jsonResponse);
             
             // Get current date info for Turkey timezone
-            ZonedDateTime nowInTurkey = ZonedDateTime.now(ZoneId.of("Europe/Istanbul"));
+            ZonedDateTime nowInTurkey = ZonedDateTime.now(RelativeDateParser.ZONE);
             int currentYear = nowInTurkey.getYear();
             
-            // Check which actions need special handling
-            Set<String> specialHandlingActions = new HashSet<>();
-            JsonNode selectedActionsNode = rootNode.get("selectedActions");
-            if (selectedActionsNode != null && selectedActionsNode.isArray()) {
-                for (JsonNode actionNode : selectedActionsNode) {
-                    String actionTypeStr = actionNode.asText();
+            // E-posta gönderen bir işlem seçildiyse diğer işlemlerin emailFlag'i açılır
+            boolean hasEmailAction = plan.getSelectedActions().stream()
+                .map(catalog::parameterSchema)
+                .anyMatch(schema -> schema != null && schema.isEmailCapable());
+            
+            for (String actionTypeStr : plan.getSelectedActions()) {
+                try {
+                    log.info("Processing action type: {}", actionTypeStr);
                     
-                    // Get action type from database to check for special handling needs
-                    FinanceActionTypeDto actionType = financeActionTypeService.getFinanceActionTypeByCode(actionTypeStr)
+                    // Get action type and its compiled parameter schema from the catalog
+                    FinanceActionTypeDto actionType = catalog.byCode(actionTypeStr)
                         .orElse(null);
+                    if (actionType == null) {
+                        log.warn("Unknown action type: {}", actionTypeStr);
+                        continue;
+                    }
+                    ParameterSchema parameterSchema = catalog.parameterSchema(actionTypeStr);
+                    if (parameterSchema == null) {
+                        throw new IllegalStateException("JSON schema of " + actionTypeStr + " is missing or invalid");
+                    }
                     
-                    if (actionType != null) {
-                        // Check if this action type has email-related functionality
-                        if (actionType.getTypeCode().contains("EMAIL") || 
-                            (actionType.getJsonSchema() != null && actionType.getJsonSchema().contains("emailFlag"))) {
-                            specialHandlingActions.add("HAS_EMAIL");
-                        }
-                        
-                        // Check if this action type has statement generation functionality
-                        if (actionType.getJsonSchema() != null && 
-                            (actionType.getJsonSchema().contains("startDate") || actionType.getJsonSchema().contains("endDate"))) {
-                            specialHandlingActions.add("HAS_STATEMENT");
+                    // Get parameters for this action
+                    ObjectNode actionParams = plan.parameters(actionTypeStr);
+                    if (actionParams != null) {
+                        log.info("Found parameters for {}: {}", actionTypeStr, actionParams);
+                        List<String> rejected = parameterSchema.validate(actionParams);
+                        if (!rejected.isEmpty()) {
+                            log.info("{} parameters outside the schema were set to null: {}", actionTypeStr, rejected);
                         }
                     }
-                }
-            }
-            
-            JsonNode parametersNode = rootNode.get("parameters");
-            JsonNode dateRangeNode = rootNode.get("dateRange");
-            
-            boolean jsonModified = false;
-            
-            if (selectedActionsNode != null && selectedActionsNode.isArray()) {
-                for (JsonNode actionNode : selectedActionsNode) {
-                    try {
-                        String actionTypeStr = actionNode.asText();
-                        log.info("Processing action type: {}", actionTypeStr);
-                        
-                        // Get action type from database
-                        FinanceActionTypeDto actionType = financeActionTypeService.getFinanceActionTypeByCode(actionTypeStr)
-                            .orElse(null);
-                        
-                        if (actionType != null) {
-                            // Get JSON schema for the action type
-                            String jsonSchema = actionType.getJsonSchema();
-                            JsonNode jsonSchemaNode = objectMapper.readTree(jsonSchema);
-                            
-                            // Get parameters for this action
-                            JsonNode actionParams = parametersNode != null ? parametersNode.get(actionTypeStr) : null;
-                            
-                            if (actionParams != null && actionParams instanceof ObjectNode) {
-                                log.info("Found parameters for {}: {}", actionTypeStr, actionParams);
-                                
-                                // Remove content and extraContent fields if they exist
-                                ((ObjectNode) actionParams).remove("content");
-                                ((ObjectNode) actionParams).remove("extraContent");
-                                
-                                // Validate and process each parameter based on JSON schema
-                                actionParams.fields().forEachRemaining(entry -> {
-                                    String paramName = entry.getKey();
-                                    JsonNode paramValue = entry.getValue();
-                                    JsonNode jsonSchemaParamValue = jsonSchemaNode.get(paramName);
-                                    
-                                    if (jsonSchemaParamValue != null && jsonSchemaParamValue.isTextual()) {
-                                        String jsonSchemaParamStr = jsonSchemaParamValue.asText();
-                                        
-                                        // Handle enum-like values (separated by |)
-                                        if (jsonSchemaParamStr.contains("|")) {
-                                            String[] validValues = jsonSchemaParamStr.split("\\|");
-                                            if (paramValue != null && paramValue.isTextual()) {
-                                                String actualValue = paramValue.asText();
-                                                boolean isValid = false;
-                                                for (String validValue : validValues) {
-                                                    if (validValue.equals(actualValue)) {
-                                                        isValid = true;
-                                                        break;
-                                                    }
-                                                }
-                                                if (!isValid) {
-                                                    ((ObjectNode) actionParams).putNull(paramName);
-                                                }
-                                            }
-                                        }
-                                    }
-                                });
-                            }
-                            
-                            // Dynamic special handling based on action type characteristics
-                            if (actionType.getJsonSchema() != null && 
-                                (actionType.getJsonSchema().contains("startDate") || actionType.getJsonSchema().contains("endDate"))) {
-                                log.info("Handling date-based action type {} with specialHandlingActions: {}", actionTypeStr, specialHandlingActions);
-                                boolean wasModified = handleDateBasedAction(actionParams, nowInTurkey, currentYear, dateRangeNode, 
-                                    specialHandlingActions.contains("HAS_EMAIL"), originalContent);
-                                if (wasModified) {
-                                    jsonModified = true;
-                                    log.info("{} parameters were modified", actionTypeStr);
-                                }
-                            }
-                            
-                            selectedActions.add(actionType.getTypeCode());
-                        } else {
-                            log.warn("Unknown action type: {}", actionTypeStr);
+                    
+                    if (parameterSchema.isDateBased()) {
+                        log.info("Handling date-based action type {} with email action: {}", actionTypeStr, hasEmailAction);
+                        if (handleDateBasedAction(actionParams, nowInTurkey, currentYear, plan.dateRange(),
+                                hasEmailAction, originalContent)) {
+                            log.info("{} parameters were modified", actionTypeStr);
                         }
-                    } catch (Exception e) {
-                        log.error("Error processing action type {}: {}", actionNode.asText(), e.getMessage());
                     }
+                    
+                    selectedActions.add(actionType.getTypeCode());
+                } catch (Exception e) {
+                    log.error("Error processing action type {}: {}", actionTypeStr, e.getMessage());
                 }
             }
             
-            // Remove extraContent from root node if it exists
-            ((ObjectNode) rootNode).remove("extraContent");
+            // Talep metni her zaman extraContent olarak eklenir; modelin yazdığı değer kullanılmaz
+            plan.getRoot().remove("extraContent");
+            plan.getRoot().put("extraContent", originalContent);
             
-            // If JSON was modified, reconstruct the response content
-            if (jsonModified) {
-                log.info("JSON was modified, reconstructing response content");
-                String modifiedJson = objectMapper.writeValueAsString(rootNode);
-                log.info("Modified JSON: {}", modifiedJson);
-                
-                // Replace the JSON part in the original response
-                if (aiResponse.contains("```json")) {
-                    int jsonStart = aiResponse.indexOf("```json") + 7;
-                    int jsonEnd = aiResponse.indexOf("```", jsonStart);
-                    if (jsonEnd != -1) {
-                        String beforeJson = aiResponse.substring(0, jsonStart);
-                        String afterJson = aiResponse.substring(jsonEnd);
-                        modifiedContent = beforeJson + "\n" + modifiedJson + "\n" + afterJson;
-                        log.info("Successfully replaced JSON in markdown format");
-                    }
-                } else {
-                    modifiedContent = aiResponse.replace(jsonResponse, modifiedJson);
-                    log.info("Successfully replaced JSON in plain format");
-                }
-                log.info("Final modified content: {}", modifiedContent);
-            } else {
-                log.info("No JSON modifications were made");
-            }
+            // Yanıt ağaçtan bir kez üretilir
+            modifiedContent = actionPlanParser.render(plan);
+            log.info("Final modified content: {}", modifiedContent);
 
             // Add default LOG_CUSTOMER_INTERACTION if no other actions found
             if (selectedActions.size() <= 1) {
@@ -429,7 +328,7 @@ public class ActionAnalysisService {
             }
         } catch (Exception e) {
             log.error("Error processing AI response: {}", e.getMessage(), e);
-            selectedActions.addAll(fallbackExtractActions(aiResponse));
+            selectedActions.addAll(fallbackExtractActions(plan.getResponse(), catalog));
         }
         
         return new ProcessedResponse(selectedActions, modifiedContent);
@@ -448,49 +347,20 @@ public class ActionAnalysisService {
             String content = originalContent;
             log.info("Analyzing content for date range: {}", content);
             
-            // Varsayılan değerler
-            int relativeDays = 30; // Varsayılan son 30 gün
-            
-            // "son X yıl/ay/gün" pattern'ini analiz et
-            Pattern pattern = Pattern.compile("son\\s+(\\d+)\\s*(yıl|ay|gün|sene)", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(content);
-            
-            if (matcher.find()) {
-                int value = Integer.parseInt(matcher.group(1));
-                String unit = matcher.group(2).toLowerCase();
-                log.info("Found date range in content: {} {}", value, unit);
-                
-                switch (unit) {
-                    case "yıl":
-                    case "sene":
-                        relativeDays = value * 365;
-                        break;
-                    case "ay":
-                        relativeDays = value * 30;
-                        break;
-                    case "gün":
-                        relativeDays = value;
-                        break;
-                }
-                log.info("Calculated relative days: {}", relativeDays);
-            }
-            
-            // Tarihleri hesapla
-            ZonedDateTime endDate = nowInTurkey
-                .withHour(23)
-                .withMinute(59)
-                .withSecond(59)
-                .withNano(0);
-            
-            ZonedDateTime startDate = endDate
-                .minusDays(relativeDays)
-                .withHour(0)
-                .withMinute(0)
-                .withSecond(0)
-                .withNano(0);
+            // "son 3 ay", "geçen hafta", "bu yıl"... yoksa varsayılan son 30 gün
+            RelativeDateParser.DateRange range = relativeDateParser.find(content)
+                .map(match -> {
+                    log.info("Found date range in content: {}", content.substring(match.start(), match.end()));
+                    return relativeDateParser.range(match.expression(), nowInTurkey.toLocalDateTime());
+                })
+                .orElseGet(() -> relativeDateParser.range(DEFAULT_RANGE, nowInTurkey.toLocalDateTime()));
+            int relativeDays = range.days();
+            LocalDateTime startDate = range.start();
+            LocalDateTime endDate = range.end();
+            log.info("Calculated relative days: {}", relativeDays);
             
             // Tarihleri güncelle (sadece ilgili alanlar varsa)
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+            DateTimeFormatter formatter = DATE_FORMATTER;
             if (params.has("startDate")) {
                 params.put("startDate", startDate.format(formatter));
                 log.info("Updated startDate: {}", startDate.format(formatter));
@@ -523,41 +393,13 @@ public class ActionAnalysisService {
         return modified;
     }
     
-    private String extractAndCleanJson(String aiResponse) {
-        try {
-            if (aiResponse == null) {
-                return null;
-            }
-            
-            if (aiResponse.contains("```json")) {
-                int jsonStart = aiResponse.indexOf("```json") + 7;
-                int jsonEnd = aiResponse.indexOf("```", jsonStart);
-                if (jsonEnd != -1) {
-                    return aiResponse.substring(jsonStart, jsonEnd).trim();
-                }
-            }
-            
-            // Try to find JSON object in the response
-            int start = aiResponse.indexOf("{");
-            int end = aiResponse.lastIndexOf("}");
-            if (start != -1 && end != -1 && end > start) {
-                return aiResponse.substring(start, end + 1);
-            }
-            
-            return null;
-        } catch (Exception e) {
-            log.error("Error extracting JSON from response: {}", e.getMessage());
-            return null;
-        }
-    }
-    
-    private List<String> fallbackExtractActions(String aiResponse) {
+    private List<String> fallbackExtractActions(String aiResponse, FinanceActionCatalog.Snapshot catalog) {
         List<String> actions = new ArrayList<>();
         
         try {
             // Handle null response
             if (aiResponse == null) {
-                FinanceActionTypeDto logAction = financeActionTypeService.getFinanceActionTypeByCode("LOG_CUSTOMER_INTERACTION")
+                FinanceActionTypeDto logAction = catalog.byCode("LOG_CUSTOMER_INTERACTION")
                     .orElse(null);
                 if (logAction != null) {
                     actions.add(logAction.getTypeCode());
@@ -565,8 +407,8 @@ public class ActionAnalysisService {
                 return actions;
             }
             
-            // Get all active action types from database
-            List<FinanceActionTypeDto> allActionTypes = financeActionTypeService.getActiveFinanceActionTypes();
+            // Active action types from the catalog
+            List<FinanceActionTypeDto> allActionTypes = catalog.active();
             
             // Convert response to uppercase for matching
             String upperResponse = aiResponse.toUpperCase();
@@ -580,7 +422,7 @@ public class ActionAnalysisService {
             
             // If no actions found, add default
             if (actions.isEmpty()) {
-                FinanceActionTypeDto logAction = financeActionTypeService.getFinanceActionTypeByCode("LOG_CUSTOMER_INTERACTION")
+                FinanceActionTypeDto logAction = catalog.byCode("LOG_CUSTOMER_INTERACTION")
                     .orElse(null);
                 if (logAction != null) {
                     actions.add(logAction.getTypeCode());
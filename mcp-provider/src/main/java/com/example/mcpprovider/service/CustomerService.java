@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +42,11 @@ public class CustomerService {
         return customer.map(customerMapper::toDto);
     }
     
+    public List<CustomerDto> getCustomersByIds(Collection<Long> ids) {
+        log.debug("Getting {} customers by id", ids.size());
+        return customerMapper.toDtoList(customerRepository.findAllById(ids));
+    }
+    
     public Optional<CustomerDetailDto> getCustomerDetailById(Long id) {
         log.debug("Getting customer detail by id: {}", id);
         // Use custom query to fetch with specific relationships to avoid N+1
@@ -9,6 +9,8 @@ import com.example.mcpprovider.entity.EmailAttachment;
 import com.example.mcpprovider.repository.EmailAttachmentRepository;
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,7 @@ import java.util.List;
 public class DocumentGenerationService {
 
     private final EmailAttachmentRepository emailAttachmentRepository;
+    private final ObservationRegistry observationRegistry;
 
     public Long generateStatementDocument(StatementResponseDto statementData) {
         try {
@@ -110,13 +113,18 @@ public class DocumentGenerationService {
 
     private byte[] convertHtmlToPdf(String htmlContent) {
         try {
-            ByteArrayOutputStream pdfStream = new ByteArrayOutputStream();
-            ConverterProperties converterProperties = new ConverterProperties();
-            
-            // PDF'i oluştur
-            HtmlConverter.convertToPdf(htmlContent, pdfStream, converterProperties);
-            
-            return pdfStream.toByteArray();
+            // PDF üretimi ayrı bir span; iş akışı trace'lerinde render süresi görünür
+            return Observation.createNotStarted("mcp.pdf.render", observationRegistry)
+                .highCardinalityKeyValue("html.chars", String.valueOf(htmlContent.length()))
+                .observe(() -> {
+                    ByteArrayOutputStream pdfStream = new ByteArrayOutputStream();
+                    ConverterProperties converterProperties = new ConverterProperties();
+
+                    // PDF'i oluştur
+                    HtmlConverter.convertToPdf(htmlContent, pdfStream, converterProperties);
+
+                    return pdfStream.toByteArray();
+                });
         } catch (Exception e) {
             log.error("Error converting HTML to PDF: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to convert HTML to PDF", e);
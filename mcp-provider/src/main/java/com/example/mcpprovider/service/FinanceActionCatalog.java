@@ -0,0 +1,180 @@
+package com.example.mcpprovider.service;
+
+import com.example.mcpprovider.dto.FinanceActionTypeDto;
+import com.example.mcpprovider.mapper.FinanceActionTypeMapper;
+import com.example.mcpprovider.repository.FinanceActionTypeRepository;
+import com.example.mcpprovider.service.plan.ParameterSchema;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned snapshot of the finance action type catalog for the hot paths
+ * (action analysis, workflow plans). A snapshot is rebuilt from the database when the
+ * application starts and after every committed write through FinanceActionTypeService;
+ * readers take the current one and never query the table themselves. The DTOs and
+ * schema trees inside a snapshot are shared and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FinanceActionCatalog {
+
+    private final FinanceActionTypeRepository financeActionTypeRepository;
+    private final FinanceActionTypeMapper financeActionTypeMapper;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot current;
+    private long version;
+
+    /**
+     * @param active          active types in sort order, as listed to the model
+     * @param byCode          every type, active or not, by type code
+     * @param byEndpoint      every type by endpoint path
+     * @param schemas         parsed json_schema by type code; types whose schema does not parse are missing
+     * @param parameterSchemas the same schemas compiled for validating model output
+     * @param actionsInfo     "CODE: description" lines for the analysis content
+     * @param templatesPrompt the per-type template section of the analysis prompt
+     */
+    public record Snapshot(long version, List<FinanceActionTypeDto> active, Map<String, FinanceActionTypeDto> byCode,
+                           Map<String, FinanceActionTypeDto> byEndpoint, Map<String, JsonNode> schemas,
+                           Map<String, ParameterSchema> parameterSchemas, String actionsInfo, String templatesPrompt, String selectedActionsExample,
+                           String parametersExample) {
+
+        public Optional<FinanceActionTypeDto> byCode(String typeCode) {
+            return Optional.ofNullable(typeCode == null ? null : byCode.get(typeCode));
+        }
+
+        public JsonNode schema(String typeCode) {
+            return schemas.get(typeCode);
+        }
+
+        public ParameterSchema parameterSchema(String typeCode) {
+            return parameterSchemas.get(typeCode);
+        }
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Finance action catalog could not be loaded at startup, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    /** Rebuilds the snapshot after the current transaction commits, or now outside a transaction. */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    public synchronized Snapshot refresh() {
+        List<FinanceActionTypeDto> all = financeActionTypeMapper.toDtoList(financeActionTypeRepository.findAll());
+        List<FinanceActionTypeDto> active = financeActionTypeMapper.toDtoList(
+            financeActionTypeRepository.findByIsActiveTrueOrderBySortOrderAsc());
+
+        Map<String, FinanceActionTypeDto> byCode = new HashMap<>();
+        Map<String, FinanceActionTypeDto> byEndpoint = new HashMap<>();
+        Map<String, JsonNode> schemas = new HashMap<>();
+        Map<String, ParameterSchema> parameterSchemas = new HashMap<>();
+        for (FinanceActionTypeDto actionType : all) {
+            byCode.put(actionType.getTypeCode(), actionType);
+            byEndpoint.put(actionType.getEndpointPath(), actionType);
+            if (actionType.getJsonSchema() != null) {
+                try {
+                    JsonNode schema = objectMapper.readTree(actionType.getJsonSchema());
+                    schemas.put(actionType.getTypeCode(), schema);
+                    parameterSchemas.put(actionType.getTypeCode(), ParameterSchema.compile(actionType.getTypeCode(), schema));
+                } catch (Exception e) {
+                    log.error("Error parsing JSON schema for {}: {}", actionType.getTypeCode(), e.getMessage());
+                }
+            }
+        }
+
+        Snapshot snapshot = new Snapshot(++version, List.copyOf(active), Collections.unmodifiableMap(byCode),
+            Collections.unmodifiableMap(byEndpoint), Collections.unmodifiableMap(schemas),
+            Collections.unmodifiableMap(parameterSchemas), actionsInfo(active), templatesPrompt(active, schemas), selectedActionsExample(active),
+            parametersExample(active));
+        current = snapshot;
+        log.info("Finance action catalog v{} loaded: {} types, {} active", snapshot.version(), all.size(), active.size());
+        return snapshot;
+    }
+
+    private static String actionsInfo(List<FinanceActionTypeDto> active) {
+        StringBuilder info = new StringBuilder();
+        for (FinanceActionTypeDto actionType : active) {
+            String description = actionType.getDescription() != null ? actionType.getDescription() : "Açıklama mevcut değil";
+            info.append(actionType.getTypeCode()).append(": ").append(description).append("\n");
+        }
+        return info.toString();
+    }
+
+    private static String templatesPrompt(List<FinanceActionTypeDto> active, Map<String, JsonNode> schemas) {
+        StringBuilder prompt = new StringBuilder();
+        for (FinanceActionTypeDto actionType : active) {
+            prompt.append(actionType.getTypeCode()).append(" şablonu:\n");
+            prompt.append(actionType.getJsonSchema()).append("\n");
+            
+            // Enum benzeri alanlar (a|b) modele ayrıca açıklanır
+            JsonNode jsonSchemaNode = schemas.get(actionType.getTypeCode());
+            if (jsonSchemaNode != null) {
+                jsonSchemaNode.fields().forEachRemaining(entry -> {
+                    String value = entry.getValue().asText();
+                    if (value.contains("|")) {
+                        prompt.append("- ").append(entry.getKey()).append(" için geçerli değerler: ")
+                              .append(value).append("\n");
+                        prompt.append("  * Bu değerlerden BİRİNİ seçin veya NULL bırakın\n");
+                    }
+                });
+            }
+            prompt.append("\n");
+        }
+        return prompt.toString();
+    }
+
+    private static String selectedActionsExample(List<FinanceActionTypeDto> active) {
+        StringBuilder example = new StringBuilder();
+        for (int i = 0; i < Math.min(active.size(), 3); i++) {
+            if (i > 0) example.append(", ");
+            example.append("\"").append(active.get(i).getTypeCode()).append("\"");
+        }
+        return example.toString();
+    }
+
+    private static String parametersExample(List<FinanceActionTypeDto> active) {
+        StringBuilder example = new StringBuilder();
+        for (int i = 0; i < Math.min(active.size(), 2); i++) {
+            FinanceActionTypeDto actionType = active.get(i);
+            if (i > 0) example.append(",\n");
+            example.append("    \"").append(actionType.getTypeCode()).append("\": ");
+            example.append(actionType.getJsonSchema());
+        }
+        return example.toString();
+    }
+}
@@ -5,9 +5,11 @@ import com.example.mcpprovider.dto.FinanceActionTypeCreateDto;
 import com.example.mcpprovider.entity.FinanceActionType;
 import com.example.mcpprovider.mapper.FinanceActionTypeMapper;
 import com.example.mcpprovider.repository.FinanceActionTypeRepository;
+import com.example.mcpprovider.service.search.FinanceActionTypeSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,6 +23,10 @@ public class FinanceActionTypeService {
     
     private final FinanceActionTypeRepository financeActionTypeRepository;
     private final FinanceActionTypeMapper financeActionTypeMapper;
+    private final FinanceActionTypeSearchIndex financeActionTypeSearchIndex;
+    private final FinanceActionCatalog financeActionCatalog;
+    
+    private static final int SEARCH_LIMIT = 100;
     
     @Transactional(readOnly = true)
     public List<FinanceActionTypeDto> getAllFinanceActionTypes() {
@@ -57,11 +63,12 @@ public class FinanceActionTypeService {
         return actionType.map(financeActionTypeMapper::toDto);
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<FinanceActionTypeDto> searchFinanceActionTypesByName(String name) {
         log.debug("Searching finance action types by name: {}", name);
-        List<FinanceActionType> actionTypes = financeActionTypeRepository.findByTypeNameContaining(name);
-        return financeActionTypeMapper.toDtoList(actionTypes);
+        // Bellek içi indeks; ilk yükleme başarısız olduysa veritabanında LIKE araması yapılır
+        return financeActionTypeSearchIndex.search(name, SEARCH_LIMIT)
+                .orElseGet(() -> financeActionTypeMapper.toDtoList(financeActionTypeRepository.findByTypeNameContaining(name)));
     }
     
     public FinanceActionTypeDto createFinanceActionType(FinanceActionTypeCreateDto createDto) {
@@ -79,6 +86,8 @@ public class FinanceActionTypeService {
         
         FinanceActionType entity = financeActionTypeMapper.toEntity(createDto);
         FinanceActionType savedEntity = financeActionTypeRepository.save(entity);
+        financeActionTypeSearchIndex.saved(savedEntity);
+        financeActionCatalog.refreshAfterCommit();
         
         log.info("Created finance action type with id: {}", savedEntity.getId());
         return financeActionTypeMapper.toDto(savedEntity);
@@ -106,6 +115,8 @@ public class FinanceActionTypeService {
         
         financeActionTypeMapper.updateEntityFromDto(existingEntity, dto);
         FinanceActionType savedEntity = financeActionTypeRepository.save(existingEntity);
+        financeActionTypeSearchIndex.saved(savedEntity);
+        financeActionCatalog.refreshAfterCommit();
         
         log.info("Updated finance action type with id: {}", savedEntity.getId());
         return financeActionTypeMapper.toDto(savedEntity);
@@ -119,6 +130,8 @@ public class FinanceActionTypeService {
         }
         
         financeActionTypeRepository.deleteById(id);
+        financeActionTypeSearchIndex.deleted(id);
+        financeActionCatalog.refreshAfterCommit();
         log.info("Deleted finance action type with id: {}", id);
     }
     
@@ -130,6 +143,8 @@ public class FinanceActionTypeService {
         
         entity.setIsActive(!entity.getIsActive());
         FinanceActionType savedEntity = financeActionTypeRepository.save(entity);
+        financeActionTypeSearchIndex.saved(savedEntity);
+        financeActionCatalog.refreshAfterCommit();
         
         log.info("Toggled active status for finance action type {} to: {}", id, savedEntity.getIsActive());
         return financeActionTypeMapper.toDto(savedEntity);
@@ -8,6 +8,7 @@ import com.example.mcpprovider.entity.FinancialTransaction;
 import com.example.mcpprovider.entity.Customer;
 import com.example.mcpprovider.repository.FinancialTransactionRepository;
 import com.example.mcpprovider.repository.CustomerRepository;
+import com.example.mcpprovider.service.date.RelativeDateParser;
 import com.example.mcpprovider.specification.TransactionSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,9 +18,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,44 +32,26 @@ public class TransactionService {
     private final FinancialTransactionRepository transactionRepository;
     private final CustomerRepository customerRepository;
     private final DocumentGenerationService documentGenerationService;
+    private final RelativeDateParser relativeDateParser;
 
     public StatementResponseDto getTransactionStatement(TransactionFilterDto filter) {
         try {
-            log.info("Getting transaction statement with filter: {}", filter);
-            
+            long startTime = System.currentTimeMillis();
+            log.debug("Getting transaction statement with filter: {}", filter);
+
             // Process relative date filters
             processRelativeDates(filter);
 
             // Create page request with limit
             PageRequest pageRequest = createPageRequest(filter);
 
-            // Log all filter parameters in detail
-            log.info("Applying filters - customerId: {}, category: {}, transactionType: {}, direction: {}, currency: {}, emailFlag: {}", 
-                filter.getCustomerId(), 
-                filter.getCategory(),
-                filter.getTransactionType(),
-                filter.getDirection(),
-                filter.getCurrency(),
-                filter.getEmailFlag());
-            
-            if (filter.getStartDate() != null || filter.getEndDate() != null) {
-                log.info("Date range filter - startDate: {}, endDate: {}", 
-                    filter.getStartDate(), filter.getEndDate());
-            }
-            
-            if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
-                log.info("Amount range filter - minAmount: {}, maxAmount: {}", 
-                    filter.getMinAmount(), filter.getMaxAmount());
-            }
-
             // Get transactions using specification
-            log.info("Executing query with category filter: {}", filter.getCategory());
             List<FinancialTransaction> transactions = transactionRepository.findAll(
                 TransactionSpecification.withFilter(filter),
                 pageRequest
             ).getContent();
 
-            log.info("Found {} transactions before filtering", transactions.size());
+            log.debug("Found {} transactions before filtering", transactions.size());
 
             // Get customer information if customerId is provided
             CustomerDto customerDto = null;
@@ -99,32 +82,20 @@ public class TransactionService {
 
             // Her durumda PDF dokümanı oluştur
             List<Long> attachmentIds = new ArrayList<>();
-            log.info("Generating document for statement");
-            
             StatementResponseDto tempResponse = responseBuilder.build();
             Long attachmentId = documentGenerationService.generateStatementDocument(tempResponse);
             attachmentIds.add(attachmentId);
-            
-            log.info("Document generated with attachment ID: {}", attachmentId);
+
 
             // Final response'u oluştur
             StatementResponseDto response = responseBuilder
                 .attachmentIds(attachmentIds)
                 .build();
 
-            log.info("Returning statement with {} transactions and {} attachments", 
-                transactionDtos.size(), attachmentIds.size());
-            
-            // **DEBUG**: Log the complete response structure to help debug frontend issues
-            log.info("=== COMPLETE STATEMENT RESPONSE DEBUG ===");
-            log.info("Response type: {}", response.getClass().getSimpleName());
-            log.info("Customer: {}", response.getCustomer());
-            log.info("Transactions count: {}", response.getTransactions() != null ? response.getTransactions().size() : "null");
-            log.info("AttachmentIds: {}", response.getAttachmentIds());
-            log.info("AttachmentIds size: {}", response.getAttachmentIds() != null ? response.getAttachmentIds().size() : "null");
-            log.info("AttachmentIds values: {}", response.getAttachmentIds());
-            log.info("=== END STATEMENT RESPONSE DEBUG ===");
-            
+            // Tek özet satırı; müşteri bilgisi ve filtre detayları sadece DEBUG'da
+            log.info("Statement for customer {}: {} transactions, attachments {}, {} ms",
+                filter.getCustomerId(), transactionDtos.size(), attachmentIds, System.currentTimeMillis() - startTime);
+
             return response;
 
         } catch (Exception e) {
@@ -176,22 +147,20 @@ public class TransactionService {
 
     private void processRelativeDates(TransactionFilterDto filter) {
         if (filter.getStartDate() == null && filter.getEndDate() == null) {
-            // Handle relative date ranges like "last 7 days"
-            if (filter.getActionType() != null && filter.getActionType().equals("GENERATE_STATEMENT")) {
-                LocalDateTime now = LocalDateTime.now();
-                if (filter.getAccountId() != null && filter.getAccountId().startsWith("now-")) {
-                    String[] parts = filter.getAccountId().split("-");
-                    if (parts.length == 2) {
-                        try {
-                            int days = Integer.parseInt(parts[1].replace("d", ""));
-                            filter.setStartDate(now.minus(days, ChronoUnit.DAYS));
-                            filter.setEndDate(now);
-                            log.info("Processed relative dates - startDate: {}, endDate: {}", 
-                                filter.getStartDate(), filter.getEndDate());
-                        } catch (NumberFormatException e) {
-                            log.warn("Invalid relative date format: {}", filter.getAccountId());
-                        }
-                    }
+            // Handle relative date ranges like "now-7d" sent in accountId
+            if (filter.getActionType() != null && filter.getActionType().equals("GENERATE_STATEMENT")
+                && filter.getAccountId() != null) {
+                Optional<RelativeDateParser.Expression> expression = relativeDateParser.parse(filter.getAccountId());
+                if (expression.isPresent()) {
+                    RelativeDateParser.DateRange range = relativeDateParser.range(expression.get());
+                    filter.setStartDate(range.start());
+                    filter.setEndDate(range.end());
+                    // Alan hesap numarası değil tarih ifadesi taşıyordu, hesap filtresi olarak kullanılmaz
+                    filter.setAccountId(null);
+                    log.debug("Processed relative dates - startDate: {}, endDate: {}",
+                        filter.getStartDate(), filter.getEndDate());
+                } else if (filter.getAccountId().startsWith("now-")) {
+                    log.warn("Invalid relative date format: {}", filter.getAccountId());
                 }
             }
         }
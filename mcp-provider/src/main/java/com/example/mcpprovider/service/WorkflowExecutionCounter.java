@@ -0,0 +1,127 @@
+package com.example.mcpprovider.service;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Workflow execution counts kept in memory and written to the database in batches.
+ * <p>
+ * Recording an execution touches only a per-workflow {@link LongAdder}, so concurrent
+ * runs neither contend nor lose updates. Every flush interval the pending counts go out
+ * as one JDBC batch of {@code execution_count = execution_count + ?} updates in a single
+ * transaction, and the flushed amount is then subtracted from the adders. Executions
+ * recorded during a flush are kept for the next one, and a failed flush leaves
+ * everything pending. The last flush runs on shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowExecutionCounter {
+
+    private static final String UPDATE_SQL = "UPDATE workflows SET execution_count = execution_count + ?, "
+        + "last_executed_at = GREATEST(COALESCE(last_executed_at, ?), ?) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkflowExecutionConfig config;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    private static final class Pending {
+        final LongAdder count = new LongAdder();
+        final LongAccumulator lastExecutedAt = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+
+    private record Flush(Long workflowId, Pending pending, long count, Timestamp lastExecutedAt) {
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = config.getCounterFlushInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workflow-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+        flushQuietly();
+    }
+
+    public void record(Long workflowId) {
+        Pending entry = pending.computeIfAbsent(workflowId, id -> new Pending());
+        entry.count.increment();
+        entry.lastExecutedAt.accumulate(System.currentTimeMillis());
+    }
+
+    /** Executions recorded but not yet written to the database. */
+    public long pendingCount(Long workflowId) {
+        Pending entry = pending.get(workflowId);
+        return entry == null ? 0 : entry.count.sum();
+    }
+
+    /** Latest execution time recorded in memory, or null if there is none. */
+    public LocalDateTime pendingLastExecutedAt(Long workflowId) {
+        Pending entry = pending.get(workflowId);
+        long millis = entry == null ? Long.MIN_VALUE : entry.lastExecutedAt.get();
+        return millis == Long.MIN_VALUE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /** Writes all pending counts; returns the number of workflows updated. */
+    public synchronized int flush() {
+        List<Flush> batch = new ArrayList<>();
+        pending.forEach((workflowId, entry) -> {
+            long count = entry.count.sum();
+            if (count > 0) {
+                batch.add(new Flush(workflowId, entry, count, new Timestamp(entry.lastExecutedAt.get())));
+            }
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(),
+            (statement, flush) -> {
+                statement.setLong(1, flush.count());
+                statement.setTimestamp(2, flush.lastExecutedAt());
+                statement.setTimestamp(3, flush.lastExecutedAt());
+                statement.setLong(4, flush.workflowId());
+            }));
+        // Yazılan kadarı düşülür; flush sırasında gelen çalıştırmalar bir sonrakine kalır
+        batch.forEach(flush -> flush.pending().count.add(-flush.count()));
+        log.debug("Flushed execution counts of {} workflows", batch.size());
+        return batch.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Workflow execution counts could not be flushed, will retry: {}", e.getMessage());
+        }
+    }
+}
@@ -6,14 +6,22 @@ import com.example.mcpprovider.dto.WorkflowSummaryDto;
 import com.example.mcpprovider.entity.Workflow;
 import com.example.mcpprovider.mapper.WorkflowMapper;
 import com.example.mcpprovider.repository.WorkflowRepository;
+import com.example.mcpprovider.service.search.WorkflowSearchIndex;
+import com.example.mcpprovider.service.workflow.WorkflowPlan;
+import com.example.mcpprovider.service.workflow.WorkflowPlanCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +31,11 @@ public class WorkflowService {
     
     private final WorkflowRepository workflowRepository;
     private final WorkflowMapper workflowMapper;
+    private final WorkflowPlanCache workflowPlanCache;
+    private final WorkflowExecutionCounter workflowExecutionCounter;
+    private final WorkflowSearchIndex workflowSearchIndex;
+    
+    private static final int SEARCH_LIMIT = 100;
     
     public List<WorkflowSummaryDto> getAllWorkflows() {
         log.info("Getting all workflows");
@@ -39,7 +52,8 @@ public class WorkflowService {
     public Optional<WorkflowDto> getWorkflowById(Long id) {
         log.info("Getting workflow by id: {}", id);
         return workflowRepository.findById(id)
-                .map(workflowMapper::toDto);
+                .map(workflowMapper::toDto)
+                .map(this::withPendingExecutions);
     }
     
     public Optional<WorkflowDto> getWorkflowByName(String name) {
@@ -48,13 +62,27 @@ public class WorkflowService {
                 .map(workflowMapper::toDto);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<WorkflowSummaryDto> searchWorkflows(String searchText) {
         log.info("Searching workflows with text: {}", searchText);
         if (searchText == null || searchText.trim().isEmpty()) {
             return getActiveWorkflows();
         }
-        List<Workflow> workflows = workflowRepository.searchWorkflows(searchText.trim());
-        return workflowMapper.toSummaryDtoList(workflows);
+        // Bellek içi indeks; ilk yükleme başarısız olduysa veritabanında LIKE araması yapılır
+        List<Workflow> workflows = workflowSearchIndex.search(searchText, SEARCH_LIMIT)
+                .map(this::findAllInOrder)
+                .orElseGet(() -> workflowRepository.searchWorkflows(searchText.trim()));
+        return workflows.stream()
+                .map(workflowMapper::toSummaryDto)
+                .map(this::withPendingExecutions)
+                .toList();
+    }
+    
+    // İndeks yalnızca id tutar; sayaçlar güncel satırlardan okunur, sıralama indeksin sırasıdır
+    private List<Workflow> findAllInOrder(List<Long> ids) {
+        Map<Long, Workflow> workflows = workflowRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Workflow::getId, Function.identity()));
+        return ids.stream().map(workflows::get).filter(Objects::nonNull).toList();
     }
     
     public List<WorkflowSummaryDto> getWorkflowsByCategory(String category) {
@@ -85,6 +113,7 @@ public class WorkflowService {
         
         Workflow workflow = workflowMapper.toEntity(createDto);
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        workflowSearchIndex.saved(savedWorkflow);
         
         log.info("Workflow created successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -116,6 +145,8 @@ public class WorkflowService {
         existingWorkflow.setVersion(existingWorkflow.getVersion() + 1);
         
         Workflow savedWorkflow = workflowRepository.save(existingWorkflow);
+        workflowPlanCache.evict(id);
+        workflowSearchIndex.saved(savedWorkflow);
         
         log.info("Workflow updated successfully with id: {}", savedWorkflow.getId());
         return workflowMapper.toDto(savedWorkflow);
@@ -129,6 +160,8 @@ public class WorkflowService {
         }
         
         workflowRepository.deleteById(id);
+        workflowPlanCache.evict(id);
+        workflowSearchIndex.deleted(id);
         log.info("Workflow deleted successfully with id: {}", id);
     }
     
@@ -142,6 +175,8 @@ public class WorkflowService {
         workflow.setVersion(workflow.getVersion() + 1);
         
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        workflowPlanCache.evict(id);
+        workflowSearchIndex.saved(savedWorkflow);
         
         log.info("Workflow active status toggled successfully for id: {}. New status: {}", 
                  savedWorkflow.getId(), savedWorkflow.getIsActive());
@@ -154,14 +189,55 @@ public class WorkflowService {
         Workflow workflow = workflowRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Workflow not found with id: " + id));
         
-        workflow.setExecutionCount(workflow.getExecutionCount() + 1);
-        workflow.setLastExecutedAt(LocalDateTime.now());
-        
-        Workflow savedWorkflow = workflowRepository.save(workflow);
+        workflowExecutionCounter.record(id);
         
+        WorkflowDto dto = withPendingExecutions(workflowMapper.toDto(workflow));
         log.info("Workflow execution count incremented successfully for id: {}. New count: {}", 
-                 savedWorkflow.getId(), savedWorkflow.getExecutionCount());
-        return workflowMapper.toDto(savedWorkflow);
+                 id, dto.getExecutionCount());
+        return dto;
+    }
+    
+    /** Counts an execution of a workflow already known to exist; no database access. */
+    public void recordExecution(Long id) {
+        workflowExecutionCounter.record(id);
+    }
+    
+    // Henüz veritabanına yazılmamış çalıştırmalar da sayılır
+    private WorkflowDto withPendingExecutions(WorkflowDto dto) {
+        long pending = workflowExecutionCounter.pendingCount(dto.getId());
+        if (pending > 0) {
+            dto.setExecutionCount(executionCount(dto.getExecutionCount(), pending));
+            dto.setLastExecutedAt(lastExecutedAt(dto.getId(), dto.getLastExecutedAt()));
+        }
+        return dto;
+    }
+    
+    private WorkflowSummaryDto withPendingExecutions(WorkflowSummaryDto dto) {
+        long pending = workflowExecutionCounter.pendingCount(dto.getId());
+        if (pending > 0) {
+            dto.setExecutionCount(executionCount(dto.getExecutionCount(), pending));
+            dto.setLastExecutedAt(lastExecutedAt(dto.getId(), dto.getLastExecutedAt()));
+        }
+        return dto;
+    }
+    
+    private static long executionCount(Long flushed, long pending) {
+        return (flushed != null ? flushed : 0L) + pending;
+    }
+    
+    private LocalDateTime lastExecutedAt(Long id, LocalDateTime flushed) {
+        LocalDateTime pending = workflowExecutionCounter.pendingLastExecutedAt(id);
+        return pending != null && (flushed == null || pending.isAfter(flushed)) ? pending : flushed;
+    }
+    
+    /**
+     * Compiled plan of a workflow for server-side execution, cached per workflow version.
+     * Throws IllegalArgumentException when the graph is not a valid DAG. No transaction is
+     * opened; a cache hit only reads the version column to check that the plan is current.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<WorkflowPlan> getExecutionPlan(Long id) {
+        return workflowPlanCache.get(id);
     }
     
     public boolean existsByName(String name) {
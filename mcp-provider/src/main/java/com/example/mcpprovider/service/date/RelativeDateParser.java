@@ -0,0 +1,284 @@
+package com.example.mcpprovider.service.date;
+
+import com.example.mcpprovider.service.search.SearchText;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Relative date expressions in Turkish and English, turned into [start, end] ranges in
+ * Europe/Istanbul. The grammar is compiled once:
+ * <ul>
+ *   <li>{@code son 3 ay}, {@code son iki hafta}, {@code last 30 days}: the last N units as
+ *       days (a month is 30 days, a year 365), from the start of that day to the end of today</li>
+ *   <li>{@code bu hafta}, {@code bu ay}, {@code bu yıl}, {@code this month}, {@code bugün},
+ *       {@code today}: from the start of the current period to the end of today</li>
+ *   <li>{@code geçen hafta}, {@code geçen ay}, {@code last year}, {@code dün},
+ *       {@code yesterday}: the whole previous calendar period</li>
+ *   <li>{@code now-30d}, {@code now-2w}, {@code now-3M}, {@code now-1y}: from exactly that
+ *       long ago until now</li>
+ * </ul>
+ * Turkish words match with or without Turkish letters ("gun", "gecen") and with the common
+ * suffixes ("son 3 ayın", "geçen haftaki"). Parsed expressions are memoized by their text,
+ * so a repeated {@code now-30d} or "son 3 ay" is parsed once. A range always depends on the
+ * current time and is computed for every call.
+ */
+@Component
+public class RelativeDateParser {
+
+    public static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+
+    /** How the expression relates to now. */
+    public enum Kind {
+        /** The last {@code amount} units counted in days, up to the end of today. */
+        LAST,
+        /** The current unit (today, this week...) up to the end of today. */
+        CURRENT,
+        /** The whole previous unit (yesterday, last week...). */
+        PREVIOUS,
+        /** Exactly {@code amount} units before now, until now. */
+        OFFSET
+    }
+
+    public record Expression(Kind kind, int amount, ChronoUnit unit) {
+    }
+
+    /** Where an expression was found in a longer text. */
+    public record Match(int start, int end, Expression expression) {
+    }
+
+    public record DateRange(LocalDateTime start, LocalDateTime end) {
+
+        /** Whole days from the start day to the end day, the "relativeDays" of action analysis. */
+        public int days() {
+            return (int) ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate());
+        }
+    }
+
+    private static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    private static final String NUMBER = "\\d{1,4}|bir|iki|[üu][çc]|d[öo]rt|be[şs]|alt[ıi]|yedi|sekiz|dokuz|on"
+        + "|one|two|three|four|five|six|seven|eight|nine|ten|twelve";
+    private static final String UNIT = "g[üu]n|hafta|ay|y[ıi]l|sene|days?|weeks?|months?|years?";
+    private static final String PERIOD = "hafta|ay|y[ıi]l|sene|week|month|year";
+    // "ayın", "haftanın", "haftaki", "yılında"; "aynı" gibi başka kelimeler eşleşmez
+    private static final String SUFFIX = "(?:n?[ıiuü]n|n?d[ae](?:ki)?|ki)?";
+    private static final String END = "(?![\\p{L}\\d])";
+
+    // Yalnızca kelime başlarında, lookingAt ile denenir; ifadeler bu harflerden biriyle başlar
+    private static final Pattern GRAMMAR = Pattern.compile(
+        "(?:son|last|past)\\s+(?<lastAmount>" + NUMBER + ")\\s*(?<lastUnit>" + UNIT + ")\\p{L}*"
+            + "|(?:bu|this)\\s+(?<currentUnit>" + PERIOD + ")" + SUFFIX + END
+            + "|(?:ge[çc]en|last|previous)\\s+(?<previousUnit>" + PERIOD + ")" + SUFFIX + END
+            + "|(?<today>bug[üu]n(?:k[üu])?|today)" + END
+            + "|(?<yesterday>d[üu]n(?:k[üu])?|yesterday)" + END
+            + "|now-(?<offsetAmount>\\d{1,5})(?<offsetUnit>[dwmy])" + END,
+        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final String FIRST_LETTERS = "slpbtgdyn";
+
+    private static final Map<String, Integer> NUMBER_WORDS = Map.ofEntries(
+        Map.entry("bir", 1), Map.entry("iki", 2), Map.entry("uc", 3), Map.entry("dort", 4), Map.entry("bes", 5),
+        Map.entry("alti", 6), Map.entry("yedi", 7), Map.entry("sekiz", 8), Map.entry("dokuz", 9), Map.entry("on", 10),
+        Map.entry("one", 1), Map.entry("two", 2), Map.entry("three", 3), Map.entry("four", 4), Map.entry("five", 5),
+        Map.entry("six", 6), Map.entry("seven", 7), Map.entry("eight", 8), Map.entry("nine", 9), Map.entry("ten", 10),
+        Map.entry("twelve", 12));
+
+    private final Map<String, Optional<Expression>> cache = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public RelativeDateParser() {
+        this(Clock.system(ZONE));
+    }
+
+    RelativeDateParser(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** The first expression in a free text, such as a customer request. */
+    public Optional<Match> find(CharSequence text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = GRAMMAR.matcher(text);
+        if (!next(matcher, text, 0)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Match(matcher.start(), matcher.end(),
+            cached(matcher.group().toLowerCase(Locale.ROOT), () -> interpret(matcher))));
+    }
+
+    /** The text with every expression replaced by a space. */
+    public String remove(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = GRAMMAR.matcher(text);
+        StringBuilder result = null;
+        int copied = 0;
+        while (next(matcher, text, copied)) {
+            if (result == null) {
+                result = new StringBuilder(text.length());
+            }
+            result.append(text, copied, matcher.start()).append(' ');
+            copied = matcher.end();
+        }
+        return result == null ? text : result.append(text, copied, text.length()).toString();
+    }
+
+    /** A value that is a single expression as a whole, such as a {@code now-30d} filter. */
+    public Optional<Expression> parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return Optional.empty();
+        }
+        String key = expression.trim().toLowerCase(Locale.ROOT);
+        Optional<Expression> cachedValue = cache.get(key);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+        Matcher matcher = GRAMMAR.matcher(expression.trim());
+        Optional<Expression> parsed = matcher.matches() ? Optional.of(interpret(matcher)) : Optional.empty();
+        put(key, parsed);
+        return parsed;
+    }
+
+    public DateRange range(Expression expression) {
+        return range(expression, LocalDateTime.now(clock));
+    }
+
+    public DateRange range(Expression expression, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalDateTime endOfToday = today.atTime(23, 59, 59);
+        int amount = expression.amount();
+        return switch (expression.kind()) {
+            case LAST -> new DateRange(endOfToday.minusDays(days(amount, expression.unit())).with(LocalTime.MIDNIGHT),
+                endOfToday);
+            case CURRENT -> new DateRange(periodStart(today, expression.unit()).atStartOfDay(), endOfToday);
+            case PREVIOUS -> {
+                LocalDate start = periodStart(today.minus(1, expression.unit()), expression.unit());
+                yield new DateRange(start.atStartOfDay(), start.plus(1, expression.unit()).minusDays(1).atTime(23, 59, 59));
+            }
+            case OFFSET -> {
+                LocalDateTime end = now.truncatedTo(ChronoUnit.SECONDS);
+                yield new DateRange(end.minus(amount, expression.unit()), end);
+            }
+        };
+    }
+
+    // Metinde from'dan sonraki ilk ifade; bulunursa matcher onun üzerinde kalır
+    private static boolean next(Matcher matcher, CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (FIRST_LETTERS.indexOf(Character.toLowerCase(text.charAt(i))) < 0
+                || (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                continue;
+            }
+            matcher.region(i, text.length());
+            if (matcher.lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Serbest metinde bulunan ifade kendi metniyle önbelleğe girer, aynı ifade tekrar çözülmez
+    private Expression cached(String key, Supplier<Expression> parser) {
+        Optional<Expression> cachedValue = cache.get(key);
+        if (cachedValue != null && cachedValue.isPresent()) {
+            return cachedValue.get();
+        }
+        Expression parsed = parser.get();
+        put(key, Optional.of(parsed));
+        return parsed;
+    }
+
+    private void put(String key, Optional<Expression> expression) {
+        if (cache.size() >= MAX_CACHED_EXPRESSIONS) {
+            // Serbest metinden gelen ifadeler az sayıda kalıba düşer; dolarsa rastgele biri çıkarılır
+            Iterator<String> iterator = cache.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        cache.put(key, expression);
+    }
+
+    private static Expression interpret(Matcher matcher) {
+        if (matcher.group("lastAmount") != null) {
+            return new Expression(Kind.LAST, number(matcher.group("lastAmount")), unit(matcher.group("lastUnit")));
+        }
+        if (matcher.group("currentUnit") != null) {
+            return new Expression(Kind.CURRENT, 1, unit(matcher.group("currentUnit")));
+        }
+        if (matcher.group("previousUnit") != null) {
+            return new Expression(Kind.PREVIOUS, 1, unit(matcher.group("previousUnit")));
+        }
+        if (matcher.group("today") != null) {
+            return new Expression(Kind.CURRENT, 1, ChronoUnit.DAYS);
+        }
+        if (matcher.group("yesterday") != null) {
+            return new Expression(Kind.PREVIOUS, 1, ChronoUnit.DAYS);
+        }
+        ChronoUnit unit = switch (Character.toLowerCase(matcher.group("offsetUnit").charAt(0))) {
+            case 'w' -> ChronoUnit.WEEKS;
+            case 'm' -> ChronoUnit.MONTHS;
+            case 'y' -> ChronoUnit.YEARS;
+            default -> ChronoUnit.DAYS;
+        };
+        return new Expression(Kind.OFFSET, Integer.parseInt(matcher.group("offsetAmount")), unit);
+    }
+
+    private static int number(String text) {
+        if (Character.isDigit(text.charAt(0))) {
+            return Integer.parseInt(text);
+        }
+        return NUMBER_WORDS.get(SearchText.fold(text));
+    }
+
+    private static ChronoUnit unit(String text) {
+        String unit = SearchText.fold(text);
+        if (unit.startsWith("gun") || unit.startsWith("day")) {
+            return ChronoUnit.DAYS;
+        }
+        if (unit.startsWith("hafta") || unit.startsWith("week")) {
+            return ChronoUnit.WEEKS;
+        }
+        if (unit.startsWith("ay") || unit.startsWith("month")) {
+            return ChronoUnit.MONTHS;
+        }
+        return ChronoUnit.YEARS;
+    }
+
+    // "son N ay" gün olarak sayılır: ay 30, yıl 365 gün
+    private static long days(int amount, ChronoUnit unit) {
+        return switch (unit) {
+            case WEEKS -> amount * 7L;
+            case MONTHS -> amount * 30L;
+            case YEARS -> amount * 365L;
+            default -> amount;
+        };
+    }
+
+    private static LocalDate periodStart(LocalDate day, ChronoUnit unit) {
+        return switch (unit) {
+            case WEEKS -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHS -> day.withDayOfMonth(1);
+            case YEARS -> day.withDayOfYear(1);
+            default -> day;
+        };
+    }
+}
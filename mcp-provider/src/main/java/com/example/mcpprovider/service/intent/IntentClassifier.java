@@ -0,0 +1,238 @@
+package com.example.mcpprovider.service.intent;
+
+import com.example.mcpprovider.config.ActionAnalysisConfig;
+import com.example.mcpprovider.dto.FinanceActionTypeDto;
+import com.example.mcpprovider.service.FinanceActionCatalog;
+import com.example.mcpprovider.service.date.RelativeDateParser;
+import com.example.mcpprovider.service.search.SearchText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Local fast path of action analysis: decides whether a request is simple enough to
+ * answer without the LLM and, if so, which action it asks for.
+ * <p>
+ * A request qualifies when it is short, has no numbers, amounts or addresses besides a
+ * relative date such as "son 3 ay" (which action analysis turns into dates itself), the
+ * {@link IntentModel} is confident about a single action, the request names no other
+ * action ("hesap ekstremi gönder" also asks for SEND_EMAIL), and that action is one of
+ * {@code action-analysis.fast-path-action-types}. The model is trained from the catalog
+ * texts of the active actions and retrained when the catalog changes.
+ * <p>
+ * Requests the LLM resolved to a single action are added as examples when they would pass
+ * the same simplicity checks and the catalog keywords of that action agree with the label.
+ * Examples are kept once per text, a text that comes back with a different action is
+ * dropped as contradictory, and at most {@code action-analysis.learned-examples} are kept.
+ * <p>
+ * Every decision is counted in {@code mcp.action_analysis.intent} with an outcome tag.
+ * {@code mcp.action_analysis.fast_path_ratio} is the share of requests answered locally.
+ */
+@Component
+@Slf4j
+public class IntentClassifier {
+
+    public record Intent(String typeCode, double confidence) {
+    }
+
+    static final String FAST_PATH = "fast_path";
+    private static final String LOG_CUSTOMER_INTERACTION = "LOG_CUSTOMER_INTERACTION";
+    private static final Pattern NOT_SIMPLE = Pattern.compile("[\\d@]");
+
+    private record Trained(long catalogVersion, IntentModel model) {
+    }
+
+    private final ActionAnalysisConfig config;
+    private final RelativeDateParser relativeDateParser;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+    private final Counter fastPath;
+    private final Counter total;
+    // Öğrenilen metin -> aksiyon, ekleme sırasıyla; en eskisi önce atılır
+    private final LinkedHashMap<String, String> learned = new LinkedHashMap<>();
+    private volatile Trained trained;
+    private int learnedSinceTraining;
+
+    public IntentClassifier(ActionAnalysisConfig config, RelativeDateParser relativeDateParser, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.relativeDateParser = relativeDateParser;
+        this.meterRegistry = meterRegistry;
+        this.fastPath = outcome(FAST_PATH);
+        this.total = Counter.builder("mcp.action_analysis.requests")
+            .description("Action analysis requests seen by the intent classifier")
+            .register(meterRegistry);
+        Gauge.builder("mcp.action_analysis.fast_path_ratio", this,
+                classifier -> classifier.total.count() == 0 ? 0 : classifier.fastPath.count() / classifier.total.count())
+            .description("Share of action analysis requests answered without the LLM")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The action to answer the request with locally, or empty when it should go to the LLM.
+     *
+     * @param ignoredWords words that say nothing about the intent, such as the customer's name
+     */
+    public Optional<Intent> classify(String content, Collection<String> ignoredWords, FinanceActionCatalog.Snapshot catalog) {
+        total.increment();
+        if (!config.isFastPathEnabled()) {
+            return llm("disabled");
+        }
+        String intentText = intentText(content, ignoredWords);
+        if (intentText == null) {
+            return llm("complex");
+        }
+
+        IntentModel.Prediction prediction = model(catalog).predict(intentText);
+        if (prediction == null) {
+            return llm("unknown");
+        }
+        if (prediction.otherAction() != null) {
+            log.debug("Intent {} also names {}: {}", prediction.label(), prediction.otherAction(), prediction);
+            return llm("multi_intent");
+        }
+        if (prediction.confidence() < config.getFastPathConfidence()) {
+            log.debug("Intent {} below threshold: {}", prediction.label(), prediction);
+            return llm("low_confidence");
+        }
+        Optional<FinanceActionTypeDto> actionType = catalog.byCode(prediction.label());
+        if (!config.getFastPathActionTypes().contains(prediction.label()) || actionType.isEmpty()
+            || !Boolean.TRUE.equals(actionType.get().getIsActive()) || catalog.schema(prediction.label()) == null) {
+            return llm("not_eligible");
+        }
+        fastPath.increment();
+        log.info("Action analysis fast path: {} (confidence {})", prediction.label(), String.format("%.2f", prediction.confidence()));
+        return Optional.of(new Intent(prediction.label(), prediction.confidence()));
+    }
+
+    /**
+     * Adds a request the LLM resolved as an example, when it chose exactly one active action
+     * besides the interaction log and the request would qualify for the fast path itself.
+     *
+     * @param ignoredWords the same words {@link #classify} was given for the request
+     */
+    public void learn(String content, Collection<String> ignoredWords, List<String> selectedActions,
+                      FinanceActionCatalog.Snapshot catalog) {
+        Set<String> actions = new HashSet<>(selectedActions);
+        actions.remove(LOG_CUSTOMER_INTERACTION);
+        if (actions.size() != 1) {
+            return;
+        }
+        String label = actions.iterator().next();
+        String example = intentText(content, ignoredWords);
+        if (example == null || example.isBlank()
+            || catalog.byCode(label).filter(actionType -> Boolean.TRUE.equals(actionType.getIsActive())).isEmpty()) {
+            return;
+        }
+        // LLM'in seçimi katalog kelimeleriyle örtüşmüyorsa ya da metin başka bir aksiyonu anıyorsa örnek olarak alınmaz
+        if (!model(catalog).supports(label, example)) {
+            log.debug("Not learning {} for '{}': catalog keywords do not support it", label, example);
+            return;
+        }
+        synchronized (learned) {
+            String previous = learned.putIfAbsent(example, label);
+            if (previous != null) {
+                if (!previous.equals(label)) {
+                    log.debug("Dropping example '{}': learned as {} and {}", example, previous, label);
+                    learned.remove(example);
+                }
+                return;
+            }
+            Iterator<String> oldest = learned.keySet().iterator();
+            while (learned.size() > config.getLearnedExamples()) {
+                oldest.next();
+                oldest.remove();
+            }
+            // Bir sonraki sınıflandırma modeli yeni örneklerle eğitir
+            if (++learnedSinceTraining >= config.getRetrainEvery()) {
+                trained = null;
+            }
+        }
+    }
+
+    int learnedExamples() {
+        synchronized (learned) {
+            return learned.size();
+        }
+    }
+
+    // Sınıflandırılan ve öğrenilen metin: tarih ifadesi ve yok sayılan kelimeler çıkarılmış hali, basit değilse null
+    private String intentText(String content, Collection<String> ignoredWords) {
+        if (content == null || content.isBlank() || content.length() > config.getFastPathMaxLength()) {
+            return null;
+        }
+        // Tarih ifadesi action analysis'in tanıdığı biçimde çıkarılır, sınıflandırmaya girmez
+        String text = relativeDateParser.remove(content);
+        if (NOT_SIMPLE.matcher(text).find()) {
+            return null;
+        }
+        Set<String> ignored = new HashSet<>();
+        ignoredWords.forEach(words -> ignored.addAll(SearchText.tokens(words)));
+        return String.join(" ", SearchText.tokens(text).stream().filter(token -> !ignored.contains(token)).toList());
+    }
+
+    private IntentModel model(FinanceActionCatalog.Snapshot catalog) {
+        Trained current = trained;
+        if (current != null && current.catalogVersion() >= catalog.version()) {
+            return current.model();
+        }
+        synchronized (learned) {
+            current = trained;
+            if (current != null && current.catalogVersion() >= catalog.version()) {
+                return current.model();
+            }
+            List<IntentModel.Example> rules = new ArrayList<>();
+            List<IntentModel.Example> titles = new ArrayList<>();
+            for (FinanceActionTypeDto actionType : catalog.active()) {
+                String code = actionType.getTypeCode();
+                // Etkileşim kaydı her analize eklenir; adının geçmesi ikinci bir iş istendiği anlamına gelmez
+                if (!LOG_CUSTOMER_INTERACTION.equals(code)) {
+                    titles.add(new IntentModel.Example(code, code.replace('_', ' ')));
+                    if (actionType.getTypeName() != null) {
+                        titles.add(new IntentModel.Example(code, actionType.getTypeName()));
+                    }
+                }
+                rules.add(new IntentModel.Example(code, code.replace('_', ' ')));
+                for (String text : new String[] {actionType.getTypeName(), actionType.getDescription(), actionType.getSamplePrompt()}) {
+                    if (text != null) {
+                        rules.add(new IntentModel.Example(code, text));
+                    }
+                }
+            }
+            long start = System.nanoTime();
+            List<IntentModel.Example> examples = new ArrayList<>();
+            learned.forEach((text, label) -> examples.add(new IntentModel.Example(label, text)));
+            IntentModel model = IntentModel.train(rules, titles, examples);
+            trained = new Trained(catalog.version(), model);
+            learnedSinceTraining = 0;
+            log.info("Intent model trained for catalog v{}: {} actions, {} learned examples in {} ms", catalog.version(),
+                catalog.active().size(), learned.size(), (System.nanoTime() - start) / 1_000_000);
+            return model;
+        }
+    }
+
+    private Optional<Intent> llm(String reason) {
+        outcome(reason).increment();
+        return Optional.empty();
+    }
+
+    private Counter outcome(String outcome) {
+        return outcomes.computeIfAbsent(outcome, key -> Counter.builder("mcp.action_analysis.intent")
+            .description("Action analysis requests by how the intent was decided")
+            .tag("outcome", key)
+            .register(meterRegistry));
+    }
+}
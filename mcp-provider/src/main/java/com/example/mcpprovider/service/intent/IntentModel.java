@@ -0,0 +1,300 @@
+package com.example.mcpprovider.service.intent;
+
+import com.example.mcpprovider.service.search.SearchText;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Two independent guesses at which finance action a request asks for, both trained
+ * from labelled texts:
+ * <ul>
+ *   <li>keyword rules: word stems of each action's catalog texts, weighted by how few
+ *       actions share them (idf), so "ekstre" points at one action and "gönder" at many</li>
+ *   <li>a multinomial logistic regression over character 3/4-grams, which tolerates
+ *       Turkish suffixes and typos the stems miss</li>
+ * </ul>
+ * The confidence of a prediction is zero when the two disagree. Otherwise it is the
+ * average of the rule margin and the model probability, scaled by how much of the
+ * request the chosen action's keywords explain. Words the rules have never seen, such as
+ * filters, amounts or other actions, lower the confidence.
+ * <p>
+ * A request that names another action besides the predicted one, such as "hesap ekstremi
+ * gönder", asks for more than one thing. The prediction reports that action in
+ * {@code otherAction} so the caller can leave the request to the LLM. An instance is immutable.
+ */
+final class IntentModel {
+
+    record Example(String label, String text) {
+    }
+
+    /**
+     * @param ruleMargin  (best − second best rule score) / rule score of the whole request
+     * @param probability logistic regression probability of the label
+     * @param coverage    share of the request's stems that the label's keywords contain
+     * @param otherAction another action whose name the request contains, or null
+     */
+    record Prediction(String label, double confidence, double ruleMargin, double probability, double coverage,
+                      String otherAction) {
+    }
+
+    // Türkçe ek almış kelimeler ilk beş harfe indirilir: "ekstresini", "ekstremi" -> "ekstr"
+    private static final int STEM_LENGTH = 5;
+    private static final Set<String> STOPWORDS = Set.of(
+        "ve", "ile", "icin", "bir", "bu", "su", "da", "de", "mi", "mu", "ki", "ya", "veya", "hem", "daha",
+        "cok", "en", "kadar", "gibi", "olan", "olarak", "ait", "tum", "lutfen", "rica", "ederim",
+        "istiyorum", "isterim", "bana", "beni", "benim", "bize", "size", "misin", "musun", "ben", "biz",
+        "sen", "siz", "hemen", "simdi");
+    private static final int EPOCHS = 40;
+    private static final double LEARNING_RATE = 0.5;
+
+    private final List<String> labels;
+    private final Map<String, Set<String>> keywords;
+    private final Map<String, Set<String>> titles;
+    private final Map<String, Double> idf;
+    private final Map<String, double[]> weights;
+    private final double[] bias;
+
+    private IntentModel(List<String> labels, Map<String, Set<String>> keywords, Map<String, Set<String>> titles,
+                        Map<String, Double> idf, Map<String, double[]> weights, double[] bias) {
+        this.labels = labels;
+        this.keywords = keywords;
+        this.titles = titles;
+        this.idf = idf;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    /**
+     * @param rules    catalog texts per action; they define the keyword rules and are training data too
+     * @param titles   names of the actions a request can mention besides the one it is classified as
+     * @param examples further labelled requests for the regression only
+     */
+    static IntentModel train(List<Example> rules, List<Example> titles, Collection<Example> examples) {
+        Map<String, Set<String>> keywords = new LinkedHashMap<>();
+        for (Example rule : rules) {
+            keywords.computeIfAbsent(rule.label(), label -> new HashSet<>()).addAll(stems(rule.text()));
+        }
+        Map<String, Set<String>> titleStems = new HashMap<>();
+        for (Example title : titles) {
+            titleStems.computeIfAbsent(title.label(), label -> new HashSet<>()).addAll(stems(title.text()));
+        }
+        titleStems.replaceAll((label, stems) -> Collections.unmodifiableSet(stems));
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        keywords.values().forEach(stems -> stems.forEach(stem -> documentFrequency.merge(stem, 1, Integer::sum)));
+        Map<String, Double> idf = new HashMap<>();
+        documentFrequency.forEach((stem, df) -> idf.put(stem, Math.log((double) keywords.size() / df)));
+        keywords.replaceAll((label, stems) -> Collections.unmodifiableSet(stems));
+
+        List<String> labels = List.copyOf(keywords.keySet());
+        Map<String, Integer> labelIndex = new HashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            labelIndex.put(labels.get(i), i);
+        }
+        // Eğitim sırasında parçalar sayıya çevrilir, ağırlıklar düz dizilerde tutulur
+        Map<String, Integer> featureIndex = new HashMap<>();
+        List<int[]> inputIndexes = new ArrayList<>();
+        List<double[]> inputValues = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        List<Example> training = new ArrayList<>(rules);
+        training.addAll(examples);
+        for (Example example : training) {
+            Integer target = labelIndex.get(example.label());
+            Map<String, Double> features = features(example.text());
+            if (target == null || features.isEmpty()) {
+                continue;
+            }
+            int[] indexes = new int[features.size()];
+            double[] values = new double[features.size()];
+            int i = 0;
+            for (Map.Entry<String, Double> feature : features.entrySet()) {
+                indexes[i] = featureIndex.computeIfAbsent(feature.getKey(), key -> featureIndex.size());
+                values[i++] = feature.getValue();
+            }
+            inputIndexes.add(indexes);
+            inputValues.add(values);
+            targets.add(target);
+        }
+
+        int labelCount = labels.size();
+        double[][] matrix = new double[featureIndex.size()][labelCount];
+        double[] bias = new double[labelCount];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            order.add(i);
+        }
+        // Sabit tohum: aynı katalog her seferinde aynı modeli verir
+        Random random = new Random(47);
+        double[] scores = new double[labelCount];
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            Collections.shuffle(order, random);
+            double rate = LEARNING_RATE / (1 + epoch * 0.1);
+            for (int i : order) {
+                int[] indexes = inputIndexes.get(i);
+                double[] values = inputValues.get(i);
+                System.arraycopy(bias, 0, scores, 0, labelCount);
+                for (int f = 0; f < indexes.length; f++) {
+                    double[] row = matrix[indexes[f]];
+                    for (int label = 0; label < labelCount; label++) {
+                        scores[label] += row[label] * values[f];
+                    }
+                }
+                double[] probabilities = softmax(scores);
+                for (int label = 0; label < labelCount; label++) {
+                    double gradient = rate * (probabilities[label] - (label == targets.get(i) ? 1 : 0));
+                    bias[label] -= gradient;
+                    for (int f = 0; f < indexes.length; f++) {
+                        matrix[indexes[f]][label] -= gradient * values[f];
+                    }
+                }
+            }
+        }
+        Map<String, double[]> weights = new HashMap<>();
+        featureIndex.forEach((gram, index) -> weights.put(gram, matrix[index]));
+        return new IntentModel(labels, Collections.unmodifiableMap(keywords), titleStems, idf, weights, bias);
+    }
+
+    /** Best label for the text, or null when none of its words are known. */
+    Prediction predict(String text) {
+        Set<String> stems = new LinkedHashSet<>(stems(text));
+        if (stems.isEmpty() || labels.isEmpty()) {
+            return null;
+        }
+        double requestScore = 0;
+        for (String stem : stems) {
+            requestScore += idf.getOrDefault(stem, 0.0);
+        }
+        String ruleLabel = null;
+        double best = 0;
+        double second = 0;
+        for (String label : labels) {
+            double score = 0;
+            for (String stem : stems) {
+                if (keywords.get(label).contains(stem)) {
+                    score += idf.get(stem);
+                }
+            }
+            if (score > best) {
+                second = best;
+                best = score;
+                ruleLabel = label;
+            } else if (score > second) {
+                second = score;
+            }
+        }
+        if (ruleLabel == null) {
+            return null;
+        }
+
+        double[] probabilities = softmax(scores(features(text), weights, bias, labels.size()));
+        int modelLabel = 0;
+        for (int i = 1; i < probabilities.length; i++) {
+            if (probabilities[i] > probabilities[modelLabel]) {
+                modelLabel = i;
+            }
+        }
+        double ruleMargin = (best - second) / requestScore;
+        double probability = probabilities[labels.indexOf(ruleLabel)];
+        Set<String> labelKeywords = keywords.get(ruleLabel);
+        double coverage = (double) stems.stream().filter(labelKeywords::contains).count() / stems.size();
+        double confidence = labels.get(modelLabel).equals(ruleLabel) ? coverage * (ruleMargin + probability) / 2 : 0;
+        return new Prediction(ruleLabel, confidence, ruleMargin, probability, coverage, otherAction(ruleLabel, stems));
+    }
+
+    /**
+     * Whether the text is a usable example of the label: it contains at least one of the
+     * label's keywords and names no other action.
+     */
+    boolean supports(String label, String text) {
+        Set<String> stems = new LinkedHashSet<>(stems(text));
+        Set<String> labelKeywords = keywords.get(label);
+        return labelKeywords != null && stems.stream().anyMatch(labelKeywords::contains)
+            && otherAction(label, stems) == null;
+    }
+
+    // Kendi adında geçmeyen bir kelimeyle başka bir aksiyonun adını anan talep ikinci bir iş istiyor demektir
+    private String otherAction(String label, Set<String> stems) {
+        Set<String> own = titles.getOrDefault(label, Set.of());
+        for (String other : labels) {
+            if (other.equals(label)) {
+                continue;
+            }
+            for (String stem : titles.getOrDefault(other, Set.of())) {
+                if (stems.contains(stem) && !own.contains(stem)) {
+                    return other;
+                }
+            }
+        }
+        return null;
+    }
+
+    static List<String> stems(String text) {
+        List<String> stems = new ArrayList<>();
+        for (String token : SearchText.tokens(text)) {
+            if (token.length() < 3 || STOPWORDS.contains(token) || token.chars().allMatch(Character::isDigit)) {
+                continue;
+            }
+            stems.add(token.length() > STEM_LENGTH ? token.substring(0, STEM_LENGTH) : token);
+        }
+        return stems;
+    }
+
+    // Kelime sınırlarıyla 3 ve 4 harflik parçalar, birim uzunluğa normalize
+    private static Map<String, Double> features(String text) {
+        Map<String, Double> counts = new HashMap<>();
+        for (String token : SearchText.tokens(text)) {
+            if (STOPWORDS.contains(token)) {
+                continue;
+            }
+            String word = " " + token + " ";
+            for (int n = 3; n <= 4; n++) {
+                for (int i = 0; i + n <= word.length(); i++) {
+                    counts.merge(word.substring(i, i + n), 1.0, Double::sum);
+                }
+            }
+        }
+        double norm = Math.sqrt(counts.values().stream().mapToDouble(count -> count * count).sum());
+        counts.replaceAll((gram, count) -> count / norm);
+        return counts;
+    }
+
+    private static double[] scores(Map<String, Double> features, Map<String, double[]> weights, double[] bias,
+                                   int labelCount) {
+        double[] scores = bias.clone();
+        for (Map.Entry<String, Double> feature : features.entrySet()) {
+            double[] featureWeights = weights.get(feature.getKey());
+            if (featureWeights != null) {
+                for (int label = 0; label < labelCount; label++) {
+                    scores[label] += featureWeights[label] * feature.getValue();
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static double[] softmax(double[] scores) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            max = Math.max(max, score);
+        }
+        double sum = 0;
+        double[] probabilities = new double[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            probabilities[i] = Math.exp(scores[i] - max);
+            sum += probabilities[i];
+        }
+        for (int i = 0; i < scores.length; i++) {
+            probabilities[i] /= sum;
+        }
+        return probabilities;
+    }
+}
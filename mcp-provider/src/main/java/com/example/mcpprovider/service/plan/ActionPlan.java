@@ -0,0 +1,103 @@
+package com.example.mcpprovider.service.plan;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON part of an action analysis response: the selected actions and their parameters,
+ * read from the model output in one pass. The tree is modified in place by validation and
+ * date handling and rendered back into the response once, by {@link ActionPlanParser#render}.
+ */
+public final class ActionPlan {
+
+    public enum Status {
+        PARSED,
+        /** The response has no {@code json} fence and no object. */
+        NO_JSON,
+        /** The JSON part is not a single valid object. */
+        MALFORMED
+    }
+
+    private final Status status;
+    private final String error;
+    private final String response;
+    private final String before;
+    private final String after;
+    private final ObjectNode root;
+    private final List<String> selectedActions;
+    private final Map<String, ObjectNode> parameters;
+
+    ActionPlan(String response, String before, String after, ObjectNode root, List<String> selectedActions,
+               Map<String, ObjectNode> parameters) {
+        this.status = Status.PARSED;
+        this.error = null;
+        this.response = response;
+        this.before = before;
+        this.after = after;
+        this.root = root;
+        this.selectedActions = selectedActions;
+        this.parameters = parameters;
+    }
+
+    private ActionPlan(Status status, String error, String response) {
+        this.status = status;
+        this.error = error;
+        this.response = response;
+        this.before = null;
+        this.after = null;
+        this.root = null;
+        this.selectedActions = List.of();
+        this.parameters = Map.of();
+    }
+
+    static ActionPlan failed(Status status, String error, String response) {
+        return new ActionPlan(status, error, response);
+    }
+
+    public boolean isParsed() {
+        return status == Status.PARSED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /** The response as the model returned it. */
+    public String getResponse() {
+        return response;
+    }
+
+    /** The JSON object; null unless parsed. */
+    public ObjectNode getRoot() {
+        return root;
+    }
+
+    /** The action codes in the order the model listed them. */
+    public List<String> getSelectedActions() {
+        return selectedActions;
+    }
+
+    /** The parameter object of an action, or null when the model gave none. */
+    public ObjectNode parameters(String typeCode) {
+        return parameters.get(typeCode);
+    }
+
+    /** The dateRange object, or null when missing or not an object. */
+    public ObjectNode dateRange() {
+        return root != null && root.get("dateRange") instanceof ObjectNode dateRange ? dateRange : null;
+    }
+
+    String before() {
+        return before;
+    }
+
+    String after() {
+        return after;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.mcpprovider.service.plan;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@link ActionPlan} out of a model response. The JSON part is the content of the
+ * first {@code json} code fence or, without a closed fence, the text from the first opening
+ * brace to the last closing brace. It is parsed once with a streaming parser that fills
+ * the typed views (selected actions, parameters by action) while building the tree. The
+ * outcome only depends on the text: anything but a single JSON object, including trailing
+ * content after it, is {@link ActionPlan.Status#MALFORMED}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActionPlanParser {
+
+    private static final String FENCE = "```json";
+    private static final String FENCE_END = "```";
+
+    private final ObjectMapper objectMapper;
+
+    public ActionPlan parse(String response) {
+        if (response == null) {
+            return ActionPlan.failed(ActionPlan.Status.NO_JSON, "empty response", null);
+        }
+        int start;
+        int end;
+        String before;
+        String after;
+        int fence = response.indexOf(FENCE);
+        int fenceEnd = fence < 0 ? -1 : response.indexOf(FENCE_END, fence + FENCE.length());
+        if (fenceEnd >= 0) {
+            start = fence + FENCE.length();
+            end = fenceEnd;
+            before = response.substring(0, start) + "\n";
+            after = "\n" + response.substring(end);
+        } else {
+            start = response.indexOf('{');
+            int last = response.lastIndexOf('}');
+            if (start < 0 || last < start) {
+                return ActionPlan.failed(ActionPlan.Status.NO_JSON, "no JSON object in response", response);
+            }
+            end = last + 1;
+            before = response.substring(0, start);
+            after = response.substring(end);
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.substring(start, end))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return ActionPlan.failed(ActionPlan.Status.MALFORMED, "JSON part is not an object", response);
+            }
+            ObjectNode root = objectMapper.createObjectNode();
+            List<String> selectedActions = new ArrayList<>();
+            Map<String, ObjectNode> parameters = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                JsonNode value = objectMapper.readTree(parser);
+                switch (field) {
+                    case "selectedActions" -> selectedActions(value, selectedActions);
+                    case "parameters" -> parameters(value, parameters);
+                    default -> {
+                    }
+                }
+                root.set(field, value);
+            }
+            if (parser.nextToken() != null) {
+                return ActionPlan.failed(ActionPlan.Status.MALFORMED, "unexpected content after the JSON object", response);
+            }
+            return new ActionPlan(response, before, after, root, selectedActions, parameters);
+        } catch (JsonProcessingException e) {
+            return ActionPlan.failed(ActionPlan.Status.MALFORMED, e.getOriginalMessage(), response);
+        } catch (IOException e) {
+            return ActionPlan.failed(ActionPlan.Status.MALFORMED, e.getMessage(), response);
+        }
+    }
+
+    /** A plan built in code, such as the fast path answer, rendered as a {@code json} fence. */
+    public ActionPlan plan(ObjectNode root) {
+        List<String> selectedActions = new ArrayList<>();
+        Map<String, ObjectNode> parameters = new LinkedHashMap<>();
+        selectedActions(root.get("selectedActions"), selectedActions);
+        parameters(root.get("parameters"), parameters);
+        return new ActionPlan(null, FENCE + "\n", "\n" + FENCE_END, root, selectedActions, parameters);
+    }
+
+    /** The response with the JSON part replaced by the current tree; the original response when not parsed. */
+    public String render(ActionPlan plan) throws JsonProcessingException {
+        if (!plan.isParsed()) {
+            return plan.getResponse();
+        }
+        return plan.before() + objectMapper.writeValueAsString(plan.getRoot()) + plan.after();
+    }
+
+    // Anahtar tekrar ederse sonuncusu geçerli olur, ağaçtaki gibi
+    private static void selectedActions(JsonNode value, List<String> selectedActions) {
+        selectedActions.clear();
+        if (value != null && value.isArray()) {
+            value.forEach(action -> {
+                if (action.isValueNode() && !action.isNull()) {
+                    selectedActions.add(action.asText());
+                }
+            });
+        }
+    }
+
+    private static void parameters(JsonNode value, Map<String, ObjectNode> parameters) {
+        parameters.clear();
+        if (value != null && value.isObject()) {
+            value.fields().forEachRemaining(entry -> {
+                if (entry.getValue() instanceof ObjectNode actionParameters) {
+                    parameters.put(entry.getKey(), actionParameters);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.mcpprovider.service.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The json_schema template of an action type compiled for validating model output. A
+ * template lists the parameter fields; a value such as {@code "in|out"} allows only one of
+ * those values. Compiled once per catalog snapshot and shared by all requests.
+ */
+public final class ParameterSchema {
+
+    // Modelin doldurmaması gereken alanlar; talep metni extraContent olarak kök düğüme eklenir
+    private static final Set<String> IGNORED_FIELDS = Set.of("content", "extraContent");
+
+    private final Set<String> fields;
+    private final Map<String, Set<String>> allowedValues;
+    private final boolean dateBased;
+    private final boolean emailCapable;
+
+    private ParameterSchema(Set<String> fields, Map<String, Set<String>> allowedValues, boolean dateBased,
+                            boolean emailCapable) {
+        this.fields = fields;
+        this.allowedValues = allowedValues;
+        this.dateBased = dateBased;
+        this.emailCapable = emailCapable;
+    }
+
+    public static ParameterSchema compile(String typeCode, JsonNode schema) {
+        Set<String> fields = new LinkedHashSet<>();
+        Map<String, Set<String>> allowedValues = new LinkedHashMap<>();
+        schema.fields().forEachRemaining(entry -> {
+            fields.add(entry.getKey());
+            JsonNode value = entry.getValue();
+            if (value.isTextual() && value.asText().contains("|")) {
+                allowedValues.put(entry.getKey(), Set.of(value.asText().split("\\|")));
+            }
+        });
+        return new ParameterSchema(Collections.unmodifiableSet(fields), Collections.unmodifiableMap(allowedValues),
+            fields.contains("startDate") || fields.contains("endDate"),
+            typeCode.contains("EMAIL") || fields.contains("emailFlag"));
+    }
+
+    /** Parameter fields in template order. */
+    public Set<String> fields() {
+        return fields;
+    }
+
+    /** Whether the action takes a date range that action analysis fills from the request. */
+    public boolean isDateBased() {
+        return dateBased;
+    }
+
+    /** Whether the action sends email, which turns on emailFlag of the other selected actions. */
+    public boolean isEmailCapable() {
+        return emailCapable;
+    }
+
+    /**
+     * Drops the fields the model must not fill and sets values outside an enum-like field's
+     * allowed values to null.
+     *
+     * @return the fields that were set to null
+     */
+    public List<String> validate(ObjectNode parameters) {
+        parameters.remove(IGNORED_FIELDS);
+        List<String> rejected = new ArrayList<>();
+        allowedValues.forEach((field, allowed) -> {
+            JsonNode value = parameters.get(field);
+            if (value != null && value.isTextual() && !allowed.contains(value.asText())) {
+                parameters.putNull(field);
+                rejected.add(field);
+            }
+        });
+        return rejected;
+    }
+}
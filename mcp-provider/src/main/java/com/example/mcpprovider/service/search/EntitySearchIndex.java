@@ -0,0 +1,77 @@
+package com.example.mcpprovider.service.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps an {@link InvertedIndex} in step with a table. The index is filled once the
+ * application is ready; afterwards services report every saved or deleted row, and the
+ * change is applied when the surrounding transaction commits. Until the first load has
+ * succeeded {@link #search} returns empty so callers can fall back to the database.
+ *
+ * @param <E> entity type
+ * @param <T> value returned by searches
+ */
+@Slf4j
+public abstract class EntitySearchIndex<E, T> {
+
+    private final InvertedIndex<T> index = new InvertedIndex<>();
+    private volatile boolean loaded;
+
+    protected abstract List<E> loadAll();
+
+    protected abstract Long id(E entity);
+
+    protected abstract T value(E entity);
+
+    protected abstract List<InvertedIndex.Field> fields(E entity);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            long start = System.currentTimeMillis();
+            List<E> entities = loadAll();
+            index.clear();
+            entities.forEach(entity -> index.put(id(entity), value(entity), fields(entity)));
+            loaded = true;
+            log.info("{} loaded {} documents in {} ms", getClass().getSimpleName(), entities.size(),
+                System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("{} could not be loaded, searches use the database: {}", getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    public Optional<List<T>> search(String query, int limit) {
+        return loaded ? Optional.of(index.search(query, limit)) : Optional.empty();
+    }
+
+    public void saved(E entity) {
+        Long id = id(entity);
+        T value = value(entity);
+        List<InvertedIndex.Field> fields = fields(entity);
+        afterCommit(() -> index.put(id, value, fields));
+    }
+
+    public void deleted(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mcpprovider.service.search;
+
+import com.example.mcpprovider.dto.FinanceActionTypeDto;
+import com.example.mcpprovider.entity.FinanceActionType;
+import com.example.mcpprovider.mapper.FinanceActionTypeMapper;
+import com.example.mcpprovider.repository.FinanceActionTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Finance action type search over name, type code, description and sample prompt. */
+@Component
+@RequiredArgsConstructor
+public class FinanceActionTypeSearchIndex extends EntitySearchIndex<FinanceActionType, FinanceActionTypeDto> {
+
+    private final FinanceActionTypeRepository financeActionTypeRepository;
+    private final FinanceActionTypeMapper financeActionTypeMapper;
+
+    @Override
+    protected List<FinanceActionType> loadAll() {
+        return financeActionTypeRepository.findAll();
+    }
+
+    @Override
+    protected Long id(FinanceActionType actionType) {
+        return actionType.getId();
+    }
+
+    @Override
+    protected FinanceActionTypeDto value(FinanceActionType actionType) {
+        return financeActionTypeMapper.toDto(actionType);
+    }
+
+    @Override
+    protected List<InvertedIndex.Field> fields(FinanceActionType actionType) {
+        return List.of(
+            new InvertedIndex.Field(actionType.getTypeName(), 3),
+            new InvertedIndex.Field(actionType.getTypeCode(), 3),
+            new InvertedIndex.Field(actionType.getDescription(), 1),
+            new InvertedIndex.Field(actionType.getSamplePrompt(), 0.5));
+    }
+}
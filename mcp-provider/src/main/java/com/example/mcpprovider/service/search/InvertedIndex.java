@@ -0,0 +1,202 @@
+package com.example.mcpprovider.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over a few weighted text fields per document.
+ * <p>
+ * Every query word must match some word of a document, as an exact word, a prefix
+ * (typeahead) or within a small edit distance (typos). A document scores the sum over
+ * query words of field weight times match quality, so a name hit outranks a description
+ * hit and exact outranks prefix outranks fuzzy. Documents are added, replaced and removed
+ * one at a time; searches run under a shared read lock.
+ *
+ * @param <T> what a search returns for a document, typically its DTO
+ */
+public class InvertedIndex<T> {
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.7;
+    private static final double FUZZY = 0.4;
+
+    /** A text field of a document and how much a match in it counts. */
+    public record Field(String text, double weight) {
+    }
+
+    private record Entry<T>(T value, Set<String> terms, long order) {
+    }
+
+    private final Map<Long, Entry<T>> documents = new HashMap<>();
+    // Terim -> (doküman id -> terimin geçtiği en ağır alanın ağırlığı)
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    // Bulanık eşleşme yalnızca uzunluğu yakın terimlere bakar
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextOrder;
+
+    public void put(Long id, T value, List<Field> fields) {
+        Map<String, Double> terms = new HashMap<>();
+        for (Field field : fields) {
+            for (String token : SearchText.tokens(field.text())) {
+                terms.merge(token, field.weight(), Math::max);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            Entry<T> previous = documents.get(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            // Eşit skorlarda ilk eklenen önce gelir; güncelleme sırayı korur
+            long order = previous != null ? previous.order() : nextOrder++;
+            documents.put(id, new Entry<>(value, terms.keySet(), order));
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> {
+                termsByLength.computeIfAbsent(key.length(), length -> new HashSet<>()).add(key);
+                return new HashMap<>();
+            }).put(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Entry<T> previous = documents.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            termsByLength.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best matches first; an empty or word-less query matches nothing. */
+    public List<T> search(String query, int limit) {
+        List<String> words = SearchText.tokens(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String word : words) {
+                Map<Long, Double> wordScores = match(word);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                .thenComparingLong(entry -> documents.get(entry.getKey()).order()));
+            List<T> results = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                results.add(documents.get(ranked.get(i).getKey()).value());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Kelimenin her dokümandaki en iyi eşleşme skoru
+    private Map<Long, Double> match(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Double>> term : postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+            double quality = term.getKey().equals(word) ? EXACT : PREFIX;
+            term.getValue().forEach((id, weight) -> scores.merge(id, weight * quality, Math::max));
+        }
+        int maxDistance = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+        for (int length = word.length() - maxDistance; maxDistance > 0 && length <= word.length() + maxDistance; length++) {
+            for (String candidate : termsByLength.getOrDefault(length, Set.of())) {
+                if (!candidate.startsWith(word) && withinDistance(word, candidate, maxDistance)) {
+                    postings.get(candidate).forEach((id, weight) -> scores.merge(id, weight * FUZZY, Math::max));
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void unindex(Long id, Entry<T> entry) {
+        for (String term : entry.terms()) {
+            Map<Long, Double> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                    Set<String> sameLength = termsByLength.get(term.length());
+                    sameLength.remove(term);
+                    if (sameLength.isEmpty()) {
+                        termsByLength.remove(term.length());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Optimal string alignment distance (adjacent swaps count as one edit), stopping once it exceeds max. */
+    static boolean withinDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= max;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mcpprovider.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turkish-aware text folding for search: both sides are lower-cased and stripped of
+ * diacritics, so "İŞLEM", "islem" and "işlem" all become "islem". I/İ/ı are all folded
+ * to "i" because users type either form on keyboards without Turkish layout.
+ */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'İ', 'I', 'ı' -> folded.append('i');
+                case 'Ş', 'ş' -> folded.append('s');
+                case 'Ğ', 'ğ' -> folded.append('g');
+                case 'Ü', 'ü' -> folded.append('u');
+                case 'Ö', 'ö' -> folded.append('o');
+                case 'Ç', 'ç' -> folded.append('c');
+                default -> folded.append(Character.toLowerCase(c));
+            }
+        }
+        String result = folded.toString();
+        // Diğer dillerdeki aksanlar (é, â...) da düşürülür
+        if (!isAscii(result)) {
+            result = Normalizer.normalize(result, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        }
+        return result;
+    }
+
+    /** Folded words of the text; underscores split words too, so "SEND_EMAIL" gives "send", "email". */
+    public static List<String> tokens(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
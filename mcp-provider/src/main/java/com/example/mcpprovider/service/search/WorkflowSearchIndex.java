@@ -0,0 +1,44 @@
+package com.example.mcpprovider.service.search;
+
+import com.example.mcpprovider.entity.Workflow;
+import com.example.mcpprovider.repository.WorkflowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Workflow search over name, tags, category and description. Searches return workflow ids
+ * only: execution counts change on every run without a save, so callers read the current
+ * rows for the ids they get.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowSearchIndex extends EntitySearchIndex<Workflow, Long> {
+
+    private final WorkflowRepository workflowRepository;
+
+    @Override
+    protected List<Workflow> loadAll() {
+        return workflowRepository.findAll();
+    }
+
+    @Override
+    protected Long id(Workflow workflow) {
+        return workflow.getId();
+    }
+
+    @Override
+    protected Long value(Workflow workflow) {
+        return workflow.getId();
+    }
+
+    @Override
+    protected List<InvertedIndex.Field> fields(Workflow workflow) {
+        return List.of(
+            new InvertedIndex.Field(workflow.getName(), 3),
+            new InvertedIndex.Field(workflow.getTags(), 2),
+            new InvertedIndex.Field(workflow.getCategory(), 2),
+            new InvertedIndex.Field(workflow.getDescription(), 1));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.client.AiProviderClient;
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.dto.AiProviderRequest;
+import com.example.mcpprovider.dto.AiProviderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Agent nodes backed by agent-provider endpoints, plus textGenerator via ai-provider.
+ * Request bodies and defaults match the editor's api/agents.ts so a workflow gives the
+ * same results whether it runs in the browser or here.
+ */
+@Component
+@Slf4j
+public class AgentNodeHandler implements WorkflowNodeHandler {
+
+    private static final String NO_PAGE_CONTENT = "Web sayfası içeriği bulunamadı. Lütfen geçerli bir URL sağlayın.";
+
+    private final RestTemplate restTemplate;
+    private final AiProviderClient aiProviderClient;
+    private final ObjectMapper objectMapper;
+    private final String agentUrl;
+
+    public AgentNodeHandler(RestTemplateBuilder restTemplateBuilder, AiProviderClient aiProviderClient,
+                            ObjectMapper objectMapper, WorkflowExecutionConfig config) {
+        // Ajanlar dakikalar sürebilir; bağlantı kısa, okuma süresi çalıştırma süresiyle sınırlı
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(10))
+            .setReadTimeout(config.getRunTimeout())
+            .build();
+        this.aiProviderClient = aiProviderClient;
+        this.objectMapper = objectMapper;
+        this.agentUrl = config.getAgentProviderUrl() + "/api/agent";
+    }
+
+    @Override
+    public Set<String> nodeTypes() {
+        return Set.of("webSearcher", "webScraper", "translator", "youtubeSummarizer", "imageGenerator",
+            "textGenerator", "dataAnalyst");
+    }
+
+    @Override
+    public JsonNode execute(WorkflowNodeContext context) throws Exception {
+        JsonNode config = context.config();
+        ObjectNode body = objectMapper.createObjectNode();
+        String path;
+        switch (context.node().type()) {
+            case "webSearcher" -> {
+                path = "/web-searcher";
+                body.put("content", context.content());
+                body.put("language", config.path("filters").path("language").asText("en-US"));
+                body.put("maxResult", positive(config.path("maxResults").asInt(), 10));
+            }
+            case "webScraper" -> {
+                path = "/web-scrapper";
+                body.put("content", scraperContent(context.content()));
+                body.put("specialPrompt", config.path("specialPrompt").asText(
+                    "Sen bir web içerik özetleyicisin. Verilen metni özetleyeceksin"));
+                body.put("maxLink", positive(config.path("rules").path("maxPages").asInt(), 1));
+                body.put("maxDepth", config.path("rules").path("maxDepth").asInt(0));
+                body.put("model", context.model());
+                body.put("temperature", context.temperature(0.7));
+                body.put("maxTokens", context.maxTokens(4096));
+            }
+            case "translator" -> {
+                path = "/translator";
+                body.put("content", context.content());
+                body.put("model", context.model());
+                body.put("targetLanguage", config.path("targetLang").asText("TR").toUpperCase(Locale.ROOT));
+                body.put("specialPrompt", config.path("specialPrompt").asText(
+                    config.path("modelConfig").path("systemPrompt").asText(
+                        "Dil bilgisi ve anlam açısından kontrol edicisin sorun varsa ancak düzeltmelisin")));
+                body.put("temperature", context.temperature(0.7));
+                body.put("maxTokens", context.maxTokens(1000));
+            }
+            case "youtubeSummarizer" -> {
+                path = "/youtube-summarize";
+                String url = config.path("url").asText("").trim();
+                body.put("content", url.isEmpty() ? context.content() : "youtube url şu şekilde " + url);
+                body.put("specialPrompt", config.path("specialPrompt").asText(
+                    "Sen bir transkript özetleyicisin. Verilen metni özetleyeceksin"));
+                body.put("model", context.model());
+                body.put("maxTokens", context.maxTokens(1000));
+                body.put("temperature", context.temperature(0.7));
+            }
+            case "imageGenerator" -> {
+                path = "/image-generator";
+                body.put("prompt", context.content());
+                body.put("style", config.path("style").asText("realistic"));
+                body.put("size", config.path("size").asText("1024x1024"));
+                body.put("quality", config.path("quality").asText("standard"));
+            }
+            case "textGenerator" -> {
+                return generateText(context);
+            }
+            case "dataAnalyst" -> throw new IllegalStateException(
+                "dataAnalyst needs an uploaded file and can only run in the editor");
+            default -> throw new IllegalStateException("Unsupported node type: " + context.node().type());
+        }
+
+        log.debug("Workflow node {} calling agent-provider {}", context.node().id(), path);
+        JsonNode response = restTemplate.postForObject(agentUrl + path, body, JsonNode.class);
+        if (response == null) {
+            throw new IllegalStateException("Empty response from agent-provider " + path);
+        }
+        if (response.path("success").isBoolean() && !response.path("success").asBoolean()) {
+            throw new IllegalStateException(response.path("errorMessage").asText("Agent call failed"));
+        }
+        return response;
+    }
+
+    private JsonNode generateText(WorkflowNodeContext context) {
+        AiProviderRequest request = new AiProviderRequest();
+        request.setContent(context.content());
+        request.setModel(context.model());
+        request.setMaxTokens(context.maxTokens(1000));
+        request.setTemperature(context.temperature(0.7));
+        AiProviderResponse response = aiProviderClient.generateContent(request);
+        if (response == null) {
+            throw new IllegalStateException("Empty response from ai-provider");
+        }
+        if (Boolean.FALSE.equals(response.getSuccess())) {
+            throw new IllegalStateException(response.getErrorMessage());
+        }
+        return objectMapper.valueToTree(response);
+    }
+
+    // Web searcher yanıtı geldiyse içindeki content alanı kullanılır, hata yanıtı içerik sayılmaz
+    private String scraperContent(String content) {
+        String processed = content;
+        if (content.contains("\"content\"")) {
+            try {
+                JsonNode parsed = objectMapper.readTree(content);
+                if (parsed.path("success").isBoolean() && !parsed.path("success").asBoolean()) {
+                    processed = "";
+                } else {
+                    JsonNode inner = parsed.path("content");
+                    processed = inner.isTextual() ? inner.asText() : inner.isMissingNode() ? "" : inner.toString();
+                }
+            } catch (JsonProcessingException e) {
+                // JSON değil, olduğu gibi kullan
+            }
+        }
+        return processed.isBlank() ? NO_PAGE_CONTENT : processed;
+    }
+
+    private static int positive(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Server-side conditional node evaluation, following the editor's evaluateConditionalNode:
+ * a value is either a dotted path into the input ('variable') or literal text ('static');
+ * with combineOperator AND all conditions must hold, otherwise any one of them.
+ */
+public final class ConditionEvaluator {
+
+    private ConditionEvaluator() {
+    }
+
+    public static boolean evaluate(JsonNode config, JsonNode input) {
+        JsonNode conditions = config.path("conditions");
+        if (!conditions.isArray() || conditions.isEmpty()) {
+            return false;
+        }
+        boolean and = "AND".equals(config.path("combineOperator").asText());
+        for (JsonNode condition : conditions) {
+            boolean result = evaluateCondition(condition, input);
+            if (and && !result) {
+                return false;
+            }
+            if (!and && result) {
+                return true;
+            }
+        }
+        return and;
+    }
+
+    private static boolean evaluateCondition(JsonNode condition, JsonNode input) {
+        // null stands for JavaScript's undefined
+        JsonNode value1 = value(condition.path("value1"), input);
+        JsonNode value2 = value(condition.path("value2"), input);
+
+        switch (condition.path("operator").asText()) {
+            case "equals":
+                return isBooleanComparison(value1, value2) ? truthyLiteral(value1) == truthyLiteral(value2)
+                    : Objects.equals(value1, value2);
+            case "notEquals":
+                return isBooleanComparison(value1, value2) ? truthyLiteral(value1) != truthyLiteral(value2)
+                    : !Objects.equals(value1, value2);
+            case "contains":
+                return text(value1).contains(text(value2));
+            case "notContains":
+                return !text(value1).contains(text(value2));
+            case "greaterThan":
+                return number(value1) > number(value2);
+            case "lessThan":
+                return number(value1) < number(value2);
+            case "greaterThanOrEqual":
+                return number(value1) >= number(value2);
+            case "lessThanOrEqual":
+                return number(value1) <= number(value2);
+            case "startsWith":
+                return text(value1).startsWith(text(value2));
+            case "endsWith":
+                return text(value1).endsWith(text(value2));
+            case "isEmpty":
+                return !truthy(value1) || (value1.isArray() && value1.isEmpty());
+            case "isNotEmpty":
+                return truthy(value1) && !(value1.isArray() && value1.isEmpty());
+            case "like":
+                return like(value1, value2);
+            case "notLike":
+                return !like(value1, value2);
+            default:
+                return false;
+        }
+    }
+
+    private static JsonNode value(JsonNode valueConfig, JsonNode input) {
+        String value = valueConfig.path("value").asText("");
+        if (!"variable".equals(valueConfig.path("type").asText())) {
+            return TextNode.valueOf(value);
+        }
+        JsonNode result = input;
+        for (String key : value.split("\\.")) {
+            // Array indexes are path segments too, as in "items.0.amount"
+            JsonNode next = result == null ? null
+                : result.isArray() && key.matches("\\d{1,9}") ? result.get(Integer.parseInt(key))
+                : result.isObject() ? result.get(key) : null;
+            if (next == null) {
+                return null;
+            }
+            result = next;
+        }
+        return result == null || result.isNull() ? null : result;
+    }
+
+    private static boolean isBooleanComparison(JsonNode value1, JsonNode value2) {
+        return isBooleanLike(value1) || isBooleanLike(value2);
+    }
+
+    private static boolean isBooleanLike(JsonNode value) {
+        return value != null && (value.isBoolean()
+            || (value.isTextual() && ("true".equals(value.asText()) || "false".equals(value.asText()))));
+    }
+
+    private static boolean truthyLiteral(JsonNode value) {
+        return value != null && (value.isBoolean() ? value.asBoolean() : "true".equals(value.asText()));
+    }
+
+    private static boolean truthy(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return false;
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+        if (value.isNumber()) {
+            double number = value.asDouble();
+            return number != 0 && !Double.isNaN(number);
+        }
+        if (value.isTextual()) {
+            return !value.asText().isEmpty();
+        }
+        return true;
+    }
+
+    private static String text(JsonNode value) {
+        if (value == null) {
+            return "undefined";
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static double number(JsonNode value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        if (value.isNumber()) {
+            return value.asDouble();
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean() ? 1 : 0;
+        }
+        String text = value.isValueNode() ? value.asText().trim() : null;
+        if (text == null) {
+            return Double.NaN;
+        }
+        if (text.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean like(JsonNode value1, JsonNode value2) {
+        try {
+            return Pattern.compile(text(value2).replace("%", ".*"), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)
+                .matcher(text(value1)).find();
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.dto.ActionAnalysisRequest;
+import com.example.mcpprovider.service.ActionAnalysisService;
+import com.example.mcpprovider.service.FinanceActionCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finance nodes that run inside this service: aiActionAnalysis calls ActionAnalysisService
+ * directly, mcpSupplierAgent posts to the action's endpoint_path (resolved once per plan) like the editor does, with
+ * the parameters the action analysis produced for that action type. SEND_EMAIL also gets the
+ * attachment ids produced by the nodes that ran before it.
+ */
+@Component
+@Slf4j
+public class McpNodeHandler implements WorkflowNodeHandler {
+
+    static final String AI_ACTION_ANALYSIS = "aiActionAnalysis";
+
+    private final ActionAnalysisService actionAnalysisService;
+    private final FinanceActionCatalog financeActionCatalog;
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
+    private final String selfUrl;
+
+    public McpNodeHandler(ActionAnalysisService actionAnalysisService,
+                          FinanceActionCatalog financeActionCatalog,
+                          ObjectMapper objectMapper, RestTemplateBuilder restTemplateBuilder,
+                          WorkflowExecutionConfig config) {
+        this.actionAnalysisService = actionAnalysisService;
+        this.financeActionCatalog = financeActionCatalog;
+        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(5))
+            .setReadTimeout(config.getRunTimeout())
+            .build();
+        this.selfUrl = config.getSelfUrl();
+    }
+
+    @Override
+    public Set<String> nodeTypes() {
+        return Set.of(AI_ACTION_ANALYSIS, WorkflowGraph.MCP_SUPPLIER_AGENT);
+    }
+
+    @Override
+    public JsonNode execute(WorkflowNodeContext context) {
+        return AI_ACTION_ANALYSIS.equals(context.node().type()) ? analyzeAction(context) : runAction(context);
+    }
+
+    private JsonNode analyzeAction(WorkflowNodeContext context) {
+        String content = context.content();
+        if (content.isBlank()) {
+            throw new IllegalArgumentException("Content is required for action analysis");
+        }
+        ActionAnalysisRequest request = new ActionAnalysisRequest();
+        request.setContent(content);
+        request.setModel(context.model());
+        request.setCustomerNo(customerId(context.customer()));
+        request.setTemperature(context.temperature(0.7));
+        request.setMaxTokens(context.maxTokens(1000));
+        return objectMapper.valueToTree(actionAnalysisService.analyzeAction(request));
+    }
+
+    private JsonNode runAction(WorkflowNodeContext context) {
+        String actionType = context.node().actionType();
+        if (actionType == null) {
+            throw new IllegalArgumentException("mcpSupplierAgent node has no actionType");
+        }
+        // Plan derlenirken çözülen endpoint; yoksa (plan sonrası eklenen aksiyon) güncel katalogdan bakılır
+        String path = context.actionPath() != null ? context.actionPath()
+            : financeActionCatalog.snapshot().byCode(actionType)
+                .map(action -> WorkflowPlanCache.actionPath(action.getEndpointPath()))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown action type: " + actionType));
+
+        ObjectNode parameters = actionParameters(context, actionType);
+        if (!parameters.hasNonNull("customerId")) {
+            String customerId = customerId(context.customer());
+            if (customerId != null) {
+                parameters.put("customerId", customerId);
+            }
+        }
+        if (WorkflowGraph.SEND_EMAIL.equals(actionType)) {
+            addAttachments(context, parameters);
+        }
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("actionType", actionType);
+        body.setAll(parameters);
+        JsonNode customerId = parameters.path("customerId");
+        if (customerId.isTextual() && customerId.asText().matches("\\d{1,18}")) {
+            body.put("customerId", Long.parseLong(customerId.asText()));
+        }
+
+        String url = selfUrl + "/" + path;
+        log.debug("Workflow node {} running {} at {}", context.node().id(), actionType, url);
+        JsonNode data = restTemplate.postForObject(url, body, JsonNode.class);
+
+        // Editördeki executeMCPRequest özetiyle aynı biçim, ResultNode'lar aynı şekilde gösterir
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("success", true);
+        summary.put("totalActions", 1);
+        summary.put("successfulActions", 1);
+        summary.put("failedActions", 0);
+        ObjectNode result = summary.putArray("results").addObject();
+        result.put("action", actionType);
+        result.put("success", true);
+        result.set("data", data);
+        return summary;
+    }
+
+    // Aksiyon parametreleri önce AI action analysis çıktısından, yoksa node içeriğinden okunur
+    private ObjectNode actionParameters(WorkflowNodeContext context, String actionType) {
+        for (JsonNode analysis : context.ancestorOutputs(AI_ACTION_ANALYSIS)) {
+            JsonNode parameters = parseParameters(analysis.path("content").asText(""), actionType);
+            if (parameters != null) {
+                return parameters.deepCopy();
+            }
+        }
+        JsonNode parameters = parseParameters(context.content(), actionType);
+        return parameters != null ? parameters.deepCopy() : objectMapper.createObjectNode();
+    }
+
+    private ObjectNode parseParameters(String content, String actionType) {
+        int start = content.indexOf('{');
+        int end = content.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        try {
+            JsonNode parameters = objectMapper.readTree(content.substring(start, end + 1))
+                .path("parameters").path(actionType);
+            return parameters.isObject() ? (ObjectNode) parameters : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void addAttachments(WorkflowNodeContext context, ObjectNode parameters) {
+        Set<Long> attachmentIds = new LinkedHashSet<>();
+        for (WorkflowNodeContext.AncestorOutput ancestor : context.ancestors()) {
+            collectAttachmentIds(ancestor.output(), attachmentIds);
+        }
+        ArrayNode ids = parameters.putArray("attachmentIds");
+        attachmentIds.forEach(ids::add);
+        if (!attachmentIds.isEmpty() && parameters.hasNonNull("subject")) {
+            parameters.put("subject", parameters.get("subject").asText() + " (" + attachmentIds.size() + " Ek Dosya)");
+        }
+    }
+
+    private static void collectAttachmentIds(JsonNode node, Set<Long> attachmentIds) {
+        if (node == null || !node.isContainerNode()) {
+            return;
+        }
+        if (node.isArray()) {
+            node.forEach(child -> collectAttachmentIds(child, attachmentIds));
+            return;
+        }
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            String key = field.getKey().toLowerCase();
+            if (key.contains("attachment") && key.contains("id") && field.getValue().isArray()) {
+                field.getValue().forEach(id -> {
+                    if (id.canConvertToLong()) {
+                        attachmentIds.add(id.asLong());
+                    }
+                });
+            } else {
+                collectAttachmentIds(field.getValue(), attachmentIds);
+            }
+        }
+    }
+
+    private static String customerId(JsonNode customer) {
+        if (customer == null) {
+            return null;
+        }
+        for (String field : new String[] {"id", "customerNo", "customerId"}) {
+            if (customer.hasNonNull(field)) {
+                return customer.get(field).asText();
+            }
+        }
+        return null;
+    }
+}
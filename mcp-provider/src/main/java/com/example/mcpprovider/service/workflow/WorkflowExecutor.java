@@ -0,0 +1,367 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.dto.WorkflowExecuteRequest;
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.example.mcpprovider.dto.WorkflowRunResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Runs a compiled {@link WorkflowGraph}. Every node is scheduled as soon as all of its
+ * dependencies have finished, on a pool shared by all runs, so independent branches run
+ * concurrently and a run takes about as long as its critical path. Outputs are passed
+ * between nodes in memory.
+ * <p>
+ * A node is SKIPPED when none of its incoming edges is active: the source failed or was
+ * skipped, or the edge belongs to the branch a conditional did not take. A node that waits
+ * on a failed mcpSupplierAgent through SEND_EMAIL ordering fails instead, as in the editor.
+ * <p>
+ * When the run timeout passes the run completes with the nodes that have not finished
+ * reported as SKIPPED. Nodes that have not started yet are skipped without running, and
+ * events of nodes that were still running are no longer passed to the listener.
+ */
+@Service
+@Slf4j
+public class WorkflowExecutor {
+
+    private final Map<String, WorkflowNodeHandler> handlers = new HashMap<>();
+    private final WorkflowExecutionConfig config;
+    private final ObservationRegistry observationRegistry;
+    private final WorkflowRunRecorder runRecorder;
+    private final ThreadPoolExecutor pool;
+
+    public WorkflowExecutor(List<WorkflowNodeHandler> handlers, WorkflowExecutionConfig config,
+                            ObservationRegistry observationRegistry, WorkflowRunRecorder runRecorder) {
+        for (WorkflowNodeHandler handler : handlers) {
+            handler.nodeTypes().forEach(type -> this.handlers.put(type, handler));
+        }
+        this.config = config;
+        this.observationRegistry = observationRegistry;
+        this.runRecorder = runRecorder;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(config.getParallelism(), config.getParallelism(), 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "workflow-node-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // upstreamMs: time spent in the handler, i.e. waiting on agent-provider, ai-provider or an MCP endpoint
+    private record NodeOutcome(WorkflowNodeEvent event, JsonNode customer, List<JsonNode> inputs, long upstreamMs) {
+
+        boolean completed() {
+            return event.getStatus() == WorkflowNodeEvent.Status.COMPLETED;
+        }
+
+        NodeOutcome withInputs(List<JsonNode> inputs) {
+            return new NodeOutcome(event, customer, inputs, upstreamMs);
+        }
+    }
+
+    /**
+     * Starts the run and returns immediately. {@code listener} receives RUNNING and final
+     * events for every node from pool threads, one at a time; it must be fast. No event is
+     * passed to it once the returned future is completed.
+     */
+    public CompletableFuture<WorkflowRunResult> execute(WorkflowPlan plan, WorkflowExecuteRequest request,
+                                                        Consumer<WorkflowNodeEvent> listener) {
+        WorkflowGraph graph = plan.graph();
+        Long workflowId = plan.workflowId();
+        String runId = UUID.randomUUID().toString();
+        long startTime = System.currentTimeMillis();
+        Observation run = Observation.createNotStarted("mcp.workflow.run", observationRegistry)
+            .parentObservation(observationRegistry.getCurrentObservation())
+            .highCardinalityKeyValue("workflow.id", String.valueOf(workflowId))
+            .highCardinalityKeyValue("workflow.version", String.valueOf(plan.version()))
+            .highCardinalityKeyValue("run.id", runId)
+            .highCardinalityKeyValue("workflow.levels", String.valueOf(graph.levels().size()))
+            .start();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        // Çalıştırma bittikten (zaman aşımı dahil) sonra gelen node olayları dinleyiciye iletilmez
+        AtomicBoolean closed = new AtomicBoolean();
+        ReentrantLock eventLock = new ReentrantLock();
+        Consumer<WorkflowNodeEvent> events = event -> {
+            eventLock.lock();
+            try {
+                if (!closed.get()) {
+                    listener.accept(event);
+                }
+            } finally {
+                eventLock.unlock();
+            }
+        };
+        Map<String, NodeOutcome> outcomes = new ConcurrentHashMap<>();
+        List<WorkflowGraph.Node> order = graph.order();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[order.size()];
+        // Zaman aşımında sonuç, node'lar hâlâ çalışırken okunur; zamanlar bu yüzden volatile yazılır
+        AtomicLongArray readyAt = new AtomicLongArray(order.size());
+        AtomicLongArray startedAt = new AtomicLongArray(order.size());
+        AtomicLongArray finishedAt = new AtomicLongArray(order.size());
+
+        for (int position = 0; position < order.size(); position++) {
+            int index = position;
+            WorkflowGraph.Node node = order.get(position);
+            int[] dependencyPositions = graph.dependencyPositions(position);
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependencyPositions.length];
+            for (int i = 0; i < dependencyPositions.length; i++) {
+                dependencies[i] = futures[dependencyPositions[i]];
+            }
+            Runnable task = () -> withMdc(mdc, () -> {
+                if (timedOut.get()) {
+                    return;
+                }
+                startedAt.set(index, System.currentTimeMillis());
+                NodeOutcome outcome = runNode(runId, plan, node, request, outcomes, events, run);
+                finishedAt.set(index, System.currentTimeMillis());
+                outcomes.put(node.id(), outcome);
+                events.accept(outcome.event());
+            });
+            futures[position] = CompletableFuture.allOf(dependencies)
+                .thenRun(() -> readyAt.set(index, System.currentTimeMillis()))
+                .thenRunAsync(task, pool)
+                .exceptionally(error -> {
+                    // Havuz kuyruğu doluysa node hiç çalıştırılamaz
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    String message = cause instanceof RejectedExecutionException
+                        ? "Workflow executor is busy" : String.valueOf(cause.getMessage());
+                    NodeOutcome outcome = finished(runId, node, WorkflowNodeEvent.Status.FAILED, null, null,
+                        message, 0, null);
+                    outcomes.put(node.id(), outcome);
+                    events.accept(outcome.event());
+                    return null;
+                });
+        }
+
+        return CompletableFuture.allOf(futures)
+            .orTimeout(config.getRunTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .handle((ignored, error) -> {
+                if (error instanceof TimeoutException) {
+                    timedOut.set(true);
+                }
+                eventLock.lock();
+                try {
+                    closed.set(true);
+                } finally {
+                    eventLock.unlock();
+                }
+                List<WorkflowNodeEvent> nodes = new ArrayList<>();
+                List<WorkflowRunRecord.NodeRun> nodeRuns = new ArrayList<>();
+                int failed = 0;
+                int skipped = 0;
+                for (int position = 0; position < order.size(); position++) {
+                    WorkflowGraph.Node node = order.get(position);
+                    NodeOutcome outcome = outcomes.get(node.id());
+                    boolean done = outcome != null;
+                    if (!done) {
+                        outcome = finished(runId, node, WorkflowNodeEvent.Status.SKIPPED, null, null, "Run timed out", 0, null);
+                    }
+                    WorkflowNodeEvent event = outcome.event();
+                    nodes.add(event);
+                    // Zaman aşımında hâlâ çalışan node kayda başlamamış gibi girer
+                    nodeRuns.add(new WorkflowRunRecord.NodeRun(node.id(), node.type(), event.getStatus(),
+                        readyAt.get(position), done ? startedAt.get(position) : 0, done ? finishedAt.get(position) : 0,
+                        outcome.upstreamMs(), outcome.inputs(), event.getOutput(), event.getError()));
+                    failed += event.getStatus() == WorkflowNodeEvent.Status.FAILED ? 1 : 0;
+                    skipped += event.getStatus() == WorkflowNodeEvent.Status.SKIPPED ? 1 : 0;
+                }
+                boolean success = failed == 0 && !timedOut.get();
+                run.lowCardinalityKeyValue("outcome", timedOut.get() ? "timeout" : success ? "success" : "failure");
+                run.stop();
+                long durationMs = System.currentTimeMillis() - startTime;
+                log.info("Workflow {} run {} finished in {} ms: {} nodes, {} failed, {} skipped{}",
+                    workflowId, runId, durationMs, nodes.size(), failed, skipped, timedOut.get() ? ", timed out" : "");
+                runRecorder.record(new WorkflowRunRecord(runId, workflowId, plan.version(), success, timedOut.get(),
+                    startTime, startTime + durationMs, nodeRuns));
+                return new WorkflowRunResult(runId, workflowId, success, timedOut.get(), nodes.size(), failed, skipped,
+                    durationMs, nodes);
+            });
+    }
+
+    private NodeOutcome runNode(String runId, WorkflowPlan plan, WorkflowGraph.Node node,
+                                WorkflowExecuteRequest request, Map<String, NodeOutcome> outcomes,
+                                Consumer<WorkflowNodeEvent> listener, Observation run) {
+        WorkflowGraph graph = plan.graph();
+        // SEND_EMAIL ordering: a failed prerequisite action fails the email, as in the editor
+        for (String dependency : graph.orderingDependencies(node.id())) {
+            if (outcomes.get(dependency).event().getStatus() == WorkflowNodeEvent.Status.FAILED) {
+                return finished(runId, node, WorkflowNodeEvent.Status.FAILED, null, null,
+                    "Prerequisite node " + dependency + " failed", 0, null);
+            }
+        }
+
+        List<JsonNode> inputs = new ArrayList<>();
+        JsonNode inheritedCustomer = null;
+        for (WorkflowGraph.Edge edge : graph.incoming(node.id())) {
+            NodeOutcome source = outcomes.get(edge.source());
+            if (!source.completed() || !edgeActive(graph.node(edge.source()), edge, source.event())) {
+                continue;
+            }
+            inputs.add(source.event().getOutput() != null ? source.event().getOutput() : NullNode.getInstance());
+            if (source.customer() != null) {
+                inheritedCustomer = source.customer();
+            }
+        }
+        if (!graph.incoming(node.id()).isEmpty() && inputs.isEmpty()) {
+            return finished(runId, node, WorkflowNodeEvent.Status.SKIPPED, null, null, null, 0, inheritedCustomer);
+        }
+        return runActive(runId, plan, node, inputs, inheritedCustomer, request, outcomes, listener, run)
+            .withInputs(inputs);
+    }
+
+    private NodeOutcome runActive(String runId, WorkflowPlan plan, WorkflowGraph.Node node, List<JsonNode> inputs,
+                                  JsonNode inheritedCustomer, WorkflowExecuteRequest request,
+                                  Map<String, NodeOutcome> outcomes, Consumer<WorkflowNodeEvent> listener,
+                                  Observation run) {
+
+        listener.accept(WorkflowNodeEvent.builder()
+            .runId(runId).nodeId(node.id()).nodeType(node.type())
+            .status(WorkflowNodeEvent.Status.RUNNING)
+            .build());
+        long start = System.currentTimeMillis();
+        JsonNode input = inputs.isEmpty() ? null : inputs.get(0);
+
+        switch (node.kind()) {
+            case CONDITIONAL -> {
+                boolean result = ConditionEvaluator.evaluate(node.config(), input);
+                return finished(runId, node, WorkflowNodeEvent.Status.COMPLETED, input, result, null,
+                    System.currentTimeMillis() - start, inheritedCustomer);
+            }
+            case RESULT -> {
+                return finished(runId, node, WorkflowNodeEvent.Status.COMPLETED, input, null, null,
+                    System.currentTimeMillis() - start, inheritedCustomer);
+            }
+            default -> {
+                return runAgent(runId, plan, node, inputs, customer(node, inheritedCustomer, request), request,
+                    outcomes, run, start);
+            }
+        }
+    }
+
+    private NodeOutcome runAgent(String runId, WorkflowPlan plan, WorkflowGraph.Node node, List<JsonNode> inputs,
+                                 JsonNode customer, WorkflowExecuteRequest request,
+                                 Map<String, NodeOutcome> outcomes, Observation run, long start) {
+        WorkflowNodeHandler handler = handlers.get(node.type());
+        if (handler == null) {
+            return finished(runId, node, WorkflowNodeEvent.Status.FAILED, null, null,
+                "Unsupported node type: " + node.type(), 0, customer);
+        }
+        List<WorkflowNodeContext.AncestorOutput> ancestors = new ArrayList<>();
+        for (WorkflowGraph.Node ancestor : plan.graph().ancestorsInOrder(node.id())) {
+            NodeOutcome outcome = outcomes.get(ancestor.id());
+            if (outcome.completed() && outcome.event().getOutput() != null) {
+                ancestors.add(new WorkflowNodeContext.AncestorOutput(ancestor, outcome.event().getOutput()));
+            }
+        }
+        WorkflowNodeContext context = new WorkflowNodeContext(node, inputs, customer, ancestors,
+            request != null ? request.getContent() : null, plan.actionPath(node.actionType()));
+
+        Observation observation = Observation.createNotStarted("mcp.workflow.node", observationRegistry)
+            .parentObservation(run)
+            .lowCardinalityKeyValue("node.type", node.type())
+            .highCardinalityKeyValue("node.id", node.id())
+            .start();
+        long handlerStart = System.currentTimeMillis();
+        try (Observation.Scope scope = observation.openScope()) {
+            JsonNode output = handler.execute(context);
+            long end = System.currentTimeMillis();
+            // aiActionAnalysis ve MCP aksiyonlarının döndürdüğü müşteri sonraki node'larda geçerli olur
+            JsonNode outputCustomer = output != null && output.path("customer").isObject() ? output.get("customer") : customer;
+            return finished(runId, node, WorkflowNodeEvent.Status.COMPLETED, output, null, null,
+                end - start, outputCustomer, end - handlerStart);
+        } catch (Exception e) {
+            long end = System.currentTimeMillis();
+            observation.error(e);
+            log.warn("Workflow node {} ({}) failed: {}", node.id(), node.type(), e.getMessage());
+            return finished(runId, node, WorkflowNodeEvent.Status.FAILED, null, null,
+                e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(),
+                end - start, customer, end - handlerStart);
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private static boolean edgeActive(WorkflowGraph.Node source, WorkflowGraph.Edge edge, WorkflowNodeEvent event) {
+        if (source.kind() != WorkflowGraph.Kind.CONDITIONAL) {
+            return true;
+        }
+        boolean result = Boolean.TRUE.equals(event.getConditionResult());
+        return ("true".equals(edge.sourceHandle()) && result) || ("false".equals(edge.sourceHandle()) && !result);
+    }
+
+    // Node'un kendi seçtiği müşteri, yoksa önceki node'lardan gelen, yoksa isteğin müşterisi
+    private static JsonNode customer(WorkflowGraph.Node node, JsonNode inherited, WorkflowExecuteRequest request) {
+        JsonNode selected = node.config().path("selectedCustomer");
+        if (selected.isObject()) {
+            return selected;
+        }
+        if (inherited != null) {
+            return inherited;
+        }
+        return request != null && request.getCustomer() != null && request.getCustomer().isObject()
+            ? request.getCustomer() : null;
+    }
+
+    private static NodeOutcome finished(String runId, WorkflowGraph.Node node, WorkflowNodeEvent.Status status,
+                                        JsonNode output, Boolean conditionResult, String error, long durationMs,
+                                        JsonNode customer) {
+        return finished(runId, node, status, output, conditionResult, error, durationMs, customer, 0);
+    }
+
+    private static NodeOutcome finished(String runId, WorkflowGraph.Node node, WorkflowNodeEvent.Status status,
+                                        JsonNode output, Boolean conditionResult, String error, long durationMs,
+                                        JsonNode customer, long upstreamMs) {
+        WorkflowNodeEvent event = WorkflowNodeEvent.builder()
+            .runId(runId).nodeId(node.id()).nodeType(node.type())
+            .status(status).output(output).conditionResult(conditionResult).error(error)
+            .durationMs(status == WorkflowNodeEvent.Status.SKIPPED ? null : durationMs)
+            .build();
+        return new NodeOutcome(event, customer, List.of(), upstreamMs);
+    }
+
+    private static void withMdc(Map<String, String> mdc, Runnable task) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            task.run();
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A saved workflow (React Flow nodesData/edgesData JSON) compiled into an executable DAG.
+ * <ul>
+ *   <li>result nodes only display data; edges leaving them are ignored</li>
+ *   <li>a SEND_EMAIL action waits for every other mcpSupplierAgent node that does not
+ *       come after it, since those produce its attachments. The editor got this from
+ *       running nodes one by one; here it is an ordering dependency that carries no data</li>
+ *   <li>graphs with a cycle are rejected with IllegalArgumentException</li>
+ * </ul>
+ * Everything a run needs is computed once here: execution order, dependency positions,
+ * topological levels and the ancestors of every node. A compiled graph is immutable and
+ * can be shared by concurrent runs.
+ */
+public final class WorkflowGraph {
+
+    public static final String MCP_SUPPLIER_AGENT = "mcpSupplierAgent";
+    public static final String SEND_EMAIL = "SEND_EMAIL";
+
+    public enum Kind { AGENT, CONDITIONAL, RESULT }
+
+    public record Node(String id, String type, Kind kind, JsonNode config) {
+
+        public String actionType() {
+            return config.path("actionType").asText(null);
+        }
+
+        boolean isMcpAction(String actionType) {
+            return MCP_SUPPLIER_AGENT.equals(type) && actionType.equals(actionType());
+        }
+    }
+
+    public record Edge(String source, String target, String sourceHandle) {
+    }
+
+    private final Map<String, Node> nodes;
+    private final List<Node> order;
+    private final Map<String, List<Edge>> incoming;
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, Set<String>> ancestors;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final int[][] dependencyPositions;
+    private final Map<String, List<Node>> ancestorsInOrder = new HashMap<>();
+    private final Map<String, Set<String>> orderingDependencies = new HashMap<>();
+    private final List<List<Node>> levels;
+
+    private WorkflowGraph(Map<String, Node> nodes, List<Node> order, Map<String, List<Edge>> incoming,
+                          Map<String, Set<String>> dependencies, Map<String, Set<String>> ancestors) {
+        this.nodes = nodes;
+        this.order = order;
+        this.incoming = incoming;
+        this.dependencies = dependencies;
+        this.ancestors = ancestors;
+
+        for (int i = 0; i < order.size(); i++) {
+            positions.put(order.get(i).id(), i);
+        }
+        dependencyPositions = new int[order.size()][];
+        int[] level = new int[order.size()];
+        List<List<Node>> levelNodes = new ArrayList<>();
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            dependencyPositions[i] = dependencies.get(node.id()).stream().mapToInt(positions::get).toArray();
+            for (int dependency : dependencyPositions[i]) {
+                level[i] = Math.max(level[i], level[dependency] + 1);
+            }
+            if (level[i] == levelNodes.size()) {
+                levelNodes.add(new ArrayList<>());
+            }
+            levelNodes.get(level[i]).add(node);
+
+            Set<String> nodeAncestors = ancestors.get(node.id());
+            ancestorsInOrder.put(node.id(), order.subList(0, i).stream()
+                .filter(candidate -> nodeAncestors.contains(candidate.id())).toList());
+            Set<String> ordering = new LinkedHashSet<>(dependencies.get(node.id()));
+            incoming.get(node.id()).forEach(edge -> ordering.remove(edge.source()));
+            orderingDependencies.put(node.id(), Collections.unmodifiableSet(ordering));
+        }
+        levelNodes.replaceAll(List::copyOf);
+        this.levels = List.copyOf(levelNodes);
+    }
+
+    public static WorkflowGraph compile(ObjectMapper objectMapper, String nodesData, String edgesData) {
+        Map<String, Node> nodes = new LinkedHashMap<>();
+        for (JsonNode json : readArray(objectMapper, nodesData, "nodesData")) {
+            String id = json.path("id").asText(null);
+            if (id == null || id.isEmpty()) {
+                throw new IllegalArgumentException("Workflow node without id");
+            }
+            JsonNode data = json.path("data");
+            String type = data.path("type").asText(json.path("type").asText(""));
+            Kind kind = "resultNode".equals(json.path("type").asText()) ? Kind.RESULT
+                : "conditional".equals(type) ? Kind.CONDITIONAL : Kind.AGENT;
+            JsonNode config = data.path("config").isObject() ? data.path("config") : MissingNode.getInstance();
+            if (nodes.put(id, new Node(id, type, kind, config)) != null) {
+                throw new IllegalArgumentException("Duplicate workflow node id: " + id);
+            }
+        }
+
+        Map<String, List<Edge>> incoming = new HashMap<>();
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        for (String id : nodes.keySet()) {
+            incoming.put(id, new ArrayList<>());
+            dependencies.put(id, new LinkedHashSet<>());
+        }
+        for (JsonNode json : readArray(objectMapper, edgesData, "edgesData")) {
+            Edge edge = new Edge(json.path("source").asText(null), json.path("target").asText(null),
+                json.path("sourceHandle").asText(null));
+            if (!nodes.containsKey(edge.source()) || !nodes.containsKey(edge.target())) {
+                throw new IllegalArgumentException("Edge references unknown node: " + edge.source() + " -> " + edge.target());
+            }
+            if (nodes.get(edge.source()).kind() == Kind.RESULT) {
+                continue;
+            }
+            incoming.get(edge.target()).add(edge);
+            dependencies.get(edge.target()).add(edge.source());
+        }
+
+        addSendEmailOrdering(nodes, dependencies);
+        List<Node> order = topologicalOrder(nodes, dependencies);
+
+        Map<String, Set<String>> ancestors = new HashMap<>();
+        for (Node node : order) {
+            Set<String> nodeAncestors = new HashSet<>();
+            for (String dependency : dependencies.get(node.id())) {
+                nodeAncestors.add(dependency);
+                nodeAncestors.addAll(ancestors.get(dependency));
+            }
+            ancestors.put(node.id(), Collections.unmodifiableSet(nodeAncestors));
+        }
+        incoming.replaceAll((id, edges) -> List.copyOf(edges));
+        dependencies.replaceAll((id, deps) -> Collections.unmodifiableSet(deps));
+        return new WorkflowGraph(Collections.unmodifiableMap(nodes), List.copyOf(order), incoming, dependencies, ancestors);
+    }
+
+    private static Iterable<JsonNode> readArray(ObjectMapper objectMapper, String json, String field) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            JsonNode array = objectMapper.readTree(json);
+            if (!array.isArray()) {
+                throw new IllegalArgumentException(field + " is not a JSON array");
+            }
+            return array;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(field + " is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void addSendEmailOrdering(Map<String, Node> nodes, Map<String, Set<String>> dependencies) {
+        for (Node sendEmail : nodes.values()) {
+            if (!sendEmail.isMcpAction(SEND_EMAIL)) {
+                continue;
+            }
+            Set<String> descendants = descendants(sendEmail.id(), dependencies);
+            for (Node other : nodes.values()) {
+                if (MCP_SUPPLIER_AGENT.equals(other.type()) && !SEND_EMAIL.equals(other.actionType())
+                    && !descendants.contains(other.id())) {
+                    dependencies.get(sendEmail.id()).add(other.id());
+                }
+            }
+        }
+    }
+
+    private static Set<String> descendants(String id, Map<String, Set<String>> dependencies) {
+        Set<String> result = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(List.of(id));
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            dependencies.forEach((node, deps) -> {
+                if (deps.contains(current) && result.add(node)) {
+                    pending.push(node);
+                }
+            });
+        }
+        return result;
+    }
+
+    // Kahn's algorithm; ties keep the editor's node order
+    private static List<Node> topologicalOrder(Map<String, Node> nodes, Map<String, Set<String>> dependencies) {
+        Map<String, Integer> remaining = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+        for (Node node : nodes.values()) {
+            Set<String> deps = dependencies.get(node.id());
+            remaining.put(node.id(), deps.size());
+            deps.forEach(dep -> dependents.computeIfAbsent(dep, key -> new ArrayList<>()).add(node.id()));
+            if (deps.isEmpty()) {
+                ready.add(node.id());
+            }
+        }
+        List<Node> order = new ArrayList<>(nodes.size());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            order.add(nodes.get(id));
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != nodes.size()) {
+            List<String> cyclic = remaining.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0).map(Map.Entry::getKey).sorted().toList();
+            throw new IllegalArgumentException("Workflow graph has a cycle through nodes " + cyclic);
+        }
+        return order;
+    }
+
+    public Node node(String id) {
+        return nodes.get(id);
+    }
+
+    /** Nodes ordered so that every node comes after its dependencies. */
+    public List<Node> order() {
+        return order;
+    }
+
+    /** Edges carrying data into the node (edges from result nodes excluded). */
+    public List<Edge> incoming(String id) {
+        return incoming.get(id);
+    }
+
+    /** Nodes that must finish before this one runs: data edges plus ordering dependencies. */
+    public Set<String> dependencies(String id) {
+        return dependencies.get(id);
+    }
+
+    /** Positions in {@link #order()} of the nodes that must finish before the node at {@code position}. */
+    public int[] dependencyPositions(int position) {
+        return dependencyPositions[position].clone();
+    }
+
+    /** Dependencies that carry no data, only ordering (SEND_EMAIL after the other actions). */
+    public Set<String> orderingDependencies(String id) {
+        return orderingDependencies.get(id);
+    }
+
+    public Set<String> ancestors(String id) {
+        return ancestors.get(id);
+    }
+
+    /** Every node this one depends on, directly or not, in execution order. */
+    public List<Node> ancestorsInOrder(String id) {
+        return ancestorsInOrder.get(id);
+    }
+
+    /**
+     * Nodes grouped by topological level: level 0 has no dependencies and every node
+     * comes one level after its deepest dependency. The level count is the length of
+     * the critical path.
+     */
+    public List<List<Node>> levels() {
+        return levels;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * What a node sees when it runs: its config, the outputs of the edges that are active
+ * for it (conditional branches not taken are left out), the customer in effect and
+ * the outputs of every node that finished before it in the same run. {@code actionPath} is
+ * the endpoint the plan resolved for an mcpSupplierAgent node's action, null otherwise.
+ */
+public record WorkflowNodeContext(WorkflowGraph.Node node, List<JsonNode> inputs, JsonNode customer,
+                                  List<AncestorOutput> ancestors, String defaultContent, String actionPath) {
+
+    static final String DEFAULT_MODEL = "huggingface/deepseek/deepseek-v3-0324";
+
+    public record AncestorOutput(WorkflowGraph.Node node, JsonNode output) {
+    }
+
+    public JsonNode config() {
+        return node.config();
+    }
+
+    /**
+     * Content sent to the agent, as in the editor: the {@code content} field of the
+     * previous node's output, or the whole output as JSON when it has none. Outputs of
+     * parallel branches that join here are separated by a blank line. Nodes without
+     * inputs use their own {@code content} setting.
+     */
+    public String content() {
+        if (inputs.isEmpty()) {
+            String own = node.config().path("content").asText("");
+            return own.isEmpty() && defaultContent != null ? defaultContent : own;
+        }
+        StringBuilder content = new StringBuilder();
+        for (JsonNode input : inputs) {
+            if (!content.isEmpty()) {
+                content.append("\n\n");
+            }
+            JsonNode field = input.path("content");
+            if (field.isMissingNode() || field.isNull()) {
+                content.append(input.isTextual() ? input.asText() : input.toString());
+            } else {
+                content.append(field.isTextual() ? field.asText() : field.toString());
+            }
+        }
+        return content.toString();
+    }
+
+    /** {@code type/model} string from modelConfig, the format agent- and ai-provider expect. */
+    public String model() {
+        JsonNode modelConfig = node.config().path("modelConfig");
+        if (!modelConfig.hasNonNull("type") || !modelConfig.hasNonNull("model")) {
+            return DEFAULT_MODEL;
+        }
+        return modelConfig.get("type").asText() + "/" + modelConfig.get("model").asText();
+    }
+
+    public double temperature(double defaultValue) {
+        double value = node.config().path("modelConfig").path("temperature").asDouble(0);
+        return value != 0 ? value : defaultValue;
+    }
+
+    public int maxTokens(int defaultValue) {
+        int value = node.config().path("modelConfig").path("maxTokens").asInt(0);
+        return value != 0 ? value : defaultValue;
+    }
+
+    /** Outputs of earlier nodes of the given type, in execution order. */
+    public List<JsonNode> ancestorOutputs(String nodeType) {
+        return ancestors.stream()
+            .filter(ancestor -> nodeType.equals(ancestor.node().type()))
+            .map(AncestorOutput::output)
+            .toList();
+    }
+}
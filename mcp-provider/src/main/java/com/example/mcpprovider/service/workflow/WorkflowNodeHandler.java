@@ -0,0 +1,22 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Set;
+
+/**
+ * Runs one kind of agent node on the server. Implementations are Spring beans and are
+ * picked by the node's {@code data.type}; they are called concurrently from the
+ * workflow pool and must not keep per-run state.
+ */
+public interface WorkflowNodeHandler {
+
+    /** {@code data.type} values this handler runs, e.g. {@code webSearcher}. */
+    Set<String> nodeTypes();
+
+    /**
+     * Returns the node's output, which becomes the input of its successors. Throwing
+     * marks the node FAILED and skips the nodes that depend on it.
+     */
+    JsonNode execute(WorkflowNodeContext context) throws Exception;
+}
@@ -0,0 +1,20 @@
+package com.example.mcpprovider.service.workflow;
+
+import java.util.Map;
+
+/**
+ * A saved workflow ready to run: the compiled graph plus the endpoint of every finance
+ * action its mcpSupplierAgent nodes use, resolved from finance_action_types. Built once
+ * per workflow version by {@link WorkflowPlanCache}.
+ *
+ * @param active         {@code Workflow.isActive} of this version; inactive workflows are not executed
+ * @param actionPaths    action type code to the path under the service root, e.g. "api/transactions/statement"
+ * @param catalogVersion version of the finance action catalog the paths were resolved from
+ */
+public record WorkflowPlan(Long workflowId, Integer version, boolean active, WorkflowGraph graph,
+                           Map<String, String> actionPaths, long catalogVersion) {
+
+    public String actionPath(String actionType) {
+        return actionType == null ? null : actionPaths.get(actionType);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.entity.Workflow;
+import com.example.mcpprovider.repository.WorkflowRepository;
+import com.example.mcpprovider.service.FinanceActionCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiled execution plans of saved workflows, keyed by workflow id and tagged with the
+ * {@code Workflow.version} they were built from. Every hit is checked against the current
+ * version with a single-column primary key lookup, so a workflow saved through another
+ * replica is recompiled here on its next run; the graph JSON is only loaded and parsed on
+ * a miss or a version change. WorkflowService also evicts a workflow whenever it changes
+ * the row, repeated after commit, so this replica drops the old plan right away. A plan
+ * built from an older finance action catalog is rebuilt on its next use, so endpoint
+ * changes take effect too. The cache is bounded by
+ * {@code workflow.execution.plan-cache-max-entries}.
+ */
+@Component
+@Slf4j
+public class WorkflowPlanCache {
+
+    private final WorkflowRepository workflowRepository;
+    private final FinanceActionCatalog financeActionCatalog;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<Long, WorkflowPlan> plans;
+
+    public WorkflowPlanCache(WorkflowRepository workflowRepository, FinanceActionCatalog financeActionCatalog,
+                             ObjectMapper objectMapper, WorkflowExecutionConfig config) {
+        this.workflowRepository = workflowRepository;
+        this.financeActionCatalog = financeActionCatalog;
+        this.objectMapper = objectMapper;
+        this.plans = Caffeine.newBuilder()
+            .maximumSize(config.getPlanCacheMaxEntries())
+            .build();
+    }
+
+    /**
+     * Returns the plan of the current version of the workflow, compiling it on a miss.
+     * Empty when the workflow does not exist; IllegalArgumentException when its graph is
+     * not a valid DAG.
+     */
+    public Optional<WorkflowPlan> get(Long workflowId) {
+        FinanceActionCatalog.Snapshot catalog = financeActionCatalog.snapshot();
+        WorkflowPlan plan = plans.getIfPresent(workflowId);
+        if (plan != null && plan.catalogVersion() == catalog.version()) {
+            Optional<Integer> version = workflowRepository.findVersionById(workflowId);
+            if (version.isEmpty()) {
+                plans.invalidate(workflowId);
+                return Optional.empty();
+            }
+            if (version.get().equals(plan.version())) {
+                return Optional.of(plan);
+            }
+            log.debug("Workflow {} changed from v{} to v{}, recompiling", workflowId, plan.version(), version.get());
+        }
+        Optional<WorkflowPlan> compiled = workflowRepository.findById(workflowId)
+            .map(workflow -> compile(workflow, catalog));
+        compiled.ifPresent(this::put);
+        return compiled;
+    }
+
+    public void evict(Long workflowId) {
+        plans.invalidate(workflowId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    plans.invalidate(workflowId);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return plans.estimatedSize();
+    }
+
+    private WorkflowPlan compile(Workflow workflow, FinanceActionCatalog.Snapshot catalog) {
+        long start = System.nanoTime();
+        WorkflowGraph graph = WorkflowGraph.compile(objectMapper, workflow.getNodesData(), workflow.getEdgesData());
+        Map<String, String> actionPaths = new HashMap<>();
+        for (WorkflowGraph.Node node : graph.order()) {
+            String actionType = node.actionType();
+            if (WorkflowGraph.MCP_SUPPLIER_AGENT.equals(node.type()) && actionType != null
+                && !actionPaths.containsKey(actionType)) {
+                // Bilinmeyen aksiyonlar plana girmez, node çalışırken hatayı kendisi verir
+                catalog.byCode(actionType)
+                    .ifPresent(action -> actionPaths.put(actionType, actionPath(action.getEndpointPath())));
+            }
+        }
+        log.debug("Compiled workflow {} v{} ({} nodes, {} levels) in {} µs", workflow.getId(), workflow.getVersion(),
+            graph.size(), graph.levels().size(), (System.nanoTime() - start) / 1000);
+        // Aktiflik değişikliği sürümü artırır, plan her zaman güncel durumu taşır
+        return new WorkflowPlan(workflow.getId(), workflow.getVersion(), Boolean.TRUE.equals(workflow.getIsActive()),
+            graph, Map.copyOf(actionPaths), catalog.version());
+    }
+
+    // Aynı anda derlenen iki plandan eskisi yenisinin üzerine yazılmaz
+    private void put(WorkflowPlan plan) {
+        plans.asMap().merge(plan.workflowId(), plan, (current, candidate) ->
+            candidate.version() >= current.version() && candidate.catalogVersion() >= current.catalogVersion()
+                ? candidate : current);
+    }
+
+    /** endpoint_path of an action as a path under the service root, always starting with "api/". */
+    static String actionPath(String endpointPath) {
+        String path = endpointPath.trim().replaceFirst("^/+", "");
+        return path.startsWith("api/") ? path : "api/" + path;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * A finished run as handed to {@link WorkflowRunRecorder}. Times are epoch milliseconds;
+ * payloads are kept as JSON trees and measured on the writer thread, not on the run.
+ */
+public record WorkflowRunRecord(String runId, Long workflowId, Integer workflowVersion, boolean success,
+                                boolean timedOut, long startedAt, long finishedAt, List<NodeRun> nodes) {
+
+    /**
+     * @param readyAt    when the last dependency finished; 0 if the node never got there
+     * @param startedAt  when a pool thread picked the node up; 0 if it never ran
+     * @param upstreamMs time spent waiting on agent-provider, ai-provider or an MCP endpoint
+     */
+    public record NodeRun(String nodeId, String nodeType, WorkflowNodeEvent.Status status, long readyAt,
+                          long startedAt, long finishedAt, long upstreamMs, List<JsonNode> inputs,
+                          JsonNode output, String error) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes finished workflow runs to the history tables off the execution path. A run is
+ * only offered to a bounded queue; one background thread drains it in batches, measures
+ * payload sizes and inserts each batch with JDBC batching. When the queue is full the run
+ * is dropped and counted rather than slowing workflows down. Once a day the thread also
+ * opens next month's partitions and drops the ones past retention.
+ */
+@Component
+@Slf4j
+public class WorkflowRunRecorder {
+
+    private static final long MAINTENANCE_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final WorkflowRunStore store;
+    private final ObjectMapper objectMapper;
+    private final WorkflowExecutionConfig config;
+    private final BlockingQueue<WorkflowRunRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public WorkflowRunRecorder(WorkflowRunStore store, ObjectMapper objectMapper, WorkflowExecutionConfig config) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getHistoryQueueCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isHistoryEnabled()) {
+            log.info("Workflow run history is disabled");
+            return;
+        }
+        writer = new Thread(this::writeLoop, "workflow-run-history");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Kesme yok: yazılmakta olan batch JDBC ortasında bölünmesin, kuyrukta kalanlar da yazılır
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void record(WorkflowRunRecord run) {
+        if (config.isHistoryEnabled() && !queue.offer(run)) {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Workflow run history queue is full, {} runs not recorded so far", total);
+            }
+        }
+    }
+
+    public long droppedRuns() {
+        return dropped.get();
+    }
+
+    private void writeLoop() {
+        long nextMaintenance = 0;
+        List<WorkflowRunRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running && System.currentTimeMillis() >= nextMaintenance) {
+                    maintain();
+                    nextMaintenance = System.currentTimeMillis() + MAINTENANCE_INTERVAL_MS;
+                }
+                WorkflowRunRecord first = queue.poll(config.getHistoryFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, config.getHistoryBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<WorkflowRunRecord> batch) {
+        try {
+            List<WorkflowRunStore.RunRow> rows = new ArrayList<>(batch.size());
+            for (WorkflowRunRecord run : batch) {
+                List<WorkflowRunStore.NodeRow> nodes = new ArrayList<>(run.nodes().size());
+                for (WorkflowRunRecord.NodeRun node : run.nodes()) {
+                    long inputBytes = 0;
+                    for (JsonNode input : node.inputs()) {
+                        inputBytes += sizeOf(input);
+                    }
+                    nodes.add(new WorkflowRunStore.NodeRow(node, inputBytes, sizeOf(node.output())));
+                }
+                rows.add(new WorkflowRunStore.RunRow(run, nodes));
+            }
+            store.insert(rows);
+        } catch (Exception e) {
+            log.warn("Could not write {} workflow runs to history: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void maintain() {
+        try {
+            YearMonth now = YearMonth.now();
+            store.ensurePartition(now);
+            store.ensurePartition(now.plusMonths(1));
+            store.dropPartitionsBefore(now.minusMonths(config.getHistoryRetentionMonths()));
+        } catch (Exception e) {
+            log.warn("Workflow run history maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    // JSON'u String'e çevirmeden UTF-8 bayt sayısını ölçer
+    private long sizeOf(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return 0;
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            objectMapper.writeValue(out, node);
+        } catch (IOException e) {
+            return 0;
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
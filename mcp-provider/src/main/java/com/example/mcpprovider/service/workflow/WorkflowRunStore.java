@@ -0,0 +1,192 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.example.mcpprovider.dto.WorkflowNodeLatencyDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC access to workflow_runs / workflow_node_runs. Both tables are range-partitioned
+ * by month on started_at: partitions are created on demand before a batch is inserted
+ * and whole months are dropped once they fall out of the retention window, so neither
+ * writes nor retention ever run row-by-row DELETEs.
+ * <p>
+ * Partition names are only ever built by {@link #partitionName} from a table of this store
+ * and a month, as {@code <table>_yYYYYmMM}, and checked against that shape before they
+ * reach DDL. Partitions found in the catalog are dropped only when their name is exactly
+ * the one this store would have built for that month.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowRunStore {
+
+    private static final String SCHEMA_SCRIPT = "db/migration/V1_0_9__Create_workflow_run_tables.sql";
+    private static final List<String> TABLES = List.of("workflow_runs", "workflow_node_runs");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(workflow_runs|workflow_node_runs)_y(\\d{4})m(0[1-9]|1[0-2])$");
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_RUN = "INSERT INTO workflow_runs (run_id, workflow_id, workflow_version, status, "
+        + "node_count, failed_nodes, skipped_nodes, started_at, finished_at, duration_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NODE_RUN = "INSERT INTO workflow_node_runs (run_id, node_id, node_type, workflow_id, "
+        + "status, started_at, finished_at, duration_ms, queue_wait_ms, upstream_latency_ms, input_bytes, output_bytes, error) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NODE_LATENCY = "SELECT node_type, COUNT(*) AS executions, "
+        + "COUNT(*) FILTER (WHERE status = 'FAILED') AS failures, "
+        + "percentile_cont(0.5) WITHIN GROUP (ORDER BY duration_ms) AS p50, "
+        + "percentile_cont(0.95) WITHIN GROUP (ORDER BY duration_ms) AS p95, "
+        + "percentile_cont(0.5) WITHIN GROUP (ORDER BY upstream_latency_ms) AS upstream_p50, "
+        + "percentile_cont(0.95) WITHIN GROUP (ORDER BY upstream_latency_ms) AS upstream_p95, "
+        + "AVG(queue_wait_ms) AS queue_wait, AVG(input_bytes) AS input_bytes, AVG(output_bytes) AS output_bytes "
+        + "FROM workflow_node_runs WHERE started_at >= ? AND status IN ('COMPLETED', 'FAILED') "
+        + "AND (CAST(? AS BIGINT) IS NULL OR workflow_id = ?) "
+        + "GROUP BY node_type ORDER BY p95 DESC";
+
+    /** A node run with its payload sizes already measured. */
+    public record NodeRow(WorkflowRunRecord.NodeRun node, long inputBytes, long outputBytes) {
+    }
+
+    public record RunRow(WorkflowRunRecord run, List<NodeRow> nodes) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+    private volatile boolean schemaReady;
+
+    public void ensureSchema() {
+        if (!schemaReady) {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(
+                Objects.requireNonNull(jdbcTemplate.getDataSource()));
+            schemaReady = true;
+        }
+    }
+
+    public void ensurePartition(YearMonth month) {
+        if (partitions.contains(month)) {
+            return;
+        }
+        ensureSchema();
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        for (String table : TABLES) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+        partitions.add(month);
+    }
+
+    /** Drops monthly partitions that ended before {@code oldestKept}; returns how many were dropped. */
+    public int dropPartitionsBefore(YearMonth oldestKept) {
+        ensureSchema();
+        int dropped = 0;
+        for (String table : TABLES) {
+            List<String> children = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?",
+                String.class, table);
+            for (String child : children) {
+                Matcher matcher = PARTITION_NAME.matcher(child);
+                if (!matcher.matches() || !matcher.group(1).equals(table)) {
+                    continue;
+                }
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+                // DDL'e katalogdan okunan ad değil, aynı ay için yeniden üretilen ad girer
+                String partition = partitionName(table, month);
+                if (month.isBefore(oldestKept) && partition.equals(child)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    partitions.remove(month);
+                    dropped++;
+                    log.info("Dropped workflow run history partition {}", partition);
+                }
+            }
+        }
+        return dropped;
+    }
+
+    public void insert(List<RunRow> runs) {
+        List<Object[]> runArgs = new ArrayList<>(runs.size());
+        List<Object[]> nodeArgs = new ArrayList<>();
+        for (RunRow row : runs) {
+            WorkflowRunRecord run = row.run();
+            ensurePartition(month(run.startedAt()));
+            int failed = 0;
+            int skipped = 0;
+            for (NodeRow nodeRow : row.nodes()) {
+                WorkflowRunRecord.NodeRun node = nodeRow.node();
+                failed += node.status() == WorkflowNodeEvent.Status.FAILED ? 1 : 0;
+                skipped += node.status() == WorkflowNodeEvent.Status.SKIPPED ? 1 : 0;
+                // Hiç başlamayan node'lar çalıştırmanın başlangıcıyla kaydedilir
+                boolean ran = node.startedAt() > 0;
+                long startedAt = ran ? node.startedAt() : run.startedAt();
+                ensurePartition(month(startedAt));
+                nodeArgs.add(new Object[] {
+                    run.runId(), node.nodeId(), node.nodeType(), run.workflowId(), node.status().name(),
+                    new Timestamp(startedAt),
+                    ran ? new Timestamp(node.finishedAt()) : null,
+                    ran ? node.finishedAt() - node.startedAt() : null,
+                    ran && node.readyAt() > 0 ? Math.max(0, node.startedAt() - node.readyAt()) : null,
+                    ran ? node.upstreamMs() : null,
+                    nodeRow.inputBytes(), nodeRow.outputBytes(),
+                    truncate(node.error())
+                });
+            }
+            runArgs.add(new Object[] {
+                run.runId(), run.workflowId(), run.workflowVersion(),
+                run.timedOut() ? "TIMED_OUT" : run.success() ? "SUCCESS" : "FAILED",
+                row.nodes().size(), failed, skipped,
+                new Timestamp(run.startedAt()), new Timestamp(run.finishedAt()), run.finishedAt() - run.startedAt()
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RUN, runArgs);
+            jdbcTemplate.batchUpdate(INSERT_NODE_RUN, nodeArgs);
+        });
+    }
+
+    public List<WorkflowNodeLatencyDto> nodeLatency(Long workflowId, Instant since) {
+        ensureSchema();
+        return jdbcTemplate.query(NODE_LATENCY, (rs, rowNum) -> new WorkflowNodeLatencyDto(
+                rs.getString("node_type"), rs.getLong("executions"), rs.getLong("failures"),
+                rs.getDouble("p50"), rs.getDouble("p95"), rs.getDouble("upstream_p50"), rs.getDouble("upstream_p95"),
+                rs.getDouble("queue_wait"), rs.getDouble("input_bytes"), rs.getDouble("output_bytes")),
+            Timestamp.from(since), workflowId, workflowId);
+    }
+
+    /** {@code <table>_yYYYYmMM}; fails for tables of other stores and years that do not have four digits. */
+    static String partitionName(String table, YearMonth month) {
+        String name = table + "_" + month.format(PARTITION_SUFFIX);
+        if (!TABLES.contains(table) || !PARTITION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid workflow run history partition: " + name);
+        }
+        return name;
+    }
+
+    private static YearMonth month(long epochMillis) {
+        return YearMonth.from(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
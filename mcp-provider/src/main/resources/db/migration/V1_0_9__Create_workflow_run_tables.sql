@@ -0,0 +1,37 @@
+-- Workflow çalıştırma geçmişi; aylık partition'lar WorkflowRunStore tarafından açılır ve
+-- saklama süresi dolanlar (workflow.execution.history-retention-months) silinir.
+CREATE TABLE IF NOT EXISTS workflow_runs (
+    run_id VARCHAR(36) NOT NULL,
+    workflow_id BIGINT NOT NULL,
+    workflow_version INTEGER,
+    status VARCHAR(20) NOT NULL,
+    node_count INTEGER NOT NULL,
+    failed_nodes INTEGER NOT NULL,
+    skipped_nodes INTEGER NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    PRIMARY KEY (run_id, started_at)
+) PARTITION BY RANGE (started_at);
+
+CREATE INDEX IF NOT EXISTS idx_workflow_runs_workflow ON workflow_runs (workflow_id, started_at);
+
+-- queue_wait_ms: node hazır olduktan sonra havuzda bekleme; upstream_latency_ms: dış servis çağrısı
+CREATE TABLE IF NOT EXISTS workflow_node_runs (
+    run_id VARCHAR(36) NOT NULL,
+    node_id VARCHAR(100) NOT NULL,
+    node_type VARCHAR(50) NOT NULL,
+    workflow_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    queue_wait_ms BIGINT,
+    upstream_latency_ms BIGINT,
+    input_bytes BIGINT,
+    output_bytes BIGINT,
+    error VARCHAR(1000),
+    PRIMARY KEY (run_id, node_id, started_at)
+) PARTITION BY RANGE (started_at);
+
+CREATE INDEX IF NOT EXISTS idx_workflow_node_runs_type ON workflow_node_runs (node_type, started_at);
@@ -0,0 +1,122 @@
+package com.example.mcpprovider.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpanFileExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    // Her span ayrı bir export çağrısıyla yazılır
+    private static SdkTracerProvider provider(SpanFileExporter exporter) {
+        return SdkTracerProvider.builder()
+            .setResource(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), "mcp-provider")))
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    }
+
+    private List<JsonNode> read(Path file) throws Exception {
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            spans.add(objectMapper.readTree(line));
+        }
+        return spans;
+    }
+
+    private static void span(Tracer tracer, String name) {
+        tracer.spanBuilder(name).startSpan().end();
+    }
+
+    @Test
+    public void testWritesOneJsonLinePerSpan() throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        SdkTracerProvider provider = provider(new SpanFileExporter(file));
+        Tracer tracer = provider.get("test");
+
+        Span parent = tracer.spanBuilder("mcp.pdf.render").setSpanKind(SpanKind.INTERNAL).startSpan();
+        Span child = tracer.spanBuilder("http post").setParent(Context.current().with(parent)).setSpanKind(SpanKind.CLIENT)
+            .setAttribute("http.status_code", 502L).startSpan();
+        child.setStatus(StatusCode.ERROR);
+        child.end();
+        parent.end();
+        provider.shutdown().join(5, TimeUnit.SECONDS);
+
+        List<JsonNode> spans = read(file);
+        assertEquals(2, spans.size());
+        JsonNode childJson = spans.get(0);
+        JsonNode parentJson = spans.get(1);
+        assertEquals(parent.getSpanContext().getTraceId(), childJson.get("traceId").asText());
+        assertEquals(parentJson.get("spanId").asText(), childJson.get("parentSpanId").asText());
+        assertFalse(parentJson.has("parentSpanId"));
+        assertEquals("mcp-provider", childJson.get("service").asText());
+        assertEquals("http post", childJson.get("name").asText());
+        assertEquals("CLIENT", childJson.get("kind").asText());
+        assertEquals("ERROR", childJson.get("status").asText());
+        assertEquals("502", childJson.get("attributes").get("http.status_code").asText());
+        assertTrue(childJson.get("durationMicros").asLong() >= 0);
+    }
+
+    @Test
+    public void testRotatesAndKeepsOnlyMaxHistoryFiles() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        Tracer tracer = provider(new SpanFileExporter(file, 1, 2)).get("test");
+
+        for (String name : List.of("s1", "s2", "s3", "s4")) {
+            span(tracer, name);
+        }
+
+        // Her batch sınırı aştığı için hemen döndürülür: .1 en yeni, s1 ve s2 silinmiş
+        assertEquals("s4", read(dir.resolve("spans.jsonl.1")).get(0).get("name").asText());
+        assertEquals("s3", read(dir.resolve("spans.jsonl.2")).get(0).get("name").asText());
+        assertFalse(Files.exists(dir.resolve("spans.jsonl.3")));
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    public void testCountsExistingContentTowardsTheLimit() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        Files.writeString(file, "{\"name\":\"old\"}\n");
+        Tracer tracer = provider(new SpanFileExporter(file, 300, 1)).get("test");
+
+        span(tracer, "first");
+        assertFalse(Files.exists(dir.resolve("spans.jsonl.1")));
+        span(tracer, "second");
+
+        List<JsonNode> rotated = read(dir.resolve("spans.jsonl.1"));
+        assertEquals(List.of("old", "first", "second"), rotated.stream().map(span -> span.get("name").asText()).toList());
+        span(tracer, "third");
+        assertEquals("third", read(file).get(0).get("name").asText());
+    }
+
+    @Test
+    public void testRotationNeedsAKeptFile() {
+        assertThrows(IllegalArgumentException.class, () -> new SpanFileExporter(dir.resolve("spans.jsonl"), 1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SpanFileExporter(dir.resolve("spans.jsonl"), 0, 3));
+    }
+}
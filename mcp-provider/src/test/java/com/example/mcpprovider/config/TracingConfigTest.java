@@ -0,0 +1,111 @@
+package com.example.mcpprovider.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tracing setup of application.properties: W3C traceparent in and out, trace ids in
+ * the log MDC and spans in the rotated JSON-lines file.
+ */
+public class TracingConfigTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    @TempDir
+    Path dir;
+
+    private ApplicationContextRunner runner(Path file) {
+        return new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withConfiguration(AutoConfigurations.of(ObservationAutoConfiguration.class,
+                org.springframework.boot.actuate.autoconfigure.opentelemetry.OpenTelemetryAutoConfiguration.class,
+                org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryAutoConfiguration.class,
+                MicrometerTracingAutoConfiguration.class))
+            .withUserConfiguration(TracingConfig.class)
+            .withSystemProperties("TRACING_FILE=" + file, "TRACING_FILE_MAX_SIZE=1KB", "TRACING_FILE_MAX_HISTORY=1");
+    }
+
+    @Test
+    public void testContinuesIncomingTraceparentAndPassesItOn() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        Map<String, String> outgoing = new HashMap<>();
+        runner(file).run(context -> {
+            Tracer tracer = context.getBean(Tracer.class);
+            Propagator propagator = context.getBean(Propagator.class);
+            Map<String, String> incoming = Map.of("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01");
+
+            Span server = propagator.extract(incoming, Map::get).name("http get /api/workflows").start();
+            try (Tracer.SpanInScope scope = tracer.withSpan(server)) {
+                // Log satırları gelen trace id ile yazılır
+                assertEquals(TRACE_ID, MDC.get("traceId"));
+                assertEquals(server.context().spanId(), MDC.get("spanId"));
+
+                Span client = tracer.nextSpan().name("http post").start();
+                propagator.inject(client.context(), outgoing, Map::put);
+                client.end();
+            } finally {
+                server.end();
+            }
+            assertNull(MDC.get("traceId"));
+        });
+        assertEquals("00-" + TRACE_ID + "-", outgoing.get("traceparent").substring(0, 36));
+
+        // Context kapanırken span işlemcisi kalan span'leri yazar
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode clientJson = objectMapper.readTree(lines.get(0));
+        JsonNode serverJson = objectMapper.readTree(lines.get(1));
+        assertEquals(TRACE_ID, serverJson.get("traceId").asText());
+        assertEquals(CALLER_SPAN_ID, serverJson.get("parentSpanId").asText());
+        assertEquals(serverJson.get("spanId").asText(), clientJson.get("parentSpanId").asText());
+        assertEquals(clientJson.get("spanId").asText(), outgoing.get("traceparent").substring(36, 52));
+        assertEquals("mcp-provider", serverJson.get("service").asText());
+    }
+
+    @Test
+    public void testFileIsRotatedAtTheConfiguredSize() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        runner(file).run(context -> {
+            Tracer tracer = context.getBean(Tracer.class);
+            for (int i = 0; i < 10; i++) {
+                tracer.nextSpan().name("span " + i).start().end();
+            }
+        });
+
+        // On span tek batch'te 1KB'ı aşar: dosya .1'e taşınır, yenisi boş açılır
+        assertEquals(10, Files.readAllLines(dir.resolve("spans.jsonl.1")).size());
+        assertEquals(0, Files.size(file));
+        assertFalse(Files.exists(dir.resolve("spans.jsonl.2")));
+    }
+
+    @Test
+    public void testNoFileWithoutPath() {
+        new ApplicationContextRunner()
+            .withUserConfiguration(TracingConfig.class)
+            .run(context -> assertTrue(context.getBeansOfType(SpanFileExporter.class).isEmpty()));
+    }
+}
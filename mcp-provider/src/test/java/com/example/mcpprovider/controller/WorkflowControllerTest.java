@@ -0,0 +1,70 @@
+package com.example.mcpprovider.controller;
+
+import com.example.mcpprovider.dto.WorkflowRunResult;
+import com.example.mcpprovider.service.WorkflowService;
+import com.example.mcpprovider.service.workflow.WorkflowExecutor;
+import com.example.mcpprovider.service.workflow.WorkflowGraph;
+import com.example.mcpprovider.service.workflow.WorkflowPlan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkflowControllerTest {
+
+    private final WorkflowService workflowService = mock(WorkflowService.class);
+    private final WorkflowExecutor workflowExecutor = mock(WorkflowExecutor.class);
+    private final WorkflowController workflowController = new WorkflowController(workflowService, workflowExecutor);
+
+    private static WorkflowPlan plan(boolean active) {
+        return new WorkflowPlan(1L, 2, active, WorkflowGraph.compile(new ObjectMapper(), "[]", "[]"), Map.of(), 1);
+    }
+
+    @Test
+    public void testInactiveWorkflowIsNotExecuted() {
+        when(workflowService.getExecutionPlan(1L)).thenReturn(Optional.of(plan(false)));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+            () -> workflowController.executeWorkflow(1L, null));
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> workflowController.executeWorkflowStream(1L, null));
+
+        verify(workflowService, never()).recordExecution(1L);
+        verify(workflowExecutor, never()).execute(any(), any(), any());
+    }
+
+    @Test
+    public void testActiveWorkflowIsExecutedAndCounted() {
+        WorkflowPlan plan = plan(true);
+        CompletableFuture<WorkflowRunResult> run = new CompletableFuture<>();
+        when(workflowService.getExecutionPlan(1L)).thenReturn(Optional.of(plan));
+        when(workflowExecutor.execute(any(), any(), any())).thenReturn(run);
+
+        assertSame(run, workflowController.executeWorkflow(1L, null));
+        verify(workflowService).recordExecution(1L);
+    }
+
+    @Test
+    public void testMissingAndInvalidWorkflows() {
+        when(workflowService.getExecutionPlan(1L)).thenReturn(Optional.empty());
+        when(workflowService.getExecutionPlan(2L)).thenThrow(new IllegalArgumentException("cycle"));
+
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+            () -> workflowController.executeWorkflow(1L, null)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+            () -> workflowController.executeWorkflow(2L, null)).getStatusCode());
+    }
+}
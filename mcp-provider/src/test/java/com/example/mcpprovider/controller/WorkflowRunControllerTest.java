@@ -0,0 +1,56 @@
+package com.example.mcpprovider.controller;
+
+import com.example.mcpprovider.dto.WorkflowNodeLatencyDto;
+import com.example.mcpprovider.service.workflow.WorkflowRunStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkflowRunControllerTest {
+
+    private final WorkflowRunStore workflowRunStore = mock(WorkflowRunStore.class);
+    private final WorkflowRunController workflowRunController = new WorkflowRunController(workflowRunStore);
+
+    @Test
+    public void testNodeLatencyQueriesTheRequestedWindow() {
+        List<WorkflowNodeLatencyDto> latency = List.of(new WorkflowNodeLatencyDto("AGENT", 10, 1, 100, 400, 90, 380, 2, 64, 512));
+        when(workflowRunStore.nodeLatency(eq(5L), any())).thenReturn(latency);
+
+        Instant before = Instant.now();
+        ResponseEntity<List<WorkflowNodeLatencyDto>> response = workflowRunController.getNodeLatency(5L, 3);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(latency, response.getBody());
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(workflowRunStore).nodeLatency(eq(5L), since.capture());
+        Duration window = Duration.between(since.getValue(), before);
+        assertTrue(window.compareTo(Duration.ofDays(3)) <= 0 && window.compareTo(Duration.ofDays(3).minusMinutes(1)) > 0);
+    }
+
+    @Test
+    public void testNodeLatencyWithoutWorkflowCoversAllWorkflows() {
+        workflowRunController.getNodeLatency(null, 7);
+
+        verify(workflowRunStore).nodeLatency(eq(null), any());
+    }
+
+    @Test
+    public void testNodeLatencyRejectsEmptyWindow() {
+        assertEquals(HttpStatus.BAD_REQUEST, workflowRunController.getNodeLatency(null, 0).getStatusCode());
+        verify(workflowRunStore, never()).nodeLatency(any(), any());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.mcpprovider.service;
+
+import com.example.mcpprovider.client.AiProviderClient;
+import com.example.mcpprovider.dto.ActionAnalysisRequest;
+import com.example.mcpprovider.dto.ActionAnalysisResponse;
+import com.example.mcpprovider.dto.AiProviderResponse;
+import com.example.mcpprovider.dto.CustomerDto;
+import com.example.mcpprovider.dto.FinanceActionTypeDto;
+import com.example.mcpprovider.service.date.RelativeDateParser;
+import com.example.mcpprovider.service.intent.IntentClassifier;
+import com.example.mcpprovider.service.plan.ActionPlan;
+import com.example.mcpprovider.service.plan.ActionPlanParser;
+import com.example.mcpprovider.service.plan.ParameterSchema;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ActionAnalysisServiceTest {
+
+    private static final String CONTENT = "Son 3 ayın hesap ekstresini e-posta ile gönder";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AiProviderClient aiProviderClient = mock(AiProviderClient.class);
+    private final IntentClassifier intentClassifier = mock(IntentClassifier.class);
+    private final ActionPlanParser actionPlanParser = new ActionPlanParser(objectMapper);
+    private final ActionAnalysisService actionAnalysisService = new ActionAnalysisService();
+
+    public ActionAnalysisServiceTest() {
+        ReflectionTestUtils.setField(actionAnalysisService, "aiProviderClient", aiProviderClient);
+        ReflectionTestUtils.setField(actionAnalysisService, "intentClassifier", intentClassifier);
+        ReflectionTestUtils.setField(actionAnalysisService, "relativeDateParser", new RelativeDateParser());
+        ReflectionTestUtils.setField(actionAnalysisService, "actionPlanParser", actionPlanParser);
+    }
+
+    private FinanceActionCatalog.Snapshot catalog() throws Exception {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("LOG_CUSTOMER_INTERACTION", "{\"customerId\":\"?\",\"note\":\"?\"}");
+        templates.put("ACCOUNT_STATEMENT", "{\"actionType\":\"ACCOUNT_STATEMENT\",\"customerId\":\"?\",\"startDate\":\"?\","
+            + "\"endDate\":\"?\",\"direction\":\"in|out\",\"emailFlag\":\"?\"}");
+        templates.put("SEND_EMAIL", "{\"actionType\":\"SEND_EMAIL\",\"to\":\"?\",\"subject\":\"?\"}");
+
+        Map<String, FinanceActionTypeDto> byCode = new LinkedHashMap<>();
+        Map<String, JsonNode> schemas = new LinkedHashMap<>();
+        Map<String, ParameterSchema> parameterSchemas = new LinkedHashMap<>();
+        for (Map.Entry<String, String> template : templates.entrySet()) {
+            byCode.put(template.getKey(), FinanceActionTypeDto.builder()
+                .typeCode(template.getKey()).jsonSchema(template.getValue()).isActive(true).build());
+            JsonNode schema = objectMapper.readTree(template.getValue());
+            schemas.put(template.getKey(), schema);
+            parameterSchemas.put(template.getKey(), ParameterSchema.compile(template.getKey(), schema));
+        }
+        return new FinanceActionCatalog.Snapshot(1, List.copyOf(byCode.values()), byCode, Map.of(), schemas,
+            parameterSchemas, "", "", "", "");
+    }
+
+    private static ActionAnalysisRequest request(String content) {
+        ActionAnalysisRequest request = new ActionAnalysisRequest();
+        request.setContent(content);
+        request.setModel("test-model");
+        request.setMaxTokens(500);
+        request.setTemperature(0.2);
+        request.setCustomerNo("42");
+        return request;
+    }
+
+    private static CustomerDto customer() {
+        return CustomerDto.builder().id(42L).firstName("Ayşe").lastName("Yılmaz").email("ayse@example.com").build();
+    }
+
+    private ActionAnalysisResponse analyzeWithModelAnswer(String content, String answer) throws Exception {
+        when(intentClassifier.classify(anyString(), any(), any())).thenReturn(Optional.empty());
+        AiProviderResponse aiResponse = new AiProviderResponse();
+        aiResponse.setContent(answer);
+        when(aiProviderClient.generateContent(any())).thenReturn(aiResponse);
+        return actionAnalysisService.analyze(request(content), customer(), catalog(), "prompt");
+    }
+
+    @Test
+    public void testModelPlanIsValidatedAndExtraContentIsTheRequestText() throws Exception {
+        String answer = "Analiz sonucu:\n```json\n{\"selectedActions\":[\"ACCOUNT_STATEMENT\",\"SEND_EMAIL\",\"UNKNOWN_ACTION\"],"
+            + "\"parameters\":{\"ACCOUNT_STATEMENT\":{\"actionType\":\"ACCOUNT_STATEMENT\",\"customerId\":\"42\","
+            + "\"startDate\":null,\"endDate\":null,\"direction\":\"both\",\"emailFlag\":false,\"content\":\"metin\"}},"
+            + "\"dateRange\":{},\"extraContent\":\"modelin özeti\"}\n```";
+
+        ActionAnalysisResponse response = analyzeWithModelAnswer(CONTENT, answer);
+
+        // Katalogda olmayan kod atlanır
+        assertEquals(List.of("LOG_CUSTOMER_INTERACTION", "ACCOUNT_STATEMENT", "SEND_EMAIL"), response.getFinanceActionTypes());
+        assertEquals(CONTENT, response.getOriginalContent());
+        assertTrue(response.getContent().startsWith("Analiz sonucu:\n```json\n"));
+
+        ActionPlan plan = actionPlanParser.parse(response.getContent());
+        assertEquals(CONTENT, plan.getRoot().get("extraContent").asText());
+        ObjectNode statement = plan.parameters("ACCOUNT_STATEMENT");
+        assertTrue(statement.get("direction").isNull());
+        assertTrue(statement.get("emailFlag").asBoolean());
+        assertFalse(statement.has("content"));
+        assertEquals(90, plan.dateRange().get("relativeDays").asInt());
+        assertEquals(statement.get("startDate"), plan.dateRange().get("startDate"));
+        verify(intentClassifier).learn(eq(CONTENT), any(), eq(response.getFinanceActionTypes()), any());
+    }
+
+    @Test
+    public void testExtraContentIsAddedWhenTheModelLeavesItOut() throws Exception {
+        ActionAnalysisResponse response = analyzeWithModelAnswer("Müşteriye bilgi e-postası gönder",
+            "{\"selectedActions\":[\"SEND_EMAIL\"],\"parameters\":{\"SEND_EMAIL\":{\"to\":\"ayse@example.com\"}}}");
+
+        assertEquals(List.of("LOG_CUSTOMER_INTERACTION", "SEND_EMAIL"), response.getFinanceActionTypes());
+        assertEquals("Müşteriye bilgi e-postası gönder",
+            actionPlanParser.parse(response.getContent()).getRoot().get("extraContent").asText());
+    }
+
+    @Test
+    public void testFastPathPlanCarriesTheRequestTextToo() throws Exception {
+        when(intentClassifier.classify(anyString(), any(), any()))
+            .thenReturn(Optional.of(new IntentClassifier.Intent("ACCOUNT_STATEMENT", 0.95)));
+
+        ActionAnalysisResponse response = actionAnalysisService.analyze(request("Geçen ayın hesap ekstresi"),
+            customer(), catalog(), "prompt");
+
+        assertEquals(List.of("LOG_CUSTOMER_INTERACTION", "ACCOUNT_STATEMENT"), response.getFinanceActionTypes());
+        ActionPlan plan = actionPlanParser.parse(response.getContent());
+        assertEquals("Geçen ayın hesap ekstresi", plan.getRoot().get("extraContent").asText());
+        assertEquals("42", plan.parameters("ACCOUNT_STATEMENT").get("customerId").asText());
+        verify(aiProviderClient, never()).generateContent(any());
+        verify(intentClassifier, never()).learn(anyString(), any(), anyList(), any());
+    }
+
+    @Test
+    public void testUnparsedAnswersFallBackToCodesInTheText() throws Exception {
+        String noJson = "ACCOUNT_STATEMENT işlemini öneriyorum.";
+        ActionAnalysisResponse response = analyzeWithModelAnswer(CONTENT, noJson);
+
+        assertEquals(List.of("LOG_CUSTOMER_INTERACTION", "ACCOUNT_STATEMENT"), response.getFinanceActionTypes());
+        assertEquals(noJson, response.getContent());
+
+        String malformed = "```json\n{\"selectedActions\":[\"SEND_EMAIL\",}\n```";
+        response = analyzeWithModelAnswer(CONTENT, malformed);
+
+        assertEquals(List.of("LOG_CUSTOMER_INTERACTION", "SEND_EMAIL"), response.getFinanceActionTypes());
+        assertEquals(malformed, response.getContent());
+    }
+}
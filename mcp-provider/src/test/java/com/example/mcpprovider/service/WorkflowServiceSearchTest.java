@@ -0,0 +1,84 @@
+package com.example.mcpprovider.service;
+
+import com.example.mcpprovider.dto.WorkflowSummaryDto;
+import com.example.mcpprovider.entity.Workflow;
+import com.example.mcpprovider.mapper.WorkflowMapper;
+import com.example.mcpprovider.repository.WorkflowRepository;
+import com.example.mcpprovider.service.search.WorkflowSearchIndex;
+import com.example.mcpprovider.service.workflow.WorkflowPlanCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkflowServiceSearchTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowExecutionCounter workflowExecutionCounter = mock(WorkflowExecutionCounter.class);
+    private final WorkflowSearchIndex workflowSearchIndex = new WorkflowSearchIndex(workflowRepository);
+    private final WorkflowService workflowService = new WorkflowService(workflowRepository, new WorkflowMapper(),
+        mock(WorkflowPlanCache.class), workflowExecutionCounter, workflowSearchIndex);
+
+    private static Workflow workflow(Long id, String name, long executionCount, LocalDateTime lastExecutedAt) {
+        Workflow workflow = new Workflow();
+        workflow.setId(id);
+        workflow.setName(name);
+        workflow.setExecutionCount(executionCount);
+        workflow.setLastExecutedAt(lastExecutedAt);
+        return workflow;
+    }
+
+    @Test
+    public void testSearchReturnsCurrentExecutionCounts() {
+        LocalDateTime loadedAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        LocalDateTime flushedAt = LocalDateTime.of(2025, 1, 2, 9, 0);
+        LocalDateTime pendingAt = LocalDateTime.of(2025, 1, 2, 10, 0);
+        when(workflowRepository.findAll()).thenReturn(List.of(
+            workflow(1L, "Ekstre gönderimi", 0, null),
+            workflow(2L, "Ekstre arşivi", 3, loadedAt)));
+        workflowSearchIndex.load();
+
+        // Yükleme sonrası sayaç flush edildi ve bellekte yeni çalıştırmalar birikti
+        when(workflowRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+            workflow(2L, "Ekstre arşivi", 3, loadedAt),
+            workflow(1L, "Ekstre gönderimi", 5, flushedAt)));
+        when(workflowExecutionCounter.pendingCount(1L)).thenReturn(2L);
+        when(workflowExecutionCounter.pendingLastExecutedAt(1L)).thenReturn(pendingAt);
+
+        List<WorkflowSummaryDto> results = workflowService.searchWorkflows("ekstre");
+
+        assertEquals(List.of(1L, 2L), results.stream().map(WorkflowSummaryDto::getId).toList());
+        assertEquals(7L, results.get(0).getExecutionCount());
+        assertEquals(pendingAt, results.get(0).getLastExecutedAt());
+        assertEquals(3L, results.get(1).getExecutionCount());
+        assertEquals(loadedAt, results.get(1).getLastExecutedAt());
+        verify(workflowRepository, never()).searchWorkflows(anyString());
+    }
+
+    @Test
+    public void testSearchSkipsWorkflowsDeletedSinceIndexing() {
+        when(workflowRepository.findAll()).thenReturn(List.of(workflow(1L, "Ekstre gönderimi", 0, null)));
+        workflowSearchIndex.load();
+        when(workflowRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        assertEquals(List.of(), workflowService.searchWorkflows("ekstre"));
+    }
+
+    @Test
+    public void testSearchFallsBackToDatabaseBeforeFirstLoad() {
+        when(workflowRepository.searchWorkflows("ekstre")).thenReturn(List.of(workflow(1L, "Ekstre gönderimi", 4, null)));
+        when(workflowExecutionCounter.pendingCount(1L)).thenReturn(1L);
+
+        List<WorkflowSummaryDto> results = workflowService.searchWorkflows(" ekstre ");
+
+        assertEquals(1, results.size());
+        assertEquals(5L, results.get(0).getExecutionCount());
+    }
+}
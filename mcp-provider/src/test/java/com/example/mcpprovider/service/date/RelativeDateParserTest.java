@@ -0,0 +1,124 @@
+package com.example.mcpprovider.service.date;
+
+import com.example.mcpprovider.service.date.RelativeDateParser.DateRange;
+import com.example.mcpprovider.service.date.RelativeDateParser.Expression;
+import com.example.mcpprovider.service.date.RelativeDateParser.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RelativeDateParserTest {
+
+    // Pazar, 15 Haziran 2025 14:30:15 İstanbul
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 15, 14, 30, 15);
+    private static final LocalDateTime END_OF_TODAY = LocalDateTime.of(2025, 6, 15, 23, 59, 59);
+
+    private final RelativeDateParser parser =
+        new RelativeDateParser(Clock.fixed(NOW.atZone(RelativeDateParser.ZONE).toInstant(), RelativeDateParser.ZONE));
+
+    private DateRange rangeIn(String text) {
+        return parser.range(parser.find(text).orElseThrow().expression());
+    }
+
+    @Test
+    public void testLastMonthsCountThirtyDaysEach() {
+        RelativeDateParser.Match match = parser.find("Son 3 ayın hesap ekstresini gönder").orElseThrow();
+
+        assertEquals(new Expression(Kind.LAST, 3, ChronoUnit.MONTHS), match.expression());
+        assertEquals(0, match.start());
+        assertEquals("Son 3 ayın".length(), match.end());
+        DateRange range = parser.range(match.expression());
+        assertEquals(LocalDateTime.of(2025, 3, 17, 0, 0), range.start());
+        assertEquals(END_OF_TODAY, range.end());
+        assertEquals(90, range.days());
+    }
+
+    @Test
+    public void testLastAcceptsNumberWordsAndEnglish() {
+        assertEquals(14, rangeIn("son iki hafta").days());
+        assertEquals(10, rangeIn("son on gün içindeki işlemler").days());
+        assertEquals(365, rangeIn("last 1 year").days());
+    }
+
+    @Test
+    public void testPreviousWeekIsTheWholeCalendarWeek() {
+        DateRange range = rangeIn("Geçen haftaki harcamalarımı listele");
+
+        assertEquals(LocalDateTime.of(2025, 6, 2, 0, 0), range.start());
+        assertEquals(LocalDateTime.of(2025, 6, 8, 23, 59, 59), range.end());
+    }
+
+    @Test
+    public void testPreviousMonthAndYesterday() {
+        DateRange month = rangeIn("gecen ay");
+        assertEquals(LocalDateTime.of(2025, 5, 1, 0, 0), month.start());
+        assertEquals(LocalDateTime.of(2025, 5, 31, 23, 59, 59), month.end());
+
+        DateRange yesterday = rangeIn("dünkü işlemler");
+        assertEquals(LocalDateTime.of(2025, 6, 14, 0, 0), yesterday.start());
+        assertEquals(LocalDateTime.of(2025, 6, 14, 23, 59, 59), yesterday.end());
+    }
+
+    @Test
+    public void testCurrentYearRunsToTheEndOfToday() {
+        DateRange range = rangeIn("Bu yıl ödediğim faizler");
+
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), range.start());
+        assertEquals(END_OF_TODAY, range.end());
+        assertEquals(LocalDateTime.of(2025, 6, 1, 0, 0), rangeIn("bu ayın özeti").start());
+        assertEquals(LocalDateTime.of(2025, 6, 15, 0, 0), rangeIn("bugün").start());
+    }
+
+    @Test
+    public void testOffsetFilterEndsNow() {
+        Expression expression = parser.parse("now-30d").orElseThrow();
+
+        assertEquals(new Expression(Kind.OFFSET, 30, ChronoUnit.DAYS), expression);
+        DateRange range = parser.range(expression);
+        assertEquals(LocalDateTime.of(2025, 5, 16, 14, 30, 15), range.start());
+        assertEquals(NOW, range.end());
+        assertEquals(new Expression(Kind.OFFSET, 3, ChronoUnit.MONTHS), parser.parse(" NOW-3M ").orElseThrow());
+    }
+
+    @Test
+    public void testDefaultRangeIsTheLastThirtyDays() {
+        // Tarih ifadesi olmayan isteklerde aksiyon analizi son 30 günü kullanır
+        assertTrue(parser.find("Hesap ekstremi e-posta ile gönder").isEmpty());
+        DateRange range = parser.range(new Expression(Kind.LAST, 30, ChronoUnit.DAYS));
+
+        assertEquals(LocalDateTime.of(2025, 5, 16, 0, 0), range.start());
+        assertEquals(END_OF_TODAY, range.end());
+        assertEquals(30, range.days());
+    }
+
+    @Test
+    public void testUnparseableInputYieldsNothing() {
+        assertEquals(Optional.empty(), parser.parse(null));
+        assertEquals(Optional.empty(), parser.parse("  "));
+        assertEquals(Optional.empty(), parser.parse("now-30x"));
+        assertEquals(Optional.empty(), parser.parse("now-30d sonra"));
+        assertEquals(Optional.empty(), parser.parse("yarın"));
+        assertTrue(parser.find(null).isEmpty());
+        // Kelime içinde ya da başka kelimelerin parçası olarak geçen ifadeler eşleşmez
+        assertTrue(parser.find("dünya turu, bu aynı işlem, sonsuz 3 ay").isEmpty());
+    }
+
+    @Test
+    public void testRemoveReplacesEveryExpression() {
+        assertEquals("  ve   ekstresi", parser.remove("son 3 ay ve geçen ayın ekstresi"));
+        String untouched = "hesap ekstresi";
+        assertSame(untouched, parser.remove(untouched));
+    }
+
+    @Test
+    public void testParsedExpressionsAreCached() {
+        assertSame(parser.parse("now-7d"), parser.parse("NOW-7D"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.mcpprovider.service.intent;
+
+import com.example.mcpprovider.config.ActionAnalysisConfig;
+import com.example.mcpprovider.dto.FinanceActionTypeDto;
+import com.example.mcpprovider.service.FinanceActionCatalog;
+import com.example.mcpprovider.service.date.RelativeDateParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntentClassifierTest {
+
+    private static final List<String> CUSTOMER = List.of("Ayşe", "Yılmaz");
+
+    private final ActionAnalysisConfig config = new ActionAnalysisConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IntentClassifier classifier = new IntentClassifier(config, new RelativeDateParser(), meterRegistry);
+
+    private static FinanceActionCatalog.Snapshot catalog(long version, boolean statementActive) throws Exception {
+        Map<String, FinanceActionTypeDto> byCode = new LinkedHashMap<>();
+        Map<String, JsonNode> schemas = new LinkedHashMap<>();
+        for (String[] action : IntentModelTest.CATALOG) {
+            boolean active = statementActive || !action[0].equals("GENERATE_STATEMENT");
+            byCode.put(action[0], FinanceActionTypeDto.builder().typeCode(action[0]).typeName(action[1])
+                .description(action[2]).samplePrompt(action[3]).isActive(active).build());
+            schemas.put(action[0], new ObjectMapper().readTree("{\"customerId\":\"?\"}"));
+        }
+        byCode.put("LOG_CUSTOMER_INTERACTION", FinanceActionTypeDto.builder().typeCode("LOG_CUSTOMER_INTERACTION")
+            .typeName("Müşteri Etkileşimi Kaydet").description("Müşteri ile yapılan görüşmeyi kaydeder").isActive(true).build());
+        List<FinanceActionTypeDto> active = byCode.values().stream()
+            .filter(actionType -> actionType.getIsActive()).toList();
+        return new FinanceActionCatalog.Snapshot(version, active, byCode, Map.of(), schemas, Map.of(), "", "", "", "");
+    }
+
+    private static FinanceActionCatalog.Snapshot catalog() throws Exception {
+        return catalog(1, true);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("mcp.action_analysis.intent").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    public void testSimpleRequestTakesTheFastPath() throws Exception {
+        Optional<IntentClassifier.Intent> intent = classifier.classify("Ayşe Yılmaz son 3 ayın hesap ekstresi", CUSTOMER, catalog());
+
+        assertEquals("GENERATE_STATEMENT", intent.orElseThrow().typeCode());
+        assertTrue(intent.get().confidence() >= config.getFastPathConfidence());
+        assertEquals(1.0, outcome(IntentClassifier.FAST_PATH));
+        assertEquals(1.0, meterRegistry.get("mcp.action_analysis.fast_path_ratio").gauge().value());
+    }
+
+    @Test
+    public void testConfidenceBelowThresholdGoesToTheLlm() throws Exception {
+        double confidence = classifier.classify("hesap ekstresi", CUSTOMER, catalog()).orElseThrow().confidence();
+        config.setFastPathConfidence(confidence + 0.01);
+
+        assertEquals(Optional.empty(), classifier.classify("hesap ekstresi", CUSTOMER, catalog()));
+        assertEquals(1.0, outcome("low_confidence"));
+        assertEquals(0.5, meterRegistry.get("mcp.action_analysis.fast_path_ratio").gauge().value());
+
+        config.setFastPathConfidence(confidence);
+        assertTrue(classifier.classify("hesap ekstresi", CUSTOMER, catalog()).isPresent());
+    }
+
+    @Test
+    public void testRequestNamingASecondActionGoesToTheLlm() throws Exception {
+        assertEquals(Optional.empty(), classifier.classify("hesap ekstremi gönder", CUSTOMER, catalog()));
+        assertEquals(Optional.empty(), classifier.classify("Geçen ayın hesap ekstresini e-posta ile", CUSTOMER, catalog()));
+        assertEquals(2.0, outcome("multi_intent"));
+    }
+
+    @Test
+    public void testComplexRequestsGoToTheLlm() throws Exception {
+        assertEquals(Optional.empty(), classifier.classify("1000 TL üstü hesap ekstresi", CUSTOMER, catalog()));
+        assertEquals(Optional.empty(), classifier.classify("ayse@example.com hesap ekstresi", CUSTOMER, catalog()));
+        assertEquals(Optional.empty(), classifier.classify("hesap ekstresi ".repeat(20), CUSTOMER, catalog()));
+        assertEquals(Optional.empty(), classifier.classify(" ", CUSTOMER, catalog()));
+        assertEquals(4.0, outcome("complex"));
+        assertEquals(Optional.empty(), classifier.classify("merhaba", CUSTOMER, catalog()));
+        assertEquals(1.0, outcome("unknown"));
+    }
+
+    @Test
+    public void testOnlyConfiguredActiveActionsAreEligible() throws Exception {
+        assertEquals(Optional.empty(), classifier.classify("kredi kartı borcum", CUSTOMER, catalog()));
+        assertEquals(Optional.empty(), classifier.classify("hesap ekstresi", CUSTOMER, catalog(2, false)));
+        assertEquals(1.0, outcome("not_eligible"));
+
+        config.setFastPathEnabled(false);
+        assertEquals(Optional.empty(), classifier.classify("hesap ekstresi", CUSTOMER, catalog(2, true)));
+        assertEquals(1.0, outcome("disabled"));
+    }
+
+    @Test
+    public void testLearnsOnlySimpleRequestsTheCatalogAgreesWith() throws Exception {
+        FinanceActionCatalog.Snapshot catalog = catalog();
+
+        classifier.learn("Ayşe hanımın kart borcu", CUSTOMER, List.of("LOG_CUSTOMER_INTERACTION", "CREDIT_CARD_DEBT"), catalog);
+        assertEquals(1, classifier.learnedExamples());
+
+        // Birden fazla aksiyon, basit olmayan metin, katalogda olmayan ya da kelimeleri tutmayan etiket öğrenilmez
+        classifier.learn("hesap ekstresi ve e-posta", CUSTOMER, List.of("GENERATE_STATEMENT", "SEND_EMAIL"), catalog);
+        classifier.learn("1000 TL üstü kart borcu", CUSTOMER, List.of("CREDIT_CARD_DEBT"), catalog);
+        classifier.learn("kart borcu", CUSTOMER, List.of("UNKNOWN_ACTION"), catalog);
+        classifier.learn("hesap ekstremi", CUSTOMER, List.of("CREDIT_CARD_DEBT"), catalog);
+        classifier.learn("hesap ekstremi gönder", CUSTOMER, List.of("GENERATE_STATEMENT"), catalog);
+        assertEquals(1, classifier.learnedExamples());
+    }
+
+    @Test
+    public void testRepeatedTextIsKeptOnceAndContradictionsAreDropped() throws Exception {
+        FinanceActionCatalog.Snapshot catalog = catalog();
+
+        // "para" işlem geçmişinin, "hareket" ekstrenin katalog kelimesi: iki etiket de metinle örtüşür
+        classifier.learn("para hareketlerim", CUSTOMER, List.of("GENERATE_STATEMENT"), catalog);
+        classifier.learn("Para hareketlerim", CUSTOMER, List.of("GENERATE_STATEMENT"), catalog);
+        assertEquals(1, classifier.learnedExamples());
+
+        classifier.learn("para hareketlerim", CUSTOMER, List.of("TRANSACTION_HISTORY"), catalog);
+        assertEquals(0, classifier.learnedExamples());
+    }
+
+    @Test
+    public void testLearnedExamplesAreBounded() throws Exception {
+        config.setLearnedExamples(2);
+        FinanceActionCatalog.Snapshot catalog = catalog();
+
+        for (String text : List.of("kart borcu", "kart borcum", "kredi kartı borcu", "kredi kartı borcum")) {
+            classifier.learn(text, CUSTOMER, List.of("CREDIT_CARD_DEBT"), catalog);
+        }
+
+        assertEquals(2, classifier.learnedExamples());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mcpprovider.service.intent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntentModelTest {
+
+    static final String[][] CATALOG = {
+        {"GENERATE_STATEMENT", "Hesap Ekstresi", "Müşterinin hesap hareketlerinden ekstre hazırlar ve gönderir",
+            "Son 3 ayın hesap ekstresini çıkar"},
+        {"SEND_EMAIL", "E-posta Gönder", "Müşteriye bilgilendirme e-postası gönderir", "Ekstreyi e-posta ile gönder"},
+        {"TRANSACTION_HISTORY", "İşlem Geçmişi", "Hesaptaki para transferlerini ve işlemleri listeler", "Son işlemlerimi listele"},
+        {"CREDIT_CARD_DEBT", "Kredi Kartı Borcu", "Kredi kartı güncel borç bilgisini getirir", "Kart borcum ne kadar"},
+    };
+
+    private static IntentModel model(List<IntentModel.Example> examples) {
+        List<IntentModel.Example> rules = new ArrayList<>();
+        List<IntentModel.Example> titles = new ArrayList<>();
+        for (String[] action : CATALOG) {
+            titles.add(new IntentModel.Example(action[0], action[0].replace('_', ' ')));
+            titles.add(new IntentModel.Example(action[0], action[1]));
+            rules.add(new IntentModel.Example(action[0], action[0].replace('_', ' ')));
+            for (int i = 1; i < action.length; i++) {
+                rules.add(new IntentModel.Example(action[0], action[i]));
+            }
+        }
+        return IntentModel.train(rules, titles, examples);
+    }
+
+    @Test
+    public void testPredictsTheActionOfASimpleRequest() {
+        IntentModel model = model(List.of());
+
+        IntentModel.Prediction statement = model.predict("hesap ekstremi");
+        assertEquals("GENERATE_STATEMENT", statement.label());
+        assertNull(statement.otherAction());
+        assertEquals(1.0, statement.coverage());
+        assertTrue(statement.confidence() > 0.6, statement.toString());
+
+        assertEquals("CREDIT_CARD_DEBT", model.predict("kredi kartı borcum").label());
+        assertEquals("TRANSACTION_HISTORY", model.predict("işlemlerimi listele").label());
+    }
+
+    @Test
+    public void testUnknownWordsLowerTheConfidence() {
+        IntentModel model = model(List.of());
+
+        IntentModel.Prediction plain = model.predict("hesap ekstremi");
+        IntentModel.Prediction withFilter = model.predict("hesap ekstremi sadece market harcamaları");
+
+        assertEquals("GENERATE_STATEMENT", withFilter.label());
+        assertTrue(withFilter.coverage() < 0.5);
+        assertTrue(withFilter.confidence() < plain.confidence());
+    }
+
+    @Test
+    public void testRequestWithoutKnownWordsHasNoPrediction() {
+        IntentModel model = model(List.of());
+
+        assertNull(model.predict("merhaba nasılsınız"));
+        assertNull(model.predict(""));
+    }
+
+    @Test
+    public void testReportsAnotherActionNamedInTheRequest() {
+        IntentModel model = model(List.of());
+
+        // "gönder" ekstre açıklamasında da geçer ama SEND_EMAIL'in adıdır
+        for (String text : List.of("hesap ekstremi gönder", "hesap ekstremi e-posta ile")) {
+            IntentModel.Prediction prediction = model.predict(text);
+            assertEquals(Set.of("GENERATE_STATEMENT", "SEND_EMAIL"), Set.of(prediction.label(), prediction.otherAction()));
+        }
+        // Aynı aksiyonun adındaki kelimeler ikinci bir iş sayılmaz
+        assertNull(model.predict("hesap ekstresi hazırla").otherAction());
+    }
+
+    @Test
+    public void testSupportsOnlyLabelsTheKeywordsAgreeWith() {
+        IntentModel model = model(List.of());
+
+        assertTrue(model.supports("GENERATE_STATEMENT", "hesap ekstremi"));
+        assertFalse(model.supports("CREDIT_CARD_DEBT", "hesap ekstremi"));
+        assertFalse(model.supports("GENERATE_STATEMENT", "hesap ekstremi gönder"));
+        assertFalse(model.supports("UNKNOWN_ACTION", "hesap ekstremi"));
+    }
+
+    @Test
+    public void testLearnedExamplesMoveTheRegression() {
+        List<IntentModel.Example> examples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            examples.add(new IntentModel.Example("TRANSACTION_HISTORY", "hesap hareketlerim"));
+        }
+
+        double before = model(List.of()).predict("hesap hareketlerim").probability();
+        IntentModel.Prediction after = model(examples).predict("hesap hareketlerim");
+
+        // Anahtar kelime kuralı değişmez, model olasılığı örneklere göre değişir
+        assertEquals("GENERATE_STATEMENT", after.label());
+        assertTrue(after.probability() < before);
+        assertEquals(0.0, after.confidence());
+    }
+
+    @Test
+    public void testTrainingIsDeterministic() {
+        assertEquals(model(List.of()).predict("hesap ekstremi"), model(List.of()).predict("hesap ekstremi"));
+    }
+
+    @Test
+    public void testStemsDropStopwordsShortWordsAndNumbers() {
+        assertEquals(List.of("hesap", "ekstr", "gonde"), IntentModel.stems("Lütfen bana 3 hesap ekstresini gönder"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mcpprovider.service.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ActionPlanParserTest {
+
+    private static final String PLAN = "{\"selectedActions\":[\"ACCOUNT_STATEMENT\",\"SEND_EMAIL\"],"
+        + "\"parameters\":{\"ACCOUNT_STATEMENT\":{\"direction\":\"in\"},\"SEND_EMAIL\":{\"to\":\"a@b.com\"}},"
+        + "\"dateRange\":{\"relativeDays\":30}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ActionPlanParser parser = new ActionPlanParser(objectMapper);
+
+    @Test
+    public void testParsesPlanInsideText() throws Exception {
+        String response = "Analiz sonucu: " + PLAN + " Başka bir şey gerekirse yazın.";
+        ActionPlan plan = parser.parse(response);
+
+        assertEquals(ActionPlan.Status.PARSED, plan.getStatus());
+        assertEquals(List.of("ACCOUNT_STATEMENT", "SEND_EMAIL"), plan.getSelectedActions());
+        assertEquals("in", plan.parameters("ACCOUNT_STATEMENT").get("direction").asText());
+        assertEquals("a@b.com", plan.parameters("SEND_EMAIL").get("to").asText());
+        assertNull(plan.parameters("LOG_CUSTOMER_INTERACTION"));
+        assertEquals(30, plan.dateRange().get("relativeDays").asInt());
+        assertEquals(response, plan.getResponse());
+        // Değişiklik yoksa metin aynen geri üretilir
+        assertEquals(response, parser.render(plan));
+    }
+
+    @Test
+    public void testParsesPlanInMarkdownFence() throws Exception {
+        String response = "Talep incelendi.\n```json\n" + PLAN + "\n```\nNot: {örnek} metin";
+        ActionPlan plan = parser.parse(response);
+
+        assertTrue(plan.isParsed());
+        assertEquals(List.of("ACCOUNT_STATEMENT", "SEND_EMAIL"), plan.getSelectedActions());
+
+        plan.parameters("ACCOUNT_STATEMENT").putNull("direction");
+        assertEquals(response.replace("\"direction\":\"in\"", "\"direction\":null"), parser.render(plan));
+    }
+
+    @Test
+    public void testNoJson() throws Exception {
+        ActionPlan plan = parser.parse("ACCOUNT_STATEMENT işlemini öneriyorum.");
+
+        assertEquals(ActionPlan.Status.NO_JSON, plan.getStatus());
+        assertFalse(plan.isParsed());
+        assertEquals(List.of(), plan.getSelectedActions());
+        assertNull(plan.getRoot());
+        assertNull(plan.dateRange());
+        assertEquals("ACCOUNT_STATEMENT işlemini öneriyorum.", parser.render(plan));
+
+        assertEquals(ActionPlan.Status.NO_JSON, parser.parse(null).getStatus());
+        assertEquals(ActionPlan.Status.NO_JSON, parser.parse("} ters {").getStatus());
+    }
+
+    @Test
+    public void testMalformed() {
+        assertEquals(ActionPlan.Status.MALFORMED, parser.parse("{\"selectedActions\": [\"SEND_EMAIL\",}").getStatus());
+        assertEquals(ActionPlan.Status.MALFORMED, parser.parse("```json\n[\"SEND_EMAIL\"]\n```").getStatus());
+        // İki nesne tek bir plan değildir
+        ActionPlan twoObjects = parser.parse("{\"selectedActions\":[\"A\"]} {\"selectedActions\":[\"B\"]}");
+        assertEquals(ActionPlan.Status.MALFORMED, twoObjects.getStatus());
+        assertEquals("unexpected content after the JSON object", twoObjects.getError());
+    }
+
+    @Test
+    public void testKeepsUnknownCodesAndSkipsNonTextEntries() throws Exception {
+        ActionPlan plan = parser.parse("{\"selectedActions\":[\"UNKNOWN_ACTION\",null,{\"code\":\"X\"},\"SEND_EMAIL\"],"
+            + "\"parameters\":{\"UNKNOWN_ACTION\":{},\"SEND_EMAIL\":\"to=a@b.com\"},\"dateRange\":\"son 30 gün\"}");
+
+        // Katalogda olup olmadığına analiz servisi bakar; ayrıştırıcı kodları olduğu gibi verir
+        assertEquals(List.of("UNKNOWN_ACTION", "SEND_EMAIL"), plan.getSelectedActions());
+        assertEquals(objectMapper.createObjectNode(), plan.parameters("UNKNOWN_ACTION"));
+        assertNull(plan.parameters("SEND_EMAIL"));
+        assertNull(plan.dateRange());
+    }
+
+    @Test
+    public void testRepeatedKeyKeepsTheLastValue() {
+        ActionPlan plan = parser.parse("{\"selectedActions\":[\"A\"],\"selectedActions\":[\"B\"]}");
+
+        assertEquals(List.of("B"), plan.getSelectedActions());
+        assertEquals("B", plan.getRoot().get("selectedActions").get(0).asText());
+    }
+
+    @Test
+    public void testPlanBuiltInCodeRendersAsFence() throws Exception {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putArray("selectedActions").add("SEND_EMAIL");
+        root.putObject("parameters").putObject("SEND_EMAIL").putNull("to");
+        ActionPlan plan = parser.plan(root);
+
+        assertEquals(List.of("SEND_EMAIL"), plan.getSelectedActions());
+        assertTrue(plan.parameters("SEND_EMAIL").get("to").isNull());
+        assertEquals("```json\n{\"selectedActions\":[\"SEND_EMAIL\"],\"parameters\":{\"SEND_EMAIL\":{\"to\":null}}}\n```",
+            parser.render(plan));
+    }
+}
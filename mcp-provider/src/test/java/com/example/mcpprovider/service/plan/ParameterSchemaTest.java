@@ -0,0 +1,79 @@
+package com.example.mcpprovider.service.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParameterSchemaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ParameterSchema schema(String typeCode, String json) throws Exception {
+        return ParameterSchema.compile(typeCode, objectMapper.readTree(json));
+    }
+
+    private ObjectNode parameters(String json) throws Exception {
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+
+    @Test
+    public void testCompileKeepsTemplateOrderAndFlags() throws Exception {
+        ParameterSchema statement = schema("ACCOUNT_STATEMENT",
+            "{\"customerId\":\"?\",\"startDate\":\"?\",\"endDate\":\"?\",\"direction\":\"in|out\",\"emailFlag\":\"?\"}");
+
+        assertEquals(List.of("customerId", "startDate", "endDate", "direction", "emailFlag"), List.copyOf(statement.fields()));
+        assertTrue(statement.isDateBased());
+        // emailFlag alanı olan işlemler e-posta gönderebilir
+        assertTrue(statement.isEmailCapable());
+
+        ParameterSchema email = schema("SEND_EMAIL", "{\"to\":\"?\",\"subject\":\"?\"}");
+        assertFalse(email.isDateBased());
+        assertTrue(email.isEmailCapable());
+
+        ParameterSchema log = schema("LOG_CUSTOMER_INTERACTION", "{\"customerId\":\"?\",\"note\":\"?\"}");
+        assertFalse(log.isDateBased());
+        assertFalse(log.isEmailCapable());
+    }
+
+    @Test
+    public void testValidateDropsFieldsTheModelMustNotFill() throws Exception {
+        ParameterSchema statement = schema("ACCOUNT_STATEMENT", "{\"customerId\":\"?\",\"direction\":\"in|out\"}");
+        ObjectNode parameters = parameters(
+            "{\"customerId\":\"42\",\"direction\":\"in\",\"content\":\"metin\",\"extraContent\":\"özet\"}");
+
+        assertEquals(List.of(), statement.validate(parameters));
+        assertEquals(parameters("{\"customerId\":\"42\",\"direction\":\"in\"}"), parameters);
+    }
+
+    @Test
+    public void testValidateNullsValuesOutsideTheAllowedOnes() throws Exception {
+        ParameterSchema statement = schema("ACCOUNT_STATEMENT",
+            "{\"direction\":\"in|out\",\"channel\":\"web|mobile|branch\",\"note\":\"?\"}");
+        ObjectNode parameters = parameters(
+            "{\"direction\":\"both\",\"channel\":\"mobile\",\"note\":\"in|out\"}");
+
+        assertEquals(List.of("direction"), statement.validate(parameters));
+        assertTrue(parameters.get("direction").isNull());
+        assertEquals("mobile", parameters.get("channel").asText());
+        // Serbest alanlar ve şablonda olmayan değerler dokunulmadan kalır
+        assertEquals("in|out", parameters.get("note").asText());
+    }
+
+    @Test
+    public void testValidateLeavesMissingAndNullEnumFieldsAlone() throws Exception {
+        ParameterSchema statement = schema("ACCOUNT_STATEMENT", "{\"direction\":\"in|out\"}");
+        ObjectNode missing = parameters("{}");
+        ObjectNode nullValue = parameters("{\"direction\":null}");
+
+        assertEquals(List.of(), statement.validate(missing));
+        assertFalse(missing.has("direction"));
+        assertEquals(List.of(), statement.validate(nullValue));
+        assertTrue(nullValue.get("direction").isNull());
+    }
+}
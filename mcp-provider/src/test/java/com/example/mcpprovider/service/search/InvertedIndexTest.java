@@ -0,0 +1,128 @@
+package com.example.mcpprovider.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvertedIndexTest {
+
+    private static InvertedIndex<String> index() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put(1L, "statement", List.of(
+            new InvertedIndex.Field("Hesap Ekstresi", 3),
+            new InvertedIndex.Field("Müşterinin hesap hareketlerini PDF olarak gönderir", 1)));
+        index.put(2L, "email", List.of(
+            new InvertedIndex.Field("E-posta Gönder", 3),
+            new InvertedIndex.Field("Müşteriye bilgilendirme e-postası gönderir", 1)));
+        index.put(3L, "overdue", List.of(
+            new InvertedIndex.Field("Geciken Ödemeler", 3),
+            new InvertedIndex.Field("Vadesi geçmiş kredi kartı ödemelerini listeler", 1)));
+        return index;
+    }
+
+    @Test
+    public void testMatchesWholeWordsNotSubstrings() {
+        InvertedIndex<String> index = index();
+
+        assertEquals(List.of("statement"), index.search("ekstresi", 10));
+        // LIKE '%sap%' eşleşirdi; kelime içi parçalar eşleşmez
+        assertEquals(List.of(), index.search("sap", 10));
+    }
+
+    @Test
+    public void testEveryQueryWordMustMatch() {
+        InvertedIndex<String> index = index();
+
+        assertEquals(List.of("statement"), index.search("hesap pdf", 10));
+        assertEquals(List.of(), index.search("hesap kredi", 10));
+    }
+
+    @Test
+    public void testMatchesPrefixesForTypeahead() {
+        InvertedIndex<String> index = index();
+
+        assertEquals(List.of("overdue"), index.search("gecik", 10));
+        assertEquals(List.of("statement"), index.search("eks", 10));
+    }
+
+    @Test
+    public void testFoldsTurkishCharactersOnBothSides() {
+        InvertedIndex<String> index = index();
+
+        assertEquals(List.of("overdue"), index.search("ODEMELER", 10));
+        assertEquals(List.of("overdue"), index.search("ÖDEMELER", 10));
+        assertEquals(List.of("email"), index.search("gönder", 10).subList(0, 1));
+        assertEquals(index.search("gonder", 10), index.search("GÖNDER", 10));
+    }
+
+    @Test
+    public void testFuzzyMatchesTypos() {
+        InvertedIndex<String> index = index();
+
+        // Bir harf eksik, yer değiştirmiş ve yanlış harf
+        assertEquals(List.of("statement"), index.search("ekstrsi", 10));
+        assertEquals(List.of("statement"), index.search("ekstesri", 10));
+        assertEquals(List.of("overdue"), index.search("gecikem", 10));
+        // Kısa kelimelerde hata payı yok
+        assertEquals(List.of(), index.search("pdx", 10));
+    }
+
+    @Test
+    public void testRanksExactThenPrefixThenFuzzyAndNameOverDescription() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put(1L, "unrelated", List.of(new InvertedIndex.Field("kredi limiti", 3)));
+        index.put(2L, "prefix", List.of(new InvertedIndex.Field("kartlar", 3)));
+        index.put(3L, "exact", List.of(new InvertedIndex.Field("kart", 3)));
+        index.put(4L, "description", List.of(new InvertedIndex.Field("limit", 3), new InvertedIndex.Field("kart", 1)));
+        index.put(5L, "typo", List.of(new InvertedIndex.Field("karr", 3)));
+
+        assertEquals(List.of("exact", "prefix", "typo", "description"), index.search("kart", 10));
+    }
+
+    @Test
+    public void testEqualScoresKeepInsertionOrderAndLimit() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put(10L, "first", List.of(new InvertedIndex.Field("rapor", 1)));
+        index.put(20L, "second", List.of(new InvertedIndex.Field("rapor", 1)));
+        index.put(30L, "third", List.of(new InvertedIndex.Field("rapor", 1)));
+        index.put(10L, "first updated", List.of(new InvertedIndex.Field("rapor", 1)));
+
+        assertEquals(List.of("first updated", "second"), index.search("rapor", 2));
+    }
+
+    @Test
+    public void testReplaceAndRemoveDropOldTerms() {
+        InvertedIndex<String> index = index();
+        index.put(1L, "statement", List.of(new InvertedIndex.Field("Aylık Özet", 3)));
+
+        assertEquals(List.of(), index.search("ekstresi", 10));
+        assertEquals(List.of(), index.search("ekstrsi", 10));
+        assertEquals(List.of("statement"), index.search("ozet", 10));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("ozet", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testEmptyQueryMatchesNothing() {
+        InvertedIndex<String> index = index();
+
+        assertEquals(List.of(), index.search("", 10));
+        assertEquals(List.of(), index.search(" -- ", 10));
+    }
+
+    @Test
+    public void testWithinDistance() {
+        assertTrue(InvertedIndex.withinDistance("ekstre", "ekstre", 0));
+        assertTrue(InvertedIndex.withinDistance("ekstre", "eksrte", 1));
+        assertTrue(InvertedIndex.withinDistance("ekstre", "ekstra", 1));
+        assertTrue(InvertedIndex.withinDistance("ekstre", "ekstr", 1));
+        assertFalse(InvertedIndex.withinDistance("ekstre", "ekrsta", 1));
+        assertTrue(InvertedIndex.withinDistance("bilgilendirme", "bilgilandrme", 2));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mcpprovider.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchTextTest {
+
+    @Test
+    public void testFoldsTurkishLettersAndCase() {
+        assertEquals("islem", SearchText.fold("İŞLEM"));
+        assertEquals("islem", SearchText.fold("işlem"));
+        assertEquals("islem", SearchText.fold("ISLEM"));
+        assertEquals("gunluk odeme ozeti", SearchText.fold("Günlük Ödeme Özeti"));
+        assertEquals("ceki", SearchText.fold("Çeki"));
+        assertEquals("agac", SearchText.fold("ağaç"));
+    }
+
+    @Test
+    public void testDropsOtherDiacritics() {
+        assertEquals("cafe creme", SearchText.fold("Café Crème"));
+    }
+
+    @Test
+    public void testFoldsNullAndEmptyToEmpty() {
+        assertEquals("", SearchText.fold(null));
+        assertEquals("", SearchText.fold(""));
+        assertEquals(List.of(), SearchText.tokens(null));
+    }
+
+    @Test
+    public void testSplitsWordsOnPunctuationAndUnderscores() {
+        assertEquals(List.of("send", "email"), SearchText.tokens("SEND_EMAIL"));
+        assertEquals(List.of("hesap", "ekstresi", "2024", "pdf"), SearchText.tokens("  Hesap-ekstresi (2024).PDF "));
+        assertEquals(List.of("musteri", "iletisimi"), SearchText.tokens("Müşteri İletişimi"));
+    }
+}
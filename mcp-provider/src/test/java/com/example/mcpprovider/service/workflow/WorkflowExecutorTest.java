@@ -0,0 +1,183 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.example.mcpprovider.dto.WorkflowRunResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mcpprovider.service.workflow.WorkflowGraphTest.action;
+import static com.example.mcpprovider.service.workflow.WorkflowGraphTest.agent;
+import static com.example.mcpprovider.service.workflow.WorkflowGraphTest.edge;
+import static com.example.mcpprovider.service.workflow.WorkflowGraphTest.json;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class WorkflowExecutorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecordingHandler handler = new RecordingHandler();
+    private final WorkflowRunRecorder runRecorder = mock(WorkflowRunRecorder.class);
+    private final WorkflowExecutionConfig config = new WorkflowExecutionConfig();
+    private WorkflowExecutor executor;
+
+    /** Records start/end of every node; its output lists the contents of its inputs. */
+    private class RecordingHandler implements WorkflowNodeHandler {
+        private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Set<String> nodeTypes() {
+            return Set.of("textGenerator", WorkflowGraph.MCP_SUPPLIER_AGENT);
+        }
+
+        @Override
+        public JsonNode execute(WorkflowNodeContext context) throws Exception {
+            String id = context.node().id();
+            log.add("start:" + id);
+            try {
+                CountDownLatch gate = gates.get(id);
+                if (gate != null) {
+                    gate.await();
+                }
+                if (failing.contains(id)) {
+                    throw new IllegalStateException(id + " failed");
+                }
+                ObjectNode output = objectMapper.createObjectNode().put("content", id);
+                context.inputs().forEach(input -> output.withArray("inputs").add(input.path("content").asText()));
+                return output;
+            } finally {
+                log.add("end:" + id);
+            }
+        }
+    }
+
+    private WorkflowRunResult run(String nodes, String edges, List<WorkflowNodeEvent> events) throws Exception {
+        return start(nodes, edges, events).get(5, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<WorkflowRunResult> start(String nodes, String edges, List<WorkflowNodeEvent> events) {
+        executor = new WorkflowExecutor(List.of(handler), config, ObservationRegistry.NOOP, runRecorder);
+        WorkflowPlan plan = new WorkflowPlan(1L, 1, true, WorkflowGraph.compile(objectMapper, nodes, edges), Map.of(), 1);
+        return executor.execute(plan, null, events::add);
+    }
+
+    private static WorkflowNodeEvent node(WorkflowRunResult result, String id) {
+        return result.getNodes().stream().filter(event -> event.getNodeId().equals(id)).findFirst().orElseThrow();
+    }
+
+    @AfterEach
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFanInRunsAfterAllInputsWithEveryOutput() throws Exception {
+        WorkflowRunResult result = run(json(agent("a"), agent("b"), agent("join")),
+            json(edge("a", "join"), edge("b", "join")), new ArrayList<>());
+
+        assertTrue(result.isSuccess());
+        assertTrue(handler.log.indexOf("start:join") > handler.log.indexOf("end:a"));
+        assertTrue(handler.log.indexOf("start:join") > handler.log.indexOf("end:b"));
+        assertEquals("[\"a\",\"b\"]", node(result, "join").getOutput().path("inputs").toString());
+    }
+
+    @Test
+    public void testBranchNotTakenIsSkipped() throws Exception {
+        String conditional = "{\"id\":\"check\",\"data\":{\"type\":\"conditional\",\"config\":{\"conditions\":[{"
+            + "\"value1\":{\"type\":\"variable\",\"value\":\"content\"},\"operator\":\"equals\","
+            + "\"value2\":{\"type\":\"static\",\"value\":\"a\"}}]}}}";
+        WorkflowRunResult result = run(json(agent("a"), conditional, agent("yes"), agent("no"), agent("afterNo")),
+            json(edge("a", "check"),
+                "{\"source\":\"check\",\"target\":\"yes\",\"sourceHandle\":\"true\"}",
+                "{\"source\":\"check\",\"target\":\"no\",\"sourceHandle\":\"false\"}",
+                edge("no", "afterNo")), new ArrayList<>());
+
+        assertTrue(result.isSuccess());
+        assertEquals(Boolean.TRUE, node(result, "check").getConditionResult());
+        assertEquals(WorkflowNodeEvent.Status.COMPLETED, node(result, "yes").getStatus());
+        assertEquals(WorkflowNodeEvent.Status.SKIPPED, node(result, "no").getStatus());
+        assertEquals(WorkflowNodeEvent.Status.SKIPPED, node(result, "afterNo").getStatus());
+        assertEquals(2, result.getSkippedNodes());
+        assertFalse(handler.log.contains("start:no"));
+    }
+
+    @Test
+    public void testSendEmailRunsAfterTheOtherActions() throws Exception {
+        WorkflowRunResult result = run(json(action("email", "SEND_EMAIL"), action("statement", "ACCOUNT_STATEMENT")),
+            "[]", new ArrayList<>());
+
+        assertTrue(result.isSuccess());
+        assertTrue(handler.log.indexOf("start:email") > handler.log.indexOf("end:statement"));
+    }
+
+    @Test
+    public void testSendEmailFailsWhenAnActionBeforeItFails() throws Exception {
+        handler.failing.add("statement");
+        WorkflowRunResult result = run(json(action("email", "SEND_EMAIL"), action("statement", "ACCOUNT_STATEMENT")),
+            "[]", new ArrayList<>());
+
+        assertFalse(result.isSuccess());
+        assertEquals("Prerequisite node statement failed", node(result, "email").getError());
+        assertFalse(handler.log.contains("start:email"));
+    }
+
+    @Test
+    public void testTimeoutSkipsUnfinishedNodesAndStopsEvents() throws Exception {
+        config.setRunTimeout(Duration.ofMillis(200));
+        CountDownLatch gate = new CountDownLatch(1);
+        handler.gates.put("slow", gate);
+        List<WorkflowNodeEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+        WorkflowRunResult result = start(json(agent("fast"), agent("slow"), agent("after")),
+            json(edge("slow", "after")), events).get(5, TimeUnit.SECONDS);
+        int eventsAtCompletion = events.size();
+
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isSuccess());
+        assertEquals(WorkflowNodeEvent.Status.COMPLETED, node(result, "fast").getStatus());
+        assertEquals("Run timed out", node(result, "slow").getError());
+        assertEquals(WorkflowNodeEvent.Status.SKIPPED, node(result, "after").getStatus());
+
+        // Yavaş node zaman aşımından sonra biter; olayı ve sonraki node dinleyiciye ulaşmaz
+        gate.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!handler.log.contains("end:slow") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(eventsAtCompletion, events.size());
+        assertFalse(handler.log.contains("start:after"));
+
+        ArgumentCaptor<WorkflowRunRecord> record = ArgumentCaptor.forClass(WorkflowRunRecord.class);
+        verify(runRecorder).record(record.capture());
+        WorkflowRunRecord.NodeRun slow = record.getValue().nodes().stream()
+            .filter(nodeRun -> nodeRun.nodeId().equals("slow")).findFirst().orElseThrow();
+        assertTrue(record.getValue().timedOut());
+        assertTrue(slow.readyAt() > 0);
+        assertEquals(0, slow.startedAt());
+        assertEquals(0, slow.finishedAt());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkflowGraphTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static String agent(String id) {
+        return "{\"id\":\"" + id + "\",\"data\":{\"type\":\"textGenerator\"}}";
+    }
+
+    static String action(String id, String actionType) {
+        return "{\"id\":\"" + id + "\",\"data\":{\"type\":\"mcpSupplierAgent\",\"config\":{\"actionType\":\"" + actionType + "\"}}}";
+    }
+
+    static String result(String id) {
+        return "{\"id\":\"" + id + "\",\"type\":\"resultNode\",\"data\":{}}";
+    }
+
+    static String edge(String source, String target) {
+        return "{\"source\":\"" + source + "\",\"target\":\"" + target + "\"}";
+    }
+
+    static String json(String... items) {
+        return "[" + String.join(",", items) + "]";
+    }
+
+    private WorkflowGraph compile(String nodes, String edges) {
+        return WorkflowGraph.compile(objectMapper, nodes, edges);
+    }
+
+    private static List<String> ids(List<WorkflowGraph.Node> nodes) {
+        return nodes.stream().map(WorkflowGraph.Node::id).toList();
+    }
+
+    @Test
+    public void testRejectsCycles() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> compile(
+            json(agent("start"), agent("a"), agent("b"), agent("c")),
+            json(edge("start", "a"), edge("a", "b"), edge("b", "c"), edge("c", "a"))));
+
+        assertEquals("Workflow graph has a cycle through nodes [a, b, c]", error.getMessage());
+    }
+
+    @Test
+    public void testReadyNodesKeepEditorOrderAndFanInWaitsForAll() {
+        WorkflowGraph graph = compile(json(agent("join"), agent("b"), agent("a"), agent("last")),
+            json(edge("a", "join"), edge("b", "join"), edge("join", "last")));
+
+        assertEquals(List.of("b", "a", "join", "last"), ids(graph.order()));
+        assertEquals(Set.of("a", "b"), graph.dependencies("join"));
+        assertArrayEquals(new int[] {1, 0}, graph.dependencyPositions(2));
+        assertEquals(List.of(List.of("b", "a"), List.of("join"), List.of("last")),
+            graph.levels().stream().map(WorkflowGraphTest::ids).toList());
+        assertEquals(List.of("b", "a", "join"), ids(graph.ancestorsInOrder("last")));
+    }
+
+    @Test
+    public void testSendEmailWaitsForTheOtherActions() {
+        WorkflowGraph graph = compile(
+            json(action("email", "SEND_EMAIL"), action("statement", "ACCOUNT_STATEMENT"), agent("summary"),
+                action("log", "LOG_CUSTOMER_INTERACTION")),
+            json(edge("summary", "email"), edge("email", "log")));
+
+        // Sonraki aksiyon (log) e-postayı beklediği için e-posta onu beklemez
+        assertEquals(Set.of("summary", "statement"), graph.dependencies("email"));
+        assertEquals(Set.of("statement"), graph.orderingDependencies("email"));
+        assertEquals(List.of("statement", "summary", "email", "log"), ids(graph.order()));
+    }
+
+    @Test
+    public void testEdgesLeavingResultNodesAreIgnored() {
+        WorkflowGraph graph = compile(json(agent("a"), result("shown"), agent("b")),
+            json(edge("a", "shown"), edge("shown", "b")));
+
+        assertTrue(graph.incoming("b").isEmpty());
+        assertEquals(WorkflowGraph.Kind.RESULT, graph.node("shown").kind());
+        assertEquals(List.of(List.of("a", "b"), List.of("shown")),
+            graph.levels().stream().map(WorkflowGraphTest::ids).toList());
+    }
+
+    @Test
+    public void testRejectsInvalidGraphs() {
+        assertThrows(IllegalArgumentException.class, () -> compile(json(agent("a"), agent("a")), "[]"));
+        assertThrows(IllegalArgumentException.class, () -> compile(json(agent("a")), json(edge("a", "missing"))));
+        assertThrows(IllegalArgumentException.class, () -> compile("{}", "[]"));
+        assertThrows(IllegalArgumentException.class, () -> compile("[", "[]"));
+        assertEquals(0, compile(null, " ").size());
+    }
+}
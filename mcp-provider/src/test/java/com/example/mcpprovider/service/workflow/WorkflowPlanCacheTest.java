@@ -0,0 +1,120 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.entity.Workflow;
+import com.example.mcpprovider.repository.WorkflowRepository;
+import com.example.mcpprovider.service.FinanceActionCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkflowPlanCacheTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final FinanceActionCatalog financeActionCatalog = mock(FinanceActionCatalog.class);
+    private final WorkflowPlanCache cache = new WorkflowPlanCache(workflowRepository, financeActionCatalog,
+        new ObjectMapper(), new WorkflowExecutionConfig());
+
+    public WorkflowPlanCacheTest() {
+        catalogVersion(1);
+    }
+
+    private void catalogVersion(long version) {
+        when(financeActionCatalog.snapshot()).thenReturn(new FinanceActionCatalog.Snapshot(version, List.of(), Map.of(),
+            Map.of(), Map.of(), Map.of(), "", "", "", ""));
+    }
+
+    private void stored(Long id, int version, String... nodeIds) {
+        StringBuilder nodes = new StringBuilder("[");
+        for (String nodeId : nodeIds) {
+            nodes.append(nodes.length() > 1 ? "," : "")
+                .append("{\"id\":\"").append(nodeId).append("\",\"data\":{\"type\":\"textGenerator\"}}");
+        }
+        Workflow workflow = new Workflow();
+        workflow.setId(id);
+        workflow.setVersion(version);
+        workflow.setNodesData(nodes.append("]").toString());
+        workflow.setEdgesData("[]");
+        when(workflowRepository.findById(id)).thenReturn(Optional.of(workflow));
+        when(workflowRepository.findVersionById(id)).thenReturn(Optional.of(version));
+    }
+
+    @Test
+    public void testHitChecksOnlyTheVersion() {
+        stored(1L, 3, "a");
+
+        WorkflowPlan first = cache.get(1L).orElseThrow();
+        WorkflowPlan second = cache.get(1L).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(3, second.version());
+        verify(workflowRepository, times(1)).findById(1L);
+        verify(workflowRepository, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    public void testWorkflowSavedOnAnotherReplicaIsRecompiled() {
+        stored(1L, 3, "a");
+        cache.get(1L);
+
+        // Başka bir replika kaydetti; bu replikada evict çağrılmadı
+        stored(1L, 4, "a", "b");
+        WorkflowPlan plan = cache.get(1L).orElseThrow();
+
+        assertEquals(4, plan.version());
+        assertEquals(2, plan.graph().size());
+        verify(workflowRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testWorkflowDeletedOnAnotherReplicaIsDropped() {
+        stored(1L, 3, "a");
+        cache.get(1L);
+        when(workflowRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(1L).isEmpty());
+        assertEquals(0, cache.size());
+        verify(workflowRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testNewCatalogVersionRecompiles() {
+        stored(1L, 3, "a");
+        cache.get(1L);
+        catalogVersion(2);
+
+        assertEquals(2, cache.get(1L).orElseThrow().catalogVersion());
+        verify(workflowRepository, times(2)).findById(1L);
+        verify(workflowRepository, never()).findVersionById(1L);
+    }
+
+    @Test
+    public void testEvictDropsThePlan() {
+        stored(1L, 3, "a");
+        cache.get(1L);
+        cache.evict(1L);
+        cache.get(1L);
+
+        verify(workflowRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testMissingWorkflowIsNotCached() {
+        when(workflowRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(9L).isEmpty());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.config.WorkflowExecutionConfig;
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class WorkflowRunRecorderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowRunStore store = mock(WorkflowRunStore.class);
+    private final WorkflowExecutionConfig config = new WorkflowExecutionConfig();
+
+    public WorkflowRunRecorderTest() {
+        config.setHistoryQueueCapacity(3);
+        config.setHistoryBatchSize(2);
+        config.setHistoryFlushInterval(Duration.ofMillis(20));
+    }
+
+    private WorkflowRunRecord run(String runId) throws Exception {
+        WorkflowRunRecord.NodeRun node = new WorkflowRunRecord.NodeRun("n1", "AGENT", WorkflowNodeEvent.Status.COMPLETED,
+            1, 2, 3, 0, List.of(objectMapper.readTree("{\"a\":\"ü\"}"), objectMapper.readTree("[1,2]")),
+            objectMapper.readTree("\"ok\""), null);
+        return new WorkflowRunRecord(runId, 1L, 1, true, false, 1, 3, List.of(node));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWriterDrainsTheQueueInBatchesWithPayloadSizes() throws Exception {
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+        List<String> written = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            for (WorkflowRunStore.RunRow row : (List<WorkflowRunStore.RunRow>) invocation.getArgument(0)) {
+                written.add(row.run().runId());
+                done.countDown();
+            }
+            return null;
+        }).when(store).insert(anyList());
+        recorder.record(run("r1"));
+        recorder.record(run("r2"));
+        recorder.record(run("r3"));
+
+        recorder.start();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        recorder.stop();
+
+        assertEquals(List.of("r1", "r2", "r3"), written);
+        ArgumentCaptor<List<WorkflowRunStore.RunRow>> batches = ArgumentCaptor.forClass(List.class);
+        verify(store, timeout(1000).times(2)).insert(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        // {"a":"ü"} UTF-8'de 10, [1,2] 5, "ok" 4 bayt
+        WorkflowRunStore.NodeRow node = batches.getAllValues().get(0).get(0).nodes().get(0);
+        assertEquals(15, node.inputBytes());
+        assertEquals(4, node.outputBytes());
+    }
+
+    @Test
+    public void testFullQueueDropsAndCountsRuns() throws Exception {
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+
+        for (int i = 0; i < 5; i++) {
+            recorder.record(run("r" + i));
+        }
+
+        assertEquals(2, recorder.droppedRuns());
+    }
+
+    @Test
+    public void testStopWritesWhatIsStillQueued() throws Exception {
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+        recorder.record(run("r1"));
+        recorder.record(run("r2"));
+        recorder.record(run("r3"));
+
+        recorder.start();
+        recorder.stop();
+
+        verify(store, times(2)).insert(anyList());
+    }
+
+    @Test
+    public void testStoreErrorsDoNotStopTheWriter() throws Exception {
+        doThrow(new IllegalStateException("db down")).doNothing().when(store).insert(anyList());
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+        recorder.start();
+
+        recorder.record(run("r1"));
+        verify(store, timeout(1000)).insert(anyList());
+        recorder.record(run("r2"));
+        verify(store, timeout(1000).times(2)).insert(anyList());
+        recorder.stop();
+    }
+
+    @Test
+    public void testMaintenanceOpensPartitionsAndDropsExpiredOnes() throws Exception {
+        config.setHistoryRetentionMonths(3);
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+        YearMonth now = YearMonth.now();
+
+        recorder.start();
+        verify(store, timeout(1000)).dropPartitionsBefore(now.minusMonths(3));
+        recorder.stop();
+
+        verify(store).ensurePartition(now);
+        verify(store).ensurePartition(now.plusMonths(1));
+    }
+
+    @Test
+    public void testDisabledHistoryRecordsNothing() throws Exception {
+        config.setHistoryEnabled(false);
+        WorkflowRunRecorder recorder = new WorkflowRunRecorder(store, objectMapper, config);
+        recorder.start();
+
+        recorder.record(run("r1"));
+        recorder.stop();
+
+        verify(store, never()).insert(any());
+        verify(store, never()).ensurePartition(any());
+        assertEquals(0, recorder.droppedRuns());
+    }
+}
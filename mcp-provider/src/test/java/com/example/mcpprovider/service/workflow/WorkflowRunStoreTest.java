@@ -0,0 +1,146 @@
+package com.example.mcpprovider.service.workflow;
+
+import com.example.mcpprovider.dto.WorkflowNodeEvent;
+import com.example.mcpprovider.dto.WorkflowNodeLatencyDto;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkflowRunStoreTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final WorkflowRunStore store = new WorkflowRunStore(jdbcTemplate,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    public WorkflowRunStoreTest() {
+        // Şema betiği gerçek bir veritabanı ister; testlerde hazır sayılır
+        ReflectionTestUtils.setField(store, "schemaReady", true);
+    }
+
+    private static long millis(int year, int month, int day) {
+        return LocalDateTime.of(year, month, day, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void testPartitionNamesHaveAFixedFormat() {
+        assertEquals("workflow_runs_y2025m03", WorkflowRunStore.partitionName("workflow_runs", YearMonth.of(2025, 3)));
+        assertEquals("workflow_node_runs_y2025m12", WorkflowRunStore.partitionName("workflow_node_runs", YearMonth.of(2025, 12)));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowRunStore.partitionName("customers", YearMonth.of(2025, 3)));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowRunStore.partitionName("workflow_runs", YearMonth.of(12025, 3)));
+    }
+
+    @Test
+    public void testEnsurePartitionCreatesBothTablesOnce() {
+        store.ensurePartition(YearMonth.of(2025, 12));
+        store.ensurePartition(YearMonth.of(2025, 12));
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS workflow_runs_y2025m12 PARTITION OF workflow_runs "
+            + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS workflow_node_runs_y2025m12 PARTITION OF workflow_node_runs "
+            + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    public void testDropsOnlyOwnPartitionsBeforeTheOldestKeptMonth() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("workflow_runs"))).thenReturn(List.of(
+            "workflow_runs_y2024m12", "workflow_runs_y2025m01", "workflow_runs_default", "workflow_runs_y2024m13",
+            "workflow_runs_old_y2020m01", "workflow_node_runs_y2020m01"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("workflow_node_runs"))).thenReturn(List.of(
+            "workflow_node_runs_y2024m11"));
+        store.ensurePartition(YearMonth.of(2024, 12));
+
+        assertEquals(2, store.dropPartitionsBefore(YearMonth.of(2025, 1)));
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS workflow_runs_y2024m12");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS workflow_node_runs_y2024m11");
+        verify(jdbcTemplate, times(2)).execute(startsWith("DROP"));
+
+        // Düşürülen ay yeniden yazılırsa bölüm yeniden açılır
+        store.ensurePartition(YearMonth.of(2024, 12));
+        verify(jdbcTemplate, times(2)).execute(startsWith("CREATE TABLE IF NOT EXISTS workflow_runs_y2024m12"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInsertBatchesRunsAndNodes() {
+        long start = millis(2025, 3, 31);
+        WorkflowRunRecord.NodeRun ran = new WorkflowRunRecord.NodeRun("n1", "AGENT", WorkflowNodeEvent.Status.FAILED,
+            start + 10, start + 30, start + 130, 80, List.of(), null, "x".repeat(1500));
+        WorkflowRunRecord.NodeRun skipped = new WorkflowRunRecord.NodeRun("n2", "ACTION", WorkflowNodeEvent.Status.SKIPPED,
+            0, 0, 0, 0, List.of(), null, null);
+        WorkflowRunRecord run = new WorkflowRunRecord("run-1", 7L, 3, false, true, start, start + 200, List.of(ran, skipped));
+
+        store.insert(List.of(new WorkflowRunStore.RunRow(run, List.of(
+            new WorkflowRunStore.NodeRow(ran, 12, 34), new WorkflowRunStore.NodeRow(skipped, 0, 0)))));
+
+        ArgumentCaptor<List<Object[]>> runArgs = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> nodeArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO workflow_runs "), runArgs.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO workflow_node_runs "), nodeArgs.capture());
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS workflow_runs_y2025m03"));
+
+        assertArrayEquals(new Object[] {"run-1", 7L, 3, "TIMED_OUT", 2, 1, 1, new Timestamp(start), new Timestamp(start + 200), 200L},
+            runArgs.getValue().get(0));
+        Object[] failed = nodeArgs.getValue().get(0);
+        assertEquals(List.of("run-1", "n1", "AGENT", 7L, "FAILED", new Timestamp(start + 30), new Timestamp(start + 130),
+            100L, 20L, 80L, 12L, 34L), List.of(failed).subList(0, 12));
+        assertEquals(1000, ((String) failed[12]).length());
+        // Hiç başlamayan node çalıştırmanın başlangıcıyla, süresiz kaydedilir
+        assertArrayEquals(new Object[] {"run-1", "n2", "ACTION", 7L, "SKIPPED", new Timestamp(start), null, null, null, null,
+            0L, 0L, null}, nodeArgs.getValue().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNodeLatencyFiltersAndMapsRows() throws Exception {
+        Instant since = Instant.parse("2025-03-01T00:00:00Z");
+        ArgumentCaptor<RowMapper<WorkflowNodeLatencyDto>> mapper = ArgumentCaptor.forClass(RowMapper.class);
+        when(jdbcTemplate.query(anyString(), mapper.capture(), any(), any(), any())).thenReturn(List.of());
+
+        store.nodeLatency(7L, since);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), eq(Timestamp.from(since)), eq(7L), eq(7L));
+        assertTrue(sql.getValue().contains("WHERE started_at >= ? AND status IN ('COMPLETED', 'FAILED')"));
+        assertTrue(sql.getValue().endsWith("GROUP BY node_type ORDER BY p95 DESC"));
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("node_type")).thenReturn("AGENT");
+        when(rs.getLong("executions")).thenReturn(10L);
+        when(rs.getLong("failures")).thenReturn(2L);
+        when(rs.getDouble("p50")).thenReturn(120.0);
+        when(rs.getDouble("p95")).thenReturn(480.0);
+        when(rs.getDouble("upstream_p50")).thenReturn(100.0);
+        when(rs.getDouble("upstream_p95")).thenReturn(450.0);
+        when(rs.getDouble("queue_wait")).thenReturn(3.5);
+        when(rs.getDouble("input_bytes")).thenReturn(256.0);
+        when(rs.getDouble("output_bytes")).thenReturn(1024.0);
+        assertEquals(new WorkflowNodeLatencyDto("AGENT", 10, 2, 120.0, 480.0, 100.0, 450.0, 3.5, 256.0, 1024.0),
+            mapper.getValue().mapRow(rs, 0));
+    }
+}
@@ -0,0 +1,191 @@
+#!/bin/bash
+
+# Before/after load test for the virtual-thread execution mode (agent-provider)
+#
+# Starts agent-provider twice with the same heap, once on platform threads and once
+# with VIRTUAL_THREADS_ENABLED=true, and drives the web-scrapper endpoint against a
+# local stub that answers both the crawled page and the AI provider with a fixed delay.
+# Every request therefore blocks on Jsoup and waits on the AI call, which is the
+# workload where thread-per-request runs out of threads first.
+#
+# The web-scrapper bulkhead and the ai-provider connection pool are raised for the run so
+# that the thread model, not admission control, is what limits concurrency.
+# Thread counts are peaks over JSON thread dumps taken once a second while each level is under
+# load: platform threads, virtual-thread carriers (ForkJoinPool-N-worker) and virtual threads.
+# jcmd itself needs CPU, so on small machines the sampling costs some throughput.
+#
+# Requirements: JDK 21 (JAVA_HOME or java on PATH), Maven, python3, curl
+# Usage: scripts/loadtest-virtual-threads.sh [concurrency levels...]
+#   HEAP=256m DELAY_MS=500 REQUESTS_PER_CLIENT=5 scripts/loadtest-virtual-threads.sh 50 200 800
+set -e
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+MODULE_DIR="$ROOT_DIR/agent-provider"
+HEAP=${HEAP:-256m}
+DELAY_MS=${DELAY_MS:-500}
+REQUESTS_PER_CLIENT=${REQUESTS_PER_CLIENT:-5}
+STUB_PORT=${STUB_PORT:-9099}
+APP_PORT=${APP_PORT:-8091}
+LEVELS=${*:-50 200 800}
+RESULTS="$MODULE_DIR/target/loadtest-virtual-threads.txt"
+JAVA_BIN=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JCMD_BIN=${JAVA_HOME:+$JAVA_HOME/bin/}jcmd
+
+"$JAVA_BIN" -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])' || { echo "❌ JDK 21+ is required (set JAVA_HOME)"; exit 1; }
+
+echo "🔨 Building agent-provider"
+(cd "$MODULE_DIR" && mvn -B -q package -DskipTests)
+JAR=$(ls "$MODULE_DIR"/target/agent-provider-*.jar | grep -v original | head -1)
+
+echo "🧪 Starting downstream stub on :$STUB_PORT (delay ${DELAY_MS}ms)"
+python3 - "$STUB_PORT" "$DELAY_MS" <<'PY' &
+import sys, time, json
+from http.server import ThreadingHTTPServer, BaseHTTPRequestHandler
+
+port, delay = int(sys.argv[1]), int(sys.argv[2]) / 1000
+
+class Stub(BaseHTTPRequestHandler):
+    def reply(self, body, content_type):
+        time.sleep(delay)
+        data = body.encode()
+        self.send_response(200)
+        self.send_header("Content-Type", content_type)
+        self.send_header("Content-Length", str(len(data)))
+        self.end_headers()
+        self.wfile.write(data)
+
+    def do_GET(self):
+        self.reply("<html><body><p>" + "Yük testi sayfası. " * 200 + "</p></body></html>", "text/html; charset=utf-8")
+
+    def do_POST(self):
+        self.rfile.read(int(self.headers.get("Content-Length", 0)))
+        self.reply(json.dumps({"content": "ok", "model": "stub", "success": True}), "application/json")
+
+    def log_message(self, *args):
+        pass
+
+ThreadingHTTPServer.daemon_threads = True
+ThreadingHTTPServer.request_queue_size = 4096
+ThreadingHTTPServer(("127.0.0.1", port), Stub).serve_forever()
+PY
+STUB_PID=$!
+APP_PID=""
+trap 'kill $STUB_PID $APP_PID 2> /dev/null || true' EXIT
+
+# Closed-loop load driver: CLIENTS connections, each sends REQUESTS requests one after another
+LOAD_DRIVER=$(cat <<'PY'
+import asyncio, json, sys, time
+
+host, port, path, body, clients, requests, timeout = sys.argv[1], int(sys.argv[2]), sys.argv[3], sys.argv[4].encode(), \
+    int(sys.argv[5]), int(sys.argv[6]), float(sys.argv[7])
+request = (f"POST {path} HTTP/1.1\r\nHost: {host}:{port}\r\nContent-Type: application/json\r\n"
+           f"Content-Length: {len(body)}\r\nConnection: close\r\n\r\n").encode() + body
+latencies, errors = [], 0
+
+async def call():
+    reader, writer = await asyncio.open_connection(host, port)
+    writer.write(request)
+    await writer.drain()
+    response = await reader.read()
+    writer.close()
+    return response.startswith(b"HTTP/1.1 200")
+
+async def client():
+    global errors
+    for _ in range(requests):
+        start = time.perf_counter()
+        try:
+            ok = await asyncio.wait_for(call(), timeout)
+        except Exception:
+            ok = False
+        if ok:
+            latencies.append(time.perf_counter() - start)
+        else:
+            errors += 1
+
+async def main():
+    start = time.perf_counter()
+    await asyncio.gather(*(client() for _ in range(clients)))
+    elapsed = time.perf_counter() - start
+    latencies.sort()
+    pct = lambda p: latencies[min(len(latencies) - 1, int(p * len(latencies)))] if latencies else float("nan")
+    print(f"{len(latencies) / elapsed:.1f} {pct(0.50):.3f} {pct(0.95):.3f} {pct(0.99):.3f} {errors}")
+
+asyncio.run(main())
+PY
+)
+
+# Peak platform thread, carrier and virtual thread counts: the previous peaks plus one JSON thread dump.
+# A virtual thread waiting for a carrier is dumped without frames, so besides the ones running
+# VirtualThread.run every frameless thread counts as virtual, except the JVM's own native threads.
+THREAD_COUNTER=$(cat <<'PY'
+import json, re, sys
+NATIVE = {"Signal Dispatcher", "Notification Thread", "Attach Listener", "DestroyJavaVM"}
+dump = json.load(open(sys.argv[1]))["threadDump"]
+threads = [t for c in dump["threadContainers"] for t in c["threads"]]
+virtual = [t for t in threads
+           if ("java.lang.VirtualThread.run" in t["stack"][-1] if t["stack"] else t["name"] not in NATIVE)]
+carriers = [t for t in threads if re.match(r"ForkJoinPool-\d+-worker", t["name"])]
+counts = (len(threads) - len(virtual), len(carriers), len(virtual))
+print(*(max(count, int(peak)) for count, peak in zip(counts, sys.argv[2:5])))
+PY
+)
+
+BODY="{\"content\":\"http://127.0.0.1:$STUB_PORT/page\",\"maxLink\":1,\"maxDepth\":0,\"model\":\"stub\",\"maxTokens\":100,\"temperature\":0.7}"
+PATH_URI="/agent-provider/api/agent/web-scrapper"
+DUMP="$MODULE_DIR/target/loadtest-threads.json"
+
+echo "mode       clients  req/s     p50(s)  p95(s)  p99(s)  errors  platform  carriers  virtual  peak rss(MB)" > "$RESULTS"
+
+for MODE in false true; do
+    LABEL=$([ "$MODE" = true ] && echo virtual || echo platform)
+    echo "🚀 Starting agent-provider ($LABEL threads, -Xmx$HEAP)"
+    # Görsel ajanı bu testte çağrılmaz; anahtar yalnızca uygulamanın açılması için verilir
+    VIRTUAL_THREADS_ENABLED=$MODE STABILITY_AI_KEY=${STABILITY_AI_KEY:-loadtest} "$JAVA_BIN" -Xmx"$HEAP" -Djdk.trackAllThreads=true -Djdk.tracePinnedThreads=short \
+        -jar "$JAR" --server.port="$APP_PORT" --ai-provider.url="http://127.0.0.1:$STUB_PORT" \
+        --bulkhead.agents.web-scrapper.max-concurrent=100000 --bulkhead.agents.web-scrapper.max-queued=100000 \
+        --http-client.downstreams.ai-provider.max-connections=5000 \
+        --logging.level.root=WARN --logging.level.com.example=WARN \
+        > "$MODULE_DIR/target/loadtest-$LABEL.log" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 90); do
+        curl -fs "http://127.0.0.1:$APP_PORT/agent-provider/actuator/health" > /dev/null && break
+        kill -0 "$APP_PID" 2> /dev/null || { echo "❌ agent-provider did not start"; tail -20 "$MODULE_DIR/target/loadtest-$LABEL.log"; exit 1; }
+        sleep 1
+    done
+
+    # Warm-up so JIT and connection pools do not dominate the first level
+    python3 -c "$LOAD_DRIVER" 127.0.0.1 "$APP_PORT" "$PATH_URI" "$BODY" 20 10 60 > /dev/null
+
+    for CLIENTS in $LEVELS; do
+        OUTPUT_FILE=$(mktemp)
+        python3 -c "$LOAD_DRIVER" 127.0.0.1 "$APP_PORT" "$PATH_URI" "$BODY" "$CLIENTS" "$REQUESTS_PER_CLIENT" 60 > "$OUTPUT_FILE" &
+        DRIVER_PID=$!
+        # Yük sürdükçe thread dump alınır, her sayının tepe değeri tutulur
+        THREADS="0 0 0"
+        RSS=0
+        while kill -0 "$DRIVER_PID" 2> /dev/null; do
+            "$JCMD_BIN" "$APP_PID" Thread.dump_to_file -format=json -overwrite "$DUMP" > /dev/null 2>&1 \
+                && THREADS=$(python3 -c "$THREAD_COUNTER" "$DUMP" $THREADS)
+            RSS=$(( $(ps -o rss= -p "$APP_PID") / 1024 > RSS ? $(ps -o rss= -p "$APP_PID") / 1024 : RSS ))
+            sleep 1
+        done
+        wait "$DRIVER_PID"
+        read -r RPS P50 P95 P99 ERRORS < "$OUTPUT_FILE"
+        read -r PLATFORM CARRIERS VIRTUAL <<< "$THREADS"
+        rm -f "$OUTPUT_FILE"
+        printf "%-10s %-8s %-9s %-7s %-7s %-7s %-7s %-9s %-9s %-8s %s\n" "$LABEL" "$CLIENTS" "$RPS" "$P50" "$P95" "$P99" \
+            "$ERRORS" "$PLATFORM" "$CARRIERS" "$VIRTUAL" "$RSS" | tee -a "$RESULTS"
+    done
+
+    grep -q "VirtualThread.*pinned\|onPinned" "$MODULE_DIR/target/loadtest-$LABEL.log" \
+        && echo "⚠️  Pinned virtual threads reported, see target/loadtest-$LABEL.log"
+    kill "$APP_PID"
+    wait "$APP_PID" 2> /dev/null || true
+    APP_PID=""
+done
+
+echo ""
+echo "📊 Results written to $RESULTS"
+cat "$RESULTS"